@@ -25,9 +25,14 @@ public final class ConfigConstants {
     public static final String NULL = "NULL";
     public static final String TEMP_CONFIG_FILE_NAME = "temp_config_classnames.txt";
     public static final String CONFIG_DIR = "config-docs";
+    public static final String CONFIG_DEFAULTS_DIR = "config-defaults";
     public static final String DEPLOYMENT_CONFIG_YAML = "deployment.yaml";
     public static final String SYSTEM_PROPERTY_DOC_GENERATION = "config.doc.generation";
     public static final String CURRENT_DIRECTORY = "currentDirectory";
+    public static final String SYSTEM_PROPERTY_CONFIG_PROFILE = "config.profile";
+    public static final String PROFILES_NAMESPACE = "config.profiles";
+    public static final String SYSTEM_PROPERTY_SNAPSHOT_HISTORY_SIZE = "config.snapshot.history";
+    public static final int DEFAULT_SNAPSHOT_HISTORY_SIZE = 5;
 
     /**
      * Maven project properties.
@@ -20,10 +20,11 @@ import org.slf4j.LoggerFactory;
 import org.wso2.carbon.config.provider.ConfigProvider;
 import org.wso2.carbon.config.provider.ConfigProviderImpl;
 import org.wso2.carbon.config.reader.ConfigFileReader;
-import org.wso2.carbon.config.reader.YAMLBasedConfigFileReader;
+import org.wso2.carbon.config.reader.ConfigFileReaders;
 import org.wso2.carbon.secvault.SecureVault;
 import org.wso2.carbon.secvault.SecureVaultFactory;
 import org.wso2.carbon.secvault.exception.SecureVaultException;
+import org.yaml.snakeyaml.LoaderOptions;
 
 import java.nio.file.Path;
 
@@ -35,18 +36,50 @@ import java.nio.file.Path;
  */
 public class ConfigProviderFactory {
 
-    private static final String YAML_EXTENSION = ".yaml";
     private static Logger logger = LoggerFactory.getLogger(ConfigProviderFactory.class);
+    private static final ConfigProviderRegistry registry = new ConfigProviderRegistry();
 
     /**
-     * Initializes and returns configuration provider service from the configuration file provided.
+     * Returns the configuration provider service of the configuration file provided.
+     * <p>
+     * The provider is shared by all callers of the same configuration file, which is identified by its canonical
+     * path, hence the file is read and parsed once per process. Each call acquires a reference to the shared provider,
+     * which should be released with {@link #releaseConfigProvider(ConfigProvider)} when it is no longer used.
+     * <p>
+     * As the provider is shared, its state changes affect every caller of the same file:
+     * {@link ConfigProvider#reload()} and {@link ConfigProvider#rollback(long)} change the configuration all callers
+     * read, a validator added with
+     * {@link ConfigProvider#addValidator(org.wso2.carbon.config.provider.ConfigurationValidator)} may reject the
+     * reloads of all callers, and {@link ConfigProvider#releaseConfigurationText()} releases the configuration text for
+     * all callers. Callers which need a private state should create their own provider with
+     * {@link #getConfigProvider(Path, SecureVault)}.
      *
      * @param filePath configuration absolute filepath(e.g: {carbon-home}/conf/deployment.yaml})
      * @return configProvider service object.
      * @throws ConfigurationException if an error occurred while initializing the config provider.
      */
     public static ConfigProvider getConfigProvider(Path filePath) throws ConfigurationException {
-        return getConfigProvider(filePath, getSecureVault(filePath));
+        //check whether configuration filepath is null. proceed if not null.
+        if (filePath == null || !filePath.toFile().exists()) {
+            throw new ConfigurationException("No configuration filepath is provided. configuration provider will " +
+                    "not be initialized!");
+        }
+        return registry.acquire(filePath, canonicalPath -> getConfigProvider(canonicalPath,
+                getSecureVault(canonicalPath)));
+    }
+
+    /**
+     * Releases a reference to a shared configuration provider returned by {@link #getConfigProvider(Path)}. The
+     * provider and its caches are discarded when the last reference is released, so that the next call of
+     * {@link #getConfigProvider(Path)} reads the configuration file again.
+     *
+     * @param configProvider shared configuration provider
+     * @since 2.1.18
+     */
+    public static void releaseConfigProvider(ConfigProvider configProvider) {
+        if (!registry.release(configProvider) && logger.isDebugEnabled()) {
+            logger.debug("Released config provider is not a shared config provider");
+        }
     }
 
     /**
@@ -60,6 +93,23 @@ public class ConfigProviderFactory {
      */
     public static ConfigProvider getConfigProvider(Path filePath, SecureVault secureVault) throws
             ConfigurationException {
+        return getConfigProvider(filePath, secureVault, new LoaderOptions());
+    }
+
+    /**
+     * Initializes and returns configuration provider service with the provided configuration file, parsing the file
+     * with the given SnakeYAML loader options.
+     *
+     * @param filePath      configuration absolute filepath(e.g: {carbon-home}/conf/deployment.yaml})
+     * @param secureVault   {@code SecureVault>}
+     * @param loaderOptions SnakeYAML loader options
+     * @return configProvider service object
+     * @throws ConfigurationException if filepath == null or securevault == null or configuration file extension is
+     * not supported by {@link ConfigFileReaders}.
+     * @since 2.1.18
+     */
+    public static ConfigProvider getConfigProvider(Path filePath, SecureVault secureVault,
+                                                   LoaderOptions loaderOptions) throws ConfigurationException {
         //check whether configuration filepath is null. proceed if not null.
         if (filePath == null || !filePath.toFile().exists()) {
             throw new ConfigurationException("No configuration filepath is provided. configuration provider will " +
@@ -73,13 +123,9 @@ public class ConfigProviderFactory {
             logger.debug("initialize config provider instance from configuration file: " + filePath.toString());
         }
         // initialize config provider service from the configuration file provided.
-        ConfigFileReader configFileReader;
-        if (filePath.toString().endsWith(YAML_EXTENSION)) {
-            configFileReader = new YAMLBasedConfigFileReader(filePath);
-        } else {
-            throw new ConfigurationException("Error while initializing configuration provider, file extension is not " +
-                    "supported");
-        }
+        ConfigFileReader configFileReader = ConfigFileReaders.getConfigFileReader(filePath, loaderOptions)
+                .orElseThrow(() -> new ConfigurationException("Error while initializing configuration provider, " +
+                        "file extension is not supported"));
         return new ConfigProviderImpl(configFileReader, secureVault);
     }
 
@@ -0,0 +1,144 @@
+/*
+ *  Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.wso2.carbon.config.provider.ConfigProvider;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of the configuration providers shared by configuration file.
+ * <p>
+ * Providers are keyed by the canonical path of the configuration file, hence all callers of the same file share a
+ * single provider along with its loaded configuration and caches. Providers are reference counted and removed from
+ * the registry when the last reference is released.
+ * <p>
+ * The registration of a file holds a future of its provider. The first caller of a file creates the provider, which
+ * may read the file and initialize the secure vault, without holding a lock, while the other callers of the same file
+ * wait for the future. Callers of other files are not blocked.
+ *
+ * @since 2.1.18
+ */
+final class ConfigProviderRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConfigProviderRegistry.class);
+
+    private final Map<Path, Registration> registrations = new ConcurrentHashMap<>();
+
+    /**
+     * Function which creates the configuration provider of a configuration file.
+     */
+    @FunctionalInterface
+    interface ConfigProviderCreator {
+
+        ConfigProvider create(Path filePath) throws ConfigurationException;
+    }
+
+    /**
+     * Returns the shared configuration provider of the given configuration file, creating it if it is not registered,
+     * and increments its reference count.
+     *
+     * @param filePath configuration file path
+     * @param creator  function which creates the configuration provider of the file
+     * @return shared configuration provider
+     * @throws ConfigurationException if the canonical path cannot be resolved or the provider cannot be created
+     */
+    ConfigProvider acquire(Path filePath, ConfigProviderCreator creator) throws ConfigurationException {
+        Path canonicalPath;
+        try {
+            canonicalPath = filePath.toRealPath();
+        } catch (IOException e) {
+            throw new ConfigurationException("Error while resolving the canonical path of the configuration file: " +
+                    filePath, e);
+        }
+        Registration newRegistration = new Registration();
+        Registration registration = registrations.compute(canonicalPath, (path, current) -> {
+            Registration acquired = current != null ? current : newRegistration;
+            acquired.references++;
+            return acquired;
+        });
+        if (registration == newRegistration) {
+            try {
+                registration.configProvider.complete(creator.create(canonicalPath));
+            } catch (ConfigurationException | RuntimeException e) {
+                // a failed creation is not registered, hence the next caller tries again
+                registrations.remove(canonicalPath, registration);
+                registration.configProvider.completeExceptionally(e);
+                throw e;
+            }
+            if (logger.isDebugEnabled()) {
+                logger.debug("Registered shared config provider of configuration file: {}", canonicalPath);
+            }
+        }
+        try {
+            return registration.configProvider.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new ConfigurationException("Error while creating the shared config provider of configuration " +
+                    "file: " + canonicalPath, e.getCause());
+        }
+    }
+
+    /**
+     * Decrements the reference count of the given shared configuration provider and removes it from the registry when
+     * it is no longer referenced.
+     *
+     * @param configProvider shared configuration provider
+     * @return true if the provider is registered
+     */
+    boolean release(ConfigProvider configProvider) {
+        for (Map.Entry<Path, Registration> entry : registrations.entrySet()) {
+            Registration registration = entry.getValue();
+            if (registration.provides(configProvider)) {
+                registrations.computeIfPresent(entry.getKey(), (path, current) -> {
+                    if (current != registration || --current.references > 0) {
+                        return current;
+                    }
+                    if (logger.isDebugEnabled()) {
+                        logger.debug("Removed shared config provider of configuration file: {}", path);
+                    }
+                    return null;
+                });
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Registration of a shared configuration provider. The reference count is updated while the registration is
+     * computed in the registry.
+     */
+    private static final class Registration {
+
+        private final CompletableFuture<ConfigProvider> configProvider = new CompletableFuture<>();
+        private int references;
+
+        private boolean provides(ConfigProvider provider) {
+            return configProvider.isDone() && !configProvider.isCompletedExceptionally() &&
+                    configProvider.join() == provider;
+        }
+    }
+}
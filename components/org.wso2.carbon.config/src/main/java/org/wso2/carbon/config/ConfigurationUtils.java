@@ -18,6 +18,7 @@ package org.wso2.carbon.config;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.yaml.snakeyaml.DumperOptions;
+import org.yaml.snakeyaml.LoaderOptions;
 import org.yaml.snakeyaml.Yaml;
 import org.yaml.snakeyaml.nodes.Tag;
 
@@ -25,6 +26,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.lang.reflect.Field;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Properties;
@@ -55,24 +57,65 @@ public class ConfigurationUtils {
      * @return configuration map
      */
     public static Map<String, String> getDeploymentConfigMap(String yamlString) {
-        Map<String, String> deploymentConfigs = new HashMap<>();
-        Yaml yaml = new Yaml();
+        return getDeploymentConfigMap(yamlString, new LoaderOptions());
+    }
+
+    /**
+     * This method converts the yaml string to configuration map, parsing it with the given loader options.
+     * Map contains, key : yaml (root)key
+     * values  : yaml string of the key
+     *
+     * @param yamlString    yaml string
+     * @param loaderOptions SnakeYAML loader options
+     * @return configuration map
+     * @since 2.1.18
+     */
+    public static Map<String, String> getDeploymentConfigMap(String yamlString, LoaderOptions loaderOptions) {
+        Yaml yaml = new Yaml(loaderOptions);
         Map<String, Object> map = (Map<String, Object>) yaml.loadAs(yamlString, Map.class);
+        return getDeploymentConfigMap(map);
+    }
 
-        map.entrySet().stream()
+    /**
+     * This method converts the configuration tree of a configuration file to configuration map, so that all file
+     * formats produce the same configuration map.
+     * Map contains, key : (root)key
+     * values  : yaml string of the key
+     *
+     * @param configTree configuration tree with key: namespace, value: configuration of the namespace
+     * @return configuration map
+     * @since 2.1.18
+     */
+    public static Map<String, String> getDeploymentConfigMap(Map<?, ?> configTree) {
+        Map<String, String> deploymentConfigs = new HashMap<>();
+        configTree.entrySet().stream()
                 .filter(entry -> entry.getValue() != null)
-                .forEach((entry) -> {
-                    String yamlValue;
-                    if (entry.getValue() instanceof Map) {
-                        yamlValue = yaml.dumpAsMap(entry.getValue());
-                    } else {
-                        yamlValue = yaml.dumpAs(entry.getValue(), Tag.SEQ, DumperOptions.FlowStyle.BLOCK);
-                    }
-                    deploymentConfigs.put(entry.getKey(), yamlValue);
-                });
+                .forEach((entry) -> deploymentConfigs.put(String.valueOf(entry.getKey()),
+                        dumpConfigTree(entry.getValue())));
         return deploymentConfigs;
     }
 
+    /**
+     * Returns the YAML string of the configuration tree of a namespace. Maps and lists are dumped in block style and
+     * scalars as plain documents, hence the string is loaded back to an equal tree.
+     *
+     * @param tree configuration tree, either a Map, a List or a scalar
+     * @return YAML string of the tree or null if the tree is null
+     * @since 2.1.18
+     */
+    public static String dumpConfigTree(Object tree) {
+        if (tree == null) {
+            return null;
+        }
+        Yaml yaml = new Yaml();
+        if (tree instanceof Map) {
+            return yaml.dumpAsMap(tree);
+        } else if (tree instanceof List) {
+            return yaml.dumpAs(tree, Tag.SEQ, DumperOptions.FlowStyle.BLOCK);
+        }
+        return yaml.dump(tree);
+    }
+
     /**
      * This method reads project properties in resource file.
      *
@@ -38,4 +38,8 @@ public @interface Configuration {
 
     // field description, required
     String description();
+
+    // whether the type is bound through its canonical constructor and shared, see the immutable configuration types
+    // of the ConfigProvider, optional (since 2.1.18)
+    boolean immutable() default false;
 }
@@ -23,7 +23,8 @@ import java.lang.annotation.Target;
 /**
  * Field level annotation for configuration tool.
  * description : required, field comment
- * required : optional, only for the required field
+ * required : optional, only for the required field. A required field which is missing after the configuration is
+ * bound fails the binding with a ConfigurationException, except for primitive fields, which cannot be missing.
  *
  * @since 1.0.0
  */
@@ -0,0 +1,180 @@
+/*
+ *  Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.config.converter;
+
+import java.io.Serializable;
+import java.util.Locale;
+
+/**
+ * Immutable amount of data, e.g. a buffer or a file size, in bytes.
+ * <p>
+ * Data sizes are written as an amount optionally followed by one of the units B, KB, MB, GB or TB (e.g. 64MB), where
+ * a kilobyte is 1024 bytes. An amount without a unit is a number of bytes.
+ *
+ * @since 2.1.18
+ */
+public final class DataSize implements Comparable<DataSize>, Serializable {
+
+    private static final long serialVersionUID = 1L;
+    private static final String[] UNITS = {"B", "KB", "MB", "GB", "TB"};
+    private static final int UNIT_SHIFT = 10;
+
+    private final long bytes;
+
+    private DataSize(long bytes) {
+        this.bytes = bytes;
+    }
+
+    /**
+     * Returns a data size of the given number of bytes.
+     *
+     * @param bytes number of bytes
+     * @return data size
+     */
+    public static DataSize ofBytes(long bytes) {
+        return new DataSize(bytes);
+    }
+
+    /**
+     * Returns a data size of the given number of kilobytes.
+     *
+     * @param kilobytes number of kilobytes
+     * @return data size
+     * @throws ArithmeticException if the size overflows a long number of bytes
+     */
+    public static DataSize ofKilobytes(long kilobytes) {
+        return of(kilobytes, 1);
+    }
+
+    /**
+     * Returns a data size of the given number of megabytes.
+     *
+     * @param megabytes number of megabytes
+     * @return data size
+     * @throws ArithmeticException if the size overflows a long number of bytes
+     */
+    public static DataSize ofMegabytes(long megabytes) {
+        return of(megabytes, 2);
+    }
+
+    /**
+     * Returns a data size of the given number of gigabytes.
+     *
+     * @param gigabytes number of gigabytes
+     * @return data size
+     * @throws ArithmeticException if the size overflows a long number of bytes
+     */
+    public static DataSize ofGigabytes(long gigabytes) {
+        return of(gigabytes, 3);
+    }
+
+    /**
+     * Parses a data size such as 512, 8KB or 64 MB. Units are case insensitive.
+     *
+     * @param text text of the data size
+     * @return data size
+     * @throws IllegalArgumentException if the text is not a data size
+     */
+    public static DataSize parse(String text) {
+        String value = text.trim();
+        int unitIndex = value.startsWith("-") ? 1 : 0;
+        while (unitIndex < value.length() && Character.isDigit(value.charAt(unitIndex))) {
+            unitIndex++;
+        }
+        String unit = value.substring(unitIndex).trim().toUpperCase(Locale.ENGLISH);
+        try {
+            long amount = Long.parseLong(value.substring(0, unitIndex));
+            if (unit.isEmpty()) {
+                return ofBytes(amount);
+            }
+            for (int i = 0; i < UNITS.length; i++) {
+                if (UNITS[i].equals(unit)) {
+                    return of(amount, i);
+                }
+            }
+        } catch (NumberFormatException | ArithmeticException e) {
+            throw new IllegalArgumentException("Invalid data size: " + text, e);
+        }
+        throw new IllegalArgumentException(String.format(Locale.ENGLISH,
+                "Invalid data size: %s, the unit should be one of B, KB, MB, GB or TB", text));
+    }
+
+    private static DataSize of(long amount, int unitIndex) {
+        long bytes = amount;
+        for (int i = 0; i < unitIndex; i++) {
+            bytes = Math.multiplyExact(bytes, 1L << UNIT_SHIFT);
+        }
+        return new DataSize(bytes);
+    }
+
+    /**
+     * Returns the number of bytes of this size.
+     *
+     * @return number of bytes
+     */
+    public long toBytes() {
+        return bytes;
+    }
+
+    /**
+     * Returns the number of whole kilobytes of this size.
+     *
+     * @return number of kilobytes
+     */
+    public long toKilobytes() {
+        return bytes / (1L << UNIT_SHIFT);
+    }
+
+    /**
+     * Returns the number of whole megabytes of this size.
+     *
+     * @return number of megabytes
+     */
+    public long toMegabytes() {
+        return bytes / (1L << (2 * UNIT_SHIFT));
+    }
+
+    @Override
+    public int compareTo(DataSize other) {
+        return Long.compare(bytes, other.bytes);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof DataSize && bytes == ((DataSize) o).bytes);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(bytes);
+    }
+
+    /**
+     * Returns the size in the largest unit which represents it exactly, e.g. 64MB.
+     *
+     * @return text of the size, which is parsed back by {@link #parse(String)}
+     */
+    @Override
+    public String toString() {
+        long amount = bytes;
+        int unitIndex = 0;
+        while (amount != 0 && unitIndex < UNITS.length - 1 && amount % (1L << UNIT_SHIFT) == 0) {
+            amount /= 1L << UNIT_SHIFT;
+            unitIndex++;
+        }
+        return amount + UNITS[unitIndex];
+    }
+}
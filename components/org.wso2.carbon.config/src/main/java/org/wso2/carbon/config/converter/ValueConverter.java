@@ -0,0 +1,56 @@
+/*
+ *  Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.config.converter;
+
+/**
+ * Converts the text of a scalar configuration value to a value type, e.g. "30s" to a {@link java.time.Duration}.
+ * <p>
+ * Converters are registered with {@link ValueConverters} and applied when configuration beans are bound, hence the
+ * fields of a bean hold the converted values and consumers do not parse them on each use. Converted values are
+ * shared by the configuration objects of a snapshot, hence they should be immutable.
+ *
+ * @param <T> value type
+ * @since 2.1.18
+ */
+public interface ValueConverter<T> {
+
+    /**
+     * Returns the value type of this converter.
+     *
+     * @return value type
+     */
+    Class<T> getType();
+
+    /**
+     * Converts the given text to a value.
+     *
+     * @param text text of the configuration value
+     * @return converted value
+     * @throws IllegalArgumentException if the text is not a valid value of the type
+     */
+    T convert(String text);
+
+    /**
+     * Returns the text of the given value, which is converted back to an equal value by {@link #convert(String)}.
+     * The text is written to the generated configuration documents.
+     *
+     * @param value value
+     * @return text of the value
+     */
+    default String toText(T value) {
+        return value.toString();
+    }
+}
@@ -0,0 +1,281 @@
+/*
+ *  Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.config.converter;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Registry of the value converters keyed by value type.
+ * <p>
+ * {@link Duration}, {@link DataSize}, {@link Path}, {@link URI} and {@link InetSocketAddress} values and enums are
+ * supported out of the box:
+ * <ul>
+ * <li>durations are written either as an ISO-8601 duration (e.g. PT30S) or as an amount followed by one of the units
+ * ms, s, m, h or d (e.g. 30s), while integers are read as milliseconds</li>
+ * <li>data sizes are written as described by {@link DataSize}</li>
+ * <li>socket addresses are written as host:port, where IPv6 hosts are enclosed in square brackets and an empty host
+ * or * is the wildcard address. Host names are resolved once when the value is converted</li>
+ * <li>enum constants are matched by name, ignoring case and treating - as _ (e.g. read-only for READ_ONLY)</li>
+ * </ul>
+ * Further types are added by {@link ValueConverter}s, which are discovered through the Java service loader or
+ * registered explicitly (e.g. as OSGi services). A registered converter replaces the converter of the same type until
+ * it is unregistered. Strings, primitives and their wrapper types are bound by the configuration provider itself,
+ * hence converters of those types are not accepted.
+ *
+ * @since 2.1.18
+ */
+public final class ValueConverters {
+
+    private static final Logger logger = LoggerFactory.getLogger(ValueConverters.class);
+    private static final Map<Class<?>, ValueConverter<?>> defaultConverters = new ConcurrentHashMap<>();
+    private static final Map<Class<?>, ValueConverter<?>> converters = new ConcurrentHashMap<>();
+
+    private static final ClassValue<ValueConverter<?>> enumConverters = new ClassValue<ValueConverter<?>>() {
+        @Override
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        protected ValueConverter<?> computeValue(Class<?> type) {
+            return new EnumConverter(type);
+        }
+    };
+
+    static {
+        registerDefault(new TextConverter<>(Duration.class, ValueConverters::parseDuration, Duration::toString));
+        registerDefault(new TextConverter<>(DataSize.class, DataSize::parse, DataSize::toString));
+        registerDefault(new TextConverter<>(Path.class, Paths::get, Path::toString));
+        registerDefault(new TextConverter<>(URI.class, URI::create, URI::toString));
+        registerDefault(new TextConverter<>(InetSocketAddress.class, ValueConverters::parseSocketAddress,
+                ValueConverters::toText));
+        try {
+            for (ValueConverter<?> converter : ServiceLoader.load(ValueConverter.class,
+                    ValueConverters.class.getClassLoader())) {
+                registerDefault(converter);
+            }
+        } catch (ServiceConfigurationError e) {
+            logger.error("Error while loading the value converters", e);
+        }
+    }
+
+    private ValueConverters() {
+    }
+
+    /**
+     * Registers the given converter for its value type.
+     *
+     * @param converter value converter
+     * @throws IllegalArgumentException if the value type is a string, a primitive or a wrapper type
+     */
+    public static void register(ValueConverter<?> converter) {
+        Class<?> type = converter.getType();
+        if (type.isPrimitive() || type == String.class || type == Boolean.class || type == Character.class
+                || (Number.class.isAssignableFrom(type) && type.getName().startsWith("java.lang."))) {
+            throw new IllegalArgumentException("Value converters of type " + type.getName() + " are not supported");
+        }
+        converters.put(type, converter);
+        if (logger.isDebugEnabled()) {
+            logger.debug("Registered value converter {} for type: {}", converter.getClass().getName(),
+                    type.getName());
+        }
+    }
+
+    /**
+     * Unregisters the given converter from the value type it is registered for.
+     *
+     * @param converter value converter
+     */
+    public static void unregister(ValueConverter<?> converter) {
+        Class<?> type = converter.getType();
+        if (converters.remove(type, converter) && defaultConverters.containsKey(type)) {
+            converters.putIfAbsent(type, defaultConverters.get(type));
+        }
+    }
+
+    private static void registerDefault(ValueConverter<?> converter) {
+        defaultConverters.put(converter.getType(), converter);
+        register(converter);
+    }
+
+    /**
+     * Returns the converter of the given value type.
+     *
+     * @param type value type
+     * @param <T>  value type
+     * @return value converter or empty if the type is not converted
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Optional<ValueConverter<T>> getConverter(Class<T> type) {
+        ValueConverter<?> converter = converters.get(type);
+        if (converter == null && type.isEnum()) {
+            converter = enumConverters.get(type);
+        }
+        return Optional.ofNullable((ValueConverter<T>) converter);
+    }
+
+    private static Duration parseDuration(String text) {
+        String value = text.trim().toLowerCase(Locale.ENGLISH);
+        if (value.startsWith("p") || value.startsWith("-p")) {
+            try {
+                return Duration.parse(value);
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid duration: " + text, e);
+            }
+        }
+        int unitIndex = value.startsWith("-") ? 1 : 0;
+        while (unitIndex < value.length() && Character.isDigit(value.charAt(unitIndex))) {
+            unitIndex++;
+        }
+        long amount;
+        try {
+            amount = Long.parseLong(value.substring(0, unitIndex));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid duration: " + text, e);
+        }
+        switch (value.substring(unitIndex).trim()) {
+            case "":
+            case "ms":
+                return Duration.ofMillis(amount);
+            case "s":
+                return Duration.ofSeconds(amount);
+            case "m":
+                return Duration.ofMinutes(amount);
+            case "h":
+                return Duration.ofHours(amount);
+            case "d":
+                return Duration.ofDays(amount);
+            default:
+                throw new IllegalArgumentException(String.format(Locale.ENGLISH,
+                        "Invalid duration: %s, the unit should be one of ms, s, m, h or d", text));
+        }
+    }
+
+    private static InetSocketAddress parseSocketAddress(String text) {
+        String value = text.trim();
+        int portIndex = value.lastIndexOf(':');
+        String host = portIndex > 0 ? value.substring(0, portIndex) : "";
+        if (host.startsWith("[") && host.endsWith("]")) {
+            host = host.substring(1, host.length() - 1);
+        } else if (portIndex < 0 || host.indexOf(':') >= 0) {
+            throw new IllegalArgumentException(String.format(Locale.ENGLISH, "Invalid socket address: %s, the " +
+                    "address should be host:port, where IPv6 hosts are enclosed in square brackets", text));
+        }
+        int port;
+        try {
+            port = Integer.parseInt(value.substring(portIndex + 1));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid port of socket address: " + text, e);
+        }
+        return host.isEmpty() || "*".equals(host) ? new InetSocketAddress(port) : new InetSocketAddress(host, port);
+    }
+
+    private static String toText(InetSocketAddress address) {
+        String host = address.getHostString();
+        return (host.indexOf(':') >= 0 ? "[" + host + "]" : host) + ":" + address.getPort();
+    }
+
+    /**
+     * Converter which parses and formats values with the given functions.
+     */
+    private static final class TextConverter<T> implements ValueConverter<T> {
+
+        private final Class<T> type;
+        private final Function<String, T> parser;
+        private final Function<T, String> formatter;
+
+        private TextConverter(Class<T> type, Function<String, T> parser, Function<T, String> formatter) {
+            this.type = type;
+            this.parser = parser;
+            this.formatter = formatter;
+        }
+
+        @Override
+        public Class<T> getType() {
+            return type;
+        }
+
+        @Override
+        public T convert(String text) {
+            return parser.apply(text);
+        }
+
+        @Override
+        public String toText(T value) {
+            return formatter.apply(value);
+        }
+    }
+
+    /**
+     * Converter of the constants of an enum.
+     */
+    private static final class EnumConverter<E extends Enum<E>> implements ValueConverter<E> {
+
+        private final Class<E> type;
+        private final Map<String, E> constants = new HashMap<>();
+
+        private EnumConverter(Class<E> type) {
+            this.type = type;
+            for (E constant : type.getEnumConstants()) {
+                constants.put(constant.name(), constant);
+            }
+            for (E constant : type.getEnumConstants()) {
+                constants.putIfAbsent(normalize(constant.name()), constant);
+            }
+        }
+
+        @Override
+        public Class<E> getType() {
+            return type;
+        }
+
+        @Override
+        public E convert(String text) {
+            String name = text.trim();
+            E constant = constants.get(name);
+            if (constant == null) {
+                constant = constants.get(normalize(name));
+            }
+            if (constant == null) {
+                throw new IllegalArgumentException(String.format(Locale.ENGLISH, "Invalid value: %s, the value " +
+                        "should be one of %s", text, Arrays.toString(type.getEnumConstants())));
+            }
+            return constant;
+        }
+
+        @Override
+        public String toText(E value) {
+            return value.name();
+        }
+
+        private static String normalize(String name) {
+            return name.replace('-', '_').toUpperCase(Locale.ENGLISH);
+        }
+    }
+}
@@ -28,7 +28,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.wso2.carbon.config.ConfigProviderFactory;
 import org.wso2.carbon.config.ConfigurationException;
+import org.wso2.carbon.config.converter.ValueConverter;
+import org.wso2.carbon.config.converter.ValueConverters;
 import org.wso2.carbon.config.provider.ConfigProvider;
+import org.wso2.carbon.config.reader.ConfigFileReaderProvider;
+import org.wso2.carbon.config.reader.ConfigFileReaders;
 import org.wso2.carbon.secvault.SecureVault;
 import org.wso2.carbon.utils.Constants;
 import org.wso2.carbon.utils.Utils;
@@ -75,6 +79,36 @@ public class ConfigProviderComponent {
         this.secureVault = null;
     }
 
+    @Reference(
+            name = "org.wso2.carbon.config.reader.ConfigFileReaderProvider",
+            service = ConfigFileReaderProvider.class,
+            cardinality = ReferenceCardinality.MULTIPLE,
+            policy = ReferencePolicy.DYNAMIC,
+            unbind = "unregisterConfigFileReaderProvider"
+    )
+    protected void registerConfigFileReaderProvider(ConfigFileReaderProvider configFileReaderProvider) {
+        ConfigFileReaders.register(configFileReaderProvider);
+    }
+
+    protected void unregisterConfigFileReaderProvider(ConfigFileReaderProvider configFileReaderProvider) {
+        ConfigFileReaders.unregister(configFileReaderProvider);
+    }
+
+    @Reference(
+            name = "org.wso2.carbon.config.converter.ValueConverter",
+            service = ValueConverter.class,
+            cardinality = ReferenceCardinality.MULTIPLE,
+            policy = ReferencePolicy.DYNAMIC,
+            unbind = "unregisterValueConverter"
+    )
+    protected void registerValueConverter(ValueConverter<?> valueConverter) {
+        ValueConverters.register(valueConverter);
+    }
+
+    protected void unregisterValueConverter(ValueConverter<?> valueConverter) {
+        ValueConverters.unregister(valueConverter);
+    }
+
     /**
      * Initialise carbon config provider.
      *
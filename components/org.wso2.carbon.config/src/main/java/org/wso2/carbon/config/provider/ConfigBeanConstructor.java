@@ -0,0 +1,259 @@
+/*
+ *  Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.config.provider;
+
+import org.wso2.carbon.config.converter.ValueConverter;
+import org.wso2.carbon.config.converter.ValueConverters;
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.constructor.AbstractConstruct;
+import org.yaml.snakeyaml.constructor.Construct;
+import org.yaml.snakeyaml.constructor.CustomClassLoaderConstructor;
+import org.yaml.snakeyaml.error.YAMLException;
+import org.yaml.snakeyaml.nodes.Node;
+import org.yaml.snakeyaml.nodes.ScalarNode;
+import org.yaml.snakeyaml.nodes.SequenceNode;
+import org.yaml.snakeyaml.nodes.Tag;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Constructs configuration beans with a fast path for numeric sequences.
+ * <p>
+ * Scalars bound to a type of a {@link ValueConverter} (e.g. a Duration field, or the elements of a List&lt;Path&gt;
+ * field) are converted by the converter, hence the bean holds the converted values.
+ * <p>
+ * SnakeYAML constructs each element of a sequence as a boxed number, parsing the scalar through the generic YAML
+ * number constructors, before it is stored in an array or a list. Sequences bound to int[], long[] and double[]
+ * fields, to {@link IntList} and {@link LongList} fields, and to List&lt;Integer&gt; and List&lt;Long&gt; fields are
+ * filled here directly from the scalar values instead. Only plain decimal numbers take the fast path; if any element
+ * of a sequence is written otherwise (e.g. in hexadecimal or with underscores), the whole sequence is constructed by
+ * SnakeYAML, hence the bound values are the same either way.
+ *
+ * @since 2.1.18
+ */
+final class ConfigBeanConstructor extends CustomClassLoaderConstructor {
+
+    // longer numbers may overflow a long, hence they are parsed by SnakeYAML
+    private static final int MAX_FAST_PATH_DIGITS = 18;
+
+    ConfigBeanConstructor(Class<?> configClass, ClassLoader classLoader, LoaderOptions loaderOptions) {
+        super(configClass, classLoader, loaderOptions);
+    }
+
+    @Override
+    protected Construct getConstructor(Node node) {
+        if (node instanceof ScalarNode && node.getType() != Object.class && !Tag.NULL.equals(node.getTag())) {
+            Optional<? extends ValueConverter<?>> converter = ValueConverters.getConverter(node.getType());
+            if (converter.isPresent()) {
+                return new ConvertedScalarConstruct(converter.get());
+            }
+        }
+        return super.getConstructor(node);
+    }
+
+    @Override
+    protected Object constructArrayStep2(SequenceNode node, Object array) {
+        Class<?> componentType = node.getType().getComponentType();
+        List<Node> children = node.getValue();
+        if (componentType == int.class) {
+            int[] values = (int[]) array;
+            for (int i = 0; i < values.length; i++) {
+                if (!isInteger(children.get(i), Integer.MIN_VALUE, Integer.MAX_VALUE)) {
+                    return super.constructArrayStep2(node, array);
+                }
+                values[i] = Integer.parseInt(((ScalarNode) children.get(i)).getValue());
+            }
+            return array;
+        }
+        if (componentType == long.class) {
+            long[] values = (long[]) array;
+            for (int i = 0; i < values.length; i++) {
+                if (!isInteger(children.get(i), Long.MIN_VALUE, Long.MAX_VALUE)) {
+                    return super.constructArrayStep2(node, array);
+                }
+                values[i] = Long.parseLong(((ScalarNode) children.get(i)).getValue());
+            }
+            return array;
+        }
+        if (componentType == double.class) {
+            double[] values = (double[]) array;
+            for (int i = 0; i < values.length; i++) {
+                if (!isDecimal(children.get(i))) {
+                    return super.constructArrayStep2(node, array);
+                }
+                values[i] = Double.parseDouble(((ScalarNode) children.get(i)).getValue());
+            }
+            return array;
+        }
+        return super.constructArrayStep2(node, array);
+    }
+
+    @Override
+    protected void constructSequenceStep2(SequenceNode node, Collection<Object> collection) {
+        Collection<?> elements = collection;
+        Class<?> elementType = null;
+        if (elements instanceof IntList) {
+            elementType = Integer.class;
+        } else if (elements instanceof LongList) {
+            elementType = Long.class;
+        } else if (elements instanceof List && !node.getValue().isEmpty()) {
+            // element types of generic list fields are set on the elements by SnakeYAML
+            elementType = node.getValue().get(0).getType();
+        }
+        if (elementType == Integer.class || elementType == Long.class) {
+            if (fillIntegers(node, collection, elementType)) {
+                return;
+            }
+            collection.clear();
+            for (Node child : node.getValue()) {
+                if (child.getType() == Object.class) {
+                    child.setType(elementType);
+                }
+            }
+        }
+        super.constructSequenceStep2(node, collection);
+    }
+
+    /**
+     * Fills the given collection with the values of the sequence through the fast path.
+     *
+     * @return true if all elements of the sequence are plain decimal integers of the element type
+     */
+    private static boolean fillIntegers(SequenceNode node, Collection<Object> collection, Class<?> elementType) {
+        boolean intElements = elementType == Integer.class;
+        long min = intElements ? Integer.MIN_VALUE : Long.MIN_VALUE;
+        long max = intElements ? Integer.MAX_VALUE : Long.MAX_VALUE;
+        List<Node> children = node.getValue();
+        Collection<?> elements = collection;
+        IntList intList = elements instanceof IntList ? (IntList) elements : null;
+        LongList longList = elements instanceof LongList ? (LongList) elements : null;
+        if (intList != null) {
+            intList.ensureCapacity(children.size());
+        } else if (longList != null) {
+            longList.ensureCapacity(children.size());
+        }
+        for (Node child : children) {
+            if ((child.getType() != Object.class && child.getType() != elementType) || !isInteger(child, min, max)) {
+                return false;
+            }
+            long value = Long.parseLong(((ScalarNode) child).getValue());
+            if (intList != null) {
+                intList.addInt((int) value);
+            } else if (longList != null) {
+                longList.addLong(value);
+            } else if (intElements) {
+                collection.add((int) value);
+            } else {
+                collection.add(value);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether the given node is a plain decimal integer within the given range, e.g. 8080 or -1. Integers with
+     * a leading zero are octal in YAML, hence they are not plain decimal integers.
+     */
+    private static boolean isInteger(Node node, long min, long max) {
+        if (!(node instanceof ScalarNode) || !Tag.INT.equals(node.getTag())) {
+            return false;
+        }
+        String value = ((ScalarNode) node).getValue();
+        int start = value.startsWith("-") ? 1 : 0;
+        int digits = value.length() - start;
+        if (digits == 0 || digits > MAX_FAST_PATH_DIGITS || (digits > 1 && value.charAt(start) == '0')) {
+            return false;
+        }
+        for (int i = start; i < value.length(); i++) {
+            if (value.charAt(i) < '0' || value.charAt(i) > '9') {
+                return false;
+            }
+        }
+        long number = Long.parseLong(value);
+        return number >= min && number <= max;
+    }
+
+    /**
+     * Checks whether the given node is a plain decimal number, e.g. 0.75, -2 or 1.5e+3.
+     */
+    private static boolean isDecimal(Node node) {
+        if (!(node instanceof ScalarNode)) {
+            return false;
+        }
+        if (Tag.INT.equals(node.getTag())) {
+            return isInteger(node, Long.MIN_VALUE, Long.MAX_VALUE);
+        }
+        if (!Tag.FLOAT.equals(node.getTag())) {
+            return false;
+        }
+        String value = ((ScalarNode) node).getValue();
+        int i = value.startsWith("-") ? 1 : 0;
+        int integerStart = i;
+        while (i < value.length() && value.charAt(i) >= '0' && value.charAt(i) <= '9') {
+            i++;
+        }
+        if (i == integerStart || i == value.length() || value.charAt(i) != '.') {
+            return false;
+        }
+        int fractionStart = ++i;
+        while (i < value.length() && value.charAt(i) >= '0' && value.charAt(i) <= '9') {
+            i++;
+        }
+        if (i == fractionStart) {
+            return false;
+        }
+        if (i < value.length() && (value.charAt(i) == 'e' || value.charAt(i) == 'E')) {
+            i++;
+            if (i < value.length() && (value.charAt(i) == '+' || value.charAt(i) == '-')) {
+                i++;
+            }
+            int exponentStart = i;
+            while (i < value.length() && value.charAt(i) >= '0' && value.charAt(i) <= '9') {
+                i++;
+            }
+            if (i == exponentStart) {
+                return false;
+            }
+        }
+        return i == value.length();
+    }
+
+    /**
+     * Constructs a scalar with a value converter.
+     */
+    private static final class ConvertedScalarConstruct extends AbstractConstruct {
+
+        private final ValueConverter<?> converter;
+
+        private ConvertedScalarConstruct(ValueConverter<?> converter) {
+            this.converter = converter;
+        }
+
+        @Override
+        public Object construct(Node node) {
+            String text = ((ScalarNode) node).getValue();
+            try {
+                return converter.convert(text);
+            } catch (IllegalArgumentException e) {
+                throw new YAMLException(String.format(Locale.ENGLISH, "Configuration value '%s' is not a valid %s%s",
+                        text, converter.getType().getSimpleName(), node.getStartMark()), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ *  Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.config.provider;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.wso2.carbon.config.ConfigConstants;
+import org.wso2.carbon.config.ConfigurationRuntimeException;
+import org.wso2.carbon.config.annotation.Configuration;
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.constructor.SafeConstructor;
+import org.yaml.snakeyaml.error.YAMLException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Default configuration snapshots generated at build time.
+ * <p>
+ * The configuration maven plugin writes the default values of each configuration bean to
+ * {@value ConfigConstants#CONFIG_DEFAULTS_DIR}/&lt;namespace&gt;.yaml of the bundle which contains the bean. These
+ * defaults are the base layer of the namespace configuration, on top of which the configuration file is merged. The
+ * defaults of a bean class are read once into a canonical tree (see {@link ConfigTreeInterner}), which is
+ * unmodifiable all the way down, hence the defaults shared by all bindings of the class cannot be changed.
+ *
+ * @since 2.1.18
+ */
+final class ConfigDefaults {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConfigDefaults.class);
+    private static final String YAML_FILE_EXTENSION = ".yaml";
+
+    private static final ClassValue<Optional<Object>> DEFAULTS = new ClassValue<Optional<Object>>() {
+        @Override
+        protected Optional<Object> computeValue(Class<?> configClass) {
+            return loadDefaults(configClass);
+        }
+    };
+
+    private ConfigDefaults() {
+    }
+
+    /**
+     * Returns the default configuration tree of the given configuration bean class.
+     *
+     * @param configClass configuration bean class annotated with the namespace
+     * @return unmodifiable default configuration tree or empty if the defaults are not generated for the class
+     */
+    static Optional<Object> getDefaults(Class<?> configClass) {
+        return DEFAULTS.get(configClass);
+    }
+
+    /**
+     * Merges the given configuration tree on top of the base tree. Maps are merged recursively, while other values of
+     * the configuration tree replace the values of the base tree.
+     *
+     * @param base base configuration tree or null
+     * @param tree configuration tree or null
+     * @return merged configuration tree, which is unmodifiable all the way down if the given trees are
+     */
+    static Object merge(Object base, Object tree) {
+        if (base == null) {
+            return tree;
+        }
+        if (tree == null) {
+            return base;
+        }
+        if (!(base instanceof Map) || !(tree instanceof Map)) {
+            return tree;
+        }
+        Map<Object, Object> merged = new LinkedHashMap<>((Map<?, ?>) base);
+        for (Map.Entry<?, ?> entry : ((Map<?, ?>) tree).entrySet()) {
+            merged.put(entry.getKey(), merge(merged.get(entry.getKey()), entry.getValue()));
+        }
+        return Collections.unmodifiableMap(merged);
+    }
+
+    private static Optional<Object> loadDefaults(Class<?> configClass) {
+        Configuration configuration = configClass.getAnnotation(Configuration.class);
+        ClassLoader classLoader = configClass.getClassLoader();
+        if (configuration == null || ConfigConstants.NULL.equals(configuration.namespace()) || classLoader == null) {
+            return Optional.empty();
+        }
+        String resource = ConfigConstants.CONFIG_DEFAULTS_DIR + "/" + configuration.namespace() + YAML_FILE_EXTENSION;
+        try (InputStream inputStream = classLoader.getResourceAsStream(resource)) {
+            if (inputStream == null) {
+                return Optional.empty();
+            }
+            try (Reader reader = new InputStreamReader(inputStream, StandardCharsets.UTF_8)) {
+                Object defaults = new Yaml(new SafeConstructor(new LoaderOptions())).load(reader);
+                if (logger.isDebugEnabled()) {
+                    logger.debug("Loaded configuration defaults of {} from {}", configClass.getName(), resource);
+                }
+                return Optional.ofNullable(new ConfigTreeInterner().intern(defaults));
+            }
+        } catch (IOException | YAMLException e) {
+            throw new ConfigurationRuntimeException("Error while reading the configuration defaults of " +
+                    configClass.getName(), e);
+        }
+    }
+}
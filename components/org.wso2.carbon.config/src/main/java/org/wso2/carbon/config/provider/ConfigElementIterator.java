@@ -0,0 +1,203 @@
+/*
+ *  Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.config.provider;
+
+import org.wso2.carbon.config.ConfigurationException;
+import org.wso2.carbon.config.ConfigurationRuntimeException;
+import org.yaml.snakeyaml.DumperOptions;
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.emitter.Emitter;
+import org.yaml.snakeyaml.error.YAMLException;
+import org.yaml.snakeyaml.events.AliasEvent;
+import org.yaml.snakeyaml.events.DocumentEndEvent;
+import org.yaml.snakeyaml.events.DocumentStartEvent;
+import org.yaml.snakeyaml.events.Event;
+import org.yaml.snakeyaml.events.NodeEvent;
+import org.yaml.snakeyaml.events.StreamEndEvent;
+import org.yaml.snakeyaml.events.StreamStartEvent;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Iterator which binds the elements of a list namespace one at a time.
+ * <p>
+ * The YAML string of the namespace is processed as a stream of parser events and the events of each element are
+ * re-emitted to a YAML string of the element when the element is requested, hence neither the object tree of the
+ * namespace nor the bound elements are held by the iterator. An element which refers to an anchor declared outside
+ * of it cannot be emitted on its own, in which case the iterator falls back to loading the object tree of the
+ * namespace for the remaining elements.
+ *
+ * @param <T> type of the elements
+ * @since 2.1.18
+ */
+final class ConfigElementIterator<T> implements Iterator<T> {
+
+    private final String configString;
+    private final LoaderOptions loaderOptions;
+    private final Function<String, T> elementBinder;
+    private final String namespace;
+    private final Iterator<Event> events;
+    private final DumperOptions dumperOptions = new DumperOptions();
+    private Event nextEvent;
+    private List<?> elements;
+    private int index;
+
+    /**
+     * Creates an iterator of the elements of a namespace.
+     *
+     * @param namespace     configuration namespace
+     * @param configString  YAML string of the namespace with the placeholders resolved
+     * @param loaderOptions SnakeYAML loader options
+     * @param configClass   type of the elements
+     * @param elementBinder function which binds the YAML string of an element
+     * @throws ConfigurationException if the namespace is not a list
+     */
+    ConfigElementIterator(String namespace, String configString, LoaderOptions loaderOptions, Class<T> configClass,
+                          Function<String, T> elementBinder) throws ConfigurationException {
+        this.namespace = namespace;
+        this.configString = configString;
+        this.loaderOptions = loaderOptions;
+        this.elementBinder = elementBinder;
+        try {
+            this.events = new Yaml(loaderOptions).parse(new StringReader(configString)).iterator();
+            Event event = nextNodeEvent();
+            if (event != null && !event.is(Event.ID.SequenceStart)) {
+                throw new ConfigurationException("Configuration under namespace '" + namespace + "' is expected to " +
+                        "be a list of type '" + configClass.getSimpleName() + "' but found map.");
+            }
+            this.nextEvent = event != null ? nextElementEvent() : null;
+        } catch (YAMLException e) {
+            throw new ConfigurationException("Error while parsing the configuration of namespace: " + namespace, e);
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        return elements != null ? index < elements.size() : nextEvent != null;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        int elementIndex = index;
+        T element;
+        try {
+            String elementString = elements == null ? emitElement() : null;
+            if (elementString == null) {
+                if (elements == null) {
+                    elements = (List<?>) new Yaml(loaderOptions).load(configString);
+                }
+                elementString = new Yaml().dump(elements.get(elementIndex));
+            }
+            // the element is consumed even if it cannot be bound, hence the next element can be read
+            index++;
+            element = elementBinder.apply(elementString);
+        } catch (YAMLException e) {
+            throw new ConfigurationRuntimeException("Error while parsing the configuration element: " + index, e);
+        }
+        try {
+            ConfigBeanValidator.validate(element, namespace + "[" + elementIndex + "]");
+        } catch (ConfigurationException e) {
+            throw new ConfigurationRuntimeException(e.getMessage(), e);
+        }
+        return element;
+    }
+
+    /**
+     * Emits the events of the next element to a YAML string.
+     *
+     * @return YAML string of the element or null if the element refers to an anchor declared outside of it
+     */
+    private String emitElement() {
+        StringWriter writer = new StringWriter();
+        Emitter emitter = new Emitter(writer, dumperOptions);
+        Set<String> anchors = new HashSet<>();
+        Event event = nextEvent;
+        try {
+            emitter.emit(new StreamStartEvent(null, null));
+            emitter.emit(new DocumentStartEvent(null, null, false, null, null));
+            int depth = 0;
+            while (true) {
+                if (event.is(Event.ID.Alias) && !anchors.contains(((AliasEvent) event).getAnchor())) {
+                    return null;
+                }
+                if (event instanceof NodeEvent && ((NodeEvent) event).getAnchor() != null) {
+                    anchors.add(((NodeEvent) event).getAnchor());
+                }
+                if (event.is(Event.ID.MappingStart) || event.is(Event.ID.SequenceStart)) {
+                    depth++;
+                } else if (event.is(Event.ID.MappingEnd) || event.is(Event.ID.SequenceEnd)) {
+                    depth--;
+                }
+                emitter.emit(event);
+                if (depth == 0) {
+                    break;
+                }
+                event = nextNodeEvent();
+                if (event == null) {
+                    throw new ConfigurationRuntimeException("Error while parsing the configuration element: " +
+                            index + ", unexpected end of stream");
+                }
+            }
+            emitter.emit(new DocumentEndEvent(null, null, false));
+            emitter.emit(new StreamEndEvent(null, null));
+        } catch (IOException e) {
+            throw new ConfigurationRuntimeException("Error while emitting the configuration element: " + index, e);
+        }
+        nextEvent = nextElementEvent();
+        return writer.toString();
+    }
+
+    /**
+     * Returns the first event of the next element.
+     *
+     * @return first event of the next element or null at the end of the list
+     */
+    private Event nextElementEvent() {
+        Event event = nextNodeEvent();
+        return event == null || event.is(Event.ID.SequenceEnd) ? null : event;
+    }
+
+    /**
+     * Returns the next event which belongs to the node graph, skipping stream, document and comment events.
+     *
+     * @return next node event or null at the end of the document
+     */
+    private Event nextNodeEvent() {
+        while (events.hasNext()) {
+            Event event = events.next();
+            if (event.is(Event.ID.DocumentEnd) || event.is(Event.ID.StreamEnd)) {
+                return null;
+            }
+            if (!event.is(Event.ID.StreamStart) && !event.is(Event.ID.DocumentStart)
+                    && !event.is(Event.ID.Comment)) {
+                return event;
+            }
+        }
+        return null;
+    }
+}
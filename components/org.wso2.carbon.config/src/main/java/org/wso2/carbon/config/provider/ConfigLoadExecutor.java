@@ -0,0 +1,84 @@
+/*
+ *  Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.config.provider;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Default executor of the asynchronous configuration loading.
+ * <p>
+ * Loading a configuration may block on file I/O and secure vault decryption, hence it runs on a thread per task. On
+ * runtimes which support virtual threads a virtual thread is used per task, otherwise the tasks run on a cached pool
+ * of daemon threads. The executor is created when it is first used.
+ *
+ * @since 2.1.18
+ */
+final class ConfigLoadExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConfigLoadExecutor.class);
+    private static final String THREAD_NAME_PREFIX = "config-loader-";
+
+    private ConfigLoadExecutor() {
+    }
+
+    /**
+     * Returns the shared default executor.
+     *
+     * @return executor of the asynchronous configuration loading
+     */
+    static ExecutorService getDefault() {
+        return Holder.EXECUTOR;
+    }
+
+    private static ExecutorService createExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            ExecutorService executor = (ExecutorService) factory.invoke(null);
+            if (logger.isDebugEnabled()) {
+                logger.debug("Loading configurations asynchronously on virtual threads");
+            }
+            return executor;
+        } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("Virtual threads are not supported, loading configurations asynchronously on a " +
+                        "thread pool");
+            }
+        }
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, THREAD_NAME_PREFIX + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        return Executors.newCachedThreadPool(threadFactory);
+    }
+
+    /**
+     * Lazily initialized holder of the default executor.
+     */
+    private static final class Holder {
+
+        private static final ExecutorService EXECUTOR = createExecutor();
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ *  Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.config.provider;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Flattened index of the scalar configuration values of a snapshot.
+ * <p>
+ * Keys are the namespace followed by the dot separated keys of the value, list elements are addressed with their
+ * index in square brackets (e.g. transports.transport[0].port). A namespace is flattened once, when a path under
+ * it is read for the first time, hence reading an indexed value is a single hash lookup. Released values are
+ * flattened again on demand.
+ *
+ * @since 2.1.18
+ */
+final class ConfigPathIndex {
+
+    private static final char PATH_SEPARATOR = '.';
+    private static final char LIST_INDEX_START = '[';
+
+    private static final long VALUE_BYTES = 48L;
+
+    private volatile Index index = new Index();
+    private final Set<String> namespaces;
+    private final Function<String, Object> namespaceLoader;
+    private final ConfigPathIndex fallback;
+
+    /**
+     * Creates the index of a snapshot.
+     *
+     * @param namespaces      namespaces of the snapshot
+     * @param namespaceLoader function which returns the resolved configuration tree of a namespace
+     * @param fallback        index of the paths which are not under the namespaces, or null
+     */
+    ConfigPathIndex(Set<String> namespaces, Function<String, Object> namespaceLoader, ConfigPathIndex fallback) {
+        this.namespaces = namespaces;
+        this.namespaceLoader = namespaceLoader;
+        this.fallback = fallback;
+    }
+
+    /**
+     * Returns the scalar value of the given path.
+     *
+     * @param path configuration path
+     * @return value or null if the path does not refer to a scalar value
+     */
+    ConfigValue get(String path) {
+        Index currentIndex = index;
+        ConfigValue value = currentIndex.values.get(path);
+        if (value != null || path == null) {
+            return value;
+        }
+        boolean matched = false;
+        for (String namespace : namespaces) {
+            if (isInNamespace(path, namespace)) {
+                indexNamespace(currentIndex, namespace);
+                matched = true;
+            }
+        }
+        if (matched) {
+            return currentIndex.values.get(path);
+        }
+        return fallback != null ? fallback.get(path) : null;
+    }
+
+    /**
+     * Returns whether the given path is the namespace itself (i.e. a scalar namespace) or a path under it.
+     *
+     * @param path      configuration path
+     * @param namespace configuration namespace
+     * @return true if the path is in the namespace
+     */
+    private static boolean isInNamespace(String path, String namespace) {
+        if (!path.startsWith(namespace)) {
+            return false;
+        }
+        if (path.length() == namespace.length()) {
+            return true;
+        }
+        char next = path.charAt(namespace.length());
+        return next == PATH_SEPARATOR || next == LIST_INDEX_START;
+    }
+
+    /**
+     * Returns the estimated number of bytes retained by the indexed values, excluding the fallback index.
+     *
+     * @return estimated number of retained bytes
+     */
+    long getRetainedBytes() {
+        long bytes = 0L;
+        for (Map.Entry<String, ConfigValue> entry : index.values.entrySet()) {
+            bytes += ConfigSnapshot.sizeOf(entry.getKey()) + ConfigSnapshot.sizeOf(entry.getValue().asString())
+                    + VALUE_BYTES;
+        }
+        return bytes;
+    }
+
+    /**
+     * Releases the indexed values, excluding the fallback index. A namespace is flattened again when a path under it
+     * is read next.
+     */
+    void release() {
+        index = new Index();
+    }
+
+    /**
+     * Flattens the given namespace into the index unless it is already indexed.
+     *
+     * @param currentIndex index to flatten the namespace into
+     * @param namespace    configuration namespace
+     */
+    private void indexNamespace(Index currentIndex, String namespace) {
+        currentIndex.indexedNamespaces.computeIfAbsent(namespace, key -> {
+            flatten(currentIndex.values, key, namespaceLoader.apply(key));
+            return Boolean.TRUE;
+        });
+    }
+
+    private static void flatten(Map<String, ConfigValue> values, String path, Object node) {
+        if (node instanceof Map) {
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) node).entrySet()) {
+                flatten(values, path + PATH_SEPARATOR + entry.getKey(), entry.getValue());
+            }
+        } else if (node instanceof List) {
+            List<?> list = (List<?>) node;
+            for (int i = 0; i < list.size(); i++) {
+                flatten(values, path + LIST_INDEX_START + i + "]", list.get(i));
+            }
+        } else if (node != null) {
+            values.put(path, ConfigValue.of(node));
+        }
+    }
+
+    /**
+     * Indexed values along with the namespaces they are flattened from, which are released together.
+     */
+    private static final class Index {
+
+        private final Map<String, ConfigValue> values = new ConcurrentHashMap<>();
+        private final Map<String, Boolean> indexedNamespaces = new ConcurrentHashMap<>();
+    }
+}
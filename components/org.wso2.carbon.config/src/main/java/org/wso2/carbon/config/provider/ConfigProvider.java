@@ -19,12 +19,30 @@ package org.wso2.carbon.config.provider;
 
 import org.wso2.carbon.config.ConfigurationException;
 
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 /**
  * ConfigProvider provides the configuration mapping of the class namespace.
  * This will update the configuration values with
  * following placeholders ${env:alias}, ${sys:alias} and ${sec:alias}
+ * <p>
+ * A ${ref:path} placeholder is replaced with another scalar value of the configuration, given its configuration path
+ * (e.g. ${ref:transports.http.port}). Referenced values may hold placeholders themselves, which are resolved once per
+ * loaded configuration. A reference which refers back to itself is reported as an error.
+ * <p>
+ * ${sec:alias} placeholders are resolved each time a configuration object is bound or a value is read by configuration
+ * path (e.g. {@link #getString(String, String)}) or through a configuration view, hence decrypted secrets are not
+ * retained by the provider. Effective configurations keep the ${sec:alias} placeholders as they are.
+ * <p>
+ * The bulk, stream and asynchronous variants added since 2.1.18 have default implementations, which delegate to the
+ * original methods on the calling thread.
  *
  * @since 1.0.0
  */
@@ -33,6 +51,16 @@ public interface ConfigProvider {
     /**
      * Returns configuration object of the class.
      * if configuration doesn't exist in deployment.yaml, returns object with default values.
+     * <p>
+     * If the class is a Java record or is annotated with
+     * {@link org.wso2.carbon.config.annotation.Configuration#immutable()}, the object is bound through its canonical
+     * constructor (a constructor taking a parameter for each field, all of which should be final) and the same
+     * instance is returned to every caller until the configuration is reloaded. Parameters are matched to the fields
+     * by the names given by {@link java.beans.ConstructorProperties} or compiled with the -parameters option, or by
+     * type if no two fields have the same type. Keys which do not match a field are rejected, and array fields and
+     * fields of configuration types which are not immutable themselves are not supported. An object whose
+     * configuration holds ${sec:alias} placeholders is bound for each caller instead of being shared, as it holds the
+     * decrypted secrets, which are not retained by the provider.
      *
      * @param configClass configuration bean class
      * @param <T>         object type
@@ -41,6 +69,31 @@ public interface ConfigProvider {
      */
     <T extends Object> T getConfigurationObject(Class<T> configClass) throws ConfigurationException;
 
+    /**
+     * Returns the configuration objects of the classes, as {@link #getConfigurationObject(Class)} returns the object
+     * of each class.
+     * <p>
+     * The classes are bound in one pass: the configuration is read once, the system variable overrides are collected
+     * once, each secret alias is resolved once and the configuration of a namespace is processed once for all of its
+     * classes. Namespaces are bound in parallel on the executor of the asynchronous configuration loading, along with
+     * the calling thread.
+     *
+     * @param configClasses configuration bean classes
+     * @return map with key: configuration bean class, value: configuration object, in the order of the classes
+     * @throws ConfigurationException if there is a problem with config object instantiation.
+     * @since 2.1.18
+     */
+    default Map<Class<?>, Object> getConfigurationObjects(Collection<Class<?>> configClasses)
+            throws ConfigurationException {
+        Map<Class<?>, Object> configObjects = new LinkedHashMap<>();
+        for (Class<?> configClass : configClasses) {
+            if (!configObjects.containsKey(configClass)) {
+                configObjects.put(configClass, getConfigurationObject(configClass));
+            }
+        }
+        return configObjects;
+    }
+
     /**
      * Returns configuration object of the namespace.
      * Configuration object can be either List or Map, it depends on configuration of the namespace.
@@ -78,4 +131,356 @@ public interface ConfigProvider {
      * @throws ConfigurationException if there is a problem while reading the configurations
      */
     <T> ArrayList<T> getConfigurationObjectList(String namespace, Class<T> configClass) throws ConfigurationException;
+
+    /**
+     * Returns a stream of the configuration objects of the class under the namespace, see
+     * {@link #getConfigurationObjectList(String, Class)}.
+     * <p>
+     * Objects are bound one at a time as the stream is consumed, hence a list namespace with a large number of
+     * elements can be consumed with bounded memory and the binding stops when the consumption is terminated (e.g. by
+     * {@link Stream#findFirst()}). Errors while binding an element are thrown as
+     * {@link org.wso2.carbon.config.ConfigurationRuntimeException} by the terminal operation of the stream.
+     *
+     * @param namespace   config namespace
+     * @param configClass configuration bean class
+     * @param <T>         object type
+     * @return sequential stream of configuration objects, which is empty if the namespace does not exist
+     * @throws ConfigurationException if the namespace is not a list or there is a problem while reading the
+     *                                configurations
+     * @since 2.1.18
+     */
+    default <T> Stream<T> getConfigurationObjectStream(String namespace, Class<T> configClass)
+            throws ConfigurationException {
+        return getConfigurationObjectList(namespace, configClass).stream();
+    }
+
+    /**
+     * Returns configuration object of the class asynchronously, see {@link #getConfigurationObject(Class)}.
+     * <p>
+     * Loading the configuration may read the configuration file and decrypt secure values, hence it runs on the load
+     * executor of the provider instead of the calling thread. Configuration reads never lock once the configuration
+     * file is loaded, and a shared immutable configuration object which is already bound is returned as a completed
+     * future without dispatching to the executor. This makes the method safe to call from event loop threads.
+     *
+     * @param configClass configuration bean class
+     * @param <T>         object type
+     * @return future which is completed with the configuration bean object, or exceptionally with a
+     * {@link ConfigurationException} if there is a problem with config object instantiation
+     * @since 2.1.18
+     */
+    default <T> CompletableFuture<T> getConfigurationObjectAsync(Class<T> configClass) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            future.complete(getConfigurationObject(configClass));
+        } catch (ConfigurationException | RuntimeException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * Returns configuration object of the class under the namespace asynchronously, see
+     * {@link #getConfigurationObject(String, Class)} and {@link #getConfigurationObjectAsync(Class)}.
+     *
+     * @param namespace   config namespace
+     * @param configClass configuration bean class
+     * @param <T>         object type
+     * @return future which is completed with the configuration object, or exceptionally with a
+     * {@link ConfigurationException} if there is a problem while reading the configurations
+     * @since 2.1.18
+     */
+    default <T> CompletableFuture<T> getConfigurationObjectAsync(String namespace, Class<T> configClass) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            future.complete(getConfigurationObject(namespace, configClass));
+        } catch (ConfigurationException | RuntimeException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * Returns the configuration object list of the class under the namespace asynchronously, see
+     * {@link #getConfigurationObjectList(String, Class)} and {@link #getConfigurationObjectAsync(Class)}.
+     *
+     * @param namespace   config namespace
+     * @param configClass configuration bean class
+     * @param <T>         object type
+     * @return future which is completed with the list of configuration objects, or exceptionally with a
+     * {@link ConfigurationException} if there is a problem while reading the configurations
+     * @since 2.1.18
+     */
+    default <T> CompletableFuture<ArrayList<T>> getConfigurationObjectListAsync(String namespace,
+                                                                               Class<T> configClass) {
+        CompletableFuture<ArrayList<T>> future = new CompletableFuture<>();
+        try {
+            future.complete(getConfigurationObjectList(namespace, configClass));
+        } catch (ConfigurationException | RuntimeException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * Returns the publisher of the configuration object of the class.
+     * <p>
+     * A subscriber receives the configuration object, as returned by {@link #getConfigurationObject(Class)}, once it
+     * is subscribed and again whenever a reload changes the configuration of the namespace of the class. Objects are
+     * loaded on the load executor of the provider and the same object is received by all subscribers, hence it should
+     * not be modified. Objects are delivered as they are requested; a subscriber which has not requested more objects
+     * when the configuration changes several times receives only the latest object once it does.
+     *
+     * @param configClass configuration bean class
+     * @param <T>         object type
+     * @return configuration publisher, which is shared by all callers of the class
+     * @since 2.1.18
+     */
+    <T> ConfigurationFlow.Publisher<T> getConfigurationPublisher(Class<T> configClass);
+
+    /**
+     * Returns the publisher of the configuration object of the namespace, as returned by
+     * {@link #getConfigurationObject(String)}. See {@link #getConfigurationPublisher(Class)}.
+     *
+     * @param namespace config namespace
+     * @return configuration publisher, which is shared by all callers of the namespace
+     * @since 2.1.18
+     */
+    ConfigurationFlow.Publisher<Object> getConfigurationPublisher(String namespace);
+
+    /**
+     * Returns the string value of the given configuration path.
+     * <p>
+     * A path is the namespace followed by the dot separated keys of the value, list elements are addressed with
+     * their index in square brackets (e.g. transports.transport[0].name). Values are read from the configuration
+     * file with the placeholders resolved; a flattened index of the values is built once per namespace, hence
+     * reading a value is a hash lookup.
+     *
+     * @param path         configuration path
+     * @param defaultValue value to return if the path does not exist
+     * @return configuration value
+     * @throws ConfigurationException if there is a problem while reading the configurations
+     * @since 2.1.18
+     */
+    String getString(String path, String defaultValue) throws ConfigurationException;
+
+    /**
+     * Returns the int value of the given configuration path.
+     *
+     * @param path         configuration path (e.g. transports.http.port)
+     * @param defaultValue value to return if the path does not exist
+     * @return configuration value
+     * @throws ConfigurationException if the value is not an int or there is a problem while reading the
+     *                                configurations
+     * @since 2.1.18
+     */
+    int getInt(String path, int defaultValue) throws ConfigurationException;
+
+    /**
+     * Returns the long value of the given configuration path.
+     *
+     * @param path         configuration path
+     * @param defaultValue value to return if the path does not exist
+     * @return configuration value
+     * @throws ConfigurationException if the value is not a long or there is a problem while reading the
+     *                                configurations
+     * @since 2.1.18
+     */
+    long getLong(String path, long defaultValue) throws ConfigurationException;
+
+    /**
+     * Returns the boolean value of the given configuration path.
+     *
+     * @param path         configuration path
+     * @param defaultValue value to return if the path does not exist
+     * @return configuration value
+     * @throws ConfigurationException if the value is not a boolean or there is a problem while reading the
+     *                                configurations
+     * @since 2.1.18
+     */
+    boolean getBoolean(String path, boolean defaultValue) throws ConfigurationException;
+
+    /**
+     * Returns the duration value of the given configuration path. Integers are read as milliseconds and text either
+     * as an ISO-8601 duration (e.g. PT30S) or as an amount followed by ms, s, m, h or d (e.g. 30s).
+     *
+     * @param path         configuration path
+     * @param defaultValue value to return if the path does not exist
+     * @return configuration value
+     * @throws ConfigurationException if the value is not a duration or there is a problem while reading the
+     *                                configurations
+     * @since 2.1.18
+     */
+    Duration getDuration(String path, Duration defaultValue) throws ConfigurationException;
+
+    /**
+     * Returns a live view of the configuration namespace of the given interface.
+     * <p>
+     * The namespace is read from the {@link org.wso2.carbon.config.annotation.Configuration} annotation of the
+     * interface. Each getter of the view (e.g. getPort(), isSecure() or port()) reads the value of the matching key
+     * under the namespace from the current configuration, hence the view reflects reloaded configurations. Getters
+     * may return String, int, long, boolean, their wrapper types, a type of a
+     * {@link org.wso2.carbon.config.converter.ValueConverter} (e.g. Duration) or another view interface for nested
+     * keys. Environment and system variable overrides of configuration beans are not applied to views.
+     *
+     * @param viewInterface interface annotated with the configuration namespace
+     * @param <T>           type of the view
+     * @return live configuration view
+     * @throws ConfigurationException if the interface is not a valid view or there is a problem while reading the
+     *                                configurations
+     * @since 2.1.18
+     */
+    <T> T getConfigurationView(Class<T> viewInterface) throws ConfigurationException;
+
+    /**
+     * Returns the fingerprint of the configuration, a hash of the resolved configuration of all namespaces.
+     * <p>
+     * Fingerprints depend only on the configuration content, hence providers which read the same configuration have
+     * the same fingerprint, also across processes, and the fingerprint changes whenever a reload changes the
+     * configuration. The order of the keys of a map and the formatting of the configuration file do not affect the
+     * fingerprint. Fingerprints are computed while the configuration is loaded and kept until it is reloaded, hence
+     * comparing fingerprints is a constant time check for changes, which neither diffs nor binds the configuration.
+     *
+     * @return fingerprint, as 16 hexadecimal digits
+     * @throws ConfigurationException if there is a problem while reading the configurations
+     * @since 2.1.18
+     */
+    String getFingerprint() throws ConfigurationException;
+
+    /**
+     * Returns the fingerprint of the configuration of the namespace, see {@link #getFingerprint()}.
+     *
+     * @param namespace config namespace
+     * @return fingerprint, as 16 hexadecimal digits, or null if the namespace does not exist
+     * @throws ConfigurationException if there is a problem while reading the configurations
+     * @since 2.1.18
+     */
+    String getFingerprint(String namespace) throws ConfigurationException;
+
+    /**
+     * Reloads the configuration file. Configuration objects which are already returned are not changed, while
+     * configuration views and subsequent reads see the reloaded configuration. A failed reload keeps the current
+     * configuration, as does a reload which is rejected by a validator, see
+     * {@link #addValidator(ConfigurationValidator)}. Concurrent reloads are applied one after another and only an
+     * accepted configuration is assigned the next version, see {@link #getVersion()}.
+     *
+     * @throws ConfigurationException if there is a problem while reading the configuration file or a validator
+     *                                rejects the reloaded configuration
+     * @since 2.1.18
+     */
+    void reload() throws ConfigurationException;
+
+    /**
+     * Returns the version of the current configuration. The configuration read first is version 1 and each accepted
+     * reload increments the version, while a rollback restores the version of the retained configuration.
+     *
+     * @return version of the current configuration
+     * @throws ConfigurationException if there is a problem while reading the configuration file
+     * @since 2.1.18
+     */
+    long getVersion() throws ConfigurationException;
+
+    /**
+     * Returns the versions of the retained configurations, least recently current first, hence the last version is
+     * the version of the current configuration. The configurations which were current last are retained up to the
+     * number given by the config.snapshot.history system property, which defaults to 5.
+     *
+     * @return versions of the retained configurations
+     * @throws ConfigurationException if there is a problem while reading the configuration file
+     * @since 2.1.18
+     */
+    List<Long> getVersions() throws ConfigurationException;
+
+    /**
+     * Restores the retained configuration of the given version as the current configuration without reading the
+     * configuration file, e.g. to revert a reload which turned out to be faulty. Configuration objects which are
+     * already returned are not changed, while configuration views and subsequent reads see the restored
+     * configuration.
+     *
+     * @param version version of a retained configuration, see {@link #getVersions()}
+     * @throws ConfigurationException if the configuration of the given version is not retained
+     * @since 2.1.18
+     */
+    void rollback(long version) throws ConfigurationException;
+
+    /**
+     * Adds a validator which validates each reloaded configuration before it replaces the current configuration. If
+     * a validator rejects a reloaded configuration, the current configuration is kept.
+     *
+     * @param validator configuration validator
+     * @since 2.1.18
+     */
+    void addValidator(ConfigurationValidator validator);
+
+    /**
+     * Removes the given configuration validator.
+     *
+     * @param validator configuration validator
+     * @since 2.1.18
+     */
+    void removeValidator(ConfigurationValidator validator);
+
+    /**
+     * Releases the configuration text retained by this provider, e.g. once the configuration objects are bound after
+     * the activation of the consumers.
+     * <p>
+     * The configuration of all namespaces is loaded into its resolved form, after which the YAML text of the
+     * namespaces and the intermediate indexes of the typed accessors and of the reference placeholders are dropped.
+     * Subsequent reads materialize the text of a namespace from its resolved configuration and build the indexes
+     * again on demand. The provider stays in this mode, hence the configuration text of a reloaded configuration is
+     * released as soon as it is loaded. The text of the retained configurations, see {@link #getVersions()}, is
+     * released as well. Releasing the text of an overlay releases the text of its provider.
+     *
+     * @return estimated number of released bytes
+     * @throws ConfigurationException if there is a problem while reading the configurations
+     * @since 2.1.18
+     */
+    long releaseConfigurationText() throws ConfigurationException;
+
+    /**
+     * Returns the estimated number of bytes of the configuration text and the intermediate indexes retained by this
+     * provider, which are released by {@link #releaseConfigurationText()}. The resolved configuration shared by
+     * the configuration objects is not included.
+     *
+     * @return estimated number of retained bytes
+     * @throws ConfigurationException if there is a problem while reading the configurations
+     * @since 2.1.18
+     */
+    long getRetainedBytes() throws ConfigurationException;
+
+    /**
+     * Returns a config provider which reads the configuration of this provider with the given overrides on top, e.g.
+     * the configuration of a tenant.
+     * <p>
+     * Overrides are given per namespace and merged on top of the namespace configuration of this provider: maps are
+     * merged recursively and other values replace the configuration of this provider. The overlay holds only its
+     * overrides and reads the namespaces which are not overridden, along with their shared immutable configuration
+     * objects, from this provider, hence many overlays of a provider cost memory in proportion to their overrides.
+     * Overlays follow the reloads of this provider and reloading an overlay reloads this provider.
+     *
+     * @param overrides map with key: namespace, value: configuration of the namespace to merge, either a Map, a List
+     *                  or a scalar. The map is copied.
+     * @return overlay config provider
+     * @throws ConfigurationException if a namespace of the overrides is empty
+     * @since 2.1.18
+     */
+    ConfigProvider createOverlay(Map<String, Object> overrides) throws ConfigurationException;
+
+    /**
+     * Returns the effective configuration of the namespace of the given configuration bean class, without creating an
+     * instance of the class.
+     * <p>
+     * The default values generated at build time by the configuration maven plugin are the base layer, on top of
+     * which the namespace configuration of the configuration file is merged. Maps are merged recursively and other
+     * values of the configuration file replace the default values. If defaults are not generated for the class, the
+     * namespace configuration of the configuration file is returned. System variable overrides of configuration beans
+     * are not applied.
+     *
+     * @param configClass configuration bean class annotated with the namespace
+     * @return unmodifiable effective configuration, either a Map, a List or a scalar, or null if the namespace has
+     * neither defaults nor configuration
+     * @throws ConfigurationException if the class has no namespace or there is a problem while reading the
+     *                                configurations
+     * @since 2.1.18
+     */
+    Object getEffectiveConfiguration(Class<?> configClass) throws ConfigurationException;
 }
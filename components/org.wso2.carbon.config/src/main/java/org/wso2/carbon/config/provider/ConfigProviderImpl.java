@@ -22,30 +22,49 @@ import org.wso2.carbon.config.ConfigurationException;
 import org.wso2.carbon.config.ConfigurationRuntimeException;
 import org.wso2.carbon.config.ConfigurationUtils;
 import org.wso2.carbon.config.annotation.Configuration;
+import org.wso2.carbon.config.converter.ValueConverter;
+import org.wso2.carbon.config.converter.ValueConverters;
 import org.wso2.carbon.config.reader.ConfigFileReader;
 import org.wso2.carbon.secvault.SecureVault;
 import org.wso2.carbon.secvault.exception.SecureVaultException;
-import org.yaml.snakeyaml.LoaderOptions;
 import org.yaml.snakeyaml.Yaml;
-import org.yaml.snakeyaml.constructor.CustomClassLoaderConstructor;
 import org.yaml.snakeyaml.introspector.BeanAccess;
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.ParameterizedType;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Function;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import javax.lang.model.SourceVersion;
 
 /**
@@ -56,7 +75,7 @@ import javax.lang.model.SourceVersion;
  */
 public class ConfigProviderImpl implements ConfigProvider {
     private static final Logger logger = LoggerFactory.getLogger(ConfigProviderImpl.class.getName());
-    private static final String CONFIG_LEVEL_SEPARATOR = "_";
+    static final String CONFIG_LEVEL_SEPARATOR = "_";
     private static final String NAMESPACE_LEVEL_SEPERATOR = "__";
     private static final String CONFIG_NAMESPACE_WORD_SEPERATOR = ".";
 
@@ -64,16 +83,39 @@ public class ConfigProviderImpl implements ConfigProvider {
     private static final String[] UNIQUE_ATTRIBUTE_NAMES = {"ID", "NAME"};
     private static final String UNIQUE_ATTRIBUTE_SPECIFIER = "UNIQUE";
 
-    private Map<String, String> deploymentConfigs = null;
+    private volatile ConfigSnapshot snapshot = null;
     //This regex is used to identify placeholders
     private static final String PLACEHOLDER_REGEX;
     //This is used to match placeholders
     private static final Pattern PLACEHOLDER_PATTERN;
+    //This is used to find the sec placeholders kept in the values of a snapshot
+    private static final String SECRET_PLACEHOLDER_PREFIX = "${" + Placeholder.SEC.getValue() + ":";
 
     private ConfigFileReader configFileReader;
 
     private SecureVault secureVault;
 
+    private final Executor loadExecutor;
+
+    private final Map<Object, SnapshotPublisher<?>> publishers = new ConcurrentHashMap<>();
+
+    private final ConfigProviderImpl base;
+
+    private final Map<String, Object> overrides;
+
+    private final Set<ConfigProviderImpl> overlays = Collections.newSetFromMap(new WeakHashMap<>());
+
+    private volatile boolean configTextReleased = false;
+
+    private final SnapshotHistory history;
+
+    // highest version given to a snapshot, accessed while holding the lock of this provider. The current snapshot
+    // has a lower version after a rollback, while the next reloaded snapshot still gets the next version, hence a
+    // version never identifies two snapshots
+    private long lastVersion;
+
+    private final List<ConfigurationValidator> validators = new CopyOnWriteArrayList<>();
+
     static {
         PLACEHOLDER_REGEX = "(.*?)(\\$\\{(" + getPlaceholderString() + "):([^,]+?)((,)(.+?))?\\})(.*?)";
         PLACEHOLDER_PATTERN = Pattern.compile(PLACEHOLDER_REGEX);
@@ -83,7 +125,7 @@ public class ConfigProviderImpl implements ConfigProvider {
      * Enum to hold the supported placeholder types.
      */
     private enum Placeholder {
-        SYS("sys"), ENV("env"), SEC("sec");
+        SYS("sys"), ENV("env"), SEC("sec"), REF("ref");
         private String value;
 
         Placeholder(String value) {
@@ -96,34 +138,180 @@ public class ConfigProviderImpl implements ConfigProvider {
     }
 
     public ConfigProviderImpl(ConfigFileReader configFileReader, SecureVault secureVault) {
+        this(configFileReader, secureVault, ConfigLoadExecutor.getDefault());
+    }
+
+    /**
+     * Creates a config provider which loads configurations asynchronously on the given executor.
+     *
+     * @param configFileReader configuration file reader
+     * @param secureVault      secure vault to resolve the secure placeholders or null
+     * @param loadExecutor     executor of the asynchronous configuration loading
+     * @since 2.1.18
+     */
+    public ConfigProviderImpl(ConfigFileReader configFileReader, SecureVault secureVault, Executor loadExecutor) {
         this.configFileReader = configFileReader;
         this.secureVault = secureVault;
+        this.loadExecutor = loadExecutor;
+        this.base = null;
+        this.overrides = Collections.emptyMap();
+        this.history = new SnapshotHistory(Integer.getInteger(ConfigConstants.SYSTEM_PROPERTY_SNAPSHOT_HISTORY_SIZE,
+                ConfigConstants.DEFAULT_SNAPSHOT_HISTORY_SIZE));
+    }
+
+    /**
+     * Creates a config provider which reads the given snapshot, which is used to validate a reloaded snapshot.
+     *
+     * @param source   config provider which reloaded the snapshot
+     * @param snapshot reloaded snapshot
+     */
+    private ConfigProviderImpl(ConfigProviderImpl source, ConfigSnapshot snapshot) {
+        this(source.configFileReader, source.secureVault, source.loadExecutor);
+        this.snapshot = snapshot;
+        this.history.add(snapshot);
+    }
+
+    /**
+     * Creates an overlay config provider which reads the configuration of the base provider with the given overrides.
+     *
+     * @param base      base config provider
+     * @param overrides unmodifiable map with key: namespace, value: configuration tree of the overrides
+     */
+    private ConfigProviderImpl(ConfigProviderImpl base, Map<String, Object> overrides) {
+        this.configFileReader = base.configFileReader;
+        this.secureVault = base.secureVault;
+        this.loadExecutor = base.loadExecutor;
+        this.base = base;
+        this.overrides = overrides;
+        this.history = base.history;
     }
 
     @Override
     public <T> T getConfigurationObject(Class<T> configClass) throws ConfigurationException {
         //get configuration namespace from the class annotation
-        String namespace = null;
-        if (configClass.isAnnotationPresent(Configuration.class)) {
-            Configuration configuration = configClass.getAnnotation(Configuration.class);
-            if (!ConfigConstants.NULL.equals(configuration.namespace())) {
-                namespace = configuration.namespace();
-            }
-        }
+        String namespace = getNamespace(configClass);
         // lazy loading deployment.yaml configuration.
-        loadDeploymentConfiguration(configFileReader);
+        ConfigSnapshot snapshot = loadDeploymentConfiguration(configFileReader);
+        if (ImmutableConfigBinder.isImmutable(configClass)) {
+            return getSharedConfigurationObject(snapshot, namespace, configClass);
+        }
 
         //  if (namespace != null && deploymentConfigs.containsKey(namespace)) {
-        String yamlConfigString = deploymentConfigs.get(namespace);
+        String yamlConfigString = snapshot.getNamespaceConfig(namespace);
         if (logger.isDebugEnabled()) {
             logger.debug("class name: " + configClass.getSimpleName() + " | new configurations: \n" + yamlConfigString);
         }
 
-        T configObject;
+        String yamlProcessedString = null;
         if (yamlConfigString != null && !yamlConfigString.isEmpty()) {
-            String yamlProcessedString = processPlaceholder(yamlConfigString);
-            yamlProcessedString = ConfigurationUtils.substituteVariables(yamlProcessedString);
-            configObject = getConfigurationObject(configClass, configClass.getClassLoader(), yamlProcessedString);
+            yamlProcessedString = resolvePlaceholders(snapshot, yamlConfigString, newSecretResolver());
+        }
+        return bindConfigurationObject(namespace, configClass, yamlProcessedString, getSystemVarOverrides(namespace));
+    }
+
+    @Override
+    public Map<Class<?>, Object> getConfigurationObjects(Collection<Class<?>> configClasses)
+            throws ConfigurationException {
+        // lazy loading deployment.yaml configuration.
+        ConfigSnapshot snapshot = loadDeploymentConfiguration(configFileReader);
+        Map<String, Set<Class<?>>> namespaceClasses = new LinkedHashMap<>();
+        for (Class<?> configClass : configClasses) {
+            namespaceClasses.computeIfAbsent(getNamespace(configClass), key -> new LinkedHashSet<>())
+                    .add(configClass);
+        }
+        Map<String, Map<String, String>> systemVariables = getSystemVariables(namespaceClasses.keySet());
+        Function<String, String> secretResolver = newSecretResolver();
+
+        List<NamespaceBinding> bindings = new ArrayList<>();
+        for (Map.Entry<String, Set<Class<?>>> entry : namespaceClasses.entrySet()) {
+            bindings.add(new NamespaceBinding(() -> bindNamespace(snapshot, entry.getKey(), entry.getValue(),
+                    systemVariables.get(entry.getKey()), secretResolver)));
+        }
+        // namespaces other than the first one are dispatched to the load executor, while the calling thread binds
+        // the namespaces which are not picked up yet, hence the calling thread never waits for an idle executor
+        for (int i = 1; i < bindings.size(); i++) {
+            try {
+                loadExecutor.execute(bindings.get(i)::bind);
+            } catch (RejectedExecutionException e) {
+                if (logger.isDebugEnabled()) {
+                    logger.debug("Binding configurations on the calling thread as the load executor rejected the " +
+                            "task", e);
+                }
+            }
+        }
+        bindings.forEach(NamespaceBinding::bind);
+        Map<Class<?>, Object> boundObjects = new HashMap<>();
+        for (NamespaceBinding binding : bindings) {
+            boundObjects.putAll(binding.getConfigObjects());
+        }
+        Map<Class<?>, Object> configObjects = new LinkedHashMap<>();
+        for (Class<?> configClass : configClasses) {
+            configObjects.put(configClass, boundObjects.get(configClass));
+        }
+        return configObjects;
+    }
+
+    /**
+     * Binds the configuration objects of the given classes of a namespace. The configuration of the namespace is
+     * processed once for all classes.
+     *
+     * @param snapshot        configuration snapshot
+     * @param namespace       configuration namespace or null if the classes have no namespace
+     * @param configClasses   configuration bean classes of the namespace
+     * @param systemVariables system variables which are prefixed with the namespace
+     * @param secrets         function which returns the secret of an alias
+     * @return map with key: configuration bean class, value: configuration object
+     * @throws ConfigurationException if a configuration object cannot be bound
+     */
+    private Map<Class<?>, Object> bindNamespace(ConfigSnapshot snapshot, String namespace,
+                                                Set<Class<?>> configClasses, Map<String, String> systemVariables,
+                                                Function<String, String> secrets) throws ConfigurationException {
+        Optional<SystemVarOverrides> overrides = getSystemVarOverrides(namespace, systemVariables);
+        Map<Class<?>, Object> configObjects = new HashMap<>();
+        boolean processed = false;
+        String processedString = null;
+        for (Class<?> configClass : configClasses) {
+            if (ImmutableConfigBinder.isImmutable(configClass)) {
+                Object configObject = snapshot.getSharedInstance(namespace, configClass);
+                configObjects.put(configClass, configObject != null ? configObject
+                        : bindSharedConfigurationObject(snapshot, namespace, configClass, overrides, secrets));
+                continue;
+            }
+            if (!processed) {
+                String configString = snapshot.getNamespaceConfig(namespace);
+                if (configString != null && !configString.isEmpty()) {
+                    processedString = resolvePlaceholders(snapshot, configString, secrets);
+                }
+                processed = true;
+            }
+            configObjects.put(configClass, bindConfigurationObject(namespace, configClass, processedString,
+                    overrides));
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug("Bound configurations: {} of namespace: {}", configClasses, namespace);
+        }
+        return configObjects;
+    }
+
+    /**
+     * Binds the configuration object of the given class from the processed configuration of its namespace,
+     * overrides it with the system variables and validates it. A configuration object of a namespace which has no
+     * configuration is created with its default values and is not validated.
+     *
+     * @param namespace       configuration namespace or null if the class has no namespace
+     * @param configClass     configuration bean class
+     * @param processedString YAML string of the namespace with the placeholders resolved, or null if the namespace
+     *                        has no configuration
+     * @param overrides       system variable overrides of the namespace
+     * @param <T>             configuration type
+     * @return configuration object
+     * @throws ConfigurationException if the configuration object cannot be bound or a required element is missing
+     */
+    private <T> T bindConfigurationObject(String namespace, Class<T> configClass, String processedString,
+                                          Optional<SystemVarOverrides> overrides) throws ConfigurationException {
+        T configObject;
+        if (processedString != null) {
+            configObject = getConfigurationObject(configClass, configClass.getClassLoader(), processedString);
         } else {
             if (logger.isDebugEnabled()) {
                 logger.debug("Deployment configuration mapping doesn't exist: " +
@@ -136,19 +324,25 @@ public class ConfigProviderImpl implements ConfigProvider {
                                                  + configClass.getSimpleName(), e);
             }
         }
-        return overrideConfigWithSystemVars(namespace, configObject);
+        if (overrides.isPresent()) {
+            overrideConfigWithSystemVariables(configObject, null, overrides.get());
+        }
+        if (processedString != null) {
+            // a bean whose namespace is not configured keeps its defaults, as it did before beans were validated
+            ConfigBeanValidator.validate(configObject, namespace);
+        }
+        return configObject;
     }
 
     @Override
     public Object getConfigurationObject(String namespace) throws ConfigurationException {
         // lazy loading deployment.yaml configuration, if it is not exists
-        loadDeploymentConfiguration(configFileReader);
+        ConfigSnapshot snapshot = loadDeploymentConfiguration(configFileReader);
         // check for json configuration from deployment configs of namespace.
-        if (deploymentConfigs.containsKey(namespace)) {
-            String configString = deploymentConfigs.get(namespace);
-            String processedString = processPlaceholder(configString);
-            processedString = ConfigurationUtils.substituteVariables(processedString);
-            Yaml yaml = new Yaml();
+        if (snapshot.containsNamespace(namespace)) {
+            String configString = snapshot.getNamespaceConfig(namespace);
+            String processedString = resolvePlaceholders(snapshot, configString, newSecretResolver());
+            Yaml yaml = new Yaml(configFileReader.getLoaderOptions());
             // Fix the issue #17. return object can be a List or Map
             return yaml.load(processedString);
         }
@@ -162,14 +356,18 @@ public class ConfigProviderImpl implements ConfigProvider {
     @Override
     public <T> T getConfigurationObject(String namespace, Class<T> configClass) throws ConfigurationException {
         // lazy loading deployment.yaml configuration, if it is not exists
-        loadDeploymentConfiguration(configFileReader);
+        ConfigSnapshot snapshot = loadDeploymentConfiguration(configFileReader);
         // check for yaml configuration from deployment configs for the namespace.
-        if (namespace != null && deploymentConfigs.containsKey(namespace)) {
-            String configString = deploymentConfigs.get(namespace);
-            String processedString = processPlaceholder(configString);
-            processedString = ConfigurationUtils.substituteVariables(processedString);
-            return overrideConfigWithSystemVars(namespace, getConfigurationObject(configClass,
+        if (namespace != null && snapshot.containsNamespace(namespace)) {
+            if (ImmutableConfigBinder.isImmutable(configClass)) {
+                return getSharedConfigurationObject(snapshot, namespace, configClass);
+            }
+            String configString = snapshot.getNamespaceConfig(namespace);
+            String processedString = resolvePlaceholders(snapshot, configString, newSecretResolver());
+            T configObject = overrideConfigWithSystemVars(namespace, getConfigurationObject(configClass,
                     configClass.getClassLoader(), processedString));
+            ConfigBeanValidator.validate(configObject, namespace);
+            return configObject;
         }
         // Get the configuration from bean annotation.
         return getConfigurationObject(configClass);
@@ -180,21 +378,22 @@ public class ConfigProviderImpl implements ConfigProvider {
                                                                                     throws ConfigurationException {
 
         // lazy loading deployment.yaml configuration, if it is not exists
-        loadDeploymentConfiguration(configFileReader);
+        ConfigSnapshot snapshot = loadDeploymentConfiguration(configFileReader);
         // check for json configuration from deployment configs of namespace.
-        if (deploymentConfigs.containsKey(namespace)) {
-            String configString = deploymentConfigs.get(namespace);
-            String processedString = processPlaceholder(configString);
-            processedString = ConfigurationUtils.substituteVariables(processedString);
-            Object loadedConfigList = new Yaml().load(processedString);
+        if (snapshot.containsNamespace(namespace)) {
+            String configString = snapshot.getNamespaceConfig(namespace);
+            String processedString = resolvePlaceholders(snapshot, configString, newSecretResolver());
+            Object loadedConfigList = new Yaml(configFileReader.getLoaderOptions()).load(processedString);
             if (loadedConfigList instanceof List) {
                 ArrayList<T> configList = new ArrayList<>();
                 for (Object config : ((List) loadedConfigList)) {
+                    String elementPath = namespace + "[" + configList.size() + "]";
                     String configYaml = new Yaml().dump(config);
-                    Yaml yaml = new Yaml(new CustomClassLoaderConstructor(configClass, configClass.getClassLoader(),
-                            new LoaderOptions()));
+                    Yaml yaml = new Yaml(new ConfigBeanConstructor(configClass, configClass.getClassLoader(),
+                            configFileReader.getLoaderOptions()));
                     yaml.setBeanAccess(BeanAccess.FIELD);
                     T object = yaml.loadAs(configYaml, configClass);
+                    ConfigBeanValidator.validate(object, elementPath);
                     configList.add(object);
                 }
                 return configList;
@@ -210,6 +409,613 @@ public class ConfigProviderImpl implements ConfigProvider {
         return new ArrayList<>();
     }
 
+    @Override
+    public <T> Stream<T> getConfigurationObjectStream(String namespace, Class<T> configClass)
+            throws ConfigurationException {
+        // lazy loading deployment.yaml configuration, if it is not exists
+        ConfigSnapshot snapshot = loadDeploymentConfiguration(configFileReader);
+        if (!snapshot.containsNamespace(namespace)) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("configuration doesn't exist for the namespace: {} in deployment yaml. Hence " +
+                        "return empty stream of type", namespace);
+            }
+            return Stream.empty();
+        }
+        String processedString = resolvePlaceholders(snapshot, snapshot.getNamespaceConfig(namespace),
+                newSecretResolver());
+        Iterator<T> elements = new ConfigElementIterator<>(namespace, processedString,
+                configFileReader.getLoaderOptions(), configClass,
+                element -> getConfigurationObject(configClass, configClass.getClassLoader(), element));
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(elements,
+                Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    @Override
+    public <T> CompletableFuture<T> getConfigurationObjectAsync(Class<T> configClass) {
+        // an immutable configuration which is already bound to the loaded snapshot is returned without dispatching
+        ConfigSnapshot currentSnapshot = getLoadedSnapshot();
+        if (currentSnapshot != null && ImmutableConfigBinder.isImmutable(configClass)) {
+            T configObject = currentSnapshot.getSharedInstance(getNamespace(configClass), configClass);
+            if (configObject != null) {
+                return CompletableFuture.completedFuture(configObject);
+            }
+        }
+        return loadAsync(() -> getConfigurationObject(configClass));
+    }
+
+    @Override
+    public <T> CompletableFuture<T> getConfigurationObjectAsync(String namespace, Class<T> configClass) {
+        ConfigSnapshot currentSnapshot = getLoadedSnapshot();
+        if (currentSnapshot != null && namespace != null && currentSnapshot.containsNamespace(namespace) &&
+                ImmutableConfigBinder.isImmutable(configClass)) {
+            T configObject = currentSnapshot.getSharedInstance(namespace, configClass);
+            if (configObject != null) {
+                return CompletableFuture.completedFuture(configObject);
+            }
+        }
+        return loadAsync(() -> getConfigurationObject(namespace, configClass));
+    }
+
+    @Override
+    public <T> CompletableFuture<ArrayList<T>> getConfigurationObjectListAsync(String namespace,
+                                                                              Class<T> configClass) {
+        return loadAsync(() -> getConfigurationObjectList(namespace, configClass));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> ConfigurationFlow.Publisher<T> getConfigurationPublisher(Class<T> configClass) {
+        return (ConfigurationFlow.Publisher<T>) publishers.computeIfAbsent(configClass,
+                key -> new SnapshotPublisher<>(getNamespace(configClass),
+                        () -> loadDeploymentConfiguration(configFileReader),
+                        () -> getConfigurationObject(configClass), loadExecutor));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public ConfigurationFlow.Publisher<Object> getConfigurationPublisher(String namespace) {
+        return (ConfigurationFlow.Publisher<Object>) publishers.computeIfAbsent(namespace,
+                key -> new SnapshotPublisher<>(namespace, () -> loadDeploymentConfiguration(configFileReader),
+                        () -> getConfigurationObject(namespace), loadExecutor));
+    }
+
+    @Override
+    public String getString(String path, String defaultValue) throws ConfigurationException {
+        ConfigValue value = getConfigValue(path);
+        return value != null ? value.asString() : defaultValue;
+    }
+
+    @Override
+    public int getInt(String path, int defaultValue) throws ConfigurationException {
+        ConfigValue value = getConfigValue(path);
+        return value != null ? value.asInt(path) : defaultValue;
+    }
+
+    @Override
+    public long getLong(String path, long defaultValue) throws ConfigurationException {
+        ConfigValue value = getConfigValue(path);
+        return value != null ? value.asLong(path) : defaultValue;
+    }
+
+    @Override
+    public boolean getBoolean(String path, boolean defaultValue) throws ConfigurationException {
+        ConfigValue value = getConfigValue(path);
+        return value != null ? value.asBoolean(path) : defaultValue;
+    }
+
+    @Override
+    public Duration getDuration(String path, Duration defaultValue) throws ConfigurationException {
+        ConfigValue value = getConfigValue(path);
+        return value != null ? value.asDuration(path) : defaultValue;
+    }
+
+    @Override
+    public <T> T getConfigurationView(Class<T> viewInterface) throws ConfigurationException {
+        Configuration configuration = viewInterface.getAnnotation(Configuration.class);
+        if (configuration == null || ConfigConstants.NULL.equals(configuration.namespace())) {
+            throw new ConfigurationException("Configuration namespace is not defined for the view: " +
+                    viewInterface.getName());
+        }
+        loadDeploymentConfiguration(configFileReader);
+        try {
+            return ConfigurationViewHandler.newView(viewInterface, configuration.namespace(),
+                    this::getCurrentSnapshot, this::resolveSecrets);
+        } catch (ConfigurationRuntimeException e) {
+            throw new ConfigurationException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public Object getEffectiveConfiguration(Class<?> configClass) throws ConfigurationException {
+        Configuration configuration = configClass.getAnnotation(Configuration.class);
+        if (configuration == null || ConfigConstants.NULL.equals(configuration.namespace())) {
+            throw new ConfigurationException("Configuration namespace is not defined for the class: " +
+                    configClass.getName());
+        }
+        ConfigSnapshot snapshot = loadDeploymentConfiguration(configFileReader);
+        return ConfigDefaults.merge(getDefaults(configClass), snapshot.getNamespaceTree(configuration.namespace()));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public ConfigProvider createOverlay(Map<String, Object> overrides) throws ConfigurationException {
+        for (String namespace : overrides.keySet()) {
+            if (namespace == null || namespace.isEmpty()) {
+                throw new ConfigurationException("Namespace of an override should not be empty");
+            }
+        }
+        // a canonical copy is unmodifiable all the way down, hence later changes of the caller do not leak in
+        Map<String, Object> overlayOverrides =
+                (Map<String, Object>) new ConfigTreeInterner().intern(new LinkedHashMap<>(overrides));
+        ConfigProviderImpl overlay = new ConfigProviderImpl(this, overlayOverrides);
+        synchronized (overlays) {
+            overlays.add(overlay);
+        }
+        return overlay;
+    }
+
+    @Override
+    public String getFingerprint() throws ConfigurationException {
+        return toHex(loadDeploymentConfiguration(configFileReader).getFingerprint());
+    }
+
+    @Override
+    public String getFingerprint(String namespace) throws ConfigurationException {
+        Long fingerprint = loadDeploymentConfiguration(configFileReader).getNamespaceFingerprint(namespace);
+        return fingerprint != null ? toHex(fingerprint) : null;
+    }
+
+    private static String toHex(long fingerprint) {
+        return String.format(Locale.ENGLISH, "%016x", fingerprint);
+    }
+
+    @Override
+    public long releaseConfigurationText() throws ConfigurationException {
+        if (base != null) {
+            return base.releaseConfigurationText();
+        }
+        configTextReleased = true;
+        loadDeploymentConfiguration(configFileReader);
+        long releasedBytes;
+        // the retained snapshots are released as well, as a rollback would restore their configuration text
+        synchronized (this) {
+            releasedBytes = history.release();
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug("Released {} bytes of configuration text", releasedBytes);
+        }
+        return releasedBytes;
+    }
+
+    @Override
+    public long getRetainedBytes() throws ConfigurationException {
+        ConfigSnapshot currentSnapshot = loadDeploymentConfiguration(configFileReader);
+        long retainedBytes = currentSnapshot.getRetainedBytes();
+        return base != null ? retainedBytes + base.getRetainedBytes() : retainedBytes;
+    }
+
+    @Override
+    public void reload() throws ConfigurationException {
+        if (base != null) {
+            base.reload();
+            return;
+        }
+        ConfigSnapshot reloadedSnapshot;
+        // reloads are serialized, hence each reload builds on the snapshot installed by the previous one, and a
+        // rejected snapshot does not use up its version
+        synchronized (this) {
+            reloadedSnapshot = newSnapshot(snapshot, lastVersion + 1);
+            validate(reloadedSnapshot);
+            lastVersion = reloadedSnapshot.getVersion();
+            snapshot = reloadedSnapshot;
+            history.add(reloadedSnapshot);
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug("Configuration reloaded with namespaces: {} as version: {}", reloadedSnapshot.getNamespaces(),
+                    reloadedSnapshot.getVersion());
+        }
+        publishChanges();
+    }
+
+    /**
+     * Validates the given reloaded snapshot with the registered validators.
+     *
+     * @param reloadedSnapshot reloaded snapshot
+     * @throws ConfigurationException if a validator rejects the snapshot
+     */
+    private void validate(ConfigSnapshot reloadedSnapshot) throws ConfigurationException {
+        if (validators.isEmpty()) {
+            return;
+        }
+        ConfigProviderImpl reloadedProvider = new ConfigProviderImpl(this, reloadedSnapshot);
+        for (ConfigurationValidator validator : validators) {
+            try {
+                validator.validate(reloadedProvider);
+            } catch (ConfigurationException | RuntimeException e) {
+                String msg = "Reloaded configuration version " + reloadedSnapshot.getVersion() + " is rejected, " +
+                        "keeping configuration version " + getVersion() + ": " + e.getMessage();
+                logger.error(msg);
+                throw new ConfigurationException(msg, e);
+            }
+        }
+    }
+
+    @Override
+    public long getVersion() throws ConfigurationException {
+        return loadDeploymentConfiguration(configFileReader).getVersion();
+    }
+
+    @Override
+    public List<Long> getVersions() throws ConfigurationException {
+        if (base != null) {
+            return base.getVersions();
+        }
+        loadDeploymentConfiguration(configFileReader);
+        return history.getVersions();
+    }
+
+    @Override
+    public void rollback(long version) throws ConfigurationException {
+        if (base != null) {
+            base.rollback(version);
+            return;
+        }
+        loadDeploymentConfiguration(configFileReader);
+        // the snapshot is restored under the lock of the reloads, hence a concurrent reload neither drops it from the
+        // history nor replaces it in between
+        synchronized (this) {
+            ConfigSnapshot retainedSnapshot = history.restore(version);
+            if (retainedSnapshot == null) {
+                throw new ConfigurationException("Configuration version " + version + " is not retained, retained " +
+                        "versions: " + history.getVersions());
+            }
+            snapshot = retainedSnapshot;
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug("Configuration rolled back to version: {}", version);
+        }
+        publishChanges();
+    }
+
+    @Override
+    public void addValidator(ConfigurationValidator validator) {
+        if (base != null) {
+            base.addValidator(validator);
+            return;
+        }
+        validators.add(validator);
+    }
+
+    @Override
+    public void removeValidator(ConfigurationValidator validator) {
+        if (base != null) {
+            base.removeValidator(validator);
+            return;
+        }
+        validators.remove(validator);
+    }
+
+    /**
+     * Publishes the changes of the current snapshot to the subscribers of this provider and of its overlays.
+     */
+    private void publishChanges() {
+        publishers.values().forEach(SnapshotPublisher::publishAsync);
+        List<ConfigProviderImpl> currentOverlays;
+        synchronized (overlays) {
+            currentOverlays = new ArrayList<>(overlays);
+        }
+        currentOverlays.forEach(ConfigProviderImpl::publishChanges);
+    }
+
+    /**
+     * Runs the given configuration loader on the load executor.
+     *
+     * @param loader configuration loader
+     * @param <T>    configuration type
+     * @return future which is completed with the loaded configuration, or exceptionally with the error of the loader
+     */
+    private <T> CompletableFuture<T> loadAsync(ConfigLoader<T> loader) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            loadExecutor.execute(() -> {
+                try {
+                    future.complete(loader.load());
+                } catch (ConfigurationException | RuntimeException e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(new ConfigurationException("Error while scheduling the configuration " +
+                    "loading", e));
+        }
+        return future;
+    }
+
+    /**
+     * Returns the configuration namespace of the given configuration bean class.
+     *
+     * @param configClass configuration bean class
+     * @return configuration namespace or null if the class has no namespace
+     */
+    private static String getNamespace(Class<?> configClass) {
+        Configuration configuration = configClass.getAnnotation(Configuration.class);
+        if (configuration == null || ConfigConstants.NULL.equals(configuration.namespace())) {
+            return null;
+        }
+        return configuration.namespace();
+    }
+
+    /**
+     * Binding of the configuration objects of a namespace, which is run at most once by the load executor or by the
+     * thread requesting the configuration objects, whichever claims it first.
+     */
+    private static final class NamespaceBinding {
+
+        private final ConfigLoader<Map<Class<?>, Object>> loader;
+        private final AtomicBoolean claimed = new AtomicBoolean();
+        private final CompletableFuture<Map<Class<?>, Object>> configObjects = new CompletableFuture<>();
+
+        private NamespaceBinding(ConfigLoader<Map<Class<?>, Object>> loader) {
+            this.loader = loader;
+        }
+
+        /**
+         * Binds the configuration objects unless the binding is already claimed by another thread.
+         */
+        private void bind() {
+            if (!claimed.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                configObjects.complete(loader.load());
+            } catch (ConfigurationException | RuntimeException e) {
+                configObjects.completeExceptionally(e);
+            }
+        }
+
+        /**
+         * Returns the bound configuration objects, waiting for the thread which claimed the binding to complete it.
+         *
+         * @return map with key: configuration bean class, value: configuration object
+         * @throws ConfigurationException if the configuration objects cannot be bound
+         */
+        private Map<Class<?>, Object> getConfigObjects() throws ConfigurationException {
+            try {
+                return configObjects.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof ConfigurationException) {
+                    throw (ConfigurationException) e.getCause();
+                }
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Index of the elements of a collection by the values of their unique fields. The index of a unique field is
+     * built once, when the first element is looked up by the field, hence overriding several elements of a
+     * collection does not scan the collection for each of them.
+     */
+    private final class UniqueElementIndex {
+
+        private final Collection<Object> collection;
+        // key: lower case unique field name, value: elements by the value of the field per element class
+        private final Map<String, Map<Class<?>, UniqueFieldValues>> indexes = new HashMap<>();
+
+        private UniqueElementIndex(Collection<Object> collection) {
+            this.collection = collection;
+        }
+
+        /**
+         * Returns the first element of the collection whose unique field has the given value.
+         *
+         * @param uniqueVarKey   unique field name
+         * @param uniqueVarValue value of the unique field
+         * @return element or empty if no element has the value
+         */
+        private Optional<Object> find(String uniqueVarKey, String uniqueVarValue) {
+            Map<Class<?>, UniqueFieldValues> index = getIndex(uniqueVarKey);
+            for (UniqueFieldValues fieldValues : index.values()) {
+                if (fieldValues.uniqueField == null) {
+                    continue;
+                }
+                Object element = fieldValues.elements.get(castToWrapperType(fieldValues.uniqueField,
+                        uniqueVarValue));
+                if (element != null) {
+                    return Optional.of(element);
+                }
+            }
+            return Optional.empty();
+        }
+
+        /**
+         * Indexes an element which is added to the collection.
+         *
+         * @param element added element
+         */
+        private void add(Object element) {
+            indexes.forEach((uniqueVarKey, index) -> indexElement(index, uniqueVarKey, element));
+        }
+
+        private Map<Class<?>, UniqueFieldValues> getIndex(String uniqueVarKey) {
+            String key = uniqueVarKey.toLowerCase(Locale.ENGLISH);
+            Map<Class<?>, UniqueFieldValues> index = indexes.get(key);
+            if (index == null) {
+                index = new LinkedHashMap<>();
+                for (Object element : collection) {
+                    indexElement(index, uniqueVarKey, element);
+                }
+                indexes.put(key, index);
+            }
+            return index;
+        }
+
+        private void indexElement(Map<Class<?>, UniqueFieldValues> index, String uniqueVarKey, Object element) {
+            if (element == null) {
+                return;
+            }
+            UniqueFieldValues fieldValues = index.get(element.getClass());
+            if (fieldValues == null) {
+                Field uniqueField = null;
+                try {
+                    uniqueField = getClassField(element, uniqueVarKey);
+                } catch (ConfigurationException e) {
+                    // elements without the unique field are not matched
+                    if (logger.isDebugEnabled()) {
+                        logger.debug("Elements of type {} are not indexed by unique field {}: {}",
+                                element.getClass().getName(), uniqueVarKey, e.getMessage());
+                    }
+                }
+                fieldValues = new UniqueFieldValues(uniqueField);
+                index.put(element.getClass(), fieldValues);
+            }
+            if (fieldValues.uniqueField == null) {
+                return;
+            }
+            try {
+                Object value = getFieldValue(element, fieldValues.uniqueField);
+                if (value != null) {
+                    fieldValues.elements.putIfAbsent(value, element);
+                }
+            } catch (ConfigurationException e) {
+                logger.debug("Element is not indexed by unique field {}: {}", uniqueVarKey, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Elements of a class by the values of their unique field.
+     */
+    private static final class UniqueFieldValues {
+
+        // null if the class does not declare the unique field
+        private final Field uniqueField;
+        private final Map<Object, Object> elements = new HashMap<>();
+
+        private UniqueFieldValues(Field uniqueField) {
+            this.uniqueField = uniqueField;
+        }
+    }
+
+    /**
+     * Loads a configuration, which may block on file I/O and secure vault decryption.
+     *
+     * @param <T> configuration type
+     */
+    @FunctionalInterface
+    interface ConfigLoader<T> {
+
+        T load() throws ConfigurationException;
+    }
+
+    /**
+     * Returns the default configuration tree generated at build time for the given configuration bean class.
+     *
+     * @param configClass configuration bean class
+     * @return default configuration tree or null if the defaults are not generated for the class
+     * @throws ConfigurationException if an error occurred while reading the defaults
+     */
+    private Object getDefaults(Class<?> configClass) throws ConfigurationException {
+        try {
+            return ConfigDefaults.getDefaults(configClass).orElse(null);
+        } catch (ConfigurationRuntimeException e) {
+            throw new ConfigurationException(e.getMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * Returns the scalar value of the given path from the path index of the current snapshot.
+     *
+     * @param path configuration path (e.g. transports.http.port)
+     * @return configuration value or null if the path does not refer to a scalar value
+     * @throws ConfigurationException if an error occurred while loading the configuration file
+     */
+    private ConfigValue getConfigValue(String path) throws ConfigurationException {
+        return resolveSecrets(loadDeploymentConfiguration(configFileReader).getPathIndex().get(path));
+    }
+
+    /**
+     * Resolves the ${sec:alias} placeholders of an indexed value. The resolved value is returned to the caller only,
+     * hence decrypted secrets are not retained by the path index.
+     *
+     * @param value indexed value or null
+     * @return value holding the secrets, or the given value if it does not refer to secrets
+     */
+    private ConfigValue resolveSecrets(ConfigValue value) {
+        if (value == null || !value.isSecret()) {
+            return value;
+        }
+        return ConfigValue.of(processPlaceholder(value.asString(), path -> null, newSecretResolver()));
+    }
+
+    /**
+     * Returns the instance of an immutable configuration type which is shared by all callers of the snapshot. The
+     * instance is bound through the canonical constructor of the type when it is requested for the first time.
+     *
+     * @param snapshot    configuration snapshot
+     * @param namespace   configuration namespace or null if the type has no namespace
+     * @param configClass immutable configuration type
+     * @param <T>         configuration type
+     * @return shared configuration instance
+     * @throws ConfigurationException if the configuration cannot be bound to the type
+     */
+    private <T> T getSharedConfigurationObject(ConfigSnapshot snapshot, String namespace, Class<T> configClass)
+            throws ConfigurationException {
+        T configObject = snapshot.getSharedInstance(namespace, configClass);
+        if (configObject != null) {
+            return configObject;
+        }
+        return bindSharedConfigurationObject(snapshot, namespace, configClass, getSystemVarOverrides(namespace),
+                newSecretResolver());
+    }
+
+    /**
+     * Binds the shared instance of an immutable configuration type through its canonical constructor, which is
+     * validated only if its namespace is configured. An instance
+     * whose configuration holds sec placeholders is not shared, as it holds the decrypted secrets, hence it is bound
+     * again for each caller.
+     *
+     * @param snapshot    configuration snapshot
+     * @param namespace   configuration namespace or null if the type has no namespace
+     * @param configClass immutable configuration type
+     * @param overrides   system variable overrides of the namespace
+     * @param secrets     function which returns the secret of an alias
+     * @param <T>         configuration type
+     * @return shared configuration instance, or an instance which is not shared if the configuration holds secrets
+     * @throws ConfigurationException if the configuration cannot be bound to the type or a required element is
+     *                                missing
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T bindSharedConfigurationObject(ConfigSnapshot snapshot, String namespace, Class<T> configClass,
+                                                Optional<SystemVarOverrides> overrides,
+                                                Function<String, String> secrets)
+            throws ConfigurationException {
+        Object unresolvedTree = ConfigDefaults.merge(getDefaults(configClass),
+                namespace != null ? snapshot.getNamespaceTree(namespace) : null);
+        Object tree = resolveSecrets(unresolvedTree, secrets);
+        // subtrees without sec placeholders are returned as they are, hence a new tree holds decrypted secrets
+        boolean shared = tree == unresolvedTree;
+        if (overrides.isPresent()) {
+            if (tree != null && !(tree instanceof Map)) {
+                throw new ConfigurationException("Configuration under namespace '" + namespace + "' is expected " +
+                        "to be a map of type '" + configClass.getSimpleName() + "'");
+            }
+            tree = ImmutableConfigBinder.override(configClass, (Map<String, Object>) tree, overrides.get());
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug("Binding shared immutable configuration: {} of namespace: {}", configClass.getName(),
+                    namespace);
+        }
+        T configObject = ImmutableConfigBinder.bind(configClass, tree);
+        if (namespace != null && snapshot.containsNamespace(namespace)) {
+            ConfigBeanValidator.validate(configObject, namespace);
+        }
+        return shared ? snapshot.putSharedInstance(namespace, configClass, configObject) : configObject;
+    }
+
     /**
      * Returns a map of variables which are prefixed with the given namespace. A hash map will always be returned
      * even if no variables are found which are prefixed with the given namespace.
@@ -257,25 +1063,101 @@ public class ConfigProviderImpl implements ConfigProvider {
         if (namespace == null || namespace.trim().length() == 0) {
             return new HashMap<>();
         }
+        return getSystemVariables(namespace, System.getenv(), getSystemProperties());
+    }
 
-        // Collect filtered environment variables and system properties
-        Map<String, String> envVariables = filterVariables(namespace, System.getenv());
-        Map<String, String> systemProperties = filterVariables(namespace, System.getProperties().entrySet().stream()
+    /**
+     * Returns the system variables of each of the given namespaces. The environment variables and the system
+     * properties are read once for all namespaces.
+     *
+     * @param namespaces configuration namespaces
+     * @return map with key: namespace, value: map of system variable keys and values which are prefixed with the
+     * namespace
+     */
+    private Map<String, Map<String, String>> getSystemVariables(Collection<String> namespaces) {
+        Map<String, String> environmentVariables = System.getenv();
+        Map<String, String> systemProperties = getSystemProperties();
+        Map<String, Map<String, String>> systemVariables = new HashMap<>();
+        for (String namespace : namespaces) {
+            systemVariables.put(namespace, getSystemVariables(namespace, environmentVariables, systemProperties));
+        }
+        return systemVariables;
+    }
+
+    private static Map<String, String> getSystemProperties() {
+        return System.getProperties().entrySet().stream()
                 .collect(Collectors.toMap(
                         entry -> entry.getKey().toString(),
-                        entry -> entry.getValue().toString())));
+                        entry -> entry.getValue().toString()));
+    }
+
+    /**
+     * Returns a map of the given system variables which is a combination of filtered system properties and filtered
+     * environment variables. The duplicate entries are overridden by the environment variables.
+     *
+     * @param namespace            configuration namespace
+     * @param environmentVariables environment variables
+     * @param systemProperties     system properties
+     * @return map of system variable keys and values which are prefixed with the namespace
+     */
+    private Map<String, String> getSystemVariables(String namespace, Map<String, String> environmentVariables,
+                                                   Map<String, String> systemProperties) {
+        if (namespace == null || namespace.trim().length() == 0) {
+            return new HashMap<>();
+        }
+
+        // Collect filtered environment variables and system properties
+        Map<String, String> envVariables = filterVariables(namespace, environmentVariables);
+        Map<String, String> filteredSystemProperties = filterVariables(namespace, systemProperties);
 
         Map<String, String> mergedMap = new HashMap<>();
         // Include system properties
-        mergedMap.putAll(systemProperties);
+        mergedMap.putAll(filteredSystemProperties);
         // Add environment variables or override system properties from environment variables
         mergedMap.putAll(envVariables);
         return mergedMap;
     }
 
+    /**
+     * Returns the system variable overrides of the given namespace grouped by their configuration paths.
+     *
+     * @param namespace configuration namespace
+     * @return overrides or empty if no system variable overrides the namespace
+     */
+    private Optional<SystemVarOverrides> getSystemVarOverrides(String namespace) {
+        return getSystemVarOverrides(namespace, getSystemVariables(namespace));
+    }
+
+    /**
+     * Returns the given system variable overrides of a namespace grouped by their configuration paths.
+     *
+     * @param namespace       configuration namespace
+     * @param systemVariables system variables which are prefixed with the namespace
+     * @return overrides or empty if no system variable overrides the namespace
+     */
+    private Optional<SystemVarOverrides> getSystemVarOverrides(String namespace,
+                                                               Map<String, String> systemVariables) {
+        if (systemVariables.isEmpty()) {
+            return Optional.empty();
+        }
+        String environmentVariableNameSpacePart = namespace.toUpperCase(Locale.ENGLISH).replace
+                (CONFIG_NAMESPACE_WORD_SEPERATOR, CONFIG_LEVEL_SEPARATOR) + NAMESPACE_LEVEL_SEPERATOR;
+        SystemVarOverrides overrides = new SystemVarOverrides(environmentVariableNameSpacePart);
+        // sorted, so that the overrides are applied in the same order regardless of the hash order of the variables
+        for (Map.Entry<String, String> entry : new TreeMap<>(systemVariables).entrySet()) {
+            String systemVarKey = entry.getKey();
+            String configKey = systemVarKey.split(environmentVariableNameSpacePart)[1];
+            overrides.add(configKey.split(CONFIG_LEVEL_SEPARATOR), entry.getValue(), systemVarKey);
+        }
+        return Optional.of(overrides);
+    }
+
     /**
      * Override the deployment.yaml configuration default values with configurations provided via system
      * variables.
+     * <p>
+     * Overrides are applied in a single traversal of the configuration bean, hence each object and field on the
+     * overridden paths is resolved once regardless of the number of system variables which override it.
      *
      * @param namespace   configuration namespace
      * @param configClass configuration bean class
@@ -283,98 +1165,89 @@ public class ConfigProviderImpl implements ConfigProvider {
      * @return configuration bean object of given type
      */
     private <T> T overrideConfigWithSystemVars(String namespace, T configClass) throws ConfigurationException {
-        Map<String, String> systemVariables = getSystemVariables(namespace);
-
-        for (Map.Entry<String, String> entry : systemVariables.entrySet()) {
-            String systemVarKey = entry.getKey();
-            String environmentVariableNameSpacePart = namespace.toUpperCase(Locale.ENGLISH).replace
-                    (CONFIG_NAMESPACE_WORD_SEPERATOR, CONFIG_LEVEL_SEPARATOR) + NAMESPACE_LEVEL_SEPERATOR;
-            String configKey = systemVarKey.split(environmentVariableNameSpacePart)[1];
-            String value = entry.getValue();
-
-            List<String> configKeyElements = new ArrayList<>(Arrays.asList(configKey.split(CONFIG_LEVEL_SEPARATOR)));
-            overrideConfigWithSystemVariable(configClass, null, configKeyElements, value, systemVarKey);
-        } return configClass;
+        Optional<SystemVarOverrides> overrides = getSystemVarOverrides(namespace);
+        if (overrides.isPresent()) {
+            overrideConfigWithSystemVariables(configClass, null, overrides.get());
+        }
+        return configClass;
     }
 
     /**
-     * Returns the overridden configuration element with the relevant system variable value.
+     * Returns the configuration element overridden with the relevant system variable values.
      *
-     * @param configClass       configuration element class
-     * @param field             class field for which the value should be set
-     * @param configKeyElements array of configuration elements to process
-     * @param value             configuration value
-     * @param systemVarKey      system variable key
-     * @param <T>               type of configuration element class
+     * @param configClass configuration element
+     * @param field       class field which holds the configuration element
+     * @param overrides   overrides of the configuration element
      * @return overridden configuration element
      * @throws ConfigurationException when an error occurred in overriding the config value with the system variable
      */
     @SuppressWarnings("unchecked")
-    private <T> Object overrideConfigWithSystemVariable(T configClass, Field field, List<String> configKeyElements,
-                                                     String value, String systemVarKey) throws ConfigurationException {
-        String configElement = configKeyElements.get(0);
-        // Primitive values (ex: String : String)
-        if (configKeyElements.size() == 1) {
-            setFieldValue(configClass, configElement, value);
-            configKeyElements.remove(configElement);
-            return configClass;
-        }
-        // Array type
-        if (isPositiveInteger(configElement)) {
-            if (configClass instanceof Collection) {
-                // Update or add config object to list.
-                String configFieldName = configKeyElements.get(1); // Will not be NULL
-                configKeyElements.remove(configElement);
-
-                // Get unique element name and it's value
-                ImmutablePair<String, String> uniqueVarEntry = getUniqueSystemVarEntry(systemVarKey);
-                String uniqueVarKey = uniqueVarEntry.getFirst();
-                String uniqueVarValue = uniqueVarEntry.getSecond();
-
-                Optional configObjectOptional = ((Collection) configClass).stream()
-                        .filter(element -> {
-                            try {
-                                Field uniqueField = getClassField(element, uniqueVarKey);
-                                Object castedUniqueEnvValue = castToWrapperType(uniqueField, uniqueVarValue);
-                                return getFieldValue(element, uniqueField).equals(castedUniqueEnvValue);
-                            } catch (ConfigurationException e) {
-                                return false;
-                            }
-                        })
-                        .findFirst();
-                if (configObjectOptional.isPresent()) {
-                    Object configObject = configObjectOptional.get();
-                    Field configField = getClassField(configObject, configFieldName);
-                    ((Collection) configClass).remove(configObject); // Remove all ready existing object from list
-                    ((Collection) configClass)
-                            .add(overrideConfigWithSystemVariable(configObject, configField, configKeyElements, value,
-                                    systemVarKey));
-                } else {
-                    Class<?> parameterizeType = getCollectionType(field);
-                    Object parameterizeTypeObj = createInstanceFromClass(parameterizeType);
-                    Field configField = getClassField(parameterizeTypeObj, configFieldName);
-                    ((Collection) configClass)
-                            .add(overrideConfigWithSystemVariable(parameterizeTypeObj, configField, configKeyElements,
-                                    value, systemVarKey));
+    private Object overrideConfigWithSystemVariables(Object configClass, Field field, SystemVarOverrides overrides)
+            throws ConfigurationException {
+        UniqueElementIndex elementIndex = null;
+        for (Map.Entry<String, SystemVarOverrides> entry : overrides.getChildren().entrySet()) {
+            String configElement = entry.getKey();
+            SystemVarOverrides elementOverrides = entry.getValue();
+            // Primitive values (ex: String : String)
+            if (elementOverrides.getValue() != null) {
+                setFieldValue(configClass, configElement, elementOverrides.getValue());
+            }
+            if (elementOverrides.getChildren().isEmpty()) {
+                continue;
+            }
+            // Array type
+            if (isPositiveInteger(configElement)) {
+                if (!(configClass instanceof Collection)) {
+                    throw new ConfigurationException(String.format(Locale.ENGLISH, "Cannot determine the array " +
+                            "type of the system variable %s, element %s", elementOverrides.getSystemVarKey(),
+                            configElement));
+                }
+                if (elementIndex == null) {
+                    elementIndex = new UniqueElementIndex((Collection<Object>) configClass);
                 }
-                return configClass;
+                overrideCollectionElement(elementIndex, field, elementOverrides);
+                continue;
             }
-            throw new ConfigurationException(String
-                    .format(Locale.ENGLISH, "Cannot determine the array type of the system variable %s, " +
-                                            "element %s", systemVarKey, configElement));
+            // Complex value (Ex: <Bean Class> : <Attribute> : <Value>)
+            Field configField = getClassField(configClass, configElement);
+            Object configElementObject = getFieldValue(configClass, configField);
+            setFieldValue(configClass, configElement,
+                    overrideConfigWithSystemVariables(configElementObject, configField, elementOverrides));
         }
-
-        // Complex value (Ex: <Bean Class> : <Attribute> : <Value>)
-        Field configField = getClassField(configClass, configElement);
-        Object configElementObject = getFieldValue(configClass, configElement);
-
-        configKeyElements.remove(configElement);
-        setFieldValue(configClass, configElement,
-                overrideConfigWithSystemVariable(configElementObject, configField, configKeyElements, value,
-                        systemVarKey));
         return configClass;
     }
 
+    /**
+     * Overrides the element of the collection which is identified by the unique system variable of the overrides,
+     * or adds a new element if the collection has no such element. Elements of lists are overridden in place, while
+     * elements of other collections are re-added since their hash codes may change.
+     *
+     * @param elementIndex index of the collection elements
+     * @param field        class field which holds the collection
+     * @param overrides    overrides of the collection element
+     * @throws ConfigurationException when an error occurred in overriding the config value with the system variable
+     */
+    private void overrideCollectionElement(UniqueElementIndex elementIndex, Field field, SystemVarOverrides overrides)
+            throws ConfigurationException {
+        // Get unique element name and it's value
+        ImmutablePair<String, String> uniqueVarEntry = getUniqueSystemVarEntry(overrides.getSystemVarKeyPrefix(),
+                overrides.getSystemVarKey());
+        Collection<Object> collection = elementIndex.collection;
+        Optional<Object> configObjectOptional = elementIndex.find(uniqueVarEntry.getFirst(),
+                uniqueVarEntry.getSecond());
+        if (!configObjectOptional.isPresent()) {
+            Object configObject = createInstanceFromClass(getCollectionType(field));
+            collection.add(overrideConfigWithSystemVariables(configObject, null, overrides));
+            elementIndex.add(configObject);
+        } else if (collection instanceof List) {
+            overrideConfigWithSystemVariables(configObjectOptional.get(), null, overrides);
+        } else {
+            Object configObject = configObjectOptional.get();
+            collection.remove(configObject);
+            collection.add(overrideConfigWithSystemVariables(configObject, null, overrides));
+        }
+    }
+
     /**
      * Returns an instance from the given class type.
      *
@@ -439,17 +1312,17 @@ public class ConfigProviderImpl implements ConfigProvider {
      * WSO2.DATASOURCES_0_PRIMARYKEY = "WSO2_CARBON_DB"</li>
      * </ul>
      *
-     * @param systemVarKey system variable key
+     * @param elementVarKey system variable key of the array element (e.g. WSO2.DATASOURCES_0)
+     * @param systemVarKey  system variable key which overrides the array element, used in error messages
      * @return the key and the value relevant for the unique key for a given system variable
      * @throws ConfigurationException when any of the unique identifiers for the given system variable cannot be
      *                                located
      */
-    private ImmutablePair<String, String> getUniqueSystemVarEntry(String systemVarKey)
+    private ImmutablePair<String, String> getUniqueSystemVarEntry(String elementVarKey, String systemVarKey)
             throws ConfigurationException {
         // Get unique value from "ID" or "NAME"
         for (String uniqueKey : UNIQUE_ATTRIBUTE_NAMES) {
-            String uniqueVarKey = systemVarKey.substring(0, systemVarKey.lastIndexOf(CONFIG_LEVEL_SEPARATOR)) +
-                                  CONFIG_LEVEL_SEPARATOR + uniqueKey;
+            String uniqueVarKey = elementVarKey + CONFIG_LEVEL_SEPARATOR + uniqueKey;
             String uniqueVarValue = getSystemVariableValue(uniqueVarKey);
             if (uniqueVarValue != null) {
                 return ImmutablePair.of(uniqueKey, uniqueVarValue);
@@ -457,9 +1330,9 @@ public class ConfigProviderImpl implements ConfigProvider {
         }
 
         // Check if the unique system variable is specified since unique value from "ID" and "NAME" failed.
-        String uniqueVarKeySegment = systemVarKey.substring(0, systemVarKey.lastIndexOf(CONFIG_LEVEL_SEPARATOR));
-        String arrayGroupString = uniqueVarKeySegment.substring(systemVarKey.lastIndexOf(CONFIG_LEVEL_SEPARATOR) - 1);
-        uniqueVarKeySegment = uniqueVarKeySegment.substring(0, uniqueVarKeySegment.lastIndexOf(CONFIG_LEVEL_SEPARATOR));
+        int arrayGroupIndex = elementVarKey.lastIndexOf(CONFIG_LEVEL_SEPARATOR);
+        String arrayGroupString = elementVarKey.substring(arrayGroupIndex + CONFIG_LEVEL_SEPARATOR.length());
+        String uniqueVarKeySegment = elementVarKey.substring(0, arrayGroupIndex);
 
         // Identify the unique system variable attribute
         String uniqueVarKeySpecifier = uniqueVarKeySegment + CONFIG_LEVEL_SEPARATOR + UNIQUE_ATTRIBUTE_SPECIFIER;
@@ -536,7 +1409,8 @@ public class ConfigProviderImpl implements ConfigProvider {
      * @return configuration object for the given YAML string
      */
     private <T> T getConfigurationObject(Class<T> configClass, ClassLoader classLoader, String yamlString) {
-        Yaml yaml = new Yaml(new CustomClassLoaderConstructor(configClass, classLoader, new LoaderOptions()));
+        Yaml yaml = new Yaml(new ConfigBeanConstructor(configClass, classLoader,
+                configFileReader.getLoaderOptions()));
         yaml.setBeanAccess(BeanAccess.FIELD);
         return yaml.loadAs(yamlString, configClass);
     }
@@ -581,6 +1455,17 @@ public class ConfigProviderImpl implements ConfigProvider {
 
         if (field.getType().isPrimitive()) {
             value = castToWrapperType(field, value.toString());
+        } else if (value instanceof String) {
+            Optional<? extends ValueConverter<?>> converter = ValueConverters.getConverter(field.getType());
+            if (converter.isPresent()) {
+                try {
+                    value = converter.get().convert((String) value);
+                } catch (IllegalArgumentException e) {
+                    throw new ConfigurationException(String.format(Locale.ENGLISH, "Error in overriding deployment " +
+                            "config value with system config key %s, value '%s' is not a valid %s", configKey, value,
+                            field.getType().getSimpleName()), e);
+                }
+            }
         }
 
         try {
@@ -656,13 +1541,90 @@ public class ConfigProviderImpl implements ConfigProvider {
     /**
      * This method loads deployment configs in deployment.yaml.
      * loads only if deployment configuration not exists
+     *
+     * @return configuration snapshot
+     */
+    private ConfigSnapshot loadDeploymentConfiguration(ConfigFileReader configFileReader)
+            throws ConfigurationException {
+        if (base != null) {
+            ConfigSnapshot baseSnapshot = base.loadDeploymentConfiguration(base.configFileReader);
+            ConfigSnapshot currentSnapshot = snapshot;
+            if (currentSnapshot == null || currentSnapshot.getBase() != baseSnapshot) {
+                synchronized (this) {
+                    currentSnapshot = snapshot;
+                    if (currentSnapshot == null || currentSnapshot.getBase() != baseSnapshot) {
+                        currentSnapshot = new ConfigSnapshot(baseSnapshot, overrides);
+                        snapshot = currentSnapshot;
+                    }
+                }
+            }
+            return currentSnapshot;
+        }
+        ConfigSnapshot currentSnapshot = snapshot;
+        if (currentSnapshot == null) {
+            synchronized (this) {
+                currentSnapshot = snapshot;
+                if (currentSnapshot == null) {
+                    currentSnapshot = newSnapshot(null, lastVersion + 1);
+                    lastVersion = currentSnapshot.getVersion();
+                    snapshot = currentSnapshot;
+                    history.add(currentSnapshot);
+                }
+            }
+        }
+        return currentSnapshot;
+    }
+
+    /**
+     * Returns the current snapshot if it is loaded, without loading the configuration file.
+     *
+     * @return current snapshot or null if the configuration is not loaded or an overlay snapshot is outdated
+     */
+    private ConfigSnapshot getLoadedSnapshot() {
+        ConfigSnapshot currentSnapshot = snapshot;
+        if (base != null && currentSnapshot != null && currentSnapshot.getBase() != base.getLoadedSnapshot()) {
+            return null;
+        }
+        return currentSnapshot;
+    }
+
+    /**
+     * Returns the current snapshot, loading the configuration file if it is not loaded.
+     *
+     * @return current snapshot
      */
-    private void loadDeploymentConfiguration(ConfigFileReader configFileReader) throws ConfigurationException {
-        if (deploymentConfigs == null) {
-            deploymentConfigs = configFileReader.getDeploymentConfiguration();
+    private ConfigSnapshot getCurrentSnapshot() {
+        try {
+            return loadDeploymentConfiguration(configFileReader);
+        } catch (ConfigurationException e) {
+            throw new ConfigurationRuntimeException(e.getMessage(), e);
         }
     }
 
+    /**
+     * Creates a snapshot of the deployment configuration read from the configuration file, which is released right
+     * away if the configuration text of this provider is released. If the reader parses the file into trees itself,
+     * the YAML strings are dumped from the trees and the snapshot is built from the trees.
+     *
+     * @param previous previous snapshot or null if this is the first snapshot
+     * @param version  version of the snapshot
+     * @return snapshot
+     * @throws ConfigurationException if an error occurred while reading the configuration file
+     */
+    private ConfigSnapshot newSnapshot(ConfigSnapshot previous, long version) throws ConfigurationException {
+        Map<String, Object> configTrees = configFileReader.getDeploymentConfigurationTrees();
+        Map<String, String> deploymentConfigs = configTrees != null ?
+                ConfigurationUtils.getDeploymentConfigMap(configTrees) : configFileReader.getDeploymentConfiguration();
+        ConfigSnapshot newSnapshot = new ConfigSnapshot(deploymentConfigs, configTrees,
+                configString -> new Yaml(configFileReader.getLoaderOptions()).load(configString),
+                (configString, references) -> processPlaceholder(configString, references, null),
+                previous, version);
+        if (configTextReleased) {
+            newSnapshot.release();
+        }
+        return newSnapshot;
+    }
+
     /**
      * This method will concatenate and return the placeholder types.. Placeholder types will be separated
      * by | token. This method will be used to create the {@link ConfigProviderImpl#PLACEHOLDER_REGEX}.
@@ -680,14 +1642,25 @@ public class ConfigProviderImpl implements ConfigProvider {
     }
 
     /**
-     * This method returns the new value after processing the placeholders. This method can process multiple
-     * placeholders within the same String as well.
+     * This method returns the new value after processing the placeholders and substituting the system variables
+     * (see {@link ConfigurationUtils#substituteVariables(String)}). This method can process multiple placeholders
+     * within the same String as well.
+     * <p>
+     * If no secrets function is given, the sec placeholders are kept as they are, hence the decrypted secrets do not
+     * end up in the configuration retained by a snapshot. They are resolved each time a configuration is bound.
      *
      * @param inputString Placeholder that needs to be replaced
+     * @param references  Function which returns the resolved value of a configuration path, or null if the path
+     *                    does not refer to a scalar value. This is used to resolve the ref placeholders.
+     * @param secrets     Function which returns the secret of an alias, or null to keep the sec placeholders. This is
+     *                    used to resolve the sec placeholders.
      * @return New getContent which corresponds to inputString
      */
-    private String processPlaceholder(String inputString) {
+    private String processPlaceholder(String inputString, Function<String, String> references,
+                                      Function<String, String> secrets) {
         Matcher matcher = PLACEHOLDER_PATTERN.matcher(inputString);
+        StringBuilder processed = new StringBuilder(inputString.length());
+        int position = 0;
         //Match all placeholders in the inputString
         while (matcher.find()) {
             //Group 3 corresponds to the key in the inputString
@@ -697,56 +1670,61 @@ public class ConfigProviderImpl implements ConfigProvider {
             //Group 7 corresponds to the default value in the inputString. If default value is not available, this
             // will be null
             String defaultValue = matcher.group(7);
+            String newValue;
             switch (key) {
                 case "env":
-                    inputString = processValue(System::getenv, value, inputString, defaultValue, Placeholder.ENV);
+                    newValue = processValue(System::getenv, value, inputString, defaultValue, Placeholder.ENV);
                     break;
                 case "sys":
-                    inputString = processValue(System::getProperty, value, inputString, defaultValue, Placeholder.SYS);
+                    newValue = processValue(System::getProperty, value, inputString, defaultValue, Placeholder.SYS);
                     break;
                 case "sec":
-                    try {
-                        SecureVault secureVault = getSecureVault().orElseThrow(() ->
-                                new ConfigurationRuntimeException("Secure Vault service is not available"));
-                        String newValue = new String(secureVault.resolve(value));
-                        inputString = inputString.replaceFirst(PLACEHOLDER_REGEX, "$1" + ConfigurationUtils
-                                .escapeSpecialCharacters(newValue) + "$8");
-                    } catch (SecureVaultException e) {
-                        throw new ConfigurationRuntimeException("Unable to resolve the given alias", e);
-                    }
+                    newValue = secrets != null ? secrets.apply(value) : null;
+                    break;
+                case "ref":
+                    newValue = processValue(references, value, inputString, defaultValue, Placeholder.REF);
                     break;
                 default:
                     String msg = String.format("Unsupported placeholder: %s", key);
                     logger.error(msg);
                     throw new ConfigurationRuntimeException(msg);
             }
+            //Group 2 corresponds to the placeholder itself. The text around it is substituted on its own, as a kept
+            // sec placeholder would otherwise be taken for a system variable. Referenced values are processed already.
+            processed.append(ConfigurationUtils.substituteVariables(inputString.substring(position,
+                    matcher.start(2))));
+            if (newValue == null) {
+                processed.append(matcher.group(2));
+            } else {
+                processed.append(Placeholder.REF.getValue().equals(key) ? newValue
+                        : ConfigurationUtils.substituteVariables(newValue));
+            }
+            position = matcher.end(2);
         }
-        return inputString;
+        processed.append(ConfigurationUtils.substituteVariables(inputString.substring(position)));
+        return processed.toString();
     }
 
     /**
-     * This method process a given placeholder string and returns the string with replaced new value.
+     * This method process a given placeholder and returns its new value.
      *
      * @param func         Function to apply.
-     * @param key          Environment Variable/System Property key.
+     * @param key          Environment Variable/System Property key/Configuration path.
      * @param inputString  String which needs to process.
      * @param defaultValue Default value of the placeholder. If default value is not available, this is null.
-     * @param type         Type of the placeholder (env/sys/sec) This is used to print the error message.
-     * @return String which has the new value instead of the placeholder.
+     * @param type         Type of the placeholder (env/sys/sec/ref) This is used to print the error message.
+     * @return new value of the placeholder
      */
     private static String processValue(Function<String, String> func, String key, String inputString, String
             defaultValue, Placeholder type) {
         String newValue = func.apply(key);
-        //If the new value is not null, replace the placeholder with the new value and return the string.
+        //If the new value is not null, return it.
         if (newValue != null) {
-            return inputString.replaceFirst(PLACEHOLDER_REGEX, "$1" +
-                    ConfigurationUtils.escapeSpecialCharacters(newValue) + "$8");
+            return newValue;
         }
-        //If the new value is empty and the default value is not empty, replace the placeholder with the default
-        // value and return the string
+        //If the new value is empty and the default value is not empty, return the default value
         if (defaultValue != null) {
-            return inputString.replaceFirst(PLACEHOLDER_REGEX, "$1" +
-                    ConfigurationUtils.escapeSpecialCharacters(defaultValue) + "$8");
+            return defaultValue;
         }
         //Otherwise print an error message and throw na exception
         String msg;
@@ -756,6 +1734,9 @@ public class ConfigProviderImpl implements ConfigProvider {
         } else if (Placeholder.SYS.getValue().equals(type.getValue())) {
             msg = String.format("System property %s not found. Placeholder: %s", key,
                     inputString);
+        } else if (Placeholder.REF.getValue().equals(type.getValue())) {
+            msg = String.format("Configuration value %s not found. Placeholder: %s", key,
+                    inputString);
         } else {
             msg = String.format("Unsupported placeholder type: %s", type.getValue());
         }
@@ -763,6 +1744,92 @@ public class ConfigProviderImpl implements ConfigProvider {
         throw new ConfigurationRuntimeException(msg);
     }
 
+    /**
+     * Returns the processed configuration of a snapshot, which is ready to be bound. The sec placeholders which the
+     * snapshot keeps, in its configuration and in the referenced values, are resolved for this binding only.
+     *
+     * @param snapshot     configuration snapshot
+     * @param configString YAML string of the configuration
+     * @param secrets      function which returns the secret of an alias
+     * @return processed YAML string
+     */
+    private String resolvePlaceholders(ConfigSnapshot snapshot, String configString,
+                                       Function<String, String> secrets) {
+        return processPlaceholder(configString,
+                path -> (String) resolveSecrets(snapshot.getReferences().resolve(path), secrets), secrets);
+    }
+
+    /**
+     * Returns a copy of the given configuration tree, in which the sec placeholders are resolved. Subtrees without
+     * sec placeholders are shared with the given tree.
+     *
+     * @param tree    configuration tree or scalar value
+     * @param secrets function which returns the secret of an alias
+     * @return configuration tree with the secrets
+     */
+    private Object resolveSecrets(Object tree, Function<String, String> secrets) {
+        if (tree instanceof String) {
+            String value = (String) tree;
+            return value.contains(SECRET_PLACEHOLDER_PREFIX) ? processPlaceholder(value, path -> null, secrets)
+                    : value;
+        }
+        if (tree instanceof Map) {
+            Map<Object, Object> resolved = null;
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) tree).entrySet()) {
+                Object value = resolveSecrets(entry.getValue(), secrets);
+                if (value != entry.getValue() && resolved == null) {
+                    resolved = new LinkedHashMap<>((Map<?, ?>) tree);
+                }
+                if (resolved != null) {
+                    resolved.put(entry.getKey(), value);
+                }
+            }
+            return resolved != null ? resolved : tree;
+        }
+        if (tree instanceof List) {
+            List<Object> resolved = null;
+            List<?> elements = (List<?>) tree;
+            for (int i = 0; i < elements.size(); i++) {
+                Object value = resolveSecrets(elements.get(i), secrets);
+                if (value != elements.get(i) && resolved == null) {
+                    resolved = new ArrayList<>(elements);
+                }
+                if (resolved != null) {
+                    resolved.set(i, value);
+                }
+            }
+            return resolved != null ? resolved : tree;
+        }
+        return tree;
+    }
+
+    /**
+     * Returns a function which resolves the secret of an alias from the secure vault once, however many times the
+     * alias is referred to. The resolved secrets are held by the function only, hence for a single binding.
+     *
+     * @return function which returns the secret of an alias
+     */
+    private Function<String, String> newSecretResolver() {
+        Map<String, String> secrets = new ConcurrentHashMap<>();
+        return alias -> secrets.computeIfAbsent(alias, this::resolveSecret);
+    }
+
+    /**
+     * Returns the secret of the given alias from the secure vault.
+     *
+     * @param alias alias of the secret
+     * @return secret
+     */
+    private String resolveSecret(String alias) {
+        try {
+            SecureVault secureVault = getSecureVault().orElseThrow(() ->
+                    new ConfigurationRuntimeException("Secure Vault service is not available"));
+            return new String(secureVault.resolve(alias));
+        } catch (SecureVaultException e) {
+            throw new ConfigurationRuntimeException("Unable to resolve the given alias", e);
+        }
+    }
+
     private Optional<SecureVault> getSecureVault() {
         return Optional.ofNullable(secureVault);
     }
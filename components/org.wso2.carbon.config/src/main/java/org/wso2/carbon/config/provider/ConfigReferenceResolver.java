@@ -0,0 +1,126 @@
+/*
+ *  Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.config.provider;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.wso2.carbon.config.ConfigurationRuntimeException;
+
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Resolves the ${ref:path} placeholders of a snapshot, which refer to other scalar configuration values by their
+ * configuration path (e.g. ${ref:transports.transport[0].port}, see {@link ConfigPathIndex}).
+ * <p>
+ * Referenced values are read from an index of the configuration trees as they are written in the configuration file,
+ * hence a referenced value may hold placeholders itself. Those are resolved before the value is substituted,
+ * following the references depth first, except for the ${sec:alias} placeholders, which are kept for the binding of
+ * a configuration object to resolve. A reference which is reached again while it is being resolved closes a
+ * cycle, which is reported with the chain of references forming it. The resolved value of each path is kept until
+ * the snapshot is released, hence a chain of references is followed once however many values refer to it.
+ *
+ * @since 2.1.18
+ */
+final class ConfigReferenceResolver {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConfigReferenceResolver.class);
+    private static final String CHAIN_SEPARATOR = " -> ";
+
+    private final ConfigPathIndex rawIndex;
+    private final BiFunction<String, Function<String, String>, String> placeholderProcessor;
+    private final Map<String, String> resolvedValues = new ConcurrentHashMap<>();
+
+    /**
+     * Creates the resolver of a snapshot.
+     *
+     * @param namespaces           namespaces of the snapshot
+     * @param rawTreeLoader        function which returns the configuration tree of a namespace without resolving its
+     *                             placeholders
+     * @param placeholderProcessor function which resolves the placeholders of a string, given the function which
+     *                             resolves the referenced values
+     */
+    ConfigReferenceResolver(Set<String> namespaces, Function<String, Object> rawTreeLoader,
+                            BiFunction<String, Function<String, String>, String> placeholderProcessor) {
+        this.rawIndex = new ConfigPathIndex(namespaces, rawTreeLoader, null);
+        this.placeholderProcessor = placeholderProcessor;
+    }
+
+    /**
+     * Returns the resolved value of the given configuration path.
+     *
+     * @param path configuration path
+     * @return resolved value or null if the path does not refer to a scalar value
+     * @throws ConfigurationRuntimeException if the value refers to itself through a cycle of references
+     */
+    String resolve(String path) {
+        return resolve(path.trim(), new LinkedHashSet<>());
+    }
+
+    private String resolve(String path, Set<String> chain) {
+        String resolvedValue = resolvedValues.get(path);
+        if (resolvedValue != null) {
+            return resolvedValue;
+        }
+        if (!chain.add(path)) {
+            String msg = "Cyclic configuration reference: " + String.join(CHAIN_SEPARATOR, chain) + CHAIN_SEPARATOR
+                    + path;
+            logger.error(msg);
+            throw new ConfigurationRuntimeException(msg);
+        }
+        try {
+            ConfigValue rawValue = rawIndex.get(path);
+            if (rawValue == null) {
+                return null;
+            }
+            resolvedValue = placeholderProcessor.apply(rawValue.asString(), reference -> resolve(reference.trim(),
+                    chain));
+            String existingValue = resolvedValues.putIfAbsent(path, resolvedValue);
+            if (logger.isDebugEnabled() && existingValue == null) {
+                logger.debug("Resolved configuration reference: {}", path);
+            }
+            return existingValue != null ? existingValue : resolvedValue;
+        } finally {
+            chain.remove(path);
+        }
+    }
+
+    /**
+     * Returns the estimated number of bytes retained by the index of the referenced values and the resolved values.
+     *
+     * @return estimated number of retained bytes
+     */
+    long getRetainedBytes() {
+        long bytes = rawIndex.getRetainedBytes();
+        for (Map.Entry<String, String> entry : resolvedValues.entrySet()) {
+            bytes += ConfigSnapshot.sizeOf(entry.getKey()) + ConfigSnapshot.sizeOf(entry.getValue());
+        }
+        return bytes;
+    }
+
+    /**
+     * Releases the index of the referenced values and the resolved values, which are computed again when a reference
+     * is resolved next.
+     */
+    void release() {
+        rawIndex.release();
+        resolvedValues.clear();
+    }
+}
@@ -0,0 +1,446 @@
+/*
+ *  Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.config.provider;
+
+import org.wso2.carbon.config.ConfigurationUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Immutable view of the deployment configuration read from the configuration file at a point in time.
+ * <p>
+ * Everything derived from the configuration (e.g. the namespace trees, the path index and the shared instances of
+ * immutable configuration types) is computed at most once per snapshot. Namespace trees are canonicalized with a
+ * {@link ConfigTreeInterner} which shares the unchanged subtrees of the previous snapshot, while the intern tables
+ * are held by the latest snapshot only, until it is released. If the configuration file reader parses the file into
+ * trees itself (see {@link org.wso2.carbon.config.reader.ConfigFileReader#getDeploymentConfigurationTrees()}), those
+ * trees are canonicalized instead of loading the YAML strings dumped from them again.
+ * <p>
+ * An overlay snapshot holds overrides of some namespaces on top of a base snapshot and delegates the other namespaces
+ * to the base snapshot, including their trees, path index and shared instances. The tree of an overridden namespace is
+ * merged on top of the base tree when it is read for the first time, sharing the subtrees which are not overridden.
+ * Hence an overlay costs memory in proportion to its overrides.
+ * <p>
+ * The fingerprint of a namespace is the fingerprint of its resolved configuration tree (see
+ * {@link ConfigTreeInterner}), which is computed while the tree is canonicalized. The fingerprint of a snapshot is
+ * computed from the fingerprints of its namespaces once, hence comparing snapshots or namespaces by fingerprint is a
+ * constant time operation after that.
+ * <p>
+ * Once the consumers have bound their configurations, the snapshot may be released: the configuration trees of all
+ * namespaces are loaded, the YAML strings of the namespaces are loaded into canonical trees as they are written, i.e.
+ * without resolving the placeholders, and the YAML strings, the path index and the resolved references are dropped.
+ * Afterwards the YAML string of a namespace is materialized from its unresolved tree when it is read, hence it is
+ * processed as the original text would be, and the indexes are built again on demand. A released snapshot retains
+ * the canonical trees only, which share the subtrees without placeholders.
+ *
+ * @since 2.1.18
+ */
+final class ConfigSnapshot {
+
+    private static final long STRING_BYTES = 40L;
+
+    private final Set<String> namespaces;
+    private final ConfigPathIndex pathIndex;
+    private final ConfigTreeInterner treeInterner;
+    private final Function<String, Object> yamlLoader;
+    private final BiFunction<String, Function<String, String>, String> placeholderProcessor;
+    private final ConfigReferenceResolver references;
+    private final ConfigSnapshot base;
+    private final long version;
+    private final Map<String, Object> overrides;
+    private final Map<String, Object> namespaceTrees = new ConcurrentHashMap<>();
+    private final Map<String, Long> namespaceFingerprints = new ConcurrentHashMap<>();
+    private final Map<Class<?>, Map<String, Object>> sharedInstances = new ConcurrentHashMap<>();
+    private volatile Map<String, String> deploymentConfigs;
+    private volatile Map<String, Object> rawNamespaceTrees = Collections.emptyMap();
+    private volatile Map<String, Object> parsedNamespaceTrees;
+    private volatile Long fingerprint;
+
+    /**
+     * Creates a snapshot from the deployment configuration map, whose placeholders are not resolved.
+     *
+     * @param deploymentConfigs map with key: namespace, value: YAML string of the namespace
+     * @param yamlLoader        function which loads the configuration tree of a YAML string
+     * @param previous          previous snapshot or null if this is the first snapshot
+     */
+    ConfigSnapshot(Map<String, String> deploymentConfigs, Function<String, Object> yamlLoader,
+                   ConfigSnapshot previous) {
+        this(deploymentConfigs, yamlLoader, (value, references) -> value, previous,
+                previous != null ? previous.version + 1 : 1L);
+    }
+
+    /**
+     * Creates a snapshot from the deployment configuration map.
+     *
+     * @param deploymentConfigs    map with key: namespace, value: YAML string of the namespace
+     * @param yamlLoader           function which loads the configuration tree of a YAML string
+     * @param placeholderProcessor function which resolves the placeholders of a YAML string, given the function
+     *                             which resolves the referenced configuration values
+     * @param previous             previous snapshot or null if this is the first snapshot
+     * @param version              version of the snapshot, which identifies it among the snapshots of a provider
+     */
+    ConfigSnapshot(Map<String, String> deploymentConfigs, Function<String, Object> yamlLoader,
+                   BiFunction<String, Function<String, String>, String> placeholderProcessor,
+                   ConfigSnapshot previous, long version) {
+        this(deploymentConfigs, null, yamlLoader, placeholderProcessor, previous, version);
+    }
+
+    /**
+     * Creates a snapshot from the deployment configuration map and the configuration trees the YAML strings of the
+     * map are dumped from, e.g. the trees of a JSON file. The trees are used instead of loading the YAML strings,
+     * unless the placeholders of a namespace change its YAML string.
+     *
+     * @param deploymentConfigs    map with key: namespace, value: YAML string of the namespace
+     * @param parsedTrees          map with key: namespace, value: configuration tree of the namespace, or null if
+     *                             the trees are loaded from the YAML strings
+     * @param yamlLoader           function which loads the configuration tree of a YAML string
+     * @param placeholderProcessor function which resolves the placeholders of a YAML string, given the function
+     *                             which resolves the referenced configuration values
+     * @param previous             previous snapshot or null if this is the first snapshot
+     * @param version              version of the snapshot, which identifies it among the snapshots of a provider
+     */
+    ConfigSnapshot(Map<String, String> deploymentConfigs, Map<String, Object> parsedTrees,
+                   Function<String, Object> yamlLoader,
+                   BiFunction<String, Function<String, String>, String> placeholderProcessor,
+                   ConfigSnapshot previous, long version) {
+        this.parsedNamespaceTrees = parsedTrees != null ? parsedTrees : Collections.emptyMap();
+        this.deploymentConfigs = Collections.unmodifiableMap(new HashMap<>(deploymentConfigs));
+        // a copy of the namespaces, as the key set of the configuration map would retain its text after release
+        this.namespaces = Collections.unmodifiableSet(new HashSet<>(deploymentConfigs.keySet()));
+        this.yamlLoader = yamlLoader;
+        this.placeholderProcessor = placeholderProcessor;
+        this.references = new ConfigReferenceResolver(namespaces, this::getRawNamespaceTree, placeholderProcessor);
+        this.treeInterner = previous != null ? new ConfigTreeInterner(previous.treeInterner,
+                previous::getCanonicalTrees) : new ConfigTreeInterner();
+        this.pathIndex = new ConfigPathIndex(namespaces, this::getNamespaceTree, null);
+        this.base = null;
+        this.version = version;
+        this.overrides = Collections.emptyMap();
+    }
+
+    /**
+     * Creates an overlay snapshot which overrides the given namespaces of the base snapshot.
+     *
+     * @param base      base snapshot
+     * @param overrides unmodifiable map with key: namespace, value: configuration tree merged on top of the base tree
+     *                  of the namespace
+     */
+    ConfigSnapshot(ConfigSnapshot base, Map<String, Object> overrides) {
+        this.deploymentConfigs = Collections.emptyMap();
+        this.parsedNamespaceTrees = Collections.emptyMap();
+        this.namespaces = overrides.keySet();
+        this.yamlLoader = null;
+        this.placeholderProcessor = null;
+        this.references = null;
+        this.treeInterner = null;
+        this.base = base;
+        this.version = base.version;
+        this.overrides = overrides;
+        this.pathIndex = new ConfigPathIndex(overrides.keySet(), this::getNamespaceTree, base.pathIndex);
+    }
+
+    /**
+     * Returns the version of this snapshot. An overlay snapshot has the version of its base snapshot.
+     *
+     * @return version
+     */
+    long getVersion() {
+        return version;
+    }
+
+    /**
+     * Returns the base snapshot of an overlay snapshot.
+     *
+     * @return base snapshot or null if this is not an overlay snapshot
+     */
+    ConfigSnapshot getBase() {
+        return base;
+    }
+
+    /**
+     * Returns the resolver of the reference placeholders. References are resolved against the deployment
+     * configuration, hence an overlay snapshot returns the resolver of its base snapshot.
+     *
+     * @return resolver of the reference placeholders
+     */
+    ConfigReferenceResolver getReferences() {
+        return base != null ? base.getReferences() : references;
+    }
+
+    /**
+     * Returns the YAML string of the namespace.
+     *
+     * @param namespace configuration namespace
+     * @return YAML string of the namespace or null if the namespace does not exist
+     */
+    String getNamespaceConfig(String namespace) {
+        if (base == null) {
+            Map<String, String> configs = deploymentConfigs;
+            if (configs != null) {
+                return configs.get(namespace);
+            }
+            // the text is released, hence it is materialized from the unresolved tree, which is loaded before the
+            // text is released
+            return namespace != null ? ConfigurationUtils.dumpConfigTree(rawNamespaceTrees.get(namespace)) : null;
+        }
+        if (namespace == null || !overrides.containsKey(namespace)) {
+            return base.getNamespaceConfig(namespace);
+        }
+        return ConfigurationUtils.dumpConfigTree(getNamespaceTree(namespace));
+    }
+
+    /**
+     * Returns the configuration tree of the namespace as it is written in the configuration file, without resolving
+     * the placeholders.
+     *
+     * @param namespace configuration namespace
+     * @return configuration tree of the namespace or null if the namespace does not exist
+     */
+    private Object getRawNamespaceTree(String namespace) {
+        if (deploymentConfigs == null) {
+            return rawNamespaceTrees.get(namespace);
+        }
+        Object parsedTree = parsedNamespaceTrees.get(namespace);
+        if (parsedTree != null) {
+            return parsedTree;
+        }
+        String namespaceConfig = getNamespaceConfig(namespace);
+        return namespaceConfig != null ? yamlLoader.apply(namespaceConfig) : null;
+    }
+
+    /**
+     * Returns the canonical configuration tree of the namespace with the placeholders resolved. The returned tree is
+     * unmodifiable and may be shared with other snapshots.
+     *
+     * @param namespace configuration namespace
+     * @return configuration tree of the namespace, either a Map, a List or a scalar, or null if the namespace does
+     * not exist
+     */
+    Object getNamespaceTree(String namespace) {
+        if (base != null) {
+            if (!overrides.containsKey(namespace)) {
+                return base.getNamespaceTree(namespace);
+            }
+            return namespaceTrees.computeIfAbsent(namespace,
+                    key -> ConfigDefaults.merge(base.getNamespaceTree(key), overrides.get(key)));
+        }
+        if (!namespaces.contains(namespace)) {
+            return null;
+        }
+        return namespaceTrees.computeIfAbsent(namespace, key -> {
+            String namespaceConfig = getNamespaceConfig(key);
+            if (namespaceConfig == null) {
+                // an empty namespace whose text is released
+                return null;
+            }
+            String processedConfig = placeholderProcessor.apply(namespaceConfig, references::resolve);
+            Object parsedTree = parsedNamespaceTrees.get(key);
+            // the parsed tree of a namespace without placeholders is its configuration tree as it is
+            Object tree = parsedTree != null && processedConfig.equals(namespaceConfig) ? parsedTree
+                    : yamlLoader.apply(processedConfig);
+            ConfigTreeInterner.Canonical canonical = treeInterner.canonicalize(tree);
+            namespaceFingerprints.put(key, canonical.getFingerprint());
+            return canonical.getTree();
+        });
+    }
+
+    /**
+     * Returns the fingerprint of the configuration tree of the namespace, loading the tree if it is not loaded yet.
+     *
+     * @param namespace configuration namespace
+     * @return fingerprint of the namespace or null if the namespace does not exist
+     */
+    Long getNamespaceFingerprint(String namespace) {
+        if (base != null && !overrides.containsKey(namespace)) {
+            return base.getNamespaceFingerprint(namespace);
+        }
+        if (!containsNamespace(namespace)) {
+            return null;
+        }
+        Long namespaceFingerprint = namespaceFingerprints.get(namespace);
+        if (namespaceFingerprint == null) {
+            Object tree = getNamespaceTree(namespace);
+            // trees of overlays and null trees are not canonicalized by an interner of this snapshot
+            namespaceFingerprint = namespaceFingerprints.computeIfAbsent(namespace,
+                    key -> ConfigTreeInterner.fingerprint(tree));
+        }
+        return namespaceFingerprint;
+    }
+
+    /**
+     * Returns the fingerprint of this snapshot, which is computed from the fingerprints of all namespaces. Hence the
+     * configuration trees of all namespaces are loaded when the fingerprint is read for the first time.
+     *
+     * @return fingerprint of the snapshot
+     */
+    long getFingerprint() {
+        Long snapshotFingerprint = fingerprint;
+        if (snapshotFingerprint == null) {
+            Map<String, Long> fingerprints = new HashMap<>();
+            for (String namespace : getNamespaces()) {
+                fingerprints.put(namespace, getNamespaceFingerprint(namespace));
+            }
+            snapshotFingerprint = ConfigTreeInterner.fingerprintEntries(fingerprints);
+            fingerprint = snapshotFingerprint;
+        }
+        return snapshotFingerprint;
+    }
+
+    boolean containsNamespace(String namespace) {
+        if (base != null) {
+            return overrides.containsKey(namespace) || base.containsNamespace(namespace);
+        }
+        return namespaces.contains(namespace);
+    }
+
+    Set<String> getNamespaces() {
+        if (base != null) {
+            Set<String> namespaces = new HashSet<>(base.getNamespaces());
+            namespaces.addAll(overrides.keySet());
+            return Collections.unmodifiableSet(namespaces);
+        }
+        return this.namespaces;
+    }
+
+    ConfigPathIndex getPathIndex() {
+        return pathIndex;
+    }
+
+    /**
+     * Returns the shared instance of an immutable configuration type bound to the given namespace.
+     *
+     * @param namespace  configuration namespace
+     * @param configType immutable configuration type
+     * @param <T>        configuration type
+     * @return shared instance or null if the type is not bound in this snapshot yet
+     */
+    <T> T getSharedInstance(String namespace, Class<T> configType) {
+        if (base != null && !overrides.containsKey(getKey(namespace))) {
+            return base.getSharedInstance(namespace, configType);
+        }
+        Map<String, Object> instances = sharedInstances.get(configType);
+        return instances != null ? configType.cast(instances.get(getKey(namespace))) : null;
+    }
+
+    /**
+     * Shares the given instance of an immutable configuration type bound to the given namespace, unless another
+     * instance is already shared. Shared instances are retained as long as the snapshot, hence instances which hold
+     * decrypted secrets are not shared.
+     *
+     * @param namespace  configuration namespace
+     * @param configType immutable configuration type
+     * @param instance   configuration instance
+     * @param <T>        configuration type
+     * @return shared instance
+     */
+    <T> T putSharedInstance(String namespace, Class<T> configType, T instance) {
+        if (base != null && !overrides.containsKey(getKey(namespace))) {
+            return base.putSharedInstance(namespace, configType, instance);
+        }
+        Object sharedInstance = sharedInstances.computeIfAbsent(configType, key -> new ConcurrentHashMap<>())
+                .putIfAbsent(getKey(namespace), instance);
+        return sharedInstance != null ? configType.cast(sharedInstance) : instance;
+    }
+
+    /**
+     * Releases the YAML strings of the namespaces, the path index and the resolved references, after loading the
+     * configuration trees of all namespaces and the unresolved trees which replace the YAML strings. The interner
+     * drops its tables, as no more trees are canonicalized, hence a released snapshot retains the canonical trees
+     * only. Releasing an overlay snapshot releases its path index only.
+     *
+     * @return estimated number of released bytes
+     */
+    long release() {
+        long retainedBytes = getRetainedBytes();
+        if (base == null) {
+            // the fingerprint loads the trees of all namespaces
+            getFingerprint();
+            Map<String, String> configs = deploymentConfigs;
+            if (configs != null) {
+                Map<String, Object> rawTrees = new HashMap<>();
+                for (Map.Entry<String, String> entry : configs.entrySet()) {
+                    Object rawTree = getRawNamespaceTree(entry.getKey());
+                    if (rawTree != null) {
+                        rawTrees.put(entry.getKey(), treeInterner.canonicalize(rawTree).getTree());
+                    }
+                }
+                rawNamespaceTrees = Collections.unmodifiableMap(rawTrees);
+            }
+            parsedNamespaceTrees = Collections.emptyMap();
+            treeInterner.release();
+            deploymentConfigs = null;
+            references.release();
+        }
+        pathIndex.release();
+        return retainedBytes - getRetainedBytes();
+    }
+
+    /**
+     * Returns the canonical trees loaded by this snapshot, which seed the interner of the next snapshot.
+     *
+     * @return canonical trees, resolved and unresolved
+     */
+    private Collection<Object> getCanonicalTrees() {
+        List<Object> trees = new ArrayList<>(namespaceTrees.values());
+        trees.addAll(rawNamespaceTrees.values());
+        return trees;
+    }
+
+    /**
+     * Returns the estimated number of bytes retained by the YAML strings of the namespaces, the path index and the
+     * resolved references of this snapshot, which are released by {@link #release()}. The configuration trees are
+     * not included, as they may be shared with other snapshots.
+     *
+     * @return estimated number of retained bytes
+     */
+    long getRetainedBytes() {
+        long bytes = pathIndex.getRetainedBytes();
+        if (base != null) {
+            return bytes;
+        }
+        Map<String, String> configs = deploymentConfigs;
+        if (configs != null) {
+            for (Map.Entry<String, String> entry : configs.entrySet()) {
+                bytes += sizeOf(entry.getKey()) + sizeOf(entry.getValue());
+            }
+        }
+        return bytes + references.getRetainedBytes();
+    }
+
+    /**
+     * Returns the estimated number of bytes retained by a string, assuming two bytes per character.
+     *
+     * @param text string
+     * @return estimated number of bytes
+     */
+    static long sizeOf(String text) {
+        return text != null ? STRING_BYTES + 2L * text.length() : 0L;
+    }
+
+    private static String getKey(String namespace) {
+        return namespace != null ? namespace : "";
+    }
+}
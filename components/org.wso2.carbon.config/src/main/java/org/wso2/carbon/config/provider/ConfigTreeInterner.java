@@ -0,0 +1,435 @@
+/*
+ *  Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.config.provider;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Canonicalizes the configuration trees of a snapshot.
+ * <p>
+ * Keys, scalar values and subtrees are interned, hence equal keys and scalars are held once and equal subtrees are
+ * shared (hash-consing). Trees are canonicalized bottom-up, so the children of a node are canonical by the time the
+ * node is interned and nodes are compared by the identity of their children, which keeps interning linear in the
+ * size of the tree.
+ * <p>
+ * The intern tables hold a key and an entry per distinct node, hence they are not retained along with the trees. On
+ * reload the interner of the new snapshot takes over the tables of the previous snapshot and falls back to them, so
+ * unchanged subtrees of the previous snapshot are reused instead of being held twice. If the tables of the previous
+ * snapshot are already dropped, e.g. as the snapshot is released, the new interner seeds its fallback tables from the
+ * canonical trees of the previous snapshot instead, adopting the nodes of those trees. A snapshot drops its tables
+ * once they are taken over or once it is released (see {@link #release()}), hence only the interner of the latest
+ * snapshot holds tables, and the fallback tables are dropped with them.
+ * <p>
+ * Each canonical subtree carries a fingerprint, a 64-bit hash of its content which is computed from the fingerprints
+ * of its children while the tree is canonicalized, hence fingerprinting needs no extra traversal and reused subtrees
+ * keep the fingerprints computed for the previous snapshot. Fingerprints depend only on the content, so they are
+ * stable across processes: map entries are hashed regardless of their order, list elements in order, and integral
+ * scalars by value regardless of their width.
+ * <p>
+ * Canonical trees are unmodifiable since they may be shared.
+ *
+ * @since 2.1.18
+ */
+final class ConfigTreeInterner {
+
+    private static final long NULL_FINGERPRINT = 0x6a09e667f3bcc908L;
+    private static final long MAP_SEED = 0xbb67ae8584caa73bL;
+    private static final long LIST_SEED = 0x3c6ef372fe94f82bL;
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final long LIST_PRIME = 31L;
+
+    private final boolean adopting;
+    private volatile Tables tables = new Tables();
+    private volatile Tables previousTables;
+    private volatile Supplier<? extends Collection<?>> previousTrees;
+    private boolean handedOver;
+
+    /**
+     * Creates an interner without a previous snapshot.
+     */
+    ConfigTreeInterner() {
+        this(false);
+    }
+
+    /**
+     * Creates the interner of a snapshot.
+     *
+     * @param previous      interner of the previous snapshot or null if there is no previous snapshot
+     * @param previousTrees canonical trees of the previous snapshot, which seed the fallback tables if the tables of
+     *                      the previous interner are already dropped
+     */
+    ConfigTreeInterner(ConfigTreeInterner previous, Supplier<? extends Collection<?>> previousTrees) {
+        this(false);
+        Tables handedOverTables = previous != null ? previous.handOver() : null;
+        if (handedOverTables != null) {
+            this.previousTables = handedOverTables;
+        } else if (previous != null && previousTrees != null) {
+            // seeded on first use
+            this.previousTables = null;
+            this.previousTrees = previousTrees;
+        }
+    }
+
+    private ConfigTreeInterner(boolean adopting) {
+        this.adopting = adopting;
+        this.previousTables = Tables.EMPTY;
+    }
+
+    /**
+     * Drops the tables of this interner, once all trees of the snapshot are canonicalized. Trees canonicalized
+     * afterwards are still canonical, while they do not share the subtrees of the trees canonicalized before.
+     */
+    synchronized void release() {
+        handedOver = true;
+        tables = new Tables();
+        previousTables = Tables.EMPTY;
+        previousTrees = null;
+    }
+
+    /**
+     * Hands the tables of this interner over to the interner of the next snapshot. The tables are handed over once,
+     * and this interner continues with empty tables.
+     *
+     * @return tables or null if the tables are already handed over or dropped
+     */
+    private synchronized Tables handOver() {
+        if (handedOver) {
+            return null;
+        }
+        handedOver = true;
+        Tables handedOverTables = tables;
+        tables = new Tables();
+        previousTables = Tables.EMPTY;
+        previousTrees = null;
+        return handedOverTables;
+    }
+
+    /**
+     * Returns the fallback tables, seeding them from the canonical trees of the previous snapshot on first use.
+     */
+    private Tables getPreviousTables() {
+        Tables fallbackTables = previousTables;
+        if (fallbackTables == null) {
+            synchronized (this) {
+                fallbackTables = previousTables;
+                if (fallbackTables == null) {
+                    ConfigTreeInterner seed = new ConfigTreeInterner(true);
+                    for (Object tree : previousTrees.get()) {
+                        seed.canonicalize(tree);
+                    }
+                    fallbackTables = seed.tables;
+                    previousTables = fallbackTables;
+                    previousTrees = null;
+                }
+            }
+        }
+        return fallbackTables;
+    }
+
+    /**
+     * Returns the canonical tree of the given configuration tree.
+     *
+     * @param node configuration tree, either a Map, a List, a scalar or null
+     * @return canonical tree
+     */
+    Object intern(Object node) {
+        return canonicalize(node).getTree();
+    }
+
+    /**
+     * Returns the canonical tree of the given configuration tree along with its fingerprint.
+     *
+     * @param node configuration tree, either a Map, a List, a scalar or null
+     * @return canonical tree and its fingerprint
+     */
+    Canonical canonicalize(Object node) {
+        if (node instanceof Map) {
+            Map<?, ?> map = (Map<?, ?>) node;
+            Object[] elements = new Object[map.size() * 2];
+            long entriesFingerprint = 0L;
+            int i = 0;
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                Canonical key = canonicalize(entry.getKey());
+                Canonical value = canonicalize(entry.getValue());
+                elements[i++] = key.getTree();
+                elements[i++] = value.getTree();
+                entriesFingerprint += entryFingerprint(key.getFingerprint(), value.getFingerprint());
+            }
+            return internNode(new NodeKey(true, elements), mapFingerprint(entriesFingerprint, map.size()), node);
+        }
+        if (node instanceof List) {
+            List<?> list = (List<?>) node;
+            Object[] elements = new Object[list.size()];
+            long elementsFingerprint = LIST_SEED;
+            for (int i = 0; i < elements.length; i++) {
+                Canonical element = canonicalize(list.get(i));
+                elements[i] = element.getTree();
+                elementsFingerprint = elementsFingerprint * LIST_PRIME + element.getFingerprint();
+            }
+            return internNode(new NodeKey(false, elements), mix(elementsFingerprint + elements.length), node);
+        }
+        return node != null ? internScalar(node) : Canonical.NULL;
+    }
+
+    /**
+     * Returns the number of distinct scalars and subtrees held by this interner.
+     *
+     * @return number of interned values
+     */
+    int size() {
+        Tables currentTables = tables;
+        return currentTables.scalars.size() + currentTables.nodes.size();
+    }
+
+    /**
+     * Computes the fingerprint of a configuration tree which is not canonicalized, e.g. a merged tree. The
+     * fingerprint is the same as the fingerprint of the canonical tree.
+     *
+     * @param tree configuration tree, either a Map, a List, a scalar or null
+     * @return fingerprint of the tree
+     */
+    static long fingerprint(Object tree) {
+        if (tree instanceof Map) {
+            long entriesFingerprint = 0L;
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) tree).entrySet()) {
+                entriesFingerprint += entryFingerprint(fingerprint(entry.getKey()), fingerprint(entry.getValue()));
+            }
+            return mapFingerprint(entriesFingerprint, ((Map<?, ?>) tree).size());
+        }
+        if (tree instanceof List) {
+            long elementsFingerprint = LIST_SEED;
+            for (Object element : (List<?>) tree) {
+                elementsFingerprint = elementsFingerprint * LIST_PRIME + fingerprint(element);
+            }
+            return mix(elementsFingerprint + ((List<?>) tree).size());
+        }
+        return tree != null ? scalarFingerprint(tree) : NULL_FINGERPRINT;
+    }
+
+    /**
+     * Computes the fingerprint of a map from the fingerprints of its values, e.g. the fingerprint of a snapshot from
+     * the fingerprints of its namespaces. The fingerprint is the same as the fingerprint of the map tree.
+     *
+     * @param valueFingerprints map with key: scalar key, value: fingerprint of the value of the key
+     * @return fingerprint of the map
+     */
+    static long fingerprintEntries(Map<?, Long> valueFingerprints) {
+        long entriesFingerprint = 0L;
+        for (Map.Entry<?, Long> entry : valueFingerprints.entrySet()) {
+            entriesFingerprint += entryFingerprint(fingerprint(entry.getKey()), entry.getValue());
+        }
+        return mapFingerprint(entriesFingerprint, valueFingerprints.size());
+    }
+
+    private Canonical internScalar(Object scalar) {
+        Map<Object, Canonical> scalars = tables.scalars;
+        Canonical canonical = scalars.get(scalar);
+        if (canonical == null) {
+            Canonical previous = getPreviousTables().scalars.get(scalar);
+            Canonical interned = previous != null ? previous : new Canonical(scalar, scalarFingerprint(scalar));
+            canonical = scalars.putIfAbsent(scalar, interned);
+            if (canonical == null) {
+                canonical = interned;
+            }
+        }
+        return canonical;
+    }
+
+    /**
+     * Interns a node, given its key. A seeding interner adopts the given node, which is canonical already, while
+     * otherwise a new unmodifiable node is created from the key.
+     */
+    private Canonical internNode(NodeKey key, long fingerprint, Object source) {
+        Map<NodeKey, Canonical> nodes = tables.nodes;
+        Canonical canonical = nodes.get(key);
+        if (canonical == null) {
+            Canonical node = getPreviousTables().nodes.get(key);
+            if (node == null) {
+                node = new Canonical(adopting ? source : key.toNode(), fingerprint);
+            }
+            canonical = nodes.putIfAbsent(key, node);
+            if (canonical == null) {
+                canonical = node;
+            }
+        }
+        return canonical;
+    }
+
+    private static long scalarFingerprint(Object scalar) {
+        char type;
+        String text;
+        if (scalar instanceof Integer || scalar instanceof Long || scalar instanceof Short || scalar instanceof Byte
+                || scalar instanceof BigInteger) {
+            type = 'i';
+            text = scalar.toString();
+        } else if (scalar instanceof Number) {
+            type = 'f';
+            text = String.valueOf(((Number) scalar).doubleValue());
+        } else if (scalar instanceof Boolean) {
+            type = 'b';
+            text = scalar.toString();
+        } else if (scalar instanceof Date) {
+            // the text of a date depends on the default time zone
+            type = 't';
+            text = String.valueOf(((Date) scalar).getTime());
+        } else if (scalar instanceof byte[]) {
+            type = 'x';
+            text = Base64.getEncoder().encodeToString((byte[]) scalar);
+        } else {
+            type = 's';
+            text = String.valueOf(scalar);
+        }
+        long hash = (FNV_OFFSET_BASIS ^ type) * FNV_PRIME;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            hash = (hash ^ (c & 0xff)) * FNV_PRIME;
+            hash = (hash ^ (c >>> 8)) * FNV_PRIME;
+        }
+        return mix(hash);
+    }
+
+    private static long entryFingerprint(long keyFingerprint, long valueFingerprint) {
+        return mix(keyFingerprint * LIST_PRIME + valueFingerprint);
+    }
+
+    private static long mapFingerprint(long entriesFingerprint, int size) {
+        return mix(MAP_SEED ^ (entriesFingerprint + size));
+    }
+
+    /**
+     * Finalization mix of MurmurHash3, which spreads every input bit over the whole hash.
+     */
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    /**
+     * Canonical configuration tree along with its fingerprint.
+     */
+    static final class Canonical {
+
+        private static final Canonical NULL = new Canonical(null, NULL_FINGERPRINT);
+
+        private final Object tree;
+        private final long fingerprint;
+
+        private Canonical(Object tree, long fingerprint) {
+            this.tree = tree;
+            this.fingerprint = fingerprint;
+        }
+
+        Object getTree() {
+            return tree;
+        }
+
+        long getFingerprint() {
+            return fingerprint;
+        }
+    }
+
+    /**
+     * Intern tables of scalars and nodes.
+     */
+    private static final class Tables {
+
+        private static final Tables EMPTY = new Tables(Collections.emptyMap(), Collections.emptyMap());
+
+        private final Map<Object, Canonical> scalars;
+        private final Map<NodeKey, Canonical> nodes;
+
+        private Tables() {
+            this(new ConcurrentHashMap<>(), new ConcurrentHashMap<>());
+        }
+
+        private Tables(Map<Object, Canonical> scalars, Map<NodeKey, Canonical> nodes) {
+            this.scalars = scalars;
+            this.nodes = nodes;
+        }
+    }
+
+    /**
+     * Key of a node in the intern table. The elements of a key are canonical, hence they are compared by identity.
+     */
+    private static final class NodeKey {
+
+        private final boolean map;
+        private final Object[] elements;
+        private final int hash;
+
+        private NodeKey(boolean map, Object[] elements) {
+            this.map = map;
+            this.elements = elements;
+            int elementsHash = map ? 1 : 0;
+            for (Object element : elements) {
+                elementsHash = 31 * elementsHash + System.identityHashCode(element);
+            }
+            this.hash = elementsHash;
+        }
+
+        private Object toNode() {
+            if (map) {
+                Map<Object, Object> node = new LinkedHashMap<>(elements.length);
+                for (int i = 0; i < elements.length; i += 2) {
+                    node.put(elements[i], elements[i + 1]);
+                }
+                return Collections.unmodifiableMap(node);
+            }
+            return Collections.unmodifiableList(new ArrayList<>(Arrays.asList(elements)));
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof NodeKey)) {
+                return false;
+            }
+            NodeKey other = (NodeKey) o;
+            if (map != other.map || hash != other.hash || elements.length != other.elements.length) {
+                return false;
+            }
+            for (int i = 0; i < elements.length; i++) {
+                if (elements[i] != other.elements[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
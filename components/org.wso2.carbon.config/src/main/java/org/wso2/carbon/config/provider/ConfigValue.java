@@ -0,0 +1,177 @@
+/*
+ *  Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.config.provider;
+
+import org.wso2.carbon.config.ConfigurationException;
+import org.wso2.carbon.config.converter.ValueConverter;
+import org.wso2.carbon.config.converter.ValueConverters;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Scalar configuration value held by the {@link ConfigPathIndex}.
+ * <p>
+ * Numeric and boolean representations are parsed once when the value is indexed and kept as primitives, hence
+ * typed reads neither parse nor box. Values of other types are converted on the first read and the converted value
+ * is kept until it is read as another type.
+ *
+ * @since 2.1.18
+ */
+final class ConfigValue {
+
+    private static final String TRUE = "true";
+    private static final String FALSE = "false";
+    private static final String SECRET_PLACEHOLDER_PREFIX = "${sec:";
+
+    private final String text;
+    private final long longValue;
+    private final boolean integral;
+    private final boolean booleanValue;
+    private final boolean bool;
+    private final boolean secret;
+    private volatile Object converted;
+
+    private ConfigValue(String text, long longValue, boolean integral, boolean booleanValue, boolean bool) {
+        this.text = text;
+        this.longValue = longValue;
+        this.integral = integral;
+        this.booleanValue = booleanValue;
+        this.bool = bool;
+        this.secret = !integral && !bool && text.contains(SECRET_PLACEHOLDER_PREFIX);
+    }
+
+    /**
+     * Creates a configuration value from a scalar loaded by SnakeYAML.
+     *
+     * @param scalar scalar value
+     * @return configuration value
+     */
+    static ConfigValue of(Object scalar) {
+        if (scalar instanceof Integer || scalar instanceof Long) {
+            long value = ((Number) scalar).longValue();
+            return new ConfigValue(String.valueOf(value), value, true, false, false);
+        }
+        if (scalar instanceof Boolean) {
+            boolean value = (Boolean) scalar;
+            return new ConfigValue(String.valueOf(value), 0L, false, value, true);
+        }
+        String text = String.valueOf(scalar);
+        if (TRUE.equalsIgnoreCase(text) || FALSE.equalsIgnoreCase(text)) {
+            return new ConfigValue(text, 0L, false, TRUE.equalsIgnoreCase(text), true);
+        }
+        if (isIntegral(text)) {
+            try {
+                return new ConfigValue(text, Long.parseLong(text), true, false, false);
+            } catch (NumberFormatException e) {
+                // exceeds the long range, hence kept as text only
+            }
+        }
+        return new ConfigValue(text, 0L, false, false, false);
+    }
+
+    String asString() {
+        return text;
+    }
+
+    /**
+     * Returns whether the value holds ${sec:alias} placeholders, which are resolved on each read.
+     *
+     * @return true if the value refers to secrets
+     */
+    boolean isSecret() {
+        return secret;
+    }
+
+    long asLong(String path) throws ConfigurationException {
+        if (!integral) {
+            throw new ConfigurationException(String.format(Locale.ENGLISH,
+                    "Configuration value '%s' of %s is not an integer", text, path));
+        }
+        return longValue;
+    }
+
+    int asInt(String path) throws ConfigurationException {
+        long value = asLong(path);
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw new ConfigurationException(String.format(Locale.ENGLISH,
+                    "Configuration value '%s' of %s is out of the integer range", text, path));
+        }
+        return (int) value;
+    }
+
+    boolean asBoolean(String path) throws ConfigurationException {
+        if (!bool) {
+            throw new ConfigurationException(String.format(Locale.ENGLISH,
+                    "Configuration value '%s' of %s is not a boolean", text, path));
+        }
+        return booleanValue;
+    }
+
+    /**
+     * Returns the value as a duration. Integers are read as milliseconds. Text is read either as an ISO-8601
+     * duration (e.g. PT30S) or as an amount followed by one of the units ms, s, m, h or d (e.g. 30s).
+     *
+     * @param path configuration path of the value
+     * @return duration
+     * @throws ConfigurationException if the value is not a duration
+     */
+    Duration asDuration(String path) throws ConfigurationException {
+        // a default converter is registered for durations, which is restored if a replacing one is unregistered
+        return as(ValueConverters.getConverter(Duration.class).get(), path);
+    }
+
+    /**
+     * Returns the value converted by the given converter. The converted value is cached in the value.
+     *
+     * @param converter value converter
+     * @param path      configuration path of the value
+     * @param <T>       value type
+     * @return converted value
+     * @throws ConfigurationException if the value is not a valid value of the converter type
+     */
+    <T> T as(ValueConverter<T> converter, String path) throws ConfigurationException {
+        Object value = converted;
+        if (!converter.getType().isInstance(value)) {
+            try {
+                value = converter.convert(text);
+            } catch (IllegalArgumentException e) {
+                throw new ConfigurationException(String.format(Locale.ENGLISH,
+                        "Configuration value '%s' of %s is not a valid %s", text, path,
+                        converter.getType().getSimpleName()), e);
+            }
+            converted = value;
+        }
+        return converter.getType().cast(value);
+    }
+
+    private static boolean isIntegral(String text) {
+        int length = text.length();
+        if (length == 0) {
+            return false;
+        }
+        int start = text.charAt(0) == '-' || text.charAt(0) == '+' ? 1 : 0;
+        if (start == length) {
+            return false;
+        }
+        for (int i = start; i < length; i++) {
+            if (!Character.isDigit(text.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ *  Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.config.provider;
+
+/**
+ * Interfaces of the reactive streams of configurations.
+ * <p>
+ * These interfaces declare the same methods with the same contracts as the interfaces of
+ * {@code java.util.concurrent.Flow}, which is not available on all runtimes supported by this bundle. On Java 9 and
+ * later a configuration stream can be adapted to a {@code Flow.Publisher} by delegating each method.
+ *
+ * @since 2.1.18
+ */
+public final class ConfigurationFlow {
+
+    private ConfigurationFlow() {
+    }
+
+    /**
+     * Producer of configuration objects received by subscribers.
+     *
+     * @param <T> type of the configuration objects
+     */
+    @FunctionalInterface
+    public interface Publisher<T> {
+
+        /**
+         * Adds the given subscriber. {@link Subscriber#onSubscribe(Subscription)} is invoked before any other method
+         * of the subscriber.
+         *
+         * @param subscriber subscriber
+         */
+        void subscribe(Subscriber<? super T> subscriber);
+    }
+
+    /**
+     * Receiver of configuration objects.
+     *
+     * @param <T> type of the configuration objects
+     */
+    public interface Subscriber<T> {
+
+        /**
+         * Invoked when the subscriber is added to a publisher. No objects are received until they are requested
+         * through the subscription.
+         *
+         * @param subscription subscription of the subscriber
+         */
+        void onSubscribe(Subscription subscription);
+
+        /**
+         * Invoked with the next configuration object.
+         *
+         * @param item configuration object
+         */
+        void onNext(T item);
+
+        /**
+         * Invoked when the subscription is terminated with an error, after which no other method is invoked.
+         *
+         * @param throwable error
+         */
+        void onError(Throwable throwable);
+
+        /**
+         * Invoked when no more objects will be received, after which no other method is invoked.
+         */
+        void onComplete();
+    }
+
+    /**
+     * Link between a publisher and a subscriber.
+     */
+    public interface Subscription {
+
+        /**
+         * Requests the given number of objects. Requests are cumulative.
+         *
+         * @param n number of objects, which should be positive
+         */
+        void request(long n);
+
+        /**
+         * Stops receiving objects.
+         */
+        void cancel();
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ *  Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.config.provider;
+
+import org.wso2.carbon.config.ConfigurationException;
+
+/**
+ * Validates a reloaded configuration before it replaces the current configuration of a {@link ConfigProvider}, see
+ * {@link ConfigProvider#addValidator(ConfigurationValidator)}.
+ *
+ * @since 2.1.18
+ */
+@FunctionalInterface
+public interface ConfigurationValidator {
+
+    /**
+     * Validates the reloaded configuration, e.g. by binding the configuration objects of a component and checking
+     * their values.
+     *
+     * @param configProvider config provider which reads the reloaded configuration. It should be used for reading
+     *                       only and is not valid after the validation.
+     * @throws ConfigurationException if the reloaded configuration is rejected
+     */
+    void validate(ConfigProvider configProvider) throws ConfigurationException;
+}
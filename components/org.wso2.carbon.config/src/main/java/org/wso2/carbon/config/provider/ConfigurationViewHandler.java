@@ -0,0 +1,192 @@
+/*
+ *  Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.config.provider;
+
+import org.wso2.carbon.config.ConfigurationException;
+import org.wso2.carbon.config.ConfigurationRuntimeException;
+import org.wso2.carbon.config.converter.ValueConverter;
+import org.wso2.carbon.config.converter.ValueConverters;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Invocation handler of a live configuration view.
+ * <p>
+ * A view is a proxy of an interface whose getters are mapped to configuration paths under a root path. Each getter
+ * reads the current snapshot and looks the value up in its path index, hence views reflect reloaded configurations
+ * without re-binding. Getters returning a type of a {@link ValueConverter} return the converted value, which is
+ * converted once per snapshot. Getters returning another interface, other than a Java platform interface such as
+ * List, return a nested view, which may not refer back to an enclosing view. Values holding ${sec:alias}
+ * placeholders are resolved on each read.
+ *
+ * @since 2.1.18
+ */
+final class ConfigurationViewHandler implements InvocationHandler {
+
+    private static final String GETTER_PREFIX = "get";
+    private static final String BOOLEAN_GETTER_PREFIX = "is";
+
+    private static final String JAVA_PACKAGE_PREFIX = "java.";
+    private static final Set<Class<?>> SCALAR_TYPES = new HashSet<>(Arrays.asList(String.class, int.class,
+            Integer.class, long.class, Long.class, boolean.class, Boolean.class));
+
+    private final Class<?> viewInterface;
+    private final String rootPath;
+    private final Supplier<ConfigSnapshot> snapshotSupplier;
+    private final UnaryOperator<ConfigValue> secretResolver;
+    private final Map<Method, String> paths = new HashMap<>();
+    private final Map<Method, Object> nestedViews = new HashMap<>();
+    private final Map<Method, ValueConverter<?>> converters = new HashMap<>();
+
+    private ConfigurationViewHandler(Class<?> viewInterface, String rootPath,
+                                     Supplier<ConfigSnapshot> snapshotSupplier,
+                                     UnaryOperator<ConfigValue> secretResolver, Set<Class<?>> enclosingViews) {
+        this.viewInterface = viewInterface;
+        this.rootPath = rootPath;
+        this.snapshotSupplier = snapshotSupplier;
+        this.secretResolver = secretResolver;
+        Set<Class<?>> views = new HashSet<>(enclosingViews);
+        views.add(viewInterface);
+        for (Method method : viewInterface.getMethods()) {
+            Class<?> type = method.getReturnType();
+            if (method.getParameterCount() != 0 || type == void.class) {
+                throw new ConfigurationRuntimeException(String.format(Locale.ENGLISH, "Method %s of configuration " +
+                        "view %s is not a getter", method.getName(), viewInterface.getName()));
+            }
+            String path = rootPath + "." + getPropertyName(method);
+            Optional<? extends ValueConverter<?>> converter = ValueConverters.getConverter(type);
+            if (SCALAR_TYPES.contains(type)) {
+                paths.put(method, path);
+            } else if (converter.isPresent()) {
+                converters.put(method, converter.get());
+                paths.put(method, path);
+            } else if (type.isInterface() && !type.getName().startsWith(JAVA_PACKAGE_PREFIX)) {
+                if (views.contains(type)) {
+                    throw new ConfigurationRuntimeException(String.format(Locale.ENGLISH, "Method %s of " +
+                            "configuration view %s refers to the enclosing view %s", method.getName(),
+                            viewInterface.getName(), type.getName()));
+                }
+                nestedViews.put(method, newView(type, path, snapshotSupplier, secretResolver, views));
+            } else {
+                throw new ConfigurationRuntimeException(String.format(Locale.ENGLISH, "Return type %s of %s is " +
+                        "not supported by configuration views", type.getName(), method.getName()));
+            }
+        }
+    }
+
+    /**
+     * Creates a live view of the configuration under the given root path.
+     * <p>
+     * Return types of all getters are validated when the view is created, hence an unsupported return type or a
+     * nested view which refers to an enclosing view fails here rather than on the first read.
+     *
+     * @param viewInterface    interface of the view
+     * @param rootPath         configuration path of the view (e.g. the namespace)
+     * @param snapshotSupplier supplier of the current snapshot
+     * @param secretResolver   function which resolves the ${sec:alias} placeholders of a value
+     * @param <T>              type of the view
+     * @return view instance
+     */
+    static <T> T newView(Class<T> viewInterface, String rootPath, Supplier<ConfigSnapshot> snapshotSupplier,
+                         UnaryOperator<ConfigValue> secretResolver) {
+        if (!viewInterface.isInterface()) {
+            throw new ConfigurationRuntimeException("Configuration view " + viewInterface.getName() +
+                    " is not an interface");
+        }
+        return newView(viewInterface, rootPath, snapshotSupplier, secretResolver, Collections.emptySet());
+    }
+
+    private static <T> T newView(Class<T> viewInterface, String rootPath, Supplier<ConfigSnapshot> snapshotSupplier,
+                                 UnaryOperator<ConfigValue> secretResolver, Set<Class<?>> enclosingViews) {
+        return viewInterface.cast(Proxy.newProxyInstance(viewInterface.getClassLoader(),
+                new Class<?>[]{viewInterface}, new ConfigurationViewHandler(viewInterface, rootPath,
+                        snapshotSupplier, secretResolver, enclosingViews)));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) {
+        if (method.getDeclaringClass() == Object.class) {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    return viewInterface.getSimpleName() + "[" + rootPath + "]";
+            }
+        }
+        Object nestedView = nestedViews.get(method);
+        if (nestedView != null) {
+            return nestedView;
+        }
+        String path = paths.get(method);
+        ConfigValue value = secretResolver.apply(snapshotSupplier.get().getPathIndex().get(path));
+        Class<?> type = method.getReturnType();
+        if (value == null) {
+            if (type.isPrimitive()) {
+                throw new ConfigurationRuntimeException("Configuration value not found for " + path);
+            }
+            return null;
+        }
+        try {
+            if (type == String.class) {
+                return value.asString();
+            } else if (type == int.class || type == Integer.class) {
+                return value.asInt(path);
+            } else if (type == long.class || type == Long.class) {
+                return value.asLong(path);
+            } else if (type == boolean.class || type == Boolean.class) {
+                return value.asBoolean(path);
+            } else if (converters.containsKey(method)) {
+                return value.as(converters.get(method), path);
+            }
+        } catch (ConfigurationException e) {
+            throw new ConfigurationRuntimeException(e.getMessage(), e);
+        }
+        throw new ConfigurationRuntimeException(String.format(Locale.ENGLISH, "Return type %s of %s is not " +
+                "supported by configuration views", type.getName(), method.getName()));
+    }
+
+    /**
+     * Returns the configuration key of a getter, e.g. port for getPort(), secure for isSecure() and name for name().
+     *
+     * @param method getter method
+     * @return configuration key
+     */
+    private static String getPropertyName(Method method) {
+        String name = method.getName();
+        String property = name;
+        if (name.startsWith(GETTER_PREFIX) && name.length() > GETTER_PREFIX.length()) {
+            property = name.substring(GETTER_PREFIX.length());
+        } else if (name.startsWith(BOOLEAN_GETTER_PREFIX) && name.length() > BOOLEAN_GETTER_PREFIX.length()
+                && (method.getReturnType() == boolean.class || method.getReturnType() == Boolean.class)) {
+            property = name.substring(BOOLEAN_GETTER_PREFIX.length());
+        }
+        return Character.toLowerCase(property.charAt(0)) + property.substring(1);
+    }
+}
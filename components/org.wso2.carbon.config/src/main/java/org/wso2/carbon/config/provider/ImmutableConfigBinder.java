@@ -0,0 +1,515 @@
+/*
+ *  Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.config.provider;
+
+import org.wso2.carbon.config.ConfigurationException;
+import org.wso2.carbon.config.annotation.Configuration;
+import org.wso2.carbon.config.converter.ValueConverter;
+import org.wso2.carbon.config.converter.ValueConverters;
+
+import java.beans.ConstructorProperties;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Binds configuration trees to immutable configuration types.
+ * <p>
+ * A configuration type is bound as an immutable type if it opts in, i.e. it is annotated with
+ * {@link Configuration#immutable()} or it is a Java record, hence beans whose fields happen to be final are still
+ * bound by SnakeYAML. An immutable type should declare final instance fields only and a canonical constructor, i.e.
+ * a constructor which takes a parameter for each field, otherwise binding it fails. Parameters are matched to the
+ * fields by name, given either by {@link ConstructorProperties} or by the parameter names compiled with the
+ * -parameters option, and the type of each parameter should be the type of its field. Java records satisfy this by
+ * definition. Without parameter names, the parameters are matched by type, which is accepted only if no two fields
+ * have the same type, since the field declaration order is not defined. Values are passed to the canonical
+ * constructor, hence no field is written after construction and a bound instance can be shared safely.
+ * <p>
+ * Keys which are missing in the configuration take the field values of an instance created with the no-argument
+ * constructor, if one is declared, while keys which do not match a field are rejected as the SnakeYAML binding
+ * rejects them. Fields are scalars, types of value converters, lists, sets and maps of those, or immutable types.
+ * Array fields are not supported, as the elements of a shared array could be written.
+ *
+ * @since 2.1.18
+ */
+final class ImmutableConfigBinder {
+
+    private static final String RECORD_CLASS = "java.lang.Record";
+
+    private static final ClassValue<CanonicalConstructor> CANONICAL_CONSTRUCTORS =
+            new ClassValue<CanonicalConstructor>() {
+                @Override
+                protected CanonicalConstructor computeValue(Class<?> type) {
+                    return findCanonicalConstructor(type);
+                }
+            };
+
+    private ImmutableConfigBinder() {
+    }
+
+    /**
+     * Returns whether the given type opts in to be bound as an immutable configuration type.
+     *
+     * @param type configuration type
+     * @return true if the type is annotated with {@link Configuration#immutable()} or is a Java record
+     */
+    static boolean isImmutable(Class<?> type) {
+        Configuration configuration = type.getAnnotation(Configuration.class);
+        return (configuration != null && configuration.immutable()) || (type.getSuperclass() != null &&
+                RECORD_CLASS.equals(type.getSuperclass().getName()));
+    }
+
+    /**
+     * Binds the given configuration tree to an instance of the immutable configuration type.
+     *
+     * @param type immutable configuration type
+     * @param tree configuration tree of the type or null if there is no configuration
+     * @param <T>  configuration type
+     * @return configuration instance
+     * @throws ConfigurationException if the tree cannot be bound to the type
+     */
+    static <T> T bind(Class<T> type, Object tree) throws ConfigurationException {
+        return type.cast(convert(type, type, tree != null ? tree : Collections.emptyMap(), type.getName()));
+    }
+
+    /**
+     * Returns a copy of the given configuration tree of an immutable configuration type with the given system variable
+     * overrides applied. Configuration keys are matched against the field names ignoring the case, the same way system
+     * variables override configuration beans. Only the maps on the overridden paths are copied, each of them once,
+     * since the other subtrees may be shared.
+     *
+     * @param type      immutable configuration type
+     * @param tree      configuration tree of the type or null if there is no configuration
+     * @param overrides system variable overrides of the type
+     * @return overridden configuration tree
+     * @throws ConfigurationException if a key does not refer to a field of the type
+     */
+    static Map<String, Object> override(Class<?> type, Map<String, Object> tree, SystemVarOverrides overrides)
+            throws ConfigurationException {
+        Map<String, Object> overriddenTree = tree != null ? new LinkedHashMap<>(tree) : new LinkedHashMap<>();
+        for (Map.Entry<String, SystemVarOverrides> entry : overrides.getChildren().entrySet()) {
+            SystemVarOverrides elementOverrides = entry.getValue();
+            Field field = getField(type, entry.getKey(), elementOverrides.getSystemVarKey());
+            if (elementOverrides.getValue() != null) {
+                overriddenTree.put(field.getName(), elementOverrides.getValue());
+            }
+            if (elementOverrides.getChildren().isEmpty()) {
+                continue;
+            }
+            if (!isImmutable(field.getType())) {
+                throw new ConfigurationException(String.format(Locale.ENGLISH, "System variable %s cannot " +
+                        "override element %s of immutable configuration %s", elementOverrides.getSystemVarKey(),
+                        field.getName(), type.getName()));
+            }
+            Object child = overriddenTree.get(field.getName());
+            @SuppressWarnings("unchecked")
+            Map<String, Object> childTree = child instanceof Map ? (Map<String, Object>) child : null;
+            overriddenTree.put(field.getName(), override(field.getType(), childTree, elementOverrides));
+        }
+        return overriddenTree;
+    }
+
+    private static Object convert(Class<?> type, Type genericType, Object value, String path)
+            throws ConfigurationException {
+        if (value == null) {
+            return null;
+        }
+        if (type.isPrimitive() || Number.class.isAssignableFrom(type) || type == Boolean.class
+                || type == Character.class || type == String.class) {
+            return convertScalar(type, value, path);
+        }
+        Optional<? extends ValueConverter<?>> converter = ValueConverters.getConverter(type);
+        if (converter.isPresent()) {
+            return convertValue(converter.get(), value, path);
+        }
+        if (List.class == type || Collection.class == type || Set.class == type) {
+            if (!(value instanceof Collection)) {
+                throw new ConfigurationException(String.format(Locale.ENGLISH,
+                        "Configuration value of %s is expected to be a list", path));
+            }
+            Type elementType = getTypeArgument(genericType, 0);
+            Collection<Object> elements = Set.class == type ? new LinkedHashSet<>() : new ArrayList<>();
+            int index = 0;
+            for (Object element : (Collection<?>) value) {
+                elements.add(convert(getRawType(elementType), elementType, element, path + "[" + index++ + "]"));
+            }
+            return Set.class == type ? Collections.unmodifiableSet((Set<Object>) elements) :
+                    Collections.unmodifiableList((List<Object>) elements);
+        }
+        if (Map.class == type) {
+            if (!(value instanceof Map)) {
+                throw new ConfigurationException(String.format(Locale.ENGLISH,
+                        "Configuration value of %s is expected to be a map", path));
+            }
+            Type valueType = getTypeArgument(genericType, 1);
+            Map<String, Object> entries = new LinkedHashMap<>();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                String key = String.valueOf(entry.getKey());
+                entries.put(key, convert(getRawType(valueType), valueType, entry.getValue(), path + "." + key));
+            }
+            return Collections.unmodifiableMap(entries);
+        }
+        if (type == Object.class) {
+            return value;
+        }
+        if (isImmutable(type)) {
+            if (!(value instanceof Map)) {
+                throw new ConfigurationException(String.format(Locale.ENGLISH,
+                        "Configuration value of %s is expected to be a map", path));
+            }
+            return newInstance(type, (Map<?, ?>) value, path);
+        }
+        throw new ConfigurationException(String.format(Locale.ENGLISH, "Type %s of %s is not supported by " +
+                "immutable configurations, only scalars, types of value converters, collections and immutable types " +
+                "are supported", type.getName(), path));
+    }
+
+    private static Object newInstance(Class<?> type, Map<?, ?> tree, String path) throws ConfigurationException {
+        CanonicalConstructor constructor = CANONICAL_CONSTRUCTORS.get(type);
+        if (constructor.error != null) {
+            throw new ConfigurationException(constructor.error);
+        }
+        Field[] fields = constructor.parameterFields;
+        List<String> fieldNames = getFieldNames(Arrays.asList(fields));
+        for (Object key : tree.keySet()) {
+            if (!fieldNames.contains(String.valueOf(key))) {
+                throw new ConfigurationException(String.format(Locale.ENGLISH, "Unable to find property '%s' of %s " +
+                        "on immutable configuration %s", key, path, type.getName()));
+            }
+        }
+        Object defaults = tree.keySet().containsAll(fieldNames) ? null :
+                createDefaults(type);
+        Object[] arguments = new Object[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            Field field = fields[i];
+            if (tree.containsKey(field.getName())) {
+                arguments[i] = convert(field.getType(), field.getGenericType(), tree.get(field.getName()),
+                        path + "." + field.getName());
+            } else if (defaults != null) {
+                arguments[i] = getFieldValue(field, defaults);
+            }
+            if (arguments[i] == null && field.getType().isPrimitive()) {
+                arguments[i] = getZeroValue(field.getType());
+            }
+        }
+        try {
+            return constructor.constructor.newInstance(arguments);
+        } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
+            throw new ConfigurationException(String.format(Locale.ENGLISH,
+                    "Error while creating immutable configuration instance of %s", path), e);
+        }
+    }
+
+    /**
+     * Returns an instance created with the no-argument constructor of the type, which holds the default values.
+     *
+     * @param type immutable configuration type
+     * @return default instance or null if the type does not declare a no-argument constructor
+     */
+    private static Object createDefaults(Class<?> type) throws ConfigurationException {
+        try {
+            Constructor<?> constructor = type.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            return constructor.newInstance();
+        } catch (NoSuchMethodException e) {
+            return null;
+        } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
+            throw new ConfigurationException("Error while creating configuration instance: " +
+                    type.getSimpleName(), e);
+        }
+    }
+
+    private static Object convertScalar(Class<?> type, Object value, String path) throws ConfigurationException {
+        if (type == String.class) {
+            return String.valueOf(value);
+        }
+        if ((type == boolean.class || type == Boolean.class)) {
+            if (value instanceof Boolean) {
+                return value;
+            }
+            String text = String.valueOf(value);
+            if ("true".equalsIgnoreCase(text) || "false".equalsIgnoreCase(text)) {
+                return Boolean.parseBoolean(text);
+            }
+            throw new ConfigurationException(String.format(Locale.ENGLISH,
+                    "Configuration value '%s' of %s is not a boolean", value, path));
+        }
+        if (type == char.class || type == Character.class) {
+            String text = String.valueOf(value);
+            if (text.length() != 1) {
+                throw new ConfigurationException(String.format(Locale.ENGLISH,
+                        "Configuration value '%s' of %s is not a character", value, path));
+            }
+            return text.charAt(0);
+        }
+        try {
+            String text = String.valueOf(value).trim();
+            if (type == int.class || type == Integer.class) {
+                return Integer.parseInt(text);
+            } else if (type == long.class || type == Long.class) {
+                return Long.parseLong(text);
+            } else if (type == short.class || type == Short.class) {
+                return Short.parseShort(text);
+            } else if (type == byte.class || type == Byte.class) {
+                return Byte.parseByte(text);
+            } else if (type == double.class || type == Double.class) {
+                return Double.parseDouble(text);
+            } else if (type == float.class || type == Float.class) {
+                return Float.parseFloat(text);
+            }
+        } catch (NumberFormatException e) {
+            throw new ConfigurationException(String.format(Locale.ENGLISH,
+                    "Configuration value '%s' of %s is not a valid %s", value, path, type.getSimpleName()), e);
+        }
+        throw new ConfigurationException(String.format(Locale.ENGLISH, "Type %s of %s is not supported by " +
+                "immutable configurations", type.getName(), path));
+    }
+
+    private static Object convertValue(ValueConverter<?> converter, Object value, String path)
+            throws ConfigurationException {
+        if (converter.getType().isInstance(value)) {
+            return value;
+        }
+        try {
+            return converter.convert(String.valueOf(value));
+        } catch (IllegalArgumentException e) {
+            throw new ConfigurationException(String.format(Locale.ENGLISH,
+                    "Configuration value '%s' of %s is not a valid %s", value, path,
+                    converter.getType().getSimpleName()), e);
+        }
+    }
+
+    /**
+     * Returns the canonical constructor of the given immutable type, or the reason why the type cannot be bound as an
+     * immutable type.
+     */
+    private static CanonicalConstructor findCanonicalConstructor(Class<?> type) {
+        if (type.isInterface() || type.isArray() || type.isPrimitive() || type.isEnum()
+                || Modifier.isAbstract(type.getModifiers()) || type.getName().startsWith("java.")) {
+            return new CanonicalConstructor(String.format(Locale.ENGLISH, "Immutable configuration %s is not a " +
+                    "concrete class", type.getName()));
+        }
+        List<Field> fields = getInstanceFields(type);
+        for (Field field : fields) {
+            String error = !Modifier.isFinal(field.getModifiers()) ? "is not final" :
+                    checkFieldType(field.getType(), field.getGenericType());
+            if (error != null) {
+                return new CanonicalConstructor(String.format(Locale.ENGLISH, "Field %s of immutable configuration " +
+                        "%s %s", field.getName(), type.getName(), error));
+            }
+        }
+        for (Constructor<?> constructor : type.getDeclaredConstructors()) {
+            if (constructor.getParameterCount() != fields.size()) {
+                continue;
+            }
+            Field[] parameterFields = matchParameters(constructor, fields);
+            if (parameterFields != null) {
+                constructor.setAccessible(true);
+                return new CanonicalConstructor(constructor, parameterFields);
+            }
+        }
+        return new CanonicalConstructor(String.format(Locale.ENGLISH, "Immutable configuration %s does not declare " +
+                "a canonical constructor, i.e. a constructor which takes a parameter for each field, whose " +
+                "parameters are matched to the fields by name or unambiguously by type", type.getName()));
+    }
+
+    /**
+     * Checks whether values of the given field type can be bound, given the element types of collections.
+     *
+     * @return null if the type is supported, otherwise the reason why it is not
+     */
+    private static String checkFieldType(Class<?> type, Type genericType) {
+        if (type.isArray()) {
+            return "is an array, which is not supported by immutable configurations, use a List instead";
+        }
+        if (List.class == type || Collection.class == type || Set.class == type) {
+            Type elementType = getTypeArgument(genericType, 0);
+            return checkFieldType(getRawType(elementType), elementType);
+        }
+        if (Map.class == type) {
+            Type valueType = getTypeArgument(genericType, 1);
+            return checkFieldType(getRawType(valueType), valueType);
+        }
+        if (type.isPrimitive() || Number.class.isAssignableFrom(type) || type == Boolean.class
+                || type == Character.class || type == String.class || type == Object.class
+                || ValueConverters.getConverter(type).isPresent() || isImmutable(type)) {
+            return null;
+        }
+        return String.format(Locale.ENGLISH, "is of type %s, which is not supported by immutable configurations, " +
+                "only scalars, types of value converters, collections and immutable types are supported",
+                type.getName());
+    }
+
+    /**
+     * Returns the fields matched to the parameters of the given constructor, by the parameter names if they are known
+     * and otherwise by the parameter types.
+     *
+     * @param constructor constructor which takes as many parameters as there are fields
+     * @param fields      instance fields of the type
+     * @return fields in the parameter order or null if a parameter does not match a field or a parameter type matches
+     * several fields
+     */
+    private static Field[] matchParameters(Constructor<?> constructor, List<Field> fields) {
+        Class<?>[] parameterTypes = constructor.getParameterTypes();
+        String[] parameterNames = getParameterNames(constructor);
+        Field[] parameterFields = new Field[parameterTypes.length];
+        for (int i = 0; i < parameterTypes.length; i++) {
+            for (Field field : fields) {
+                boolean matches = parameterNames != null ? field.getName().equals(parameterNames[i])
+                        : field.getType() == parameterTypes[i];
+                if (!matches) {
+                    continue;
+                }
+                if (parameterFields[i] != null || field.getType() != parameterTypes[i]) {
+                    return null;
+                }
+                parameterFields[i] = field;
+            }
+            if (parameterFields[i] == null) {
+                return null;
+            }
+        }
+        // each field should be matched by a single parameter
+        return new HashSet<>(Arrays.asList(parameterFields)).size() == fields.size() ? parameterFields : null;
+    }
+
+    private static String[] getParameterNames(Constructor<?> constructor) {
+        ConstructorProperties properties = constructor.getAnnotation(ConstructorProperties.class);
+        if (properties != null) {
+            return properties.value().length == constructor.getParameterCount() ? properties.value() : null;
+        }
+        Parameter[] parameters = constructor.getParameters();
+        if (parameters.length == 0 || !parameters[0].isNamePresent()) {
+            return null;
+        }
+        return Arrays.stream(parameters).map(Parameter::getName).toArray(String[]::new);
+    }
+
+    private static List<Field> getInstanceFields(Class<?> type) {
+        List<Field> fields = new ArrayList<>();
+        for (Field field : type.getDeclaredFields()) {
+            if (!Modifier.isStatic(field.getModifiers()) && !field.isSynthetic()) {
+                fields.add(field);
+            }
+        }
+        return fields;
+    }
+
+    private static List<String> getFieldNames(List<Field> fields) {
+        List<String> names = new ArrayList<>(fields.size());
+        fields.forEach(field -> names.add(field.getName()));
+        return names;
+    }
+
+    private static Field getField(Class<?> type, String configKey, String systemVarKey)
+            throws ConfigurationException {
+        for (Field field : getInstanceFields(type)) {
+            if (field.getName().equalsIgnoreCase(configKey)) {
+                return field;
+            }
+        }
+        throw new ConfigurationException(String.format(Locale.ENGLISH, "Field %s of system variable %s not " +
+                "found in %s", configKey, systemVarKey, type.getName()));
+    }
+
+    private static Object getFieldValue(Field field, Object instance) throws ConfigurationException {
+        try {
+            field.setAccessible(true);
+            return field.get(instance);
+        } catch (IllegalAccessException e) {
+            throw new ConfigurationException(String.format(Locale.ENGLISH,
+                    "Error in obtaining value for field %s in %s", field.getName(), instance.getClass()), e);
+        }
+    }
+
+    private static Type getTypeArgument(Type genericType, int index) {
+        if (genericType instanceof ParameterizedType) {
+            Type[] arguments = ((ParameterizedType) genericType).getActualTypeArguments();
+            if (arguments.length > index) {
+                return arguments[index];
+            }
+        }
+        return Object.class;
+    }
+
+    private static Class<?> getRawType(Type type) {
+        if (type instanceof Class) {
+            return (Class<?>) type;
+        }
+        if (type instanceof ParameterizedType) {
+            return (Class<?>) ((ParameterizedType) type).getRawType();
+        }
+        return Object.class;
+    }
+
+    private static Object getZeroValue(Class<?> type) {
+        if (type == boolean.class) {
+            return false;
+        } else if (type == char.class) {
+            return '\0';
+        } else if (type == long.class) {
+            return 0L;
+        } else if (type == double.class) {
+            return 0d;
+        } else if (type == float.class) {
+            return 0f;
+        } else if (type == short.class) {
+            return (short) 0;
+        } else if (type == byte.class) {
+            return (byte) 0;
+        }
+        return 0;
+    }
+
+    /**
+     * Canonical constructor of an immutable configuration type along with the field of each parameter, or the
+     * reason why the type cannot be bound.
+     */
+    private static final class CanonicalConstructor {
+
+        private final Constructor<?> constructor;
+        private final Field[] parameterFields;
+        private final String error;
+
+        private CanonicalConstructor(Constructor<?> constructor, Field[] parameterFields) {
+            this.constructor = constructor;
+            this.parameterFields = parameterFields;
+            this.error = null;
+        }
+
+        private CanonicalConstructor(String error) {
+            this.constructor = null;
+            this.parameterFields = null;
+            this.error = error;
+        }
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ *  Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.config.provider;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * List of long values backed by a long array.
+ * <p>
+ * Configuration bean fields declared as LongList are bound by filling the backing array directly, hence a large list of
+ * numbers (e.g. port ranges or rate-limit buckets) costs eight bytes per element instead of an ArrayList of boxed
+ * Longs. The values are read without boxing through {@link #getLong(int)} and {@link #toLongArray()}, while the
+ * {@link java.util.List} methods box the values on access. Instances are not thread safe.
+ *
+ * @since 2.1.18
+ */
+public final class LongList extends AbstractList<Long> implements RandomAccess {
+
+    private static final long[] EMPTY = new long[0];
+
+    private long[] elements;
+    private int size;
+
+    public LongList() {
+        elements = EMPTY;
+    }
+
+    /**
+     * Creates a list with the given values.
+     *
+     * @param values values of the list, which are copied
+     */
+    public LongList(long... values) {
+        elements = values.clone();
+        size = values.length;
+    }
+
+    /**
+     * Returns the value at the given index.
+     *
+     * @param index index of the value
+     * @return value
+     */
+    public long getLong(int index) {
+        checkIndex(index);
+        return elements[index];
+    }
+
+    /**
+     * Replaces the value at the given index.
+     *
+     * @param index index of the value
+     * @param value new value
+     * @return previous value
+     */
+    public long setLong(int index, long value) {
+        checkIndex(index);
+        long previous = elements[index];
+        elements[index] = value;
+        return previous;
+    }
+
+    /**
+     * Appends the given value to the list.
+     *
+     * @param value value to append
+     */
+    public void addLong(long value) {
+        ensureCapacity(size + 1);
+        elements[size++] = value;
+    }
+
+    /**
+     * Returns the values of the list.
+     *
+     * @return copy of the values
+     */
+    public long[] toLongArray() {
+        return Arrays.copyOf(elements, size);
+    }
+
+    @Override
+    public Long get(int index) {
+        return getLong(index);
+    }
+
+    @Override
+    public Long set(int index, Long value) {
+        return setLong(index, value);
+    }
+
+    @Override
+    public void add(int index, Long value) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        ensureCapacity(size + 1);
+        System.arraycopy(elements, index, elements, index + 1, size - index);
+        elements[index] = value;
+        size++;
+        modCount++;
+    }
+
+    @Override
+    public Long remove(int index) {
+        checkIndex(index);
+        long previous = elements[index];
+        System.arraycopy(elements, index + 1, elements, index, size - index - 1);
+        size--;
+        modCount++;
+        return previous;
+    }
+
+    @Override
+    public void clear() {
+        size = 0;
+        modCount++;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Grows the backing array to hold at least the given number of values.
+     *
+     * @param capacity minimum capacity
+     */
+    void ensureCapacity(int capacity) {
+        if (capacity > elements.length) {
+            elements = Arrays.copyOf(elements, Math.max(capacity, elements.length + (elements.length >> 1)));
+        }
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+}
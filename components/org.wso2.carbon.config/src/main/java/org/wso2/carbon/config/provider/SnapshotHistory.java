@@ -0,0 +1,103 @@
+/*
+ *  Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.config.provider;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Bounded history of the last snapshots made current by a provider, least recently current first. Adding a snapshot
+ * to a full history drops the least recently current snapshot, hence the history retains a bounded number of
+ * snapshots and never drops the current one. As snapshots are immutable, rolling back to a retained snapshot neither
+ * reads the configuration file nor binds anything.
+ *
+ * @since 2.1.18
+ */
+final class SnapshotHistory {
+
+    private final Deque<ConfigSnapshot> snapshots = new ArrayDeque<>();
+    private final int capacity;
+
+    /**
+     * Creates an empty history.
+     *
+     * @param capacity maximum number of retained snapshots, at least one
+     */
+    SnapshotHistory(int capacity) {
+        this.capacity = Math.max(1, capacity);
+    }
+
+    /**
+     * Adds the given snapshot as the current snapshot.
+     *
+     * @param snapshot snapshot
+     */
+    synchronized void add(ConfigSnapshot snapshot) {
+        if (snapshots.size() == capacity) {
+            snapshots.removeFirst();
+        }
+        snapshots.addLast(snapshot);
+    }
+
+    /**
+     * Makes the retained snapshot of the given version the current snapshot, which moves it to the end of the
+     * history.
+     *
+     * @param version snapshot version
+     * @return snapshot or null if no snapshot of the version is retained
+     */
+    synchronized ConfigSnapshot restore(long version) {
+        for (Iterator<ConfigSnapshot> iterator = snapshots.iterator(); iterator.hasNext(); ) {
+            ConfigSnapshot snapshot = iterator.next();
+            if (snapshot.getVersion() == version) {
+                iterator.remove();
+                snapshots.addLast(snapshot);
+                return snapshot;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Releases the configuration text of all retained snapshots, see {@link ConfigSnapshot#release()}.
+     *
+     * @return estimated number of released bytes
+     */
+    synchronized long release() {
+        long releasedBytes = 0;
+        for (ConfigSnapshot snapshot : snapshots) {
+            releasedBytes += snapshot.release();
+        }
+        return releasedBytes;
+    }
+
+    /**
+     * Returns the versions of the retained snapshots, least recently current first, hence the last version is the
+     * version of the current snapshot.
+     *
+     * @return snapshot versions
+     */
+    synchronized List<Long> getVersions() {
+        List<Long> versions = new ArrayList<>(snapshots.size());
+        for (ConfigSnapshot snapshot : snapshots) {
+            versions.add(snapshot.getVersion());
+        }
+        return versions;
+    }
+}
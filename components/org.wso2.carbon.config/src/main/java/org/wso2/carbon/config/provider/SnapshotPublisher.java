@@ -0,0 +1,193 @@
+/*
+ *  Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.config.provider;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.wso2.carbon.config.ConfigurationException;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Publisher of the configuration object of a namespace.
+ * <p>
+ * The configuration object is loaded when the first subscriber is added and loaded again when a snapshot changes the
+ * configuration tree of the namespace. A change is detected by comparing the fingerprint of the namespace (see
+ * {@link ConfigTreeInterner}), which is computed when the tree is loaded, hence the objects are not bound again for
+ * snapshots which do not change the namespace, including the snapshots of overlays. A configuration without a
+ * namespace is loaded again for every snapshot. Each subscription holds the latest object only, hence a subscriber
+ * which is slower than the configuration changes receives the latest object once it requests more, instead of every
+ * intermediate object. All subscribers receive the same object.
+ *
+ * @param <T> type of the configuration object
+ * @since 2.1.18
+ */
+final class SnapshotPublisher<T> implements ConfigurationFlow.Publisher<T> {
+
+    private static final Logger logger = LoggerFactory.getLogger(SnapshotPublisher.class);
+
+    private final String namespace;
+    private final ConfigProviderImpl.ConfigLoader<ConfigSnapshot> snapshotLoader;
+    private final ConfigProviderImpl.ConfigLoader<T> configLoader;
+    private final Executor executor;
+    private final List<SnapshotSubscription> subscriptions = new CopyOnWriteArrayList<>();
+    private volatile T value;
+    private Long publishedFingerprint;
+
+    /**
+     * Creates a publisher.
+     *
+     * @param namespace      configuration namespace or null if the configuration has no namespace
+     * @param snapshotLoader loader of the current snapshot
+     * @param configLoader   loader of the configuration object from the current snapshot
+     * @param executor       executor of the configuration loading
+     */
+    SnapshotPublisher(String namespace, ConfigProviderImpl.ConfigLoader<ConfigSnapshot> snapshotLoader,
+                      ConfigProviderImpl.ConfigLoader<T> configLoader, Executor executor) {
+        this.namespace = namespace;
+        this.snapshotLoader = snapshotLoader;
+        this.configLoader = configLoader;
+        this.executor = executor;
+    }
+
+    @Override
+    public void subscribe(ConfigurationFlow.Subscriber<? super T> subscriber) {
+        Objects.requireNonNull(subscriber, "subscriber");
+        SnapshotSubscription subscription = new SnapshotSubscription(subscriber);
+        subscriber.onSubscribe(subscription);
+        T currentValue;
+        synchronized (this) {
+            subscriptions.add(subscription);
+            currentValue = value;
+        }
+        if (currentValue != null) {
+            subscription.offer(currentValue);
+        } else {
+            publishAsync();
+        }
+    }
+
+    /**
+     * Publishes the configuration object of the current snapshot on the executor.
+     */
+    void publishAsync() {
+        if (subscriptions.isEmpty()) {
+            return;
+        }
+        try {
+            executor.execute(this::publish);
+        } catch (RejectedExecutionException e) {
+            logger.error("Error while scheduling the configuration publishing of namespace: " + namespace, e);
+        }
+    }
+
+    /**
+     * Publishes the configuration object of the current snapshot to all subscribers, unless the configuration tree of
+     * the namespace is not changed since the last published object. A configuration which cannot be loaded is not
+     * published and the subscribers keep the last published object.
+     */
+    private synchronized void publish() {
+        T loadedValue;
+        Long fingerprint;
+        try {
+            ConfigSnapshot snapshot = snapshotLoader.load();
+            fingerprint = namespace != null ? snapshot.getNamespaceFingerprint(namespace) : null;
+            // configurations without a namespace have no fingerprint, hence they are published on every change
+            if (value != null && namespace != null && Objects.equals(fingerprint, publishedFingerprint)) {
+                return;
+            }
+            loadedValue = configLoader.load();
+        } catch (ConfigurationException | RuntimeException e) {
+            logger.error("Error while loading the configuration of namespace: " + namespace + " to publish", e);
+            return;
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug("Publishing configuration of namespace: {} to {} subscriber(s)", namespace,
+                    subscriptions.size());
+        }
+        publishedFingerprint = fingerprint;
+        value = loadedValue;
+        for (SnapshotSubscription subscription : subscriptions) {
+            subscription.offer(loadedValue);
+        }
+    }
+
+    /**
+     * Subscription which holds the latest configuration object which is not received by the subscriber yet.
+     */
+    private final class SnapshotSubscription implements ConfigurationFlow.Subscription {
+
+        private final ConfigurationFlow.Subscriber<? super T> subscriber;
+        private final AtomicReference<T> pending = new AtomicReference<>();
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicInteger drainers = new AtomicInteger();
+        private volatile boolean cancelled;
+
+        private SnapshotSubscription(ConfigurationFlow.Subscriber<? super T> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                cancel();
+                subscriber.onError(new IllegalArgumentException("Number of requested configurations should be " +
+                        "positive: " + n));
+                return;
+            }
+            requested.getAndUpdate(current -> current + n < 0 ? Long.MAX_VALUE : current + n);
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            subscriptions.remove(this);
+        }
+
+        private void offer(T item) {
+            pending.set(item);
+            drain();
+        }
+
+        /**
+         * Delivers the pending object if it is requested. Only a single thread delivers at a time, other threads
+         * leave their changes to the delivering thread.
+         */
+        private void drain() {
+            if (drainers.getAndIncrement() != 0) {
+                return;
+            }
+            do {
+                while (!cancelled && requested.get() > 0) {
+                    T item = pending.getAndSet(null);
+                    if (item == null) {
+                        break;
+                    }
+                    requested.decrementAndGet();
+                    subscriber.onNext(item);
+                }
+            } while (drainers.decrementAndGet() != 0);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ *  Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.config.provider;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Trie of the system variable overrides of a configuration namespace.
+ * <p>
+ * A system variable such as WSO2_CARBON__TRANSPORTS_0_PORT overrides the configuration element at the path
+ * [TRANSPORTS, 0, PORT] of the namespace. Overrides are grouped by their path elements, so that all overrides of an
+ * element are applied while the element is visited once, instead of resolving the path from the root of the
+ * configuration for each system variable. Each node is an element of a path; the root node is the namespace.
+ *
+ * @since 2.1.18
+ */
+final class SystemVarOverrides {
+
+    private final String systemVarKeyPrefix;
+    private final Map<String, SystemVarOverrides> children = new LinkedHashMap<>();
+    private String value;
+    private String systemVarKey;
+
+    /**
+     * Creates the root node of the overrides of a namespace.
+     *
+     * @param namespaceKeyPrefix namespace part of the system variable keys (e.g. WSO2_CARBON__)
+     */
+    SystemVarOverrides(String namespaceKeyPrefix) {
+        this.systemVarKeyPrefix = namespaceKeyPrefix;
+    }
+
+    private SystemVarOverrides(String systemVarKeyPrefix, String systemVarKey) {
+        this.systemVarKeyPrefix = systemVarKeyPrefix;
+        this.systemVarKey = systemVarKey;
+    }
+
+    /**
+     * Adds the override of the given system variable.
+     *
+     * @param configKeyElements configuration key elements of the system variable
+     * @param value             override value
+     * @param systemVarKey      system variable key
+     */
+    void add(String[] configKeyElements, String value, String systemVarKey) {
+        SystemVarOverrides node = this;
+        for (String configKeyElement : configKeyElements) {
+            SystemVarOverrides child = node.children.get(configKeyElement);
+            if (child == null) {
+                String childKeyPrefix = node.systemVarKeyPrefix + (node.systemVarKey != null ?
+                        ConfigProviderImpl.CONFIG_LEVEL_SEPARATOR : "") + configKeyElement;
+                child = new SystemVarOverrides(childKeyPrefix, systemVarKey);
+                node.children.put(configKeyElement, child);
+            }
+            node = child;
+        }
+        node.value = value;
+    }
+
+    /**
+     * Returns the overrides of the child elements of this element.
+     *
+     * @return unmodifiable map with key: configuration key element, value: overrides of the element
+     */
+    Map<String, SystemVarOverrides> getChildren() {
+        return Collections.unmodifiableMap(children);
+    }
+
+    /**
+     * Returns the override value of this element.
+     *
+     * @return override value or null if only the child elements of this element are overridden
+     */
+    String getValue() {
+        return value;
+    }
+
+    /**
+     * Returns the key of the first system variable which overrides this element or one of its child elements, which
+     * identifies the overrides in error messages.
+     *
+     * @return system variable key
+     */
+    String getSystemVarKey() {
+        return systemVarKey;
+    }
+
+    /**
+     * Returns the system variable key of this element, e.g. WSO2_CARBON__TRANSPORTS_0 for the element 0 of the path
+     * [TRANSPORTS, 0, PORT].
+     *
+     * @return system variable key prefix of this element
+     */
+    String getSystemVarKeyPrefix() {
+        return systemVarKeyPrefix;
+    }
+}
@@ -21,6 +21,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.wso2.carbon.config.ConfigConstants;
 import org.wso2.carbon.config.ConfigurationException;
+import org.yaml.snakeyaml.LoaderOptions;
 
 import java.io.BufferedReader;
 import java.io.File;
@@ -44,10 +45,26 @@ import java.util.Map;
 public abstract class ConfigFileReader {
 
     private static final Logger log = LoggerFactory.getLogger(ConfigFileReader.class);
+    private static final String CUSTOM_CONFIG_PROPERTY = "config";
     private Path configurationFilePath;
+    private LoaderOptions loaderOptions;
 
     public ConfigFileReader(Path configurationFilePath) {
+        this(configurationFilePath, new LoaderOptions());
+    }
+
+    /**
+     * Creates a reader which parses the configuration file with the given SnakeYAML loader options. The same options
+     * are used when the configuration beans are bound, hence the code point, alias and nesting depth limits apply
+     * to the whole configuration life cycle.
+     *
+     * @param configurationFilePath configuration file path
+     * @param loaderOptions         SnakeYAML loader options
+     * @since 2.1.18
+     */
+    public ConfigFileReader(Path configurationFilePath, LoaderOptions loaderOptions) {
         this.configurationFilePath = configurationFilePath;
+        this.loaderOptions = loaderOptions != null ? loaderOptions : new LoaderOptions();
     }
 
     /**
@@ -59,6 +76,22 @@ public abstract class ConfigFileReader {
     public abstract Map<String, String> getDeploymentConfiguration()
             throws ConfigurationException;
 
+    /**
+     * Returns the configuration trees of the namespaces, if this reader parses the configuration file into a tree
+     * itself instead of reading YAML (e.g. a JSON file). The trees hold the same types SnakeYAML constructs for the
+     * YAML strings of {@link #getDeploymentConfiguration()}, hence a config provider builds its snapshots from the
+     * trees without parsing the YAML strings again. The YAML strings are still dumped from the trees, as
+     * configuration beans are bound from them.
+     *
+     * @return map with key: namespace, value: configuration tree of the namespace, or null if the configuration is
+     * read as YAML strings
+     * @throws ConfigurationException if error occur while reading the configuration file
+     * @since 2.1.18
+     */
+    public Map<String, Object> getDeploymentConfigurationTrees() throws ConfigurationException {
+        return null;
+    }
+
     /**
      * Get contents of the file as a string.
      *
@@ -71,9 +104,9 @@ public abstract class ConfigFileReader {
             log.error(message);
             throw new ConfigurationException(message);
         }
-        String customConfig = System.getProperty("config");
+        String customConfig = System.getProperty(CUSTOM_CONFIG_PROPERTY);
         String customConfigContent;
-        if (customConfig != null && (!customConfig.trim().isEmpty())) {
+        if (isCustomConfigProvided()) {
             try {
                 // Change relative paths to absolute
                 Path customConfigGivenPath = Paths.get(customConfig);
@@ -100,7 +133,7 @@ public abstract class ConfigFileReader {
                 String defaultConfigContent = getStringContentFromFile(defaultConfigFile);
                 configContentList.add(defaultConfigContent);
                 configContentList.add(customConfigContent);
-                YmlMerger ymlMerger = new YmlMerger();
+                YmlMerger ymlMerger = new YmlMerger(loaderOptions);
                 ymlMerger.setVariablesToReplace(System.getenv());
                return ymlMerger.mergeToString(configContentList);
             } catch (IOException e) {
@@ -148,6 +181,26 @@ public abstract class ConfigFileReader {
         return inputSB.toString();
     }
 
+    /**
+     * Checks whether a custom configuration is provided through the "config" system property. Custom configurations
+     * are merged with the default configuration file, hence the file content has to be read as a whole.
+     *
+     * @return true if a custom configuration is provided, false otherwise
+     */
+    protected final boolean isCustomConfigProvided() {
+        String customConfig = System.getProperty(CUSTOM_CONFIG_PROPERTY);
+        return customConfig != null && (!customConfig.trim().isEmpty());
+    }
+
+    /**
+     * Get SnakeYAML loader options used for parsing the configuration file.
+     *
+     * @return loader options
+     */
+    public LoaderOptions getLoaderOptions() {
+        return loaderOptions;
+    }
+
     /**
      * Get configuration file path.
      *
@@ -0,0 +1,48 @@
+/*
+ *  Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.config.reader;
+
+import org.yaml.snakeyaml.LoaderOptions;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Provides the configuration file readers of a configuration file format.
+ * <p>
+ * Providers are registered in {@link ConfigFileReaders}, either through the Java service loader
+ * (META-INF/services/org.wso2.carbon.config.reader.ConfigFileReaderProvider) or as OSGi services.
+ *
+ * @since 2.1.18
+ */
+public interface ConfigFileReaderProvider {
+
+    /**
+     * Returns the file extensions of the configuration file format, including the leading dot (e.g. .yaml).
+     *
+     * @return file extensions
+     */
+    List<String> getFileExtensions();
+
+    /**
+     * Returns a reader of the given configuration file.
+     *
+     * @param configurationFilePath configuration file path
+     * @param loaderOptions         SnakeYAML loader options used when the configuration beans are bound
+     * @return configuration file reader
+     */
+    ConfigFileReader getConfigFileReader(Path configurationFilePath, LoaderOptions loaderOptions);
+}
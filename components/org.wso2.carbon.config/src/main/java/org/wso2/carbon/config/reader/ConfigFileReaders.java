@@ -0,0 +1,152 @@
+/*
+ *  Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.config.reader;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.yaml.snakeyaml.LoaderOptions;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of the configuration file readers keyed by file extension.
+ * <p>
+ * YAML (.yaml, .yml), JSON (.json) and properties (.properties) files are supported out of the box. All readers
+ * produce the same deployment configuration map, hence the configuration of a namespace is bound the same way
+ * regardless of the file format. Further formats are added by {@link ConfigFileReaderProvider}s, which are discovered
+ * through the Java service loader or registered explicitly (e.g. as OSGi services). A registered provider replaces the
+ * provider of the same extension until it is unregistered.
+ *
+ * @since 2.1.18
+ */
+public final class ConfigFileReaders {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConfigFileReaders.class);
+    private static final Map<String, ConfigFileReaderProvider> defaultProviders = new ConcurrentHashMap<>();
+    private static final Map<String, ConfigFileReaderProvider> providers = new ConcurrentHashMap<>();
+
+    static {
+        registerDefault(new ConfigFileReaderProvider() {
+            @Override
+            public List<String> getFileExtensions() {
+                return Arrays.asList(".yaml", ".yml");
+            }
+
+            @Override
+            public ConfigFileReader getConfigFileReader(Path configurationFilePath, LoaderOptions loaderOptions) {
+                return new YAMLBasedConfigFileReader(configurationFilePath, loaderOptions);
+            }
+        });
+        registerDefault(new ConfigFileReaderProvider() {
+            @Override
+            public List<String> getFileExtensions() {
+                return Collections.singletonList(".json");
+            }
+
+            @Override
+            public ConfigFileReader getConfigFileReader(Path configurationFilePath, LoaderOptions loaderOptions) {
+                return new JSONBasedConfigFileReader(configurationFilePath, loaderOptions);
+            }
+        });
+        registerDefault(new ConfigFileReaderProvider() {
+            @Override
+            public List<String> getFileExtensions() {
+                return Collections.singletonList(".properties");
+            }
+
+            @Override
+            public ConfigFileReader getConfigFileReader(Path configurationFilePath, LoaderOptions loaderOptions) {
+                return new PropertiesBasedConfigFileReader(configurationFilePath, loaderOptions);
+            }
+        });
+        try {
+            for (ConfigFileReaderProvider provider : ServiceLoader.load(ConfigFileReaderProvider.class,
+                    ConfigFileReaders.class.getClassLoader())) {
+                registerDefault(provider);
+            }
+        } catch (ServiceConfigurationError e) {
+            logger.error("Error while loading the configuration file reader providers", e);
+        }
+    }
+
+    private ConfigFileReaders() {
+    }
+
+    /**
+     * Registers the given provider for its file extensions.
+     *
+     * @param provider configuration file reader provider
+     */
+    public static void register(ConfigFileReaderProvider provider) {
+        for (String extension : provider.getFileExtensions()) {
+            providers.put(extension.toLowerCase(Locale.ENGLISH), provider);
+            if (logger.isDebugEnabled()) {
+                logger.debug("Registered configuration file reader provider {} for extension: {}",
+                        provider.getClass().getName(), extension);
+            }
+        }
+    }
+
+    /**
+     * Unregisters the given provider from the file extensions it is registered for.
+     *
+     * @param provider configuration file reader provider
+     */
+    public static void unregister(ConfigFileReaderProvider provider) {
+        for (String extension : provider.getFileExtensions()) {
+            String key = extension.toLowerCase(Locale.ENGLISH);
+            if (providers.remove(key, provider) && defaultProviders.containsKey(key)) {
+                providers.putIfAbsent(key, defaultProviders.get(key));
+            }
+        }
+    }
+
+    private static void registerDefault(ConfigFileReaderProvider provider) {
+        for (String extension : provider.getFileExtensions()) {
+            defaultProviders.put(extension.toLowerCase(Locale.ENGLISH), provider);
+        }
+        register(provider);
+    }
+
+    /**
+     * Returns a reader of the given configuration file based on its file extension.
+     *
+     * @param configurationFilePath configuration file path
+     * @param loaderOptions         SnakeYAML loader options
+     * @return configuration file reader or empty if the file extension is not supported
+     */
+    public static Optional<ConfigFileReader> getConfigFileReader(Path configurationFilePath,
+                                                                 LoaderOptions loaderOptions) {
+        String fileName = configurationFilePath.getFileName().toString();
+        int extensionIndex = fileName.lastIndexOf('.');
+        if (extensionIndex < 0) {
+            return Optional.empty();
+        }
+        ConfigFileReaderProvider provider = providers.get(fileName.substring(extensionIndex)
+                .toLowerCase(Locale.ENGLISH));
+        return provider != null ? Optional.of(provider.getConfigFileReader(configurationFilePath, loaderOptions)) :
+                Optional.empty();
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ *  Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.config.reader;
+
+import org.wso2.carbon.config.ConfigConstants;
+import org.wso2.carbon.config.ConfigurationException;
+import org.wso2.carbon.config.ConfigurationUtils;
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.error.YAMLException;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Merges the namespaces of a configuration profile on top of the deployment configuration.
+ * <p>
+ * A profile is defined either as a block under the {@value ConfigConstants#PROFILES_NAMESPACE} root key of the
+ * configuration file or as a profile file next to it, named after the configuration file with the profile as a suffix
+ * (e.g. deployment-dev.yaml). Namespaces are merged on their configuration trees: maps are merged recursively and other
+ * values of the profile replace the values of the configuration file. Only the namespaces which are defined by the
+ * profile are parsed for merging.
+ *
+ * @since 2.1.18
+ */
+final class ConfigProfiles {
+
+    private static final String PROFILE_SEPARATOR = "-";
+
+    private ConfigProfiles() {
+    }
+
+    /**
+     * Returns the profile file of the given configuration file.
+     *
+     * @param configurationFilePath configuration file path
+     * @param profile               configuration profile
+     * @return profile file path (e.g. deployment-dev.yaml for deployment.yaml)
+     */
+    static Path getProfileFilePath(Path configurationFilePath, String profile) {
+        String fileName = configurationFilePath.getFileName().toString();
+        int extensionIndex = fileName.lastIndexOf('.');
+        if (extensionIndex <= 0) {
+            return configurationFilePath.resolveSibling(fileName + PROFILE_SEPARATOR + profile);
+        }
+        return configurationFilePath.resolveSibling(fileName.substring(0, extensionIndex) + PROFILE_SEPARATOR +
+                profile + fileName.substring(extensionIndex));
+    }
+
+    /**
+     * Returns the namespaces of the given profile from the YAML string of the profile blocks.
+     *
+     * @param profilesConfig YAML string of the {@value ConfigConstants#PROFILES_NAMESPACE} namespace or null
+     * @param profile        configuration profile
+     * @param loaderOptions  SnakeYAML loader options
+     * @return map with key: namespace, value: YAML string of the namespace
+     * @throws ConfigurationException if the profile blocks are not mappings of namespaces
+     */
+    static Map<String, String> getProfileConfigs(String profilesConfig, String profile, LoaderOptions loaderOptions)
+            throws ConfigurationException {
+        Map<String, String> profileConfigs = new HashMap<>();
+        if (profilesConfig == null) {
+            return profileConfigs;
+        }
+        Object profiles = load(profilesConfig, loaderOptions);
+        if (!(profiles instanceof Map)) {
+            throw new ConfigurationException("Error while parsing configuration file, " +
+                    ConfigConstants.PROFILES_NAMESPACE + " is not a mapping of profiles");
+        }
+        Object profileTree = ((Map<?, ?>) profiles).get(profile);
+        if (profileTree == null) {
+            return profileConfigs;
+        }
+        if (!(profileTree instanceof Map)) {
+            throw new ConfigurationException("Error while parsing configuration file, profile " + profile +
+                    " is not a mapping of namespaces");
+        }
+        for (Map.Entry<?, ?> entry : ((Map<?, ?>) profileTree).entrySet()) {
+            if (entry.getValue() != null) {
+                profileConfigs.put(String.valueOf(entry.getKey()), ConfigurationUtils.dumpConfigTree(entry.getValue()));
+            }
+        }
+        return profileConfigs;
+    }
+
+    /**
+     * Merges the namespaces of a profile on top of the deployment configuration.
+     *
+     * @param deploymentConfigs map with key: namespace, value: YAML string of the namespace
+     * @param profileConfigs    map with key: namespace, value: YAML string of the namespace in the profile
+     * @param loaderOptions     SnakeYAML loader options
+     * @return merged deployment configuration
+     * @throws ConfigurationException if a namespace cannot be parsed
+     */
+    static Map<String, String> merge(Map<String, String> deploymentConfigs, Map<String, String> profileConfigs,
+                                     LoaderOptions loaderOptions) throws ConfigurationException {
+        if (profileConfigs.isEmpty()) {
+            return deploymentConfigs;
+        }
+        Map<String, String> mergedConfigs = new HashMap<>(deploymentConfigs);
+        for (Map.Entry<String, String> entry : profileConfigs.entrySet()) {
+            String namespaceConfig = deploymentConfigs.get(entry.getKey());
+            if (namespaceConfig == null) {
+                mergedConfigs.put(entry.getKey(), entry.getValue());
+            } else {
+                Object tree = mergeTrees(load(namespaceConfig, loaderOptions), load(entry.getValue(), loaderOptions));
+                mergedConfigs.put(entry.getKey(), ConfigurationUtils.dumpConfigTree(tree));
+            }
+        }
+        return mergedConfigs;
+    }
+
+    private static Object mergeTrees(Object base, Object profile) {
+        if (!(base instanceof Map) || !(profile instanceof Map)) {
+            return profile != null ? profile : base;
+        }
+        Map<Object, Object> merged = new LinkedHashMap<>((Map<?, ?>) base);
+        for (Map.Entry<?, ?> entry : ((Map<?, ?>) profile).entrySet()) {
+            merged.put(entry.getKey(), mergeTrees(merged.get(entry.getKey()), entry.getValue()));
+        }
+        return merged;
+    }
+
+    private static Object load(String yamlString, LoaderOptions loaderOptions) throws ConfigurationException {
+        try {
+            return new Yaml(loaderOptions).load(yamlString);
+        } catch (YAMLException e) {
+            throw new ConfigurationException("Error while parsing configuration profile", e);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ *  Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.config.reader;
+
+import org.wso2.carbon.config.ConfigurationException;
+import org.wso2.carbon.config.ConfigurationUtils;
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.error.YAMLException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * This class takes care of parsing a JSON configuration file (e.g. deployment.json) and creating the deployment
+ * configuration table. The root object of the file holds the namespaces, as the root mapping of deployment.yaml does.
+ *
+ * @since 2.1.18
+ */
+public class JSONBasedConfigFileReader extends ConfigFileReader {
+
+    public JSONBasedConfigFileReader(Path configurationFilePath) {
+        this(configurationFilePath, new LoaderOptions());
+    }
+
+    public JSONBasedConfigFileReader(Path configurationFilePath, LoaderOptions loaderOptions) {
+        super(configurationFilePath, loaderOptions);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The file is parsed by a JSON parser instead of the YAML parser, which is considerably faster since JSON does not
+     * need the indentation, anchor and tag handling of YAML. Custom configurations provided through the "config"
+     * system property may be YAML, hence the merged content is parsed as YAML in that case.
+     */
+    @Override
+    public Map<String, String> getDeploymentConfiguration() throws ConfigurationException {
+        Map<String, Object> configTrees = getDeploymentConfigurationTrees();
+        if (configTrees != null) {
+            return ConfigurationUtils.getDeploymentConfigMap(configTrees);
+        }
+        try {
+            return ConfigurationUtils.getDeploymentConfigMap(getFileContent(), getLoaderOptions());
+        } catch (YAMLException e) {
+            throw new ConfigurationException("Error while parsing configuration file", e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The nesting depth of the file is limited by the nesting depth limit of the loader options, as it is for YAML
+     * files. Trees are not available if a custom configuration is provided, as the merged content is YAML.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> getDeploymentConfigurationTrees() throws ConfigurationException {
+        if (isCustomConfigProvided()) {
+            return null;
+        }
+        if (getConfigurationFilePath() == null) {
+            throw new ConfigurationException("Error while reading the configuration file, file path is null");
+        }
+        String jsonString;
+        try {
+            jsonString = new String(Files.readAllBytes(getConfigurationFilePath()), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new ConfigurationException("Error while reading configuration file", e);
+        }
+        Object configTree = JSONTreeParser.parse(jsonString, getLoaderOptions().getNestingDepthLimit());
+        if (configTree == null) {
+            throw new ConfigurationException("Error while parsing configuration file, file is empty");
+        }
+        if (!(configTree instanceof Map)) {
+            throw new ConfigurationException("Error while parsing configuration file, root of the file is not an " +
+                    "object");
+        }
+        return (Map<String, Object>) configTree;
+    }
+}
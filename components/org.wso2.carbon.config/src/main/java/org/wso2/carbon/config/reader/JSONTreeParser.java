@@ -0,0 +1,307 @@
+/*
+ *  Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.config.reader;
+
+import org.wso2.carbon.config.ConfigurationException;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Parses a JSON document into a configuration tree.
+ * <p>
+ * The tree is made of the same types SnakeYAML constructs for the equivalent YAML document: objects are parsed to
+ * LinkedHashMaps, arrays to ArrayLists, integral numbers to the smallest of Integer, Long and BigInteger, other numbers
+ * to Doubles, and strings, booleans and nulls to their Java counterparts. JSON has a much simpler grammar than YAML,
+ * hence the document is parsed in a single pass over its characters without a token stream. Objects and arrays are
+ * parsed recursively, hence their nesting depth is limited, as SnakeYAML limits the nesting depth of YAML documents.
+ *
+ * @since 2.1.18
+ */
+final class JSONTreeParser {
+
+    private final String json;
+    private final int nestingDepthLimit;
+    private int position;
+    private int depth;
+
+    private JSONTreeParser(String json, int nestingDepthLimit) {
+        this.json = json;
+        this.nestingDepthLimit = nestingDepthLimit;
+    }
+
+    /**
+     * Parses the given JSON document.
+     *
+     * @param json              JSON document
+     * @param nestingDepthLimit maximum number of nested objects and arrays
+     * @return configuration tree of the document
+     * @throws ConfigurationException if the document is not valid JSON or it is nested deeper than the limit
+     */
+    static Object parse(String json, int nestingDepthLimit) throws ConfigurationException {
+        JSONTreeParser parser = new JSONTreeParser(json, nestingDepthLimit);
+        Object tree = parser.parseValue();
+        parser.skipWhitespace();
+        if (parser.position < json.length()) {
+            throw parser.error("unexpected content after the document");
+        }
+        return tree;
+    }
+
+    private Object parseValue() throws ConfigurationException {
+        skipWhitespace();
+        if (position >= json.length()) {
+            throw error("unexpected end of document");
+        }
+        char c = json.charAt(position);
+        switch (c) {
+            case '{':
+                enter();
+                Map<String, Object> object = parseObject();
+                depth--;
+                return object;
+            case '[':
+                enter();
+                List<Object> array = parseArray();
+                depth--;
+                return array;
+            case '"':
+                return parseString();
+            case 't':
+                expectLiteral("true");
+                return Boolean.TRUE;
+            case 'f':
+                expectLiteral("false");
+                return Boolean.FALSE;
+            case 'n':
+                expectLiteral("null");
+                return null;
+            default:
+                if (c == '-' || (c >= '0' && c <= '9')) {
+                    return parseNumber();
+                }
+                throw error("unexpected character '" + c + "'");
+        }
+    }
+
+    private Map<String, Object> parseObject() throws ConfigurationException {
+        Map<String, Object> object = new LinkedHashMap<>();
+        position++;
+        skipWhitespace();
+        if (peek() == '}') {
+            position++;
+            return object;
+        }
+        while (true) {
+            skipWhitespace();
+            if (peek() != '"') {
+                throw error("expected a member name");
+            }
+            String name = parseString();
+            skipWhitespace();
+            expect(':');
+            object.put(name, parseValue());
+            skipWhitespace();
+            char c = peek();
+            position++;
+            if (c == '}') {
+                return object;
+            }
+            if (c != ',') {
+                throw error("expected ',' or '}'");
+            }
+        }
+    }
+
+    private List<Object> parseArray() throws ConfigurationException {
+        List<Object> array = new ArrayList<>();
+        position++;
+        skipWhitespace();
+        if (peek() == ']') {
+            position++;
+            return array;
+        }
+        while (true) {
+            array.add(parseValue());
+            skipWhitespace();
+            char c = peek();
+            position++;
+            if (c == ']') {
+                return array;
+            }
+            if (c != ',') {
+                throw error("expected ',' or ']'");
+            }
+        }
+    }
+
+    private String parseString() throws ConfigurationException {
+        int start = ++position;
+        StringBuilder builder = null;
+        while (position < json.length()) {
+            char c = json.charAt(position);
+            if (c == '"') {
+                String value = builder == null ? json.substring(start, position) :
+                        builder.append(json, start, position).toString();
+                position++;
+                return value;
+            }
+            if (c < 0x20) {
+                throw error("unescaped control character in string");
+            }
+            if (c != '\\') {
+                position++;
+                continue;
+            }
+            if (builder == null) {
+                builder = new StringBuilder();
+            }
+            builder.append(json, start, position);
+            position++;
+            char escaped = peek();
+            position++;
+            switch (escaped) {
+                case '"':
+                case '\\':
+                case '/':
+                    builder.append(escaped);
+                    break;
+                case 'b':
+                    builder.append('\b');
+                    break;
+                case 'f':
+                    builder.append('\f');
+                    break;
+                case 'n':
+                    builder.append('\n');
+                    break;
+                case 'r':
+                    builder.append('\r');
+                    break;
+                case 't':
+                    builder.append('\t');
+                    break;
+                case 'u':
+                    if (position + 4 > json.length()) {
+                        throw error("invalid unicode escape");
+                    }
+                    try {
+                        builder.append((char) Integer.parseInt(json.substring(position, position + 4), 16));
+                    } catch (NumberFormatException e) {
+                        throw error("invalid unicode escape");
+                    }
+                    position += 4;
+                    break;
+                default:
+                    throw error("invalid escape character '" + escaped + "'");
+            }
+            start = position;
+        }
+        throw error("unterminated string");
+    }
+
+    private Number parseNumber() throws ConfigurationException {
+        int start = position;
+        boolean integral = true;
+        if (peek() == '-') {
+            position++;
+        }
+        if (!skipDigits()) {
+            throw error("invalid number");
+        }
+        if (position < json.length() && json.charAt(position) == '.') {
+            integral = false;
+            position++;
+            if (!skipDigits()) {
+                throw error("invalid number");
+            }
+        }
+        if (position < json.length() && (json.charAt(position) == 'e' || json.charAt(position) == 'E')) {
+            integral = false;
+            position++;
+            if (position < json.length() && (json.charAt(position) == '+' || json.charAt(position) == '-')) {
+                position++;
+            }
+            if (!skipDigits()) {
+                throw error("invalid number");
+            }
+        }
+        String number = json.substring(start, position);
+        if (!integral) {
+            return Double.valueOf(number);
+        }
+        if (number.length() <= 18) {
+            long value = Long.parseLong(number);
+            return value == (int) value ? Integer.valueOf((int) value) : Long.valueOf(value);
+        }
+        BigInteger value = new BigInteger(number);
+        return value.bitLength() < Long.SIZE ? (Number) value.longValue() : value;
+    }
+
+    private void enter() throws ConfigurationException {
+        if (++depth > nestingDepthLimit) {
+            throw error("nesting depth exceeds the limit of " + nestingDepthLimit);
+        }
+    }
+
+    private boolean skipDigits() {
+        int start = position;
+        while (position < json.length() && json.charAt(position) >= '0' && json.charAt(position) <= '9') {
+            position++;
+        }
+        return position > start;
+    }
+
+    private void skipWhitespace() {
+        while (position < json.length()) {
+            char c = json.charAt(position);
+            if (c != ' ' && c != '\t' && c != '\n' && c != '\r') {
+                return;
+            }
+            position++;
+        }
+    }
+
+    private char peek() throws ConfigurationException {
+        if (position >= json.length()) {
+            throw error("unexpected end of document");
+        }
+        return json.charAt(position);
+    }
+
+    private void expect(char expected) throws ConfigurationException {
+        if (peek() != expected) {
+            throw error("expected '" + expected + "'");
+        }
+        position++;
+    }
+
+    private void expectLiteral(String literal) throws ConfigurationException {
+        if (!json.startsWith(literal, position)) {
+            throw error("unexpected character '" + json.charAt(position) + "'");
+        }
+        position += literal.length();
+    }
+
+    private ConfigurationException error(String message) {
+        return new ConfigurationException(String.format(Locale.ENGLISH, "Error while parsing JSON configuration at " +
+                "position %d, %s", position, message));
+    }
+}
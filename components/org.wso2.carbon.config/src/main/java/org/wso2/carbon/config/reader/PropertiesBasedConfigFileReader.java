@@ -0,0 +1,205 @@
+/*
+ *  Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.config.reader;
+
+import org.wso2.carbon.config.ConfigurationException;
+import org.wso2.carbon.config.ConfigurationUtils;
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.constructor.SafeConstructor;
+import org.yaml.snakeyaml.error.YAMLException;
+import org.yaml.snakeyaml.nodes.NodeId;
+import org.yaml.snakeyaml.nodes.Tag;
+import org.yaml.snakeyaml.resolver.Resolver;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeSet;
+
+/**
+ * This class takes care of parsing a properties configuration file (e.g. deployment.properties) and creating the
+ * deployment configuration table.
+ * <p>
+ * Namespaces contain dots, hence a key is the namespace followed by a slash and the dot separated keys of the value,
+ * where list elements are addressed with their index in square brackets, e.g.
+ * <pre>
+ * wso2.carbon/id=carbon-kernel
+ * wso2.transports.netty/listenerConfigurations[0].port=9090
+ * </pre>
+ * A key without a slash is a namespace with a scalar value. Values are typed as YAML scalars, hence 9090 is bound as
+ * an int and true as a boolean.
+ *
+ * @since 2.1.18
+ */
+public class PropertiesBasedConfigFileReader extends ConfigFileReader {
+
+    private static final char NAMESPACE_SEPARATOR = '/';
+
+    public PropertiesBasedConfigFileReader(Path configurationFilePath) {
+        this(configurationFilePath, new LoaderOptions());
+    }
+
+    public PropertiesBasedConfigFileReader(Path configurationFilePath, LoaderOptions loaderOptions) {
+        super(configurationFilePath, loaderOptions);
+    }
+
+    @Override
+    public Map<String, String> getDeploymentConfiguration() throws ConfigurationException {
+        Properties properties = new Properties();
+        try (Reader reader = new StringReader(getFileContent())) {
+            properties.load(reader);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new ConfigurationException("Error while parsing configuration file", e);
+        }
+        Map<String, Object> configTree = new LinkedHashMap<>();
+        Resolver resolver = new Resolver();
+        Yaml yaml = new Yaml(new SafeConstructor(getLoaderOptions()));
+        // keys are sorted to make the order of the keys of the configuration tree independent of the hash order
+        for (String key : new TreeSet<>(properties.stringPropertyNames())) {
+            Object value = toScalar(properties.getProperty(key), resolver, yaml);
+            int separatorIndex = key.indexOf(NAMESPACE_SEPARATOR);
+            if (separatorIndex < 0) {
+                putValue(configTree, key, value, key);
+                continue;
+            }
+            String namespace = key.substring(0, separatorIndex);
+            String path = key.substring(separatorIndex + 1);
+            if (namespace.isEmpty() || path.isEmpty()) {
+                throw new ConfigurationException("Error while parsing configuration file, invalid key: " + key);
+            }
+            Object container = configTree.get(namespace);
+            if (container == null) {
+                container = new LinkedHashMap<>();
+                putValue(configTree, namespace, container, key);
+            }
+            setValue(container, path, value, key);
+        }
+        return ConfigurationUtils.getDeploymentConfigMap(configTree);
+    }
+
+    private static Object toScalar(String value, Resolver resolver, Yaml yaml) throws ConfigurationException {
+        if (resolver.resolve(NodeId.scalar, value, true).equals(Tag.STR)) {
+            return value;
+        }
+        try {
+            return yaml.load(value);
+        } catch (YAMLException e) {
+            throw new ConfigurationException("Error while parsing configuration value: " + value, e);
+        }
+    }
+
+    /**
+     * Sets the value of the given dot separated path, creating the maps and lists of the path.
+     */
+    @SuppressWarnings("unchecked")
+    private static void setValue(Object root, String path, Object value, String key) throws ConfigurationException {
+        Object container = root;
+        int start = 0;
+        while (start < path.length()) {
+            int end = start;
+            while (end < path.length() && path.charAt(end) != '.' && path.charAt(end) != '[') {
+                end++;
+            }
+            Object segment;
+            if (path.charAt(start) == '[') {
+                int close = path.indexOf(']', start);
+                if (close < 0) {
+                    throw new ConfigurationException("Error while parsing configuration file, invalid key: " + key);
+                }
+                try {
+                    segment = Integer.parseInt(path.substring(start + 1, close));
+                } catch (NumberFormatException e) {
+                    throw new ConfigurationException("Error while parsing configuration file, invalid index in key: " +
+                            key, e);
+                }
+                end = close + 1;
+            } else if (end > start) {
+                segment = path.substring(start, end);
+            } else {
+                throw new ConfigurationException("Error while parsing configuration file, invalid key: " + key);
+            }
+            if (end < path.length() && path.charAt(end) != '[') {
+                if (path.charAt(end) != '.' || ++end == path.length()) {
+                    throw new ConfigurationException("Error while parsing configuration file, invalid key: " + key);
+                }
+            }
+            boolean last = end == path.length();
+            Object child = last ? value : getChild(container, segment, key);
+            if (child == null && !last) {
+                child = path.charAt(end) == '[' ? new ArrayList<>() : new LinkedHashMap<>();
+            }
+            if (segment instanceof Integer) {
+                if (!(container instanceof List) || (Integer) segment < 0) {
+                    throw new ConfigurationException("Error while parsing configuration file, conflicting key: " +
+                            key);
+                }
+                List<Object> list = (List<Object>) container;
+                while (list.size() <= (Integer) segment) {
+                    list.add(null);
+                }
+                if (last && list.get((Integer) segment) != null) {
+                    throw new ConfigurationException("Error while parsing configuration file, conflicting key: " +
+                            key);
+                }
+                list.set((Integer) segment, child);
+            } else {
+                if (!(container instanceof Map)) {
+                    throw new ConfigurationException("Error while parsing configuration file, conflicting key: " +
+                            key);
+                }
+                putValue((Map<String, Object>) container, (String) segment, child, key);
+            }
+            container = child;
+            start = end;
+        }
+    }
+
+    private static Object getChild(Object container, Object segment, String key) throws ConfigurationException {
+        if (segment instanceof Integer) {
+            if (!(container instanceof List)) {
+                throw new ConfigurationException("Error while parsing configuration file, conflicting key: " + key);
+            }
+            List<?> list = (List<?>) container;
+            return (Integer) segment < list.size() ? list.get((Integer) segment) : null;
+        }
+        if (!(container instanceof Map)) {
+            throw new ConfigurationException("Error while parsing configuration file, conflicting key: " + key);
+        }
+        Object child = ((Map<?, ?>) container).get(segment);
+        if (child != null && !(child instanceof Map) && !(child instanceof List)) {
+            throw new ConfigurationException("Error while parsing configuration file, conflicting key: " + key);
+        }
+        return child;
+    }
+
+    private static void putValue(Map<String, Object> map, String name, Object value, String key)
+            throws ConfigurationException {
+        Object existing = map.get(name);
+        if (existing != null && existing != value) {
+            throw new ConfigurationException("Error while parsing configuration file, conflicting key: " + key);
+        }
+        map.put(name, value);
+    }
+}
@@ -15,11 +15,22 @@
  */
 package org.wso2.carbon.config.reader;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.wso2.carbon.config.ConfigConstants;
 import org.wso2.carbon.config.ConfigurationException;
 import org.wso2.carbon.config.ConfigurationUtils;
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.error.YAMLException;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 
 /**
  * This class takes care of parsing the deployment.yaml file and creating the deployment configuration table.
@@ -28,13 +39,130 @@ import java.util.Map;
  */
 public class YAMLBasedConfigFileReader extends ConfigFileReader {
 
+    private static final Logger logger = LoggerFactory.getLogger(YAMLBasedConfigFileReader.class);
+
+    private final String profile;
+
     public YAMLBasedConfigFileReader(Path configurationFilePath) {
-        super(configurationFilePath);
+        this(configurationFilePath, new LoaderOptions());
+    }
+
+    public YAMLBasedConfigFileReader(Path configurationFilePath, LoaderOptions loaderOptions) {
+        this(configurationFilePath, loaderOptions, null);
+    }
+
+    /**
+     * Creates a reader which merges the given configuration profile on top of the configuration file.
+     *
+     * @param configurationFilePath configuration file path
+     * @param loaderOptions         SnakeYAML loader options
+     * @param profile               configuration profile or null to use the profile given by the
+     *                              {@value ConfigConstants#SYSTEM_PROPERTY_CONFIG_PROFILE} system property
+     * @since 2.1.18
+     */
+    public YAMLBasedConfigFileReader(Path configurationFilePath, LoaderOptions loaderOptions, String profile) {
+        super(configurationFilePath, loaderOptions);
+        this.profile = profile;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The configuration file is streamed namespace by namespace without reading the whole file into memory. Custom
+     * configurations provided through the "config" system property are merged with the file content, hence the
+     * file is read as a whole in that case.
+     * <p>
+     * If a configuration profile is active, the namespaces of the profile block under the
+     * {@value ConfigConstants#PROFILES_NAMESPACE} key and of the profile file (e.g. deployment-dev.yaml) are merged on
+     * top of the configuration file, in that order. Blocks of inactive profiles are skipped while streaming.
+     */
     @Override
     public Map<String, String> getDeploymentConfiguration() throws ConfigurationException {
-        String yamlFileString = getFileContent();
-        return ConfigurationUtils.getDeploymentConfigMap(yamlFileString);
+        String activeProfile = getActiveProfile();
+        Map<String, String> deploymentConfigs = null;
+        Map<String, String> profileConfigs = null;
+        if (!isCustomConfigProvided() && getConfigurationFilePath() != null) {
+            YAMLNamespaceSplitter splitter = new YAMLNamespaceSplitter(getLoaderOptions(), activeProfile);
+            Optional<Map<String, String>> splitConfigs;
+            try (Reader reader = Files.newBufferedReader(getConfigurationFilePath(), StandardCharsets.UTF_8)) {
+                splitConfigs = splitter.split(reader);
+            } catch (IOException e) {
+                throw new ConfigurationException("Error while reading configuration file", e);
+            }
+            if (splitConfigs.isPresent()) {
+                deploymentConfigs = splitConfigs.get();
+                profileConfigs = splitter.getProfileConfigs();
+            } else {
+                logger.debug("Configuration file contains aliases across namespaces, hence loading the whole file");
+            }
+        }
+        if (deploymentConfigs == null) {
+            String yamlFileString = getFileContent();
+            try {
+                deploymentConfigs = ConfigurationUtils.getDeploymentConfigMap(yamlFileString, getLoaderOptions());
+            } catch (YAMLException e) {
+                throw new ConfigurationException("Error while parsing configuration file", e);
+            }
+            String profilesConfig = deploymentConfigs.remove(ConfigConstants.PROFILES_NAMESPACE);
+            profileConfigs = activeProfile != null ?
+                    ConfigProfiles.getProfileConfigs(profilesConfig, activeProfile, getLoaderOptions()) :
+                    new HashMap<>();
+        }
+        if (activeProfile == null) {
+            return deploymentConfigs;
+        }
+        deploymentConfigs = ConfigProfiles.merge(deploymentConfigs, profileConfigs, getLoaderOptions());
+        return ConfigProfiles.merge(deploymentConfigs, getProfileFileConfigs(activeProfile), getLoaderOptions());
+    }
+
+    /**
+     * Returns the active configuration profile.
+     *
+     * @return profile given to the reader, otherwise the profile given by the
+     * {@value ConfigConstants#SYSTEM_PROPERTY_CONFIG_PROFILE} system property, or null if no profile is active
+     */
+    private String getActiveProfile() {
+        String activeProfile = profile != null ? profile :
+                System.getProperty(ConfigConstants.SYSTEM_PROPERTY_CONFIG_PROFILE);
+        return activeProfile != null && !activeProfile.trim().isEmpty() ? activeProfile.trim() : null;
+    }
+
+    /**
+     * Returns the namespaces of the profile file of the given profile.
+     *
+     * @param activeProfile configuration profile
+     * @return map with key: namespace, value: YAML string of the namespace, which is empty if there is no profile file
+     * @throws ConfigurationException if an error occurred while reading the profile file
+     */
+    private Map<String, String> getProfileFileConfigs(String activeProfile) throws ConfigurationException {
+        if (getConfigurationFilePath() == null) {
+            return new HashMap<>();
+        }
+        Path profileFilePath = ConfigProfiles.getProfileFilePath(getConfigurationFilePath(), activeProfile);
+        if (!Files.isRegularFile(profileFilePath)) {
+            return new HashMap<>();
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug("Merging configuration profile file: {}", profileFilePath);
+        }
+        Optional<Map<String, String>> profileConfigs;
+        try (Reader reader = Files.newBufferedReader(profileFilePath, StandardCharsets.UTF_8)) {
+            profileConfigs = new YAMLNamespaceSplitter(getLoaderOptions()).split(reader);
+        } catch (IOException e) {
+            throw new ConfigurationException("Error while reading configuration profile file", e);
+        }
+        if (profileConfigs.isPresent()) {
+            return profileConfigs.get();
+        }
+        try {
+            Map<String, String> configs = ConfigurationUtils.getDeploymentConfigMap(
+                    new String(Files.readAllBytes(profileFilePath), StandardCharsets.UTF_8), getLoaderOptions());
+            configs.remove(ConfigConstants.PROFILES_NAMESPACE);
+            return configs;
+        } catch (IOException e) {
+            throw new ConfigurationException("Error while reading configuration profile file", e);
+        } catch (YAMLException e) {
+            throw new ConfigurationException("Error while parsing configuration profile file", e);
+        }
     }
 }
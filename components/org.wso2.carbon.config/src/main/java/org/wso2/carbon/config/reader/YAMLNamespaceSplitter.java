@@ -0,0 +1,351 @@
+/*
+ *  Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.config.reader;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.wso2.carbon.config.ConfigConstants;
+import org.wso2.carbon.config.ConfigurationException;
+import org.yaml.snakeyaml.DumperOptions;
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.emitter.Emitter;
+import org.yaml.snakeyaml.error.YAMLException;
+import org.yaml.snakeyaml.events.AliasEvent;
+import org.yaml.snakeyaml.events.DocumentEndEvent;
+import org.yaml.snakeyaml.events.DocumentStartEvent;
+import org.yaml.snakeyaml.events.Event;
+import org.yaml.snakeyaml.events.MappingStartEvent;
+import org.yaml.snakeyaml.events.NodeEvent;
+import org.yaml.snakeyaml.events.ScalarEvent;
+import org.yaml.snakeyaml.events.SequenceStartEvent;
+import org.yaml.snakeyaml.events.StreamEndEvent;
+import org.yaml.snakeyaml.events.StreamStartEvent;
+import org.yaml.snakeyaml.nodes.NodeId;
+import org.yaml.snakeyaml.nodes.Tag;
+import org.yaml.snakeyaml.resolver.Resolver;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Splits a YAML configuration stream into the YAML strings of its root level namespaces.
+ * <p>
+ * The document is processed as a stream of parser events which are re-emitted to a separate emitter per namespace,
+ * hence neither the full file content nor the object tree of the file is materialized. The splitter does hold the
+ * YAML string of every namespace it produces, so the retained memory is about the size of the configuration text,
+ * while the tree based loader holds the file content and the object tree of the whole file at its peak.
+ * <p>
+ * A namespace that refers to an anchor declared in another namespace cannot be emitted on its own. In that case
+ * {@link Optional#empty()} is returned and the caller is expected to fall back to the tree based loader.
+ * <p>
+ * Profile blocks under the {@value ConfigConstants#PROFILES_NAMESPACE} root key are not namespaces. The namespaces of
+ * the active profile are split into {@link #getProfileConfigs()}, while the events of the other profiles are skipped
+ * without being emitted or composed into nodes.
+ *
+ * @since 2.1.18
+ */
+final class YAMLNamespaceSplitter {
+
+    private static final Logger logger = LoggerFactory.getLogger(YAMLNamespaceSplitter.class);
+
+    private final LoaderOptions loaderOptions;
+    private final DumperOptions dumperOptions;
+    private final Resolver resolver = new Resolver();
+    private final String activeProfile;
+    private final Map<String, String> profileConfigs = new HashMap<>();
+
+    YAMLNamespaceSplitter(LoaderOptions loaderOptions) {
+        this(loaderOptions, null);
+    }
+
+    /**
+     * Creates a splitter which splits the namespaces of the given profile as well.
+     *
+     * @param loaderOptions SnakeYAML loader options
+     * @param activeProfile active configuration profile or null if no profile is active
+     */
+    YAMLNamespaceSplitter(LoaderOptions loaderOptions, String activeProfile) {
+        this.loaderOptions = loaderOptions;
+        this.activeProfile = activeProfile;
+        this.dumperOptions = new DumperOptions();
+        this.dumperOptions.setDefaultFlowStyle(DumperOptions.FlowStyle.BLOCK);
+    }
+
+    /**
+     * Returns the YAML string of each namespace of the active profile of the last split stream.
+     *
+     * @return map with key: namespace, value: YAML string of the namespace
+     */
+    Map<String, String> getProfileConfigs() {
+        return profileConfigs;
+    }
+
+    /**
+     * Reads the configuration stream and returns the YAML string of each root level namespace.
+     *
+     * @param reader configuration stream
+     * @return map with key: namespace, value: YAML string of the namespace, or empty if the stream contains aliases
+     * across namespaces
+     * @throws ConfigurationException if the stream is not a valid YAML mapping or exceeds the loader limits
+     */
+    Optional<Map<String, String>> split(Reader reader) throws ConfigurationException {
+        Map<String, String> deploymentConfigs = new HashMap<>();
+        try {
+            Iterator<Event> events = new Yaml(loaderOptions).parse(reader).iterator();
+            Event event = nextNodeEvent(events);
+            if (event == null) {
+                return Optional.of(deploymentConfigs);
+            }
+            if (!event.is(Event.ID.MappingStart)) {
+                throw new ConfigurationException("Error while parsing configuration file, root element is not a " +
+                        "mapping of namespaces");
+            }
+            if (!splitNamespaces(events, deploymentConfigs, true)) {
+                return Optional.empty();
+            }
+        } catch (YAMLException e) {
+            throw new ConfigurationException("Error while parsing configuration file", e);
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug("Streamed {} namespaces from the configuration file", deploymentConfigs.size());
+        }
+        return Optional.of(deploymentConfigs);
+    }
+
+    /**
+     * Splits the entries of the current mapping into the YAML strings of the namespaces.
+     *
+     * @param events           parser events positioned after the start of the mapping
+     * @param configs          map to put the YAML strings of the namespaces
+     * @param profilesReserved whether the profiles key holds the profile blocks instead of a namespace
+     * @return false if the mapping has complex keys or aliases across namespaces
+     * @throws ConfigurationException if the mapping is not a valid mapping of namespaces
+     */
+    private boolean splitNamespaces(Iterator<Event> events, Map<String, String> configs, boolean profilesReserved)
+            throws ConfigurationException {
+        while (true) {
+            Event keyEvent = nextNodeEvent(events);
+            if (keyEvent == null || keyEvent.is(Event.ID.MappingEnd)) {
+                return true;
+            }
+            if (!keyEvent.is(Event.ID.Scalar)) {
+                // complex keys are resolved only by the tree based loader
+                return false;
+            }
+            String namespace = ((ScalarEvent) keyEvent).getValue();
+            if (profilesReserved && ConfigConstants.PROFILES_NAMESPACE.equals(namespace)) {
+                if (!splitProfiles(events)) {
+                    return false;
+                }
+                continue;
+            }
+            if (!loaderOptions.isAllowDuplicateKeys() && configs.containsKey(namespace)) {
+                throw new ConfigurationException("Error while parsing configuration file, duplicate namespace: "
+                        + namespace);
+            }
+            Optional<String> namespaceConfig = emitNamespace(events);
+            if (namespaceConfig == null) {
+                return false;
+            }
+            if (namespaceConfig.isPresent()) {
+                configs.put(namespace, namespaceConfig.get());
+            } else {
+                configs.remove(namespace);
+            }
+        }
+    }
+
+    /**
+     * Splits the namespaces of the active profile and skips the other profiles.
+     *
+     * @param events parser events positioned at the value of the profiles key
+     * @return false if the active profile has complex keys or aliases across namespaces
+     * @throws ConfigurationException if the profiles are not a mapping of profile names to namespaces
+     */
+    private boolean splitProfiles(Iterator<Event> events) throws ConfigurationException {
+        Event event = nextNodeEvent(events);
+        if (event == null) {
+            throw new ConfigurationException("Error while parsing configuration file, unexpected end of stream");
+        }
+        if (event.is(Event.ID.Scalar) && isNull((ScalarEvent) event)) {
+            return true;
+        }
+        if (!event.is(Event.ID.MappingStart)) {
+            throw new ConfigurationException("Error while parsing configuration file, " +
+                    ConfigConstants.PROFILES_NAMESPACE + " is not a mapping of profiles");
+        }
+        while (true) {
+            Event profileEvent = nextNodeEvent(events);
+            if (profileEvent == null || profileEvent.is(Event.ID.MappingEnd)) {
+                return true;
+            }
+            if (!profileEvent.is(Event.ID.Scalar)) {
+                return false;
+            }
+            if (!((ScalarEvent) profileEvent).getValue().equals(activeProfile)) {
+                skipNode(events);
+                continue;
+            }
+            Event profileStart = nextNodeEvent(events);
+            if (profileStart == null) {
+                throw new ConfigurationException("Error while parsing configuration file, unexpected end of stream");
+            }
+            if (profileStart.is(Event.ID.Scalar) && isNull((ScalarEvent) profileStart)) {
+                continue;
+            }
+            if (!profileStart.is(Event.ID.MappingStart)) {
+                throw new ConfigurationException("Error while parsing configuration file, profile " + activeProfile
+                        + " is not a mapping of namespaces");
+            }
+            if (!splitNamespaces(events, profileConfigs, false)) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Skips the events of the current node.
+     *
+     * @param events parser events positioned at the node
+     * @throws ConfigurationException if the stream ends within the node
+     */
+    private void skipNode(Iterator<Event> events) throws ConfigurationException {
+        int depth = 0;
+        do {
+            Event event = nextNodeEvent(events);
+            if (event == null) {
+                throw new ConfigurationException("Error while parsing configuration file, unexpected end of stream");
+            }
+            if (event.is(Event.ID.MappingStart) || event.is(Event.ID.SequenceStart)) {
+                depth++;
+            } else if (event.is(Event.ID.MappingEnd) || event.is(Event.ID.SequenceEnd)) {
+                depth--;
+            }
+        } while (depth > 0);
+    }
+
+    /**
+     * Emits the value of the current namespace to a YAML string.
+     *
+     * @param events parser events positioned at the namespace value
+     * @return YAML string of the namespace, empty if the namespace value is null and null if the namespace refers
+     * to an anchor declared outside of it
+     * @throws ConfigurationException if an error occurred while emitting the namespace
+     */
+    private Optional<String> emitNamespace(Iterator<Event> events) throws ConfigurationException {
+        Event event = nextNodeEvent(events);
+        if (event == null) {
+            throw new ConfigurationException("Error while parsing configuration file, unexpected end of stream");
+        }
+        if (event.is(Event.ID.Scalar) && isNull((ScalarEvent) event)) {
+            return Optional.empty();
+        }
+        StringWriter writer = new StringWriter();
+        Emitter emitter = new Emitter(writer, dumperOptions);
+        Set<String> anchors = new HashSet<>();
+        try {
+            emitter.emit(new StreamStartEvent(null, null));
+            emitter.emit(new DocumentStartEvent(null, null, false, null, null));
+            int depth = 0;
+            do {
+                if (event.is(Event.ID.Alias) && !anchors.contains(((AliasEvent) event).getAnchor())) {
+                    return null;
+                }
+                if (event instanceof NodeEvent && ((NodeEvent) event).getAnchor() != null) {
+                    anchors.add(((NodeEvent) event).getAnchor());
+                }
+                if (event.is(Event.ID.MappingStart) || event.is(Event.ID.SequenceStart)) {
+                    depth++;
+                } else if (event.is(Event.ID.MappingEnd) || event.is(Event.ID.SequenceEnd)) {
+                    depth--;
+                }
+                emitter.emit(normalize(event));
+                if (depth == 0) {
+                    break;
+                }
+                event = nextNodeEvent(events);
+            } while (event != null);
+            emitter.emit(new DocumentEndEvent(null, null, false));
+            emitter.emit(new StreamEndEvent(null, null));
+        } catch (IOException e) {
+            throw new ConfigurationException("Error while emitting the namespace configuration", e);
+        }
+        return Optional.of(writer.toString());
+    }
+
+    /**
+     * Returns the next event which belongs to the node graph, skipping stream, document and comment events.
+     *
+     * @param events parser events
+     * @return next node event or null at the end of the first document
+     */
+    private Event nextNodeEvent(Iterator<Event> events) {
+        while (events.hasNext()) {
+            Event event = events.next();
+            if (event.is(Event.ID.DocumentEnd) || event.is(Event.ID.StreamEnd)) {
+                return null;
+            }
+            if (!event.is(Event.ID.StreamStart) && !event.is(Event.ID.DocumentStart)
+                    && !event.is(Event.ID.Comment)) {
+                return event;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Normalizes the presentation of an event the same way the representer dumps a configuration map: collections
+     * in block style and scalars in the simplest style which preserves the resolved type.
+     *
+     * @param event parser event
+     * @return event to emit
+     */
+    private Event normalize(Event event) {
+        if (event.is(Event.ID.MappingStart)) {
+            MappingStartEvent mappingStart = (MappingStartEvent) event;
+            return new MappingStartEvent(mappingStart.getAnchor(), mappingStart.getTag(), mappingStart.getImplicit(),
+                    null, null, DumperOptions.FlowStyle.BLOCK);
+        }
+        if (event.is(Event.ID.SequenceStart)) {
+            SequenceStartEvent sequenceStart = (SequenceStartEvent) event;
+            return new SequenceStartEvent(sequenceStart.getAnchor(), sequenceStart.getTag(),
+                    sequenceStart.getImplicit(), null, null, DumperOptions.FlowStyle.BLOCK);
+        }
+        if (event.is(Event.ID.Scalar)) {
+            ScalarEvent scalar = (ScalarEvent) event;
+            if (scalar.getScalarStyle() == DumperOptions.ScalarStyle.LITERAL
+                    || scalar.getScalarStyle() == DumperOptions.ScalarStyle.FOLDED) {
+                return scalar;
+            }
+            return new ScalarEvent(scalar.getAnchor(), scalar.getTag(), scalar.getImplicit(), scalar.getValue(),
+                    null, null, DumperOptions.ScalarStyle.PLAIN);
+        }
+        return event;
+    }
+
+    private boolean isNull(ScalarEvent scalar) {
+        return scalar.getTag() == null && scalar.isPlain() &&
+                Tag.NULL.equals(resolver.resolve(NodeId.scalar, scalar.getValue(), true));
+    }
+}
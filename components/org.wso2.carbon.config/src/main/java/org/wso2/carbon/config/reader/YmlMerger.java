@@ -22,7 +22,10 @@ import com.github.mustachejava.DefaultMustacheFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.yaml.snakeyaml.DumperOptions;
+import org.yaml.snakeyaml.LoaderOptions;
 import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.constructor.Constructor;
+import org.yaml.snakeyaml.representer.Representer;
 
 import java.io.StringReader;
 import java.io.StringWriter;
@@ -44,12 +47,17 @@ public class YmlMerger {
     private Map<String, Object> variablesToReplace = new HashMap<String, Object>();
 
     public YmlMerger() {
+        this(new LoaderOptions());
+    }
+
+    public YmlMerger(LoaderOptions loaderOptions) {
         DumperOptions dumperOptions = new DumperOptions();
         dumperOptions.setDefaultFlowStyle(DumperOptions.FlowStyle.BLOCK);
         dumperOptions.setPrettyFlow(true);
 
         dumperOptions.setTimeZone(TimeZone.getTimeZone("UTC"));
-        this.snakeYaml = new Yaml(dumperOptions);
+        this.snakeYaml = new Yaml(new Constructor(loaderOptions), new Representer(dumperOptions), dumperOptions,
+                loaderOptions);
     }
 
     public YmlMerger setVariablesToReplace(Map<String, String> vars) {
@@ -0,0 +1,122 @@
+/*
+ *  Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.config;
+
+import org.easymock.EasyMock;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import org.wso2.carbon.config.provider.ConfigProvider;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This class tests the registry of the shared configuration providers.
+ *
+ * @since 2.1.18
+ */
+public class ConfigProviderRegistryTest {
+
+    private static final long TIMEOUT_SECONDS = 10L;
+    private Path configFile;
+    private Path otherConfigFile;
+
+    @BeforeClass
+    public void setup() throws IOException {
+        configFile = Files.createTempFile("registry-deployment", ".yaml");
+        otherConfigFile = Files.createTempFile("registry-other-deployment", ".yaml");
+    }
+
+    @AfterClass
+    public void clean() throws IOException {
+        Files.deleteIfExists(configFile);
+        Files.deleteIfExists(otherConfigFile);
+    }
+
+    @Test(description = "test case for creating the provider of a file without blocking the callers of other files")
+    public void concurrentAcquireTestCase() throws Exception {
+        ConfigProviderRegistry registry = new ConfigProviderRegistry();
+        ConfigProvider configProvider = EasyMock.mock(ConfigProvider.class);
+        ConfigProvider otherConfigProvider = EasyMock.mock(ConfigProvider.class);
+        CountDownLatch creating = new CountDownLatch(1);
+        CountDownLatch created = new CountDownLatch(1);
+        AtomicInteger creations = new AtomicInteger();
+        ConfigProviderRegistry.ConfigProviderCreator slowCreator = filePath -> {
+            creations.incrementAndGet();
+            creating.countDown();
+            try {
+                created.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return configProvider;
+        };
+
+        CompletableFuture<ConfigProvider> first = CompletableFuture.supplyAsync(() -> acquire(registry, configFile,
+                slowCreator));
+        Assert.assertTrue(creating.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        CompletableFuture<ConfigProvider> second = CompletableFuture.supplyAsync(() -> acquire(registry, configFile,
+                slowCreator));
+        // the provider of another file is created while the provider of the first file is being created
+        Assert.assertSame(registry.acquire(otherConfigFile, filePath -> otherConfigProvider), otherConfigProvider);
+        Assert.assertFalse(first.isDone());
+
+        created.countDown();
+        Assert.assertSame(first.get(TIMEOUT_SECONDS, TimeUnit.SECONDS), configProvider);
+        Assert.assertSame(second.get(TIMEOUT_SECONDS, TimeUnit.SECONDS), configProvider);
+        Assert.assertEquals(creations.get(), 1, "Provider of a file should be created once");
+
+        // the provider is removed once both references are released
+        Assert.assertTrue(registry.release(configProvider));
+        Assert.assertSame(registry.acquire(configFile, slowCreator), configProvider);
+        Assert.assertTrue(registry.release(configProvider));
+        Assert.assertTrue(registry.release(configProvider));
+        Assert.assertFalse(registry.release(configProvider));
+        Assert.assertTrue(registry.release(otherConfigProvider));
+    }
+
+    @Test(description = "test case for acquiring the provider of a file again after its creation failed")
+    public void failedCreationTestCase() throws ConfigurationException {
+        ConfigProviderRegistry registry = new ConfigProviderRegistry();
+        try {
+            registry.acquire(configFile, filePath -> {
+                throw new ConfigurationException("Error while reading configuration file");
+            });
+            Assert.fail("Acquired a provider which cannot be created");
+        } catch (ConfigurationException e) {
+            Assert.assertEquals(e.getMessage(), "Error while reading configuration file");
+        }
+        ConfigProvider configProvider = EasyMock.mock(ConfigProvider.class);
+        Assert.assertSame(registry.acquire(configFile, filePath -> configProvider), configProvider);
+        Assert.assertTrue(registry.release(configProvider));
+    }
+
+    private static ConfigProvider acquire(ConfigProviderRegistry registry, Path filePath,
+                                          ConfigProviderRegistry.ConfigProviderCreator creator) {
+        try {
+            return registry.acquire(filePath, creator);
+        } catch (ConfigurationException e) {
+            throw new ConfigurationRuntimeException(e.getMessage(), e);
+        }
+    }
+}
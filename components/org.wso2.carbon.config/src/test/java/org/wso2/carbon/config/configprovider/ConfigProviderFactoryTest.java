@@ -117,10 +117,33 @@ public class ConfigProviderFactoryTest {
 
         ConfigProvider configProvider = ConfigProviderFactory.getConfigProvider(TestUtils.getResourcePath("conf",
                 "deployment.yaml").get());
-        Assert.assertNotNull(configProvider, "Configuration provider cannot be null");
-        TestConfiguration testConfiguration = configProvider.getConfigurationObject(TestConfiguration.class);
-        Assert.assertEquals(testConfiguration.getTenant(), "tenant");
+        try {
+            Assert.assertNotNull(configProvider, "Configuration provider cannot be null");
+            TestConfiguration testConfiguration = configProvider.getConfigurationObject(TestConfiguration.class);
+            Assert.assertEquals(testConfiguration.getTenant(), "tenant");
+        } finally {
+            ConfigProviderFactory.releaseConfigProvider(configProvider);
+        }
     }
 
-
+    @Test(description = "test case for sharing the config provider of a configuration file")
+    public void sharedConfigProviderTestCase() throws ConfigurationException {
+        Path filePath = TestUtils.getResourcePath("conf", "deployment.yaml").get();
+        Path otherFilePath = filePath.getParent().resolve("..").resolve(filePath.getParent().getFileName())
+                .resolve(filePath.getFileName());
+
+        ConfigProvider configProvider = ConfigProviderFactory.getConfigProvider(filePath);
+        ConfigProvider otherConfigProvider = ConfigProviderFactory.getConfigProvider(otherFilePath);
+        Assert.assertSame(otherConfigProvider, configProvider, "Config provider of the file is not shared");
+
+        ConfigProviderFactory.releaseConfigProvider(otherConfigProvider);
+        Assert.assertSame(ConfigProviderFactory.getConfigProvider(filePath), configProvider,
+                "Referenced config provider is removed");
+        ConfigProviderFactory.releaseConfigProvider(configProvider);
+        ConfigProviderFactory.releaseConfigProvider(configProvider);
+
+        ConfigProvider newConfigProvider = ConfigProviderFactory.getConfigProvider(filePath);
+        ConfigProviderFactory.releaseConfigProvider(newConfigProvider);
+        Assert.assertNotSame(newConfigProvider, configProvider, "Released config provider is not removed");
+    }
 }
@@ -22,8 +22,11 @@ import org.testng.Assert;
 import org.testng.annotations.BeforeTest;
 import org.testng.annotations.Test;
 import org.wso2.carbon.config.ConfigurationException;
+import org.wso2.carbon.config.ConfigurationRuntimeException;
 import org.wso2.carbon.config.provider.ConfigProvider;
 import org.wso2.carbon.config.provider.ConfigProviderImpl;
+import org.wso2.carbon.config.provider.ConfigurationFlow;
+import org.wso2.carbon.config.provider.ConfigurationValidator;
 import org.wso2.carbon.config.reader.ConfigFileReader;
 import org.wso2.carbon.config.reader.YAMLBasedConfigFileReader;
 import org.wso2.carbon.config.utils.EnvironmentUtils;
@@ -35,12 +38,24 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
 /**
  * This class is to demonstrate the sample uses of the ConfigProvider.
@@ -551,6 +566,64 @@ public class ConfigProviderImplTest {
         EnvironmentUtils.unsetEnvironmentVariables(transport2PasswordEnv);
     }
 
+    @Test(description = "Tests adding an array element with several environment variables")
+    public void yamlConfigOverrideWithEnvVariablesNewArrayElement() throws ConfigurationException {
+        String transportPrefix = CONFIG_NAMESPACE.toUpperCase() + NAMESPACE_LEVEL_SEPERATOR +
+                "TRANSPORTS_TRANSPORT_12_";
+        // DESC is applied before NAME, the unique element, when the variables are applied one by one
+        String transportDescEnv = transportPrefix + "DESC";
+        String transportNameEnv = transportPrefix + "NAME";
+        String transportPortEnv = transportPrefix + "PORT";
+        EnvironmentUtils.setEnvironmentVariables(transportDescEnv, "New transport");
+        EnvironmentUtils.setEnvironmentVariables(transportNameEnv, "new");
+        EnvironmentUtils.setEnvironmentVariables(transportPortEnv, "8123");
+        try {
+            ConfigFileReader fileReader = new YAMLBasedConfigFileReader(TestUtils.getResourcePath("conf",
+                    "envconfigoverride.yaml").get());
+            ConfigProvider configProvider = new ConfigProviderImpl(fileReader, secureVault);
+            TestConfiguration configurations = configProvider.getConfigurationObject(TestConfiguration.class);
+
+            List<Transport> transports = configurations.getTransports().getTransport().stream()
+                    .filter(transport -> "new".equals(transport.getName()))
+                    .collect(Collectors.toList());
+            Assert.assertEquals(transports.size(), 1);
+            Assert.assertEquals(transports.get(0).getDesc(), "New transport");
+            Assert.assertEquals(transports.get(0).getPort(), 8123);
+            Assert.assertEquals(configurations.getTransports().getTransport().size(), 4);
+        } finally {
+            EnvironmentUtils.unsetEnvironmentVariables(transportDescEnv);
+            EnvironmentUtils.unsetEnvironmentVariables(transportNameEnv);
+            EnvironmentUtils.unsetEnvironmentVariables(transportPortEnv);
+        }
+    }
+
+    @Test(description = "Tests overriding an existing element of a list, which is matched by its unique element "
+            + "regardless of the index of the environment variables")
+    public void yamlConfigOverrideWithEnvVariablesExistingArrayElement() throws ConfigurationException {
+        String transportPrefix = CONFIG_NAMESPACE.toUpperCase() + NAMESPACE_LEVEL_SEPERATOR +
+                "TRANSPORTS_TRANSPORT_7_";
+        String transportNameEnv = transportPrefix + "NAME";
+        String transportPortEnv = transportPrefix + "PORT";
+        EnvironmentUtils.setEnvironmentVariables(transportNameEnv, "abc");
+        EnvironmentUtils.setEnvironmentVariables(transportPortEnv, "8100");
+        try {
+            ConfigFileReader fileReader = new YAMLBasedConfigFileReader(TestUtils.getResourcePath("conf",
+                    "envconfigoverride.yaml").get());
+            ConfigProvider configProvider = new ConfigProviderImpl(fileReader, secureVault);
+            TestConfiguration configurations = configProvider.getConfigurationObject(TestConfiguration.class);
+
+            List<Transport> transports = configurations.getTransports().getTransport();
+            Assert.assertEquals(transports.size(), 3);
+            // the element is overridden in place, hence the order of the list is kept
+            Assert.assertEquals(transports.get(0).getName(), "abc");
+            Assert.assertEquals(transports.get(0).getPort(), 8100);
+            Assert.assertEquals(transports.get(2).getName(), "xyz");
+        } finally {
+            EnvironmentUtils.unsetEnvironmentVariables(transportNameEnv);
+            EnvironmentUtils.unsetEnvironmentVariables(transportPortEnv);
+        }
+    }
+
     @Test(description = "Tests invalid environment variables - config provider should ignore invalid environment " +
                         "variables")
     public void invalidEnvVariableFormatsTest() throws ConfigurationException {
@@ -855,9 +928,773 @@ public class ConfigProviderImplTest {
     }
 
 
+    @Test(description = "This test will test functionality of getConfigurationObjectStream()")
+    public void configObjectStream() throws ConfigurationException, IOException {
+        ConfigFileReader fileReader = new YAMLBasedConfigFileReader(TestUtils.getResourcePath("conf",
+                "Example2.yaml").get());
+        ConfigProvider configProvider = new ConfigProviderImpl(fileReader, secureVault);
+
+        List<TestTransportElement> testTransports = configProvider.getConfigurationObjectStream("testTransports",
+                TestTransportElement.class).collect(Collectors.toList());
+        Assert.assertEquals(testTransports.size(), 3);
+        Assert.assertEquals(testTransports.get(0).getTestTransport().getPassword(), PASSWORD);
+        Assert.assertEquals(testTransports.get(1).getTestTransport().getPort(), 8501);
+        Assert.assertEquals(testTransports.get(2).getTestTransport().getName(), "xyz");
+        Assert.assertEquals(configProvider.getConfigurationObjectStream("notExists", TestTransportElement.class)
+                .count(), 0);
+
+        Path configFile = Files.createTempFile("stream-deployment", ".yaml");
+        try {
+            // the second element cannot be bound and the third element refers to an anchor of the first element
+            Files.write(configFile, ("testTransports:\n" +
+                    "  - testTransport: &first\n      name: abc\n      port: 9090\n" +
+                    "  - testTransport:\n      port: not-a-port\n" +
+                    "  - testTransport: *first\n").getBytes(StandardCharsets.UTF_8));
+            configProvider = new ConfigProviderImpl(new YAMLBasedConfigFileReader(configFile), secureVault);
+            Iterator<TestTransportElement> elements = configProvider.getConfigurationObjectStream("testTransports",
+                    TestTransportElement.class).iterator();
+            Assert.assertEquals(elements.next().getTestTransport().getName(), "abc");
+            try {
+                elements.next();
+                Assert.fail("Binding an invalid element is expected to fail");
+            } catch (ConfigurationRuntimeException e) {
+                Assert.assertTrue(elements.hasNext());
+            }
+            Assert.assertEquals(elements.next().getTestTransport().getPort(), 9090);
+            Assert.assertFalse(elements.hasNext());
+        } finally {
+            Files.deleteIfExists(configFile);
+        }
+    }
+
     /**
      * Set environmental variables.
      */
+    @Test(description = "Tests reading single values through the typed path accessors")
+    public void typedPathAccessorTest() throws ConfigurationException {
+        ConfigFileReader fileReader = new YAMLBasedConfigFileReader(TestUtils.getResourcePath("conf",
+                "typedaccessors.yaml").get());
+        ConfigProvider configProvider = new ConfigProviderImpl(fileReader, secureVault);
+
+        Assert.assertEquals(configProvider.getInt("transports.http.port", 0), 8080);
+        Assert.assertEquals(configProvider.getString("transports.http.host", null), "localhost");
+        Assert.assertEquals(configProvider.getBoolean("transports.http.secure", true), false);
+        Assert.assertEquals(configProvider.getLong("transports.http.maxPayload", 0L), 4294967296L);
+        Assert.assertEquals(configProvider.getDuration("transports.http.readTimeout", null),
+                Duration.ofSeconds(30));
+        Assert.assertEquals(configProvider.getDuration("transports.http.idleTimeout", null), Duration.ofMinutes(2));
+        Assert.assertEquals(configProvider.getDuration("transports.http.retryInterval", null),
+                Duration.ofMillis(1500));
+        // placeholders are resolved and quoted scalars are converted
+        Assert.assertEquals(configProvider.getInt("transports.https.port", 0), 9443);
+        Assert.assertEquals(configProvider.getBoolean("transports.https.secure", false), true);
+        // list elements and namespaces containing dots
+        Assert.assertEquals(configProvider.getString("transports.listeners[1].name", null), "admin");
+        Assert.assertEquals(configProvider.getInt("transports.listeners[1].port", 0), 7071);
+        Assert.assertEquals(configProvider.getString("wso2.carbon.id", null), "carbon-kernel");
+        // missing paths and non scalar paths return the default value
+        Assert.assertEquals(configProvider.getInt("transports.http.missing", 42), 42);
+        Assert.assertEquals(configProvider.getString("transports.http", "default"), "default");
+        Assert.assertEquals(configProvider.getString("missing.namespace.key", "default"), "default");
+    }
+
+    @Test(description = "Tests reading namespaces which are scalars or lists through the typed path accessors")
+    public void scalarNamespacePathAccessorTest() throws ConfigurationException, IOException {
+        Path configFile = Files.createTempFile("scalar-deployment", ".yaml");
+        try {
+            Files.write(configFile, ("server.name: carbon\nserver.port: 9763\nallowed.hosts:\n  - localhost\n" +
+                    "  - example.com\n").getBytes(StandardCharsets.UTF_8));
+            ConfigProvider configProvider = new ConfigProviderImpl(new YAMLBasedConfigFileReader(configFile),
+                    secureVault);
+
+            Assert.assertEquals(configProvider.getString("server.name", null), "carbon");
+            Assert.assertEquals(configProvider.getInt("server.port", 0), 9763);
+            Assert.assertEquals(configProvider.getString("allowed.hosts[1]", null), "example.com");
+            Assert.assertEquals(configProvider.getString("server.name.missing", "default"), "default");
+            Assert.assertEquals(configProvider.getString("allowed.hosts", "default"), "default");
+        } finally {
+            Files.deleteIfExists(configFile);
+        }
+    }
+
+    @Test(description = "Tests reading a value of a different type through the typed path accessors",
+            expectedExceptions = ConfigurationException.class,
+            expectedExceptionsMessageRegExp = "Configuration value 'localhost' of transports.http.host is not an " +
+                    "integer")
+    public void typedPathAccessorInvalidTypeTest() throws ConfigurationException {
+        ConfigFileReader fileReader = new YAMLBasedConfigFileReader(TestUtils.getResourcePath("conf",
+                "typedaccessors.yaml").get());
+        ConfigProvider configProvider = new ConfigProviderImpl(fileReader, secureVault);
+        configProvider.getInt("transports.http.host", 0);
+    }
+
+    @Test(description = "Tests that a configuration view reflects the reloaded configuration")
+    public void configurationViewReloadTest() throws ConfigurationException, IOException {
+        Path configFile = Files.createTempFile("view-deployment", ".yaml");
+        try {
+            Files.write(configFile, "transports:\n  http:\n    port: 8080\n    host: localhost\n    secure: false\n"
+                    .getBytes(StandardCharsets.UTF_8));
+            ConfigProvider configProvider = new ConfigProviderImpl(new YAMLBasedConfigFileReader(configFile),
+                    secureVault);
+            TransportsView.HttpView http = configProvider.getConfigurationView(TransportsView.class).getHttp();
+
+            Assert.assertEquals(http.getPort(), 8080);
+            Assert.assertEquals(http.host(), "localhost");
+            Assert.assertEquals(http.isSecure(), false);
+            Assert.assertNull(http.getReadTimeout());
+            Assert.assertNull(http.getMissing());
+
+            Files.write(configFile, ("transports:\n  http:\n    port: 9090\n    host: example.com\n" +
+                    "    secure: true\n    readTimeout: 30s\n").getBytes(StandardCharsets.UTF_8));
+            Assert.assertEquals(http.getPort(), 8080, "View should not change until the configuration is reloaded");
+            configProvider.reload();
+
+            Assert.assertEquals(http.getPort(), 9090);
+            Assert.assertEquals(http.host(), "example.com");
+            Assert.assertEquals(http.isSecure(), true);
+            Assert.assertEquals(http.getReadTimeout(), Duration.ofSeconds(30));
+            Assert.assertEquals(configProvider.getInt("transports.http.port", 0), 9090);
+        } finally {
+            Files.deleteIfExists(configFile);
+        }
+    }
+
+    @Test(description = "Tests requesting a configuration view of an interface without a namespace",
+            expectedExceptions = ConfigurationException.class,
+            expectedExceptionsMessageRegExp = "Configuration namespace is not defined for the view: .*")
+    public void configurationViewWithoutNamespaceTest() throws ConfigurationException {
+        ConfigFileReader fileReader = new YAMLBasedConfigFileReader(TestUtils.getResourcePath("conf",
+                "typedaccessors.yaml").get());
+        ConfigProvider configProvider = new ConfigProviderImpl(fileReader, secureVault);
+        configProvider.getConfigurationView(TransportsView.HttpView.class);
+    }
+
+    @Test(description = "Tests requesting a configuration view with an unsupported return type",
+            expectedExceptions = ConfigurationException.class,
+            expectedExceptionsMessageRegExp = "Return type java.util.List of getPorts is not supported .*")
+    public void configurationViewUnsupportedTypeTest() throws ConfigurationException {
+        ConfigFileReader fileReader = new YAMLBasedConfigFileReader(TestUtils.getResourcePath("conf",
+                "typedaccessors.yaml").get());
+        ConfigProvider configProvider = new ConfigProviderImpl(fileReader, secureVault);
+        configProvider.getConfigurationView(InvalidViews.ListView.class);
+    }
+
+    @Test(description = "Tests requesting a configuration view whose nested view refers to an enclosing view",
+            expectedExceptions = ConfigurationException.class,
+            expectedExceptionsMessageRegExp = "Method getParent of configuration view .* refers to the enclosing " +
+                    "view .*CyclicView")
+    public void configurationViewCycleTest() throws ConfigurationException {
+        ConfigFileReader fileReader = new YAMLBasedConfigFileReader(TestUtils.getResourcePath("conf",
+                "typedaccessors.yaml").get());
+        ConfigProvider configProvider = new ConfigProviderImpl(fileReader, secureVault);
+        configProvider.getConfigurationView(InvalidViews.CyclicView.class);
+    }
+
+    @Test(description = "Tests that an immutable configuration is bound through its constructor and shared")
+    public void immutableConfigurationTest() throws ConfigurationException, IOException {
+        Path configFile = Files.createTempFile("immutable-deployment", ".yaml");
+        System.setProperty("TRANSPORTS__HTTP_MAXCONNECTIONS", "250");
+        try {
+            Files.copy(TestUtils.getResourcePath("conf", "typedaccessors.yaml").get(), configFile,
+                    StandardCopyOption.REPLACE_EXISTING);
+            ConfigProvider configProvider = new ConfigProviderImpl(new YAMLBasedConfigFileReader(configFile),
+                    secureVault);
+            ImmutableTransportsConfiguration configuration =
+                    configProvider.getConfigurationObject(ImmutableTransportsConfiguration.class);
+
+            Assert.assertEquals(configuration.getHttp().getPort(), 8080);
+            Assert.assertEquals(configuration.getHttp().getHost(), "localhost");
+            Assert.assertEquals(configuration.getHttp().getMaxPayload(), 4294967296L);
+            Assert.assertEquals(configuration.getHttp().getMaxConnections(), 250);
+            Assert.assertEquals(configuration.getHttp().getReadTimeout(), Duration.ofSeconds(30));
+            // missing keys take the defaults of the no-argument constructor
+            Assert.assertEquals(configuration.getHttps().getPort(), 9443);
+            Assert.assertEquals(configuration.getHttps().isSecure(), true);
+            Assert.assertEquals(configuration.getHttps().getHost(), "0.0.0.0");
+            Assert.assertEquals(configuration.getHttps().getMaxConnections(), 100);
+            Assert.assertEquals(configuration.getListeners().size(), 2);
+            Assert.assertEquals(configuration.getListeners().get(1).getName(), "admin");
+            Assert.assertEquals(configuration.getListeners().get(1).getPort(), 7071);
+
+            Assert.assertSame(configProvider.getConfigurationObject(ImmutableTransportsConfiguration.class),
+                    configuration);
+            Assert.assertSame(configProvider.getConfigurationObject("transports",
+                    ImmutableTransportsConfiguration.class), configuration);
+
+            Files.write(configFile, "transports:\n  http:\n    port: 9090\n".getBytes(StandardCharsets.UTF_8));
+            configProvider.reload();
+            ImmutableTransportsConfiguration reloaded =
+                    configProvider.getConfigurationObject(ImmutableTransportsConfiguration.class);
+            Assert.assertNotSame(reloaded, configuration);
+            Assert.assertEquals(reloaded.getHttp().getPort(), 9090);
+            Assert.assertEquals(reloaded.getListeners().size(), 0);
+            Assert.assertEquals(configuration.getHttp().getPort(), 8080);
+
+            // a configuration which holds secrets is bound for each caller, as the secrets are not retained
+            Files.write(configFile, "transports:\n  http:\n    host: ${sec:conn.auth.password}\n"
+                    .getBytes(StandardCharsets.UTF_8));
+            configProvider.reload();
+            ImmutableTransportsConfiguration secured =
+                    configProvider.getConfigurationObject(ImmutableTransportsConfiguration.class);
+            Assert.assertEquals(secured.getHttp().getHost(), PASSWORD);
+            Assert.assertNotSame(configProvider.getConfigurationObject(ImmutableTransportsConfiguration.class),
+                    secured);
+        } finally {
+            System.clearProperty("TRANSPORTS__HTTP_MAXCONNECTIONS");
+            Files.deleteIfExists(configFile);
+        }
+    }
+
+    @Test(description = "Tests merging the configuration file on top of the generated configuration defaults")
+    public void effectiveConfigurationTest() throws ConfigurationException {
+        ConfigFileReader fileReader = new YAMLBasedConfigFileReader(TestUtils.getResourcePath("conf",
+                "typedaccessors.yaml").get());
+        ConfigProvider configProvider = new ConfigProviderImpl(fileReader, secureVault);
+        Map effectiveConfiguration = (Map) configProvider.getEffectiveConfiguration(
+                ImmutableTransportsConfiguration.class);
+
+        Map http = (Map) effectiveConfiguration.get("http");
+        Assert.assertEquals(http.get("port"), 8080);
+        Assert.assertEquals(http.get("host"), "localhost");
+        Assert.assertEquals(http.get("maxPayload"), 4294967296L);
+        Assert.assertEquals(http.get("maxConnections"), 100);
+        Assert.assertEquals(http.get("readTimeout"), "30s");
+        Map https = (Map) effectiveConfiguration.get("https");
+        Assert.assertEquals(https.get("port"), 9443);
+        Assert.assertEquals(https.get("host"), "0.0.0.0");
+        Assert.assertEquals(((List) effectiveConfiguration.get("listeners")).size(), 2);
+        // classes without generated defaults return the configuration of the file
+        Assert.assertNull(configProvider.getEffectiveConfiguration(TestConfiguration.class));
+
+        // the defaults are shared by all bindings of the class, hence the subtrees taken from them are unmodifiable
+        ConfigProvider referencesProvider = new ConfigProviderImpl(new YAMLBasedConfigFileReader(
+                TestUtils.getResourcePath("conf", "references.yaml").get()), secureVault);
+        Map defaultHttps = (Map) ((Map) referencesProvider.getEffectiveConfiguration(
+                ImmutableTransportsConfiguration.class)).get("https");
+        try {
+            defaultHttps.put("port", 9443);
+            Assert.fail("Modified the default configuration of a class");
+        } catch (UnsupportedOperationException e) {
+            Assert.assertEquals(defaultHttps.get("port"), 8080);
+        }
+    }
+
+    @Test(description = "Tests loading configurations asynchronously on the load executor")
+    public void asyncConfigurationObjectTest() throws InterruptedException {
+        AtomicInteger dispatchCount = new AtomicInteger();
+        Executor loadExecutor = task -> {
+            dispatchCount.incrementAndGet();
+            task.run();
+        };
+        ConfigFileReader fileReader = new YAMLBasedConfigFileReader(TestUtils.getResourcePath("conf",
+                "typedaccessors.yaml").get());
+        ConfigProvider configProvider = new ConfigProviderImpl(fileReader, secureVault, loadExecutor);
+
+        ImmutableTransportsConfiguration configuration =
+                configProvider.getConfigurationObjectAsync(ImmutableTransportsConfiguration.class).join();
+        Assert.assertEquals(configuration.getHttp().getPort(), 8080);
+        Assert.assertEquals(dispatchCount.get(), 1);
+
+        // bound immutable configurations of the loaded configuration are returned without dispatching
+        CompletableFuture<ImmutableTransportsConfiguration> future =
+                configProvider.getConfigurationObjectAsync("transports", ImmutableTransportsConfiguration.class);
+        Assert.assertTrue(future.isDone());
+        Assert.assertSame(future.join(), configuration);
+        Assert.assertEquals(dispatchCount.get(), 1);
+
+        try {
+            configProvider.getConfigurationObjectListAsync("transports", TestTransportElement.class).get();
+            Assert.fail("Loading a map as a list is expected to fail");
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof ConfigurationException);
+        }
+        Assert.assertEquals(dispatchCount.get(), 2);
+    }
+
+    @Test(description = "Tests publishing the changes of a configuration to a subscriber")
+    public void configurationPublisherTest() throws ConfigurationException, IOException {
+        Path configFile = Files.createTempFile("published-deployment", ".yaml");
+        try {
+            Files.write(configFile, "transports:\n  http:\n    port: 8080\n".getBytes(StandardCharsets.UTF_8));
+            ConfigProvider configProvider = new ConfigProviderImpl(new YAMLBasedConfigFileReader(configFile),
+                    secureVault, Runnable::run);
+            List<ImmutableTransportsConfiguration> received = new ArrayList<>();
+            ConfigurationFlow.Subscription[] subscription = new ConfigurationFlow.Subscription[1];
+            configProvider.getConfigurationPublisher(ImmutableTransportsConfiguration.class)
+                    .subscribe(new ConfigurationFlow.Subscriber<ImmutableTransportsConfiguration>() {
+                        @Override
+                        public void onSubscribe(ConfigurationFlow.Subscription newSubscription) {
+                            subscription[0] = newSubscription;
+                            newSubscription.request(1);
+                        }
+
+                        @Override
+                        public void onNext(ImmutableTransportsConfiguration item) {
+                            received.add(item);
+                        }
+
+                        @Override
+                        public void onError(Throwable throwable) {
+                            Assert.fail("Unexpected error", throwable);
+                        }
+
+                        @Override
+                        public void onComplete() {
+                        }
+                    });
+            Assert.assertEquals(received.size(), 1);
+            Assert.assertEquals(received.get(0).getHttp().getPort(), 8080);
+
+            // changes are coalesced until the subscriber requests more
+            Files.write(configFile, "transports:\n  http:\n    port: 9090\n".getBytes(StandardCharsets.UTF_8));
+            configProvider.reload();
+            Files.write(configFile, "transports:\n  http:\n    port: 9191\n".getBytes(StandardCharsets.UTF_8));
+            configProvider.reload();
+            Assert.assertEquals(received.size(), 1);
+            subscription[0].request(5);
+            Assert.assertEquals(received.size(), 2);
+            Assert.assertEquals(received.get(1).getHttp().getPort(), 9191);
+
+            // reloads which do not change the namespace are not published
+            Files.write(configFile, "transports:\n  http:\n    port: 9191\nother: value\n"
+                    .getBytes(StandardCharsets.UTF_8));
+            configProvider.reload();
+            Assert.assertEquals(received.size(), 2);
+
+            subscription[0].cancel();
+            Files.write(configFile, "transports:\n  http:\n    port: 9292\n".getBytes(StandardCharsets.UTF_8));
+            configProvider.reload();
+            Assert.assertEquals(received.size(), 2);
+        } finally {
+            Files.deleteIfExists(configFile);
+        }
+    }
+
+    @Test(description = "Tests publishing the changes of a configuration without a namespace")
+    public void configurationPublisherWithoutNamespaceTest() throws ConfigurationException, IOException {
+        Path configFile = Files.createTempFile("published-deployment", ".yaml");
+        try {
+            Files.write(configFile, "transports:\n  http:\n    port: 8080\n".getBytes(StandardCharsets.UTF_8));
+            ConfigProvider configProvider = new ConfigProviderImpl(new YAMLBasedConfigFileReader(configFile),
+                    secureVault, Runnable::run);
+            List<ImmutableHttpConfiguration> received = new ArrayList<>();
+            configProvider.getConfigurationPublisher(ImmutableHttpConfiguration.class)
+                    .subscribe(new ConfigurationFlow.Subscriber<ImmutableHttpConfiguration>() {
+                        @Override
+                        public void onSubscribe(ConfigurationFlow.Subscription subscription) {
+                            subscription.request(Long.MAX_VALUE);
+                        }
+
+                        @Override
+                        public void onNext(ImmutableHttpConfiguration item) {
+                            received.add(item);
+                        }
+
+                        @Override
+                        public void onError(Throwable throwable) {
+                            Assert.fail("Unexpected error", throwable);
+                        }
+
+                        @Override
+                        public void onComplete() {
+                        }
+                    });
+            Assert.assertEquals(received.size(), 1);
+            Files.write(configFile, "transports:\n  http:\n    port: 9090\n".getBytes(StandardCharsets.UTF_8));
+            configProvider.reload();
+            Assert.assertEquals(received.size(), 2);
+            Assert.assertEquals(received.get(1).getPort(), 8080);
+        } finally {
+            Files.deleteIfExists(configFile);
+        }
+    }
+
+    @Test(description = "Tests reading the configuration through an overlay of overrides")
+    public void overlayConfigurationTest() throws ConfigurationException, IOException {
+        Path configFile = Files.createTempFile("overlay-deployment", ".yaml");
+        try {
+            Files.copy(TestUtils.getResourcePath("conf", "typedaccessors.yaml").get(), configFile,
+                    StandardCopyOption.REPLACE_EXISTING);
+            ConfigProvider configProvider = new ConfigProviderImpl(new YAMLBasedConfigFileReader(configFile),
+                    secureVault);
+            Map<String, Object> http = new HashMap<>();
+            http.put("port", 9090);
+            Map<String, Object> transports = new HashMap<>();
+            transports.put("http", http);
+            Map<String, Object> overrides = new HashMap<>();
+            overrides.put("transports", transports);
+            overrides.put("server.name", "tenant");
+            ConfigProvider overlay = configProvider.createOverlay(overrides);
+            // overrides are copied
+            http.put("port", 9191);
+            // scalar namespaces are overridden as scalars
+            Assert.assertEquals(overlay.getConfigurationObject("server.name"), "tenant");
+
+            Assert.assertEquals(overlay.getInt("transports.http.port", 0), 9090);
+            Assert.assertEquals(overlay.getString("transports.http.host", null), "localhost");
+            Assert.assertEquals(overlay.getString("wso2.carbon.id", null), "carbon-kernel");
+            Assert.assertEquals(configProvider.getInt("transports.http.port", 0), 8080);
+            Map overlayTransports = (Map) overlay.getConfigurationObject("transports");
+            Assert.assertEquals(((Map) overlayTransports.get("http")).get("port"), 9090);
+            Assert.assertEquals(((List) overlayTransports.get("listeners")).size(), 2);
+            ImmutableTransportsConfiguration configuration =
+                    overlay.getConfigurationObject(ImmutableTransportsConfiguration.class);
+            Assert.assertEquals(configuration.getHttp().getPort(), 9090);
+            Assert.assertEquals(configuration.getHttp().getHost(), "localhost");
+            Assert.assertEquals(configProvider.getConfigurationObject(ImmutableTransportsConfiguration.class)
+                    .getHttp().getPort(), 8080);
+
+            // overlays follow the reloads of the base configuration
+            Files.write(configFile, "transports:\n  http:\n    port: 8181\n    host: example.com\n"
+                    .getBytes(StandardCharsets.UTF_8));
+            configProvider.reload();
+            Assert.assertEquals(overlay.getInt("transports.http.port", 0), 9090);
+            Assert.assertEquals(overlay.getString("transports.http.host", null), "example.com");
+            Assert.assertNull(overlay.getString("wso2.carbon.id", null));
+        } finally {
+            Files.deleteIfExists(configFile);
+        }
+    }
+
+    @Test(description = "Tests detecting configuration changes by fingerprint")
+    public void fingerprintTest() throws ConfigurationException, IOException {
+        Path configFile = Files.createTempFile("fingerprint-deployment", ".yaml");
+        try {
+            Files.write(configFile, ("transports:\n  http:\n    port: 8080\n    host: localhost\n" +
+                    "wso2.carbon:\n  id: carbon-kernel\n").getBytes(StandardCharsets.UTF_8));
+            ConfigProvider configProvider = new ConfigProviderImpl(new YAMLBasedConfigFileReader(configFile),
+                    secureVault);
+            String fingerprint = configProvider.getFingerprint();
+            String transportsFingerprint = configProvider.getFingerprint("transports");
+            String carbonFingerprint = configProvider.getFingerprint("wso2.carbon");
+            Assert.assertEquals(fingerprint.length(), 16);
+            Assert.assertNull(configProvider.getFingerprint("wso2.missing"));
+
+            // formatting and the order of keys do not change the fingerprint
+            Files.write(configFile, ("wso2.carbon: {id: carbon-kernel}\n" +
+                    "transports:\n  http: {host: localhost, port: 8080}\n").getBytes(StandardCharsets.UTF_8));
+            configProvider.reload();
+            Assert.assertEquals(configProvider.getFingerprint(), fingerprint);
+            Assert.assertEquals(new ConfigProviderImpl(new YAMLBasedConfigFileReader(configFile), secureVault)
+                    .getFingerprint(), fingerprint);
+
+            Files.write(configFile, ("wso2.carbon: {id: carbon-kernel}\n" +
+                    "transports:\n  http: {host: localhost, port: 9090}\n").getBytes(StandardCharsets.UTF_8));
+            configProvider.reload();
+            Assert.assertNotEquals(configProvider.getFingerprint(), fingerprint);
+            Assert.assertNotEquals(configProvider.getFingerprint("transports"), transportsFingerprint);
+            Assert.assertEquals(configProvider.getFingerprint("wso2.carbon"), carbonFingerprint);
+
+            // an overlay changes the fingerprints of the overridden namespaces only
+            ConfigProvider overlay = configProvider.createOverlay(Collections.singletonMap("transports",
+                    Collections.singletonMap("http", Collections.singletonMap("port", 8080))));
+            Assert.assertEquals(overlay.getFingerprint("transports"), transportsFingerprint);
+            Assert.assertEquals(overlay.getFingerprint("wso2.carbon"), carbonFingerprint);
+            Assert.assertEquals(overlay.getFingerprint(), fingerprint);
+        } finally {
+            Files.deleteIfExists(configFile);
+        }
+    }
+
+    @Test(description = "Tests resolving placeholders which refer to other configuration values")
+    public void referencePlaceholderTest() throws ConfigurationException, SecureVaultException {
+        SecureVault countingSecureVault = EasyMock.mock(SecureVault.class);
+        EasyMock.expect(countingSecureVault.resolve("wso2.carbon.keystore.password"))
+                .andReturn(PASSWORD.toCharArray()).times(4);
+        EasyMock.replay(countingSecureVault);
+        ConfigFileReader fileReader = new YAMLBasedConfigFileReader(TestUtils.getResourcePath("conf",
+                "references.yaml").get());
+        ConfigProvider configProvider = new ConfigProviderImpl(fileReader, countingSecureVault);
+
+        Assert.assertEquals(configProvider.getString("transports.proxy.url", null), "http://localhost:8080/");
+        Assert.assertEquals(configProvider.getString("transports.proxy.timeout", null), "30s");
+        Assert.assertEquals(configProvider.getInt("transports.listeners[0].port", 0), 8080);
+        // chains of references across namespaces
+        Assert.assertEquals(configProvider.getString("wso2.carbon.endpoint", null),
+                "http://localhost:8080/fallback");
+        Assert.assertEquals(configProvider.getInt("wso2.carbon.listenerPort", 0), 8080);
+        // secrets are not retained by the snapshot, hence they are resolved on each read by path
+        Assert.assertEquals(configProvider.getString("wso2.carbon.keyPassword", null), PASSWORD);
+        Assert.assertEquals(configProvider.getString("secrets.keystore", null), PASSWORD);
+        // a secret is resolved once per binding, however many values refer to it
+        Map<?, ?> carbonConfig = (Map<?, ?>) configProvider.getConfigurationObject("wso2.carbon");
+        Assert.assertEquals(carbonConfig.get("keyPassword"), PASSWORD);
+        Assert.assertEquals(carbonConfig.get("trustPassword"), PASSWORD);
+        Assert.assertEquals(configProvider.getString("wso2.carbon.trustPassword", null), PASSWORD);
+        EasyMock.verify(countingSecureVault);
+    }
+
+    @Test(description = "Tests resolving the secrets of an immutable configuration without retaining them")
+    public void immutableSecretPlaceholderTest() throws ConfigurationException, IOException {
+        Path configFile = Files.createTempFile("secret-deployment", ".yaml");
+        try {
+            Files.write(configFile, "transports:\n  http:\n    host: ${sec:conn.auth.password}\n"
+                    .getBytes(StandardCharsets.UTF_8));
+            ConfigProvider configProvider = new ConfigProviderImpl(new YAMLBasedConfigFileReader(configFile),
+                    secureVault);
+            Assert.assertEquals(configProvider.getConfigurationObject(ImmutableTransportsConfiguration.class)
+                    .getHttp().getHost(), PASSWORD);
+            Assert.assertEquals(configProvider.getString("transports.http.host", null), PASSWORD);
+            Assert.assertEquals(configProvider.getConfigurationView(TransportsView.class).getHttp().host(),
+                    PASSWORD);
+            Map<?, ?> effectiveConfiguration = (Map<?, ?>) configProvider.getEffectiveConfiguration(
+                    ImmutableTransportsConfiguration.class);
+            Assert.assertEquals(((Map<?, ?>) effectiveConfiguration.get("http")).get("host"),
+                    "${sec:conn.auth.password}");
+        } finally {
+            Files.deleteIfExists(configFile);
+        }
+    }
+
+    @Test(description = "Tests reporting a cycle of references",
+            expectedExceptions = ConfigurationRuntimeException.class,
+            expectedExceptionsMessageRegExp = "Cyclic configuration reference: references.cycle.second -> " +
+                    "references.cycle.third -> references.cycle.first -> references.cycle.second")
+    public void cyclicReferencePlaceholderTest() throws ConfigurationException {
+        ConfigFileReader fileReader = new YAMLBasedConfigFileReader(TestUtils.getResourcePath("conf",
+                "references.yaml").get());
+        ConfigProvider configProvider = new ConfigProviderImpl(fileReader, secureVault);
+        configProvider.getString("references.cycle.first", null);
+    }
+
+    @Test(description = "Tests binding the configuration objects of several classes in one pass")
+    public void bulkConfigurationObjectsTest() throws ConfigurationException, SecureVaultException, IOException {
+        SecureVault countingSecureVault = EasyMock.mock(SecureVault.class);
+        EasyMock.expect(countingSecureVault.resolve("conn.auth.password")).andReturn(PASSWORD.toCharArray()).once();
+        EasyMock.replay(countingSecureVault);
+        AtomicInteger dispatchCount = new AtomicInteger();
+        // the executor never runs the dispatched bindings, hence the calling thread binds all namespaces
+        Executor idleExecutor = task -> dispatchCount.incrementAndGet();
+        String envVariable = CONFIG_NAMESPACE.toUpperCase() + NAMESPACE_LEVEL_SEPERATOR + "TENANT";
+        Path configFile = Files.createTempFile("bulk-deployment", ".yaml");
+        EnvironmentUtils.setEnvironmentVariables(envVariable, "BulkTenant");
+        try {
+            Files.write(configFile, ("testconfiguration:\n  tenant: tenant\n  transports:\n    transport:\n" +
+                    "      - name: abc\n        password: ${sec:conn.auth.password}\n" +
+                    "      - name: xyz\n        password: ${sec:conn.auth.password}\n" +
+                    "transports:\n  http:\n    port: 8080\n").getBytes(StandardCharsets.UTF_8));
+            ConfigProvider configProvider = new ConfigProviderImpl(new YAMLBasedConfigFileReader(configFile),
+                    countingSecureVault, idleExecutor);
+            Map<Class<?>, Object> configObjects = configProvider.getConfigurationObjects(Arrays.asList(
+                    ImmutableTransportsConfiguration.class, TestConfiguration.class, BasicTestConfiguration.class,
+                    TestConfiguration.class));
+
+            Assert.assertEquals(new ArrayList<>(configObjects.keySet()), Arrays.asList(
+                    ImmutableTransportsConfiguration.class, TestConfiguration.class, BasicTestConfiguration.class));
+            Assert.assertEquals(dispatchCount.get(), 2);
+            TestConfiguration testConfiguration = (TestConfiguration) configObjects.get(TestConfiguration.class);
+            Assert.assertEquals(testConfiguration.getTenant(), "BulkTenant");
+            Assert.assertEquals(testConfiguration.getTransports().getTransport().get(0).getPassword(), PASSWORD);
+            Assert.assertEquals(testConfiguration.getTransports().getTransport().get(1).getPassword(), PASSWORD);
+            Assert.assertEquals(((BasicTestConfiguration) configObjects.get(BasicTestConfiguration.class))
+                    .getTestBean().getName(), "default");
+            // immutable configurations are the shared instances of the snapshot
+            Assert.assertSame(configObjects.get(ImmutableTransportsConfiguration.class),
+                    configProvider.getConfigurationObject(ImmutableTransportsConfiguration.class));
+            Assert.assertEquals(((ImmutableTransportsConfiguration) configObjects
+                    .get(ImmutableTransportsConfiguration.class)).getHttp().getPort(), 8080);
+            // the alias referred to twice is resolved once
+            EasyMock.verify(countingSecureVault);
+        } finally {
+            EnvironmentUtils.unsetEnvironmentVariables(envVariable);
+            Files.deleteIfExists(configFile);
+        }
+    }
+
+    @Test(description = "Tests releasing the configuration text and materializing it again on demand")
+    public void releaseConfigurationTextTest() throws ConfigurationException, IOException {
+        Path configFile = Files.createTempFile("release-deployment", ".yaml");
+        System.setProperty("release.tenant", "tenant");
+        try {
+            Files.write(configFile, ("testconfiguration:\n  tenant: ${sys:release.tenant}\n  transports:\n" +
+                    "    transport:\n" +
+                    "      - name: abc\n        port: ${ref:transports.http.port}\n" +
+                    "        password: ${sec:conn.auth.password}\n" +
+                    "transports:\n  http:\n    port: 8080\n    url: http://localhost:${ref:transports.http.port}\n")
+                    .getBytes(StandardCharsets.UTF_8));
+            ConfigProvider configProvider = new ConfigProviderImpl(new YAMLBasedConfigFileReader(configFile),
+                    secureVault);
+            TestConfiguration configuration = configProvider.getConfigurationObject(TestConfiguration.class);
+            Assert.assertEquals(configuration.getTransports().getTransport().get(0).getPort(), 8080);
+            Assert.assertEquals(configProvider.getString("transports.http.url", null), "http://localhost:8080");
+            String fingerprint = configProvider.getFingerprint();
+            long retainedBytes = configProvider.getRetainedBytes();
+            Assert.assertTrue(retainedBytes > 0);
+
+            Assert.assertEquals(configProvider.releaseConfigurationText(), retainedBytes);
+            Assert.assertEquals(configProvider.getRetainedBytes(), 0L);
+            // the configuration is materialized from the unresolved configuration, hence its placeholders are
+            // resolved as they are before the text is released
+            System.setProperty("release.tenant", "released");
+            TestConfiguration rebound = configProvider.getConfigurationObject(TestConfiguration.class);
+            Assert.assertEquals(rebound.getTenant(), "released");
+            Assert.assertEquals(configProvider.getString("testconfiguration.tenant", null), "tenant");
+            Assert.assertEquals(configProvider.getString("testconfiguration.transports.transport[0].password", null),
+                    PASSWORD);
+            Assert.assertEquals(rebound.getTransports().getTransport().get(0).getName(), "abc");
+            Assert.assertEquals(rebound.getTransports().getTransport().get(0).getPort(), 8080);
+            Assert.assertEquals(rebound.getTransports().getTransport().get(0).getPassword(), PASSWORD);
+            Assert.assertEquals(configProvider.getString("transports.http.url", null), "http://localhost:8080");
+            Map<String, Object> http = new HashMap<>();
+            http.put("port", 8080);
+            http.put("url", "http://localhost:8080");
+            Assert.assertEquals(((Map<?, ?>) configProvider.getConfigurationObject("transports")).get("http"), http);
+            Assert.assertEquals(configProvider.getFingerprint(), fingerprint);
+
+            // the text of a reloaded configuration is released as it is loaded
+            Files.write(configFile, "transports:\n  http:\n    port: 9090\n".getBytes(StandardCharsets.UTF_8));
+            configProvider.reload();
+            Assert.assertEquals(configProvider.getRetainedBytes(), 0L);
+            Assert.assertEquals(configProvider.getInt("transports.http.port", 0), 9090);
+        } finally {
+            System.clearProperty("release.tenant");
+            Files.deleteIfExists(configFile);
+        }
+    }
+
+    @Test(description = "Tests the versions of the reloaded configurations and rolling back to a retained version")
+    public void snapshotHistoryTest() throws ConfigurationException, IOException {
+        Path configFile = Files.createTempFile("history-deployment", ".yaml");
+        try {
+            Files.write(configFile, "transports:\n  http:\n    port: 8080\n".getBytes(StandardCharsets.UTF_8));
+            ConfigProvider configProvider = new ConfigProviderImpl(new YAMLBasedConfigFileReader(configFile), null);
+            ConfigProvider overlay = configProvider.createOverlay(Collections.emptyMap());
+            Assert.assertEquals(configProvider.getVersion(), 1L);
+            String fingerprint = configProvider.getFingerprint();
+            for (int port = 9081; port <= 9086; port++) {
+                Files.write(configFile, ("transports:\n  http:\n    port: " + port + "\n")
+                        .getBytes(StandardCharsets.UTF_8));
+                configProvider.reload();
+            }
+            Assert.assertEquals(configProvider.getVersion(), 7L);
+            Assert.assertEquals(configProvider.getVersions(), Arrays.asList(3L, 4L, 5L, 6L, 7L));
+            Assert.assertEquals(overlay.getVersion(), 7L);
+
+            configProvider.rollback(4L);
+            Assert.assertEquals(configProvider.getVersion(), 4L);
+            Assert.assertEquals(configProvider.getVersions(), Arrays.asList(3L, 5L, 6L, 7L, 4L));
+            Assert.assertEquals(configProvider.getInt("transports.http.port", 0), 9083);
+            Assert.assertEquals(overlay.getInt("transports.http.port", 0), 9083);
+            try {
+                configProvider.rollback(1L);
+                Assert.fail("Rolled back to a configuration which is not retained");
+            } catch (ConfigurationException e) {
+                Assert.assertEquals(configProvider.getVersion(), 4L);
+            }
+
+            // a reloaded configuration which is rejected by a validator is not installed
+            ConfigurationValidator validator = provider -> {
+                if (provider.getInt("transports.http.port", 0) < 1024) {
+                    throw new ConfigurationException("Privileged port is not allowed");
+                }
+            };
+            configProvider.addValidator(validator);
+            Files.write(configFile, "transports:\n  http:\n    port: 80\n".getBytes(StandardCharsets.UTF_8));
+            try {
+                configProvider.reload();
+                Assert.fail("Reloaded a configuration which is rejected by the validator");
+            } catch (ConfigurationException e) {
+                Assert.assertEquals(configProvider.getVersion(), 4L);
+                Assert.assertEquals(configProvider.getInt("transports.http.port", 0), 9083);
+            }
+            configProvider.removeValidator(validator);
+            Files.write(configFile, "transports:\n  http:\n    port: 8080\n".getBytes(StandardCharsets.UTF_8));
+            configProvider.reload();
+            Assert.assertEquals(configProvider.getVersion(), 8L);
+            Assert.assertEquals(configProvider.getFingerprint(), fingerprint);
+            Assert.assertEquals(configProvider.getVersions(), Arrays.asList(5L, 6L, 7L, 4L, 8L));
+            configProvider.rollback(4L);
+            Assert.assertEquals(configProvider.getInt("transports.http.port", 0), 9083);
+            configProvider.reload();
+            Assert.assertEquals(configProvider.getVersion(), 9L);
+            Assert.assertEquals(configProvider.getVersions(), Arrays.asList(6L, 7L, 8L, 4L, 9L));
+        } finally {
+            Files.deleteIfExists(configFile);
+        }
+    }
+
+    @Test(description = "Tests that releasing the configuration text releases the retained configurations")
+    public void releaseSnapshotHistoryTest() throws ConfigurationException, IOException {
+        Path configFile = Files.createTempFile("released-history-deployment", ".yaml");
+        try {
+            Files.write(configFile, "transports:\n  http:\n    port: 8080\n".getBytes(StandardCharsets.UTF_8));
+            ConfigProvider configProvider = new ConfigProviderImpl(new YAMLBasedConfigFileReader(configFile), null);
+            Assert.assertEquals(configProvider.getInt("transports.http.port", 0), 8080);
+            long firstRetainedBytes = configProvider.getRetainedBytes();
+            Files.write(configFile, "transports:\n  http:\n    port: 9090\n".getBytes(StandardCharsets.UTF_8));
+            configProvider.reload();
+            Assert.assertEquals(configProvider.getInt("transports.http.port", 0), 9090);
+            long secondRetainedBytes = configProvider.getRetainedBytes();
+
+            Assert.assertEquals(configProvider.releaseConfigurationText(), firstRetainedBytes + secondRetainedBytes);
+            configProvider.rollback(1L);
+            Assert.assertEquals(configProvider.getRetainedBytes(), 0L,
+                    "Rolled back configuration should not retain its configuration text");
+            Assert.assertEquals(configProvider.getInt("transports.http.port", 0), 8080);
+        } finally {
+            Files.deleteIfExists(configFile);
+        }
+    }
+
+    @Test(description = "Tests that concurrent reloads are applied one after another")
+    public void concurrentReloadTest() throws ConfigurationException, IOException {
+        Path configFile = Files.createTempFile("concurrent-deployment", ".yaml");
+        try {
+            Files.write(configFile, "transports:\n  http:\n    port: 8080\n".getBytes(StandardCharsets.UTF_8));
+            ConfigProvider configProvider = new ConfigProviderImpl(new YAMLBasedConfigFileReader(configFile), null);
+            Assert.assertEquals(configProvider.getVersion(), 1L);
+            List<CompletableFuture<Void>> reloads = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                reloads.add(CompletableFuture.runAsync(() -> {
+                    try {
+                        configProvider.reload();
+                    } catch (ConfigurationException e) {
+                        throw new ConfigurationRuntimeException(e.getMessage(), e);
+                    }
+                }));
+            }
+            CompletableFuture.allOf(reloads.toArray(new CompletableFuture[reloads.size()])).join();
+            Assert.assertEquals(configProvider.getVersion(), 5L);
+            Assert.assertEquals(configProvider.getVersions(), Arrays.asList(1L, 2L, 3L, 4L, 5L));
+        } finally {
+            Files.deleteIfExists(configFile);
+        }
+    }
+
+    @Test(description = "Tests the default methods of a config provider which implements the original methods only")
+    public void defaultMethodsTest() throws ConfigurationException, ExecutionException, InterruptedException {
+        ConfigProvider configProvider = new OriginalMethodsConfigProvider() {
+            @Override
+            public <T> T getConfigurationObject(Class<T> configClass) {
+                return configClass.cast("object");
+            }
+
+            @Override
+            public Object getConfigurationObject(String namespace) {
+                return namespace;
+            }
+
+            @Override
+            public <T> T getConfigurationObject(String namespace, Class<T> configClass) {
+                return configClass.cast(namespace);
+            }
+
+            @Override
+            public <T> ArrayList<T> getConfigurationObjectList(String namespace, Class<T> configClass) {
+                return new ArrayList<>(Arrays.asList(configClass.cast(namespace), configClass.cast(namespace)));
+            }
+        };
+
+        Assert.assertEquals(configProvider.getConfigurationObjects(Arrays.asList(String.class, String.class)),
+                Collections.singletonMap(String.class, "object"));
+        Assert.assertEquals(configProvider.getConfigurationObjectStream("list", String.class)
+                .collect(Collectors.toList()), Arrays.asList("list", "list"));
+        Assert.assertEquals(configProvider.getConfigurationObjectAsync(String.class).get(), "object");
+        Assert.assertEquals(configProvider.getConfigurationObjectAsync("namespace", String.class).get(),
+                "namespace");
+        Assert.assertEquals(configProvider.getConfigurationObjectListAsync("list", String.class).get().size(), 2);
+    }
+
     private void setUpEnvironment() {
         Map<String, String> envVarMap = new HashMap<>();
         envVarMap.put("pqr.http.port", "8501");
@@ -868,4 +1705,110 @@ public class ConfigProviderImplTest {
         System.setProperty("sample.xyz.port", "9091");
         System.setProperty("pqr.secure", "true");
     }
+
+    /**
+     * Config provider which implements the original methods only, to test the default methods of the interface.
+     */
+    private abstract static class OriginalMethodsConfigProvider implements ConfigProvider {
+
+        @Override
+        public <T> ConfigurationFlow.Publisher<T> getConfigurationPublisher(Class<T> configClass) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ConfigurationFlow.Publisher<Object> getConfigurationPublisher(String namespace) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public String getString(String path, String defaultValue) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int getInt(String path, int defaultValue) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public long getLong(String path, long defaultValue) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean getBoolean(String path, boolean defaultValue) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Duration getDuration(String path, Duration defaultValue) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public <T> T getConfigurationView(Class<T> viewInterface) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public String getFingerprint() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public String getFingerprint(String namespace) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void reload() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public long getVersion() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<Long> getVersions() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void rollback(long version) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void addValidator(ConfigurationValidator validator) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void removeValidator(ConfigurationValidator validator) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public long releaseConfigurationText() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public long getRetainedBytes() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ConfigProvider createOverlay(Map<String, Object> overrides) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Object getEffectiveConfiguration(Class<?> configClass) {
+            throw new UnsupportedOperationException();
+        }
+    }
 }
@@ -0,0 +1,145 @@
+/*
+ *  Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.config.configprovider;
+
+import org.wso2.carbon.config.annotation.Configuration;
+
+import java.beans.ConstructorProperties;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Sample immutable configuration class for testing purposes.
+ *
+ * @since 2.1.18
+ */
+@Configuration(namespace = "transports", description = "Immutable transports configuration", immutable = true)
+final class ImmutableTransportsConfiguration {
+
+    private final ImmutableHttpConfiguration http;
+    private final ImmutableHttpConfiguration https;
+    private final List<ImmutableListenerConfiguration> listeners;
+
+    @ConstructorProperties({"http", "https", "listeners"})
+    ImmutableTransportsConfiguration(ImmutableHttpConfiguration http, ImmutableHttpConfiguration https,
+                                     List<ImmutableListenerConfiguration> listeners) {
+        this.http = http;
+        this.https = https;
+        this.listeners = listeners;
+    }
+
+    ImmutableTransportsConfiguration() {
+        this(new ImmutableHttpConfiguration(), new ImmutableHttpConfiguration(), Collections.emptyList());
+    }
+
+    ImmutableHttpConfiguration getHttp() {
+        return http;
+    }
+
+    ImmutableHttpConfiguration getHttps() {
+        return https;
+    }
+
+    List<ImmutableListenerConfiguration> getListeners() {
+        return listeners;
+    }
+}
+
+/**
+ * Sample immutable configuration class for testing purposes.
+ *
+ * @since 2.1.18
+ */
+@Configuration(description = "Immutable HTTP configuration", immutable = true)
+final class ImmutableHttpConfiguration {
+
+    private final int port;
+    private final String host;
+    private final boolean secure;
+    private final long maxPayload;
+    private final int maxConnections;
+    private final Duration readTimeout;
+    private final Duration idleTimeout;
+    private final Duration retryInterval;
+
+    @ConstructorProperties({"port", "host", "secure", "maxPayload", "maxConnections", "readTimeout", "idleTimeout",
+            "retryInterval"})
+    ImmutableHttpConfiguration(int port, String host, boolean secure, long maxPayload, int maxConnections,
+                               Duration readTimeout, Duration idleTimeout, Duration retryInterval) {
+        this.port = port;
+        this.host = host;
+        this.secure = secure;
+        this.maxPayload = maxPayload;
+        this.maxConnections = maxConnections;
+        this.readTimeout = readTimeout;
+        this.idleTimeout = idleTimeout;
+        this.retryInterval = retryInterval;
+    }
+
+    ImmutableHttpConfiguration() {
+        this(8080, "0.0.0.0", false, 1048576, 100, null, null, null);
+    }
+
+    int getPort() {
+        return port;
+    }
+
+    String getHost() {
+        return host;
+    }
+
+    boolean isSecure() {
+        return secure;
+    }
+
+    long getMaxPayload() {
+        return maxPayload;
+    }
+
+    int getMaxConnections() {
+        return maxConnections;
+    }
+
+    Duration getReadTimeout() {
+        return readTimeout;
+    }
+}
+
+/**
+ * Sample immutable configuration class for testing purposes.
+ *
+ * @since 2.1.18
+ */
+@Configuration(description = "Immutable listener configuration", immutable = true)
+final class ImmutableListenerConfiguration {
+
+    private final String name;
+    private final int port;
+
+    ImmutableListenerConfiguration(String name, int port) {
+        this.name = name;
+        this.port = port;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    int getPort() {
+        return port;
+    }
+}
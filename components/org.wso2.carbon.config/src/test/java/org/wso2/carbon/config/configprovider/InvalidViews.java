@@ -0,0 +1,61 @@
+/*
+ *  Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.config.configprovider;
+
+import org.wso2.carbon.config.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * Sample configuration views which cannot be created, for testing purposes.
+ *
+ * @since 2.1.18
+ */
+public final class InvalidViews {
+
+    private InvalidViews() {
+    }
+
+    /**
+     * Sample view with a getter whose return type is not supported.
+     */
+    @Configuration(namespace = "transports", description = "List view")
+    public interface ListView {
+
+        String getName();
+
+        List<Integer> getPorts();
+    }
+
+    /**
+     * Sample view whose nested view refers back to it.
+     */
+    @Configuration(namespace = "transports", description = "Cyclic view")
+    public interface CyclicView {
+
+        ChildView getHttp();
+
+        /**
+         * Sample nested view which refers to its enclosing view.
+         */
+        interface ChildView {
+
+            int getPort();
+
+            CyclicView getParent();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ *  Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.config.configprovider;
+
+import org.wso2.carbon.config.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Sample configuration view for testing purposes.
+ *
+ * @since 2.1.18
+ */
+@Configuration(namespace = "transports", description = "Transports view")
+public interface TransportsView {
+
+    HttpView getHttp();
+
+    /**
+     * Sample nested configuration view for testing purposes.
+     */
+    interface HttpView {
+
+        int getPort();
+
+        String host();
+
+        boolean isSecure();
+
+        Duration getReadTimeout();
+
+        Long getMissing();
+    }
+}
@@ -0,0 +1,230 @@
+/*
+ *  Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.config.converter;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.wso2.carbon.config.ConfigurationException;
+import org.wso2.carbon.config.annotation.Configuration;
+import org.wso2.carbon.config.configprovider.TestUtils;
+import org.wso2.carbon.config.provider.ConfigProvider;
+import org.wso2.carbon.config.provider.ConfigProviderImpl;
+import org.wso2.carbon.config.reader.ConfigFileReader;
+import org.wso2.carbon.config.reader.YAMLBasedConfigFileReader;
+import org.wso2.carbon.config.utils.EnvironmentUtils;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * This class tests the value converters and the binding of converted values to configuration beans.
+ *
+ * @since 2.1.18
+ */
+public class ValueConvertersTest {
+
+    @Test(description = "test case for converting the values of the default converters")
+    public void defaultConvertersTestCase() {
+        Assert.assertEquals(convert(Duration.class, "30s"), Duration.ofSeconds(30));
+        Assert.assertEquals(convert(Duration.class, "PT1H"), Duration.ofHours(1));
+        Assert.assertEquals(convert(Duration.class, "250"), Duration.ofMillis(250));
+        Assert.assertEquals(convert(DataSize.class, "64MB"), DataSize.ofMegabytes(64));
+        Assert.assertEquals(convert(DataSize.class, "8 kb"), DataSize.ofKilobytes(8));
+        Assert.assertEquals(convert(DataSize.class, "100"), DataSize.ofBytes(100));
+        Assert.assertEquals(convert(Path.class, "/tmp/carbon"), Paths.get("/tmp/carbon"));
+        Assert.assertEquals(convert(URI.class, "https://localhost:9443"), URI.create("https://localhost:9443"));
+        Assert.assertEquals(convert(InetSocketAddress.class, "127.0.0.1:8080"),
+                new InetSocketAddress("127.0.0.1", 8080));
+        Assert.assertEquals(convert(InetSocketAddress.class, "[::1]:8080").getPort(), 8080);
+        Assert.assertTrue(convert(InetSocketAddress.class, "*:9090").getAddress().isAnyLocalAddress());
+        Assert.assertEquals(convert(Mode.class, "read-only"), Mode.READ_ONLY);
+        Assert.assertEquals(convert(Mode.class, "READ_WRITE"), Mode.READ_WRITE);
+
+        Assert.assertEquals(toText(DataSize.ofMegabytes(64)), "64MB");
+        Assert.assertEquals(toText(DataSize.ofBytes(1000)), "1000B");
+        Assert.assertEquals(toText(new InetSocketAddress("127.0.0.1", 8080)), "127.0.0.1:8080");
+        Assert.assertEquals(convert(Duration.class, toText(Duration.ofMinutes(5))), Duration.ofMinutes(5));
+        Assert.assertFalse(ValueConverters.getConverter(String.class).isPresent());
+    }
+
+    @Test(description = "test case for converting invalid values",
+          expectedExceptions = IllegalArgumentException.class,
+          expectedExceptionsMessageRegExp = "Invalid data size: 64XB, the unit should be one of B, KB, MB, GB or TB")
+    public void invalidValueTestCase() {
+        convert(DataSize.class, "64XB");
+    }
+
+    @Test(description = "test case for registering and unregistering a value converter")
+    public void registerConverterTestCase() {
+        ValueConverter<Duration> defaultConverter = ValueConverters.getConverter(Duration.class).get();
+        ValueConverter<Duration> secondsConverter = new ValueConverter<Duration>() {
+            @Override
+            public Class<Duration> getType() {
+                return Duration.class;
+            }
+
+            @Override
+            public Duration convert(String text) {
+                return Duration.ofSeconds(Long.parseLong(text));
+            }
+        };
+        ValueConverters.register(secondsConverter);
+        try {
+            Assert.assertEquals(convert(Duration.class, "5"), Duration.ofSeconds(5));
+        } finally {
+            ValueConverters.unregister(secondsConverter);
+        }
+        Assert.assertSame(ValueConverters.getConverter(Duration.class).get(), defaultConverter);
+    }
+
+    @Test(description = "test case for rejecting converters of scalar types",
+          expectedExceptions = IllegalArgumentException.class)
+    public void scalarConverterTestCase() {
+        ValueConverters.register(new ValueConverter<Integer>() {
+            @Override
+            public Class<Integer> getType() {
+                return Integer.class;
+            }
+
+            @Override
+            public Integer convert(String text) {
+                return Integer.valueOf(text);
+            }
+        });
+    }
+
+    @Test(description = "test case for binding converted values to configuration beans")
+    public void bindConvertedValuesTestCase() throws ConfigurationException {
+        ConfigProvider configProvider = new ConfigProviderImpl(newConfigFileReader(), null);
+        ConverterConfiguration configuration = configProvider.getConfigurationObject(ConverterConfiguration.class);
+
+        Assert.assertEquals(configuration.readTimeout, Duration.ofSeconds(30));
+        Assert.assertEquals(configuration.idleTimeout, Duration.ofMinutes(2));
+        Assert.assertEquals(configuration.retryInterval, Duration.ofMillis(1500));
+        Assert.assertEquals(configuration.bufferSize, DataSize.ofMegabytes(64));
+        Assert.assertEquals(configuration.dataDir, Paths.get("/var/lib/carbon"));
+        Assert.assertEquals(configuration.endpoint, URI.create("https://localhost:9443/services"));
+        Assert.assertEquals(configuration.address, new InetSocketAddress("127.0.0.1", 8080));
+        Assert.assertEquals(configuration.mode, Mode.READ_ONLY);
+        Assert.assertEquals(configuration.backoff, Arrays.asList(Duration.ofMillis(100), Duration.ofSeconds(1),
+                Duration.ofSeconds(10)));
+        // keys which are missing in the configuration keep the default values
+        Assert.assertEquals(configuration.shutdownTimeout, Duration.ofSeconds(10));
+
+        ImmutableConverterConfiguration immutableConfiguration =
+                configProvider.getConfigurationObject(ImmutableConverterConfiguration.class);
+        Assert.assertEquals(immutableConfiguration.readTimeout, Duration.ofMinutes(5));
+        Assert.assertEquals(immutableConfiguration.bufferSize, DataSize.ofKilobytes(512));
+        Assert.assertEquals(immutableConfiguration.mode, Mode.READ_WRITE);
+    }
+
+    @Test(description = "test case for overriding converted values with environment variables")
+    public void overrideConvertedValuesTestCase() throws ConfigurationException {
+        EnvironmentUtils.setEnvironmentVariables("CONVERTERS__READTIMEOUT", "45s");
+        EnvironmentUtils.setEnvironmentVariables("IMMUTABLE_CONVERTERS__BUFFERSIZE", "2MB");
+        try {
+            ConfigProvider configProvider = new ConfigProviderImpl(newConfigFileReader(), null);
+            Assert.assertEquals(configProvider.getConfigurationObject(ConverterConfiguration.class).readTimeout,
+                    Duration.ofSeconds(45));
+            Assert.assertEquals(configProvider.getConfigurationObject(ImmutableConverterConfiguration.class)
+                    .bufferSize, DataSize.ofMegabytes(2));
+        } finally {
+            EnvironmentUtils.unsetEnvironmentVariables("CONVERTERS__READTIMEOUT");
+            EnvironmentUtils.unsetEnvironmentVariables("IMMUTABLE_CONVERTERS__BUFFERSIZE");
+        }
+    }
+
+    @Test(description = "test case for reading converted values through a configuration view")
+    public void viewConvertedValuesTestCase() throws ConfigurationException {
+        ConfigProvider configProvider = new ConfigProviderImpl(newConfigFileReader(), null);
+        ConverterView view = configProvider.getConfigurationView(ConverterView.class);
+        Assert.assertEquals(view.getDataDir(), Paths.get("/var/lib/carbon"));
+        Assert.assertEquals(view.getBufferSize(), DataSize.ofMegabytes(64));
+        Assert.assertSame(view.getBufferSize(), view.getBufferSize());
+    }
+
+    private static ConfigFileReader newConfigFileReader() {
+        return new YAMLBasedConfigFileReader(TestUtils.getResourcePath("conf", "valueconverters.yaml").get());
+    }
+
+    private static <T> T convert(Class<T> type, String text) {
+        return ValueConverters.getConverter(type).get().convert(text);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> String toText(T value) {
+        return ValueConverters.getConverter((Class<T>) value.getClass()).get().toText(value);
+    }
+
+    /**
+     * Sample enum for testing purposes.
+     */
+    public enum Mode {
+        READ_ONLY, READ_WRITE
+    }
+
+    /**
+     * Sample configuration class for testing purposes.
+     */
+    @Configuration(namespace = "converters", description = "Value converters configuration")
+    public static class ConverterConfiguration {
+
+        private Duration readTimeout;
+        private Duration idleTimeout;
+        private Duration retryInterval;
+        private Duration shutdownTimeout = Duration.ofSeconds(10);
+        private DataSize bufferSize;
+        private Path dataDir;
+        private URI endpoint;
+        private InetSocketAddress address;
+        private Mode mode;
+        private List<Duration> backoff;
+    }
+
+    /**
+     * Sample immutable configuration class for testing purposes.
+     */
+    @Configuration(namespace = "immutable.converters", description = "Immutable value converters configuration",
+            immutable = true)
+    static final class ImmutableConverterConfiguration {
+
+        private final Duration readTimeout;
+        private final DataSize bufferSize;
+        private final Mode mode;
+
+        ImmutableConverterConfiguration(Duration readTimeout, DataSize bufferSize, Mode mode) {
+            this.readTimeout = readTimeout;
+            this.bufferSize = bufferSize;
+            this.mode = mode;
+        }
+    }
+
+    /**
+     * Sample configuration view for testing purposes.
+     */
+    @Configuration(namespace = "converters", description = "Value converters configuration view")
+    public interface ConverterView {
+
+        Path getDataDir();
+
+        DataSize getBufferSize();
+    }
+}
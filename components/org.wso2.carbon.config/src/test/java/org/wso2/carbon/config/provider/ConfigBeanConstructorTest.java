@@ -0,0 +1,165 @@
+/*
+ *  Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.config.provider;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.constructor.BaseConstructor;
+import org.yaml.snakeyaml.constructor.CustomClassLoaderConstructor;
+import org.yaml.snakeyaml.introspector.BeanAccess;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * This class tests the binding of numeric sequences to configuration beans.
+ *
+ * @since 2.1.18
+ */
+public class ConfigBeanConstructorTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConfigBeanConstructorTest.class);
+    private static final int LARGE_SEQUENCE_SIZE = 100000;
+    private static final int LARGE_CODE_POINT_LIMIT = 64 * 1024 * 1024;
+
+    @Test(description = "test case for binding numeric sequences the same way as SnakeYAML")
+    public void numericSequenceTestCase() {
+        String yamlString = "ports: [8080, 8443, -1, 0]\n" +
+                "limits: [10000000000, 20]\n" +
+                "weights: [0.75, 2, -1.5e+3]\n" +
+                "buckets: [1, 2, 3]\n" +
+                "ranges: [9000, 9001]\n" +
+                "quotas: [5000000000]\n" +
+                "fallbackPorts: [0x1F90, 1_000, 010, 7]\n" +
+                "fallbackBuckets: [1, 0x10]\n";
+        NumericConfiguration fastPath = bind(fastConstructor(new LoaderOptions()), yamlString);
+        NumericConfiguration snakeYaml = bind(snakeYamlConstructor(new LoaderOptions()), yamlString);
+
+        Assert.assertEquals(fastPath.ports, new int[]{8080, 8443, -1, 0});
+        Assert.assertEquals(fastPath.limits, new long[]{10000000000L, 20});
+        Assert.assertEquals(fastPath.weights, new double[]{0.75, 2, -1500});
+        Assert.assertEquals(fastPath.buckets, Arrays.asList(1, 2, 3));
+        Assert.assertEquals(fastPath.ranges.toIntArray(), new int[]{9000, 9001});
+        Assert.assertEquals(fastPath.quotas.getLong(0), 5000000000L);
+        Assert.assertEquals(fastPath.fallbackPorts, new int[]{8080, 1000, 8, 7});
+        Assert.assertEquals(fastPath.fallbackBuckets, Arrays.asList(1, 16));
+
+        Assert.assertEquals(fastPath.ports, snakeYaml.ports);
+        Assert.assertEquals(fastPath.limits, snakeYaml.limits);
+        Assert.assertEquals(fastPath.weights, snakeYaml.weights);
+        Assert.assertEquals(fastPath.buckets, snakeYaml.buckets);
+        Assert.assertEquals(fastPath.ranges, snakeYaml.ranges);
+        Assert.assertEquals(fastPath.quotas, snakeYaml.quotas);
+        Assert.assertEquals(fastPath.fallbackPorts, snakeYaml.fallbackPorts);
+        Assert.assertEquals(fastPath.fallbackBuckets, snakeYaml.fallbackBuckets);
+    }
+
+    @Test(description = "test case for the memory allocated while binding large numeric sequences")
+    public void largeSequenceAllocationTestCase() {
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        if (!(threadMXBean instanceof com.sun.management.ThreadMXBean)) {
+            logger.warn("Thread allocation measurement is not supported by the JVM, hence skipping the test");
+            return;
+        }
+        com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean) threadMXBean;
+        long threadId = Thread.currentThread().getId();
+        StringBuilder yamlString = new StringBuilder();
+        for (String field : new String[]{"ports", "limits", "buckets", "ranges"}) {
+            yamlString.append(field).append(":\n");
+            for (int i = 0; i < LARGE_SEQUENCE_SIZE; i++) {
+                yamlString.append("  - ").append(1024 + i).append('\n');
+            }
+        }
+        LoaderOptions loaderOptions = new LoaderOptions();
+        loaderOptions.setCodePointLimit(LARGE_CODE_POINT_LIMIT);
+        // warm up both constructors before measuring
+        bind(fastConstructor(loaderOptions), yamlString.toString());
+        bind(snakeYamlConstructor(loaderOptions), yamlString.toString());
+
+        long start = allocationBean.getThreadAllocatedBytes(threadId);
+        NumericConfiguration fastPath = bind(fastConstructor(loaderOptions), yamlString.toString());
+        long fastPathBytes = allocationBean.getThreadAllocatedBytes(threadId) - start;
+
+        start = allocationBean.getThreadAllocatedBytes(threadId);
+        NumericConfiguration snakeYaml = bind(snakeYamlConstructor(loaderOptions), yamlString.toString());
+        long snakeYamlBytes = allocationBean.getThreadAllocatedBytes(threadId) - start;
+
+        logger.info("Binding {} element numeric sequences allocated {} bytes, generic SnakeYAML binding " +
+                "allocated {} bytes", LARGE_SEQUENCE_SIZE, fastPathBytes, snakeYamlBytes);
+        Assert.assertEquals(fastPath.ports, snakeYaml.ports);
+        Assert.assertEquals(fastPath.limits, snakeYaml.limits);
+        Assert.assertEquals(fastPath.buckets, snakeYaml.buckets);
+        Assert.assertEquals(fastPath.ranges, snakeYaml.ranges);
+        Assert.assertEquals(fastPath.ranges.getInt(LARGE_SEQUENCE_SIZE - 1), 1023 + LARGE_SEQUENCE_SIZE);
+        Assert.assertTrue(fastPathBytes < snakeYamlBytes, "Binding numeric sequences directly should allocate " +
+                "less memory than the generic SnakeYAML binding");
+    }
+
+    @Test(description = "test case for the list operations of the primitive lists")
+    public void primitiveListTestCase() {
+        IntList ints = new IntList(3, 1);
+        ints.add(0, 5);
+        ints.addInt(7);
+        ints.remove(1);
+        Assert.assertEquals(ints, Arrays.asList(5, 1, 7));
+        Assert.assertEquals(ints.setInt(2, 9), 7);
+        Assert.assertEquals(ints.toIntArray(), new int[]{5, 1, 9});
+        Assert.assertEquals(ints.hashCode(), Arrays.asList(5, 1, 9).hashCode());
+
+        LongList longs = new LongList();
+        longs.addLong(Long.MAX_VALUE);
+        longs.add(1L);
+        Assert.assertEquals(longs, Arrays.asList(Long.MAX_VALUE, 1L));
+        longs.clear();
+        Assert.assertTrue(longs.isEmpty());
+    }
+
+    private static BaseConstructor fastConstructor(LoaderOptions loaderOptions) {
+        return new ConfigBeanConstructor(NumericConfiguration.class, NumericConfiguration.class.getClassLoader(),
+                loaderOptions);
+    }
+
+    private static BaseConstructor snakeYamlConstructor(LoaderOptions loaderOptions) {
+        return new CustomClassLoaderConstructor(NumericConfiguration.class,
+                NumericConfiguration.class.getClassLoader(), loaderOptions);
+    }
+
+    private static NumericConfiguration bind(BaseConstructor constructor, String yamlString) {
+        Yaml yaml = new Yaml(constructor);
+        yaml.setBeanAccess(BeanAccess.FIELD);
+        return yaml.loadAs(yamlString, NumericConfiguration.class);
+    }
+
+    /**
+     * Configuration bean with numeric sequences.
+     */
+    public static class NumericConfiguration {
+        private int[] ports;
+        private long[] limits;
+        private double[] weights;
+        private List<Integer> buckets;
+        private IntList ranges;
+        private LongList quotas;
+        private int[] fallbackPorts;
+        private List<Integer> fallbackBuckets;
+    }
+}
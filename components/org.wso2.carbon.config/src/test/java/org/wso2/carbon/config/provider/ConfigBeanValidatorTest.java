@@ -0,0 +1,162 @@
+/*
+ *  Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.config.provider;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.wso2.carbon.config.ConfigurationException;
+import org.wso2.carbon.config.annotation.Configuration;
+import org.wso2.carbon.config.annotation.Element;
+import org.wso2.carbon.config.annotation.Ignore;
+import org.wso2.carbon.config.configprovider.TestUtils;
+import org.wso2.carbon.config.reader.YAMLBasedConfigFileReader;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * This class tests the validation of the required elements of bound configuration beans.
+ *
+ * @since 2.1.18
+ */
+public class ConfigBeanValidatorTest {
+
+    @Test(description = "test case for binding a configuration which has all required elements")
+    public void validConfigurationTestCase() throws ConfigurationException {
+        ConfigProvider configProvider = newConfigProvider();
+        ClusterConfiguration configuration = configProvider.getConfigurationObject(ClusterConfiguration.class);
+        Assert.assertEquals(configuration.name, "primary");
+        Assert.assertEquals(configuration.primary.host, "node1");
+        Assert.assertEquals(configuration.servers.size(), 2);
+        Assert.assertEquals(configuration.servers.get(1).host, "node2");
+    }
+
+    @Test(description = "test case for binding a configuration with a missing required element of a list element",
+          expectedExceptions = ConfigurationException.class,
+          expectedExceptionsMessageRegExp = "Required element cluster.invalid.servers\\[1\\].host of configuration " +
+                  ".*ServerConfiguration is missing")
+    public void missingListElementTestCase() throws ConfigurationException {
+        newConfigProvider().getConfigurationObject("cluster.invalid", ClusterConfiguration.class);
+    }
+
+    @Test(description = "test case for keeping the defaults of a configuration without a namespace in the " +
+            "configuration file")
+    public void missingNamespaceTestCase() throws ConfigurationException {
+        MissingClusterConfiguration configuration =
+                newConfigProvider().getConfigurationObject(MissingClusterConfiguration.class);
+        Assert.assertNull(configuration.name);
+        Assert.assertEquals(configuration.port, 4000);
+    }
+
+    @Test(description = "test case for binding an immutable configuration with a missing required element",
+          expectedExceptions = ConfigurationException.class,
+          expectedExceptionsMessageRegExp = "Required element immutable.cluster.host of configuration " +
+                  ".*ImmutableClusterConfiguration is missing")
+    public void missingImmutableElementTestCase() throws ConfigurationException {
+        newConfigProvider().getConfigurationObject(ImmutableClusterConfiguration.class);
+    }
+
+    @Test(description = "test case for validating a collection with an element which is not bound to the bean type",
+          expectedExceptions = ConfigurationException.class,
+          expectedExceptionsMessageRegExp = "Element servers\\[0\\] of configuration .*ClusterConfiguration is " +
+                  "expected to be of type .*ServerConfiguration but found java.util.Collections\\$SingletonMap")
+    @SuppressWarnings("unchecked")
+    public void untypedCollectionElementTestCase() throws ConfigurationException {
+        ClusterConfiguration configuration = new ClusterConfiguration();
+        configuration.name = "untyped";
+        ((List) configuration.servers).add(Collections.singletonMap("host", "node1"));
+        ConfigBeanValidator.validate(configuration, null);
+    }
+
+    @Test(description = "test case for skipping ignored and primitive fields")
+    public void ignoredElementTestCase() throws ConfigurationException {
+        ServerConfiguration configuration = new ServerConfiguration();
+        configuration.host = "node1";
+        ConfigBeanValidator.validate(configuration, null);
+        ConfigBeanValidator.validate(null, null);
+    }
+
+    private static ConfigProvider newConfigProvider() {
+        return new ConfigProviderImpl(new YAMLBasedConfigFileReader(
+                TestUtils.getResourcePath("conf", "requiredelements.yaml").get()), null);
+    }
+
+    /**
+     * Sample configuration class for testing purposes.
+     */
+    @Configuration(namespace = "cluster", description = "Cluster configuration")
+    public static class ClusterConfiguration {
+
+        @Element(description = "Cluster name", required = true)
+        private String name;
+
+        @Element(description = "Primary server")
+        private ServerConfiguration primary;
+
+        @Element(description = "Servers of the cluster")
+        private List<ServerConfiguration> servers = new ArrayList<>();
+    }
+
+    /**
+     * Sample nested configuration class for testing purposes.
+     */
+    @Configuration(description = "Server configuration")
+    public static class ServerConfiguration {
+
+        @Element(description = "Host name", required = true)
+        private String host;
+
+        @Element(description = "Port", required = true)
+        private int port = 9443;
+
+        @Ignore
+        @Element(description = "Ignored element", required = true)
+        private String ignored;
+    }
+
+    /**
+     * Sample configuration class whose namespace is missing in the configuration file.
+     */
+    @Configuration(namespace = "missing.cluster", description = "Missing cluster configuration")
+    public static class MissingClusterConfiguration {
+
+        @Element(description = "Cluster name", required = true)
+        private String name;
+
+        @Element(description = "Cluster port")
+        private int port = 4000;
+    }
+
+    /**
+     * Sample immutable configuration class for testing purposes.
+     */
+    @Configuration(namespace = "immutable.cluster", description = "Immutable cluster configuration",
+            immutable = true)
+    static final class ImmutableClusterConfiguration {
+
+        @Element(description = "Host name", required = true)
+        private final String host;
+
+        @Element(description = "Port")
+        private final int port;
+
+        ImmutableClusterConfiguration(String host, int port) {
+            this.host = host;
+            this.port = port;
+        }
+    }
+}
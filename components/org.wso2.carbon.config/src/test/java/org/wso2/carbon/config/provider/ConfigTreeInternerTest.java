@@ -0,0 +1,230 @@
+/*
+ *  Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.config.provider;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import org.wso2.carbon.config.ConfigurationException;
+import org.wso2.carbon.config.reader.YAMLBasedConfigFileReader;
+import org.yaml.snakeyaml.Yaml;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class tests the structural sharing of the configuration trees of snapshots.
+ *
+ * @since 2.1.18
+ */
+public class ConfigTreeInternerTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConfigTreeInternerTest.class);
+    private static final int SERVICE_NAMESPACES = 10;
+    private static final int SERVICES_PER_NAMESPACE = 2000;
+    private Path largeConfigFile;
+
+    @BeforeClass
+    public void setup() throws IOException {
+        largeConfigFile = Files.createTempFile("services-deployment", ".yaml");
+        try (BufferedWriter writer = Files.newBufferedWriter(largeConfigFile, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < SERVICE_NAMESPACES; i++) {
+                writer.write("services.group" + i + ":\n");
+                writer.write("  services:\n");
+                // every service and endpoint is distinct, hence the trees have no duplicated subtrees
+                for (int j = 0; j < SERVICES_PER_NAMESPACE; j++) {
+                    writer.write("    - id: service-" + i + "-" + j + "\n");
+                    writer.write("      enabled: true\n");
+                    writer.write("      endpoint:\n");
+                    writer.write("        host: backend-" + i + "-" + j + ".internal.example.com\n");
+                    writer.write("        port: " + (8000 + j) + "\n");
+                    writer.write("        timeout: 30s\n");
+                }
+            }
+        }
+    }
+
+    @AfterClass
+    public void clean() throws IOException {
+        Files.deleteIfExists(largeConfigFile);
+    }
+
+    @Test(description = "test case for the heap retained by a snapshot of a configuration without duplicated " +
+            "subtrees before and after it is released")
+    public void memoryFootprintTestCase() throws ConfigurationException {
+        long start = getUsedHeapAfterGc();
+        Map<String, String> deploymentConfigs = new YAMLBasedConfigFileReader(largeConfigFile)
+                .getDeploymentConfiguration();
+        long stringBytes = getUsedHeapAfterGc() - start;
+        ConfigSnapshot snapshot = new ConfigSnapshot(deploymentConfigs, configString -> new Yaml().load(configString),
+                null);
+        deploymentConfigs = null;
+        // the fingerprint loads the trees of all namespaces
+        snapshot.getFingerprint();
+        long loadedBytes = getUsedHeapAfterGc() - start;
+        snapshot.release();
+        long releasedBytes = getUsedHeapAfterGc() - start;
+        // a reloaded snapshot shares the trees of the released snapshot, whose intern tables are dropped already
+        ConfigSnapshot reloaded = new ConfigSnapshot(new YAMLBasedConfigFileReader(largeConfigFile)
+                .getDeploymentConfiguration(), configString -> new Yaml().load(configString), snapshot);
+        reloaded.release();
+        long reloadedBytes = getUsedHeapAfterGc() - start - releasedBytes;
+        logger.info("Configuration file of {} bytes: YAML strings retain {} bytes, loaded snapshot retains {} bytes, " +
+                "released snapshot retains {} bytes, released reloaded snapshot retains {} more bytes",
+                largeConfigFile.toFile().length(), stringBytes, loadedBytes, releasedBytes, reloadedBytes);
+        // releasing drops the YAML strings, the path index and the intern tables, which outweigh the raw trees
+        Assert.assertTrue(releasedBytes < loadedBytes, "Released snapshot should retain less than the loaded one");
+        // without sharing, the reloaded snapshot would retain as much as the previous one
+        Assert.assertTrue(reloadedBytes * 2 < releasedBytes, "Released reloaded snapshot should share the trees of " +
+                "the previous snapshot");
+
+        Map group0 = (Map) snapshot.getNamespaceTree("services.group0");
+        Assert.assertSame(reloaded.getNamespaceTree("services.group0"), group0,
+                "Unchanged namespace trees should be shared with the previous snapshot");
+        Map service = (Map) ((List) group0.get("services")).get(42);
+        Map nextService = (Map) ((List) group0.get("services")).get(43);
+        Assert.assertEquals(service.get("id"), "service-0-42");
+        Assert.assertEquals(((Map) service.get("endpoint")).get("host"), "backend-0-42.internal.example.com");
+        Assert.assertSame(((Map) service.get("endpoint")).get("timeout"),
+                ((Map) nextService.get("endpoint")).get("timeout"), "Equal scalars should be shared");
+        Assert.assertEquals(snapshot.getPathIndex().get("services.group3.services[7].endpoint.port").asString(),
+                "8007");
+    }
+
+    @Test(description = "test case for reusing the unchanged subtrees of the previous snapshot on reload")
+    public void reloadSharingTestCase() {
+        Map<String, String> deploymentConfigs = new HashMap<>();
+        deploymentConfigs.put("transports", "http:\n  port: 8080\n  host: localhost\nhttps:\n  port: 8443\n");
+        deploymentConfigs.put("wso2.carbon", "id: carbon-kernel\n");
+        ConfigSnapshot previous = new ConfigSnapshot(deploymentConfigs, configString -> new Yaml().load(configString),
+                null);
+        Map previousTransports = (Map) previous.getNamespaceTree("transports");
+        Object previousCarbon = previous.getNamespaceTree("wso2.carbon");
+
+        deploymentConfigs.put("transports", "http:\n  port: 8080\n  host: localhost\nhttps:\n  port: 9443\n");
+        ConfigSnapshot reloaded = new ConfigSnapshot(deploymentConfigs, configString -> new Yaml().load(configString),
+                previous);
+        Map reloadedTransports = (Map) reloaded.getNamespaceTree("transports");
+
+        Assert.assertSame(reloaded.getNamespaceTree("wso2.carbon"), previousCarbon);
+        Assert.assertNotSame(reloadedTransports, previousTransports);
+        Assert.assertSame(reloadedTransports.get("http"), previousTransports.get("http"));
+        Assert.assertEquals(((Map) reloadedTransports.get("https")).get("port"), 9443);
+
+        // the intern tables of a released snapshot are dropped, hence the next snapshot is seeded from its trees
+        reloaded.release();
+        deploymentConfigs.put("transports", "http:\n  port: 8080\n  host: localhost\nhttps:\n  port: 8443\n");
+        ConfigSnapshot next = new ConfigSnapshot(deploymentConfigs, configString -> new Yaml().load(configString),
+                reloaded);
+        Assert.assertSame(next.getNamespaceTree("wso2.carbon"), previousCarbon);
+        Assert.assertSame(((Map) next.getNamespaceTree("transports")).get("http"), previousTransports.get("http"));
+    }
+
+    @Test(description = "test case for the fingerprints of the namespaces and snapshots")
+    public void fingerprintTestCase() {
+        Map<String, String> deploymentConfigs = new HashMap<>();
+        deploymentConfigs.put("transports", "http:\n  port: 8080\n  hosts: [a, b]\nhttps:\n  port: 8443\n");
+        deploymentConfigs.put("wso2.carbon", "id: carbon-kernel\n");
+        ConfigSnapshot snapshot = new ConfigSnapshot(deploymentConfigs, configString -> new Yaml().load(configString),
+                null);
+        long transports = snapshot.getNamespaceFingerprint("transports");
+        Assert.assertEquals(transports, ConfigTreeInterner.fingerprint(new Yaml().load(
+                deploymentConfigs.get("transports"))), "Fingerprints of canonical and loaded trees should be equal");
+        Assert.assertNull(snapshot.getNamespaceFingerprint("wso2.missing"));
+
+        // the order of map keys does not change the fingerprint, while the order of list elements does
+        deploymentConfigs.put("transports", "https: {port: 8443}\nhttp: {hosts: [a, b], port: 8080}\n");
+        ConfigSnapshot reordered = new ConfigSnapshot(deploymentConfigs,
+                configString -> new Yaml().load(configString), snapshot);
+        Assert.assertEquals((long) reordered.getNamespaceFingerprint("transports"), transports);
+        Assert.assertEquals(reordered.getFingerprint(), snapshot.getFingerprint());
+
+        deploymentConfigs.put("transports", "https: {port: 8443}\nhttp: {hosts: [b, a], port: 8080}\n");
+        ConfigSnapshot changed = new ConfigSnapshot(deploymentConfigs, configString -> new Yaml().load(configString),
+                reordered);
+        Assert.assertNotEquals((long) changed.getNamespaceFingerprint("transports"), transports);
+        Assert.assertEquals(changed.getNamespaceFingerprint("wso2.carbon"),
+                snapshot.getNamespaceFingerprint("wso2.carbon"));
+        Assert.assertNotEquals(changed.getFingerprint(), snapshot.getFingerprint());
+
+        // integral values are fingerprinted by value, while their text is a different scalar
+        Assert.assertEquals(ConfigTreeInterner.fingerprint(8080), ConfigTreeInterner.fingerprint(8080L));
+        Assert.assertNotEquals(ConfigTreeInterner.fingerprint(8080), ConfigTreeInterner.fingerprint("8080"));
+    }
+
+    @Test(description = "test case for building the namespace trees from the trees parsed by the file reader")
+    public void parsedTreesTestCase() {
+        Map<String, Object> parsedTrees = new HashMap<>();
+        parsedTrees.put("transports", Collections.singletonMap("http", Collections.singletonMap("port", 8080)));
+        parsedTrees.put("wso2.carbon", Collections.singletonMap("id", "${sys:carbon.id}"));
+        Map<String, String> deploymentConfigs = new HashMap<>();
+        parsedTrees.forEach((namespace, tree) -> deploymentConfigs.put(namespace, new Yaml().dumpAsMap(tree)));
+        List<String> loadedConfigs = new ArrayList<>();
+        ConfigSnapshot snapshot = new ConfigSnapshot(deploymentConfigs, parsedTrees, configString -> {
+            loadedConfigs.add(configString);
+            return new Yaml().load(configString);
+        }, (configString, references) -> configString.replace("${sys:carbon.id}", "carbon-kernel"), null, 1L);
+
+        Assert.assertEquals(snapshot.getNamespaceTree("transports"), parsedTrees.get("transports"));
+        Assert.assertEquals(snapshot.getPathIndex().get("transports.http.port").asString(), "8080");
+        Assert.assertTrue(loadedConfigs.isEmpty(), "Namespaces without placeholders should not be loaded again");
+        // placeholders change the YAML string of the namespace, hence it is loaded
+        Assert.assertEquals(((Map) snapshot.getNamespaceTree("wso2.carbon")).get("id"), "carbon-kernel");
+        Assert.assertEquals(loadedConfigs, Collections.singletonList("id: carbon-kernel\n"));
+        snapshot.release();
+        Assert.assertEquals(snapshot.getNamespaceConfig("wso2.carbon"), "id: ${sys:carbon.id}\n");
+        Assert.assertEquals(loadedConfigs.size(), 1);
+    }
+
+    @Test(description = "test case for modifying a shared canonical tree",
+            expectedExceptions = UnsupportedOperationException.class)
+    public void unmodifiableTreeTestCase() {
+        ConfigSnapshot snapshot = new ConfigSnapshot(Collections.singletonMap("transports", "http:\n  port: 8080\n"),
+                configString -> new Yaml().load(configString), null);
+        ((Map<String, Object>) snapshot.getNamespaceTree("transports")).put("https", null);
+    }
+
+    /**
+     * Returns the used heap after collecting the garbage, which is the heap retained by the reachable objects.
+     */
+    private static long getUsedHeapAfterGc() {
+        MemoryMXBean memoryMXBean = ManagementFactory.getMemoryMXBean();
+        long usedHeap = Long.MAX_VALUE;
+        // a single collection may leave garbage behind, hence collect until the used heap does not shrink
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            long collectedHeap = memoryMXBean.getHeapMemoryUsage().getUsed();
+            if (collectedHeap >= usedHeap) {
+                return collectedHeap;
+            }
+            usedHeap = collectedHeap;
+        }
+        return usedHeap;
+    }
+}
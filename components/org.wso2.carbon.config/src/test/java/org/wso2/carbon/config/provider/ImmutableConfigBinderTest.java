@@ -0,0 +1,223 @@
+/*
+ *  Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.config.provider;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.wso2.carbon.config.ConfigurationException;
+import org.wso2.carbon.config.annotation.Configuration;
+
+import java.beans.ConstructorProperties;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * This class tests matching the canonical constructors of immutable configuration types.
+ *
+ * @since 2.1.18
+ */
+public class ImmutableConfigBinderTest {
+
+    @Test(description = "test case for matching constructor parameters to fields by name")
+    public void namedParametersTestCase() throws ConfigurationException {
+        Map<String, Object> tree = new HashMap<>();
+        tree.put("name", "primary");
+        tree.put("host", "node1");
+        Assert.assertTrue(ImmutableConfigBinder.isImmutable(NamedServer.class));
+        NamedServer server = ImmutableConfigBinder.bind(NamedServer.class, tree);
+        Assert.assertEquals(server.name, "primary");
+        Assert.assertEquals(server.host, "node1");
+    }
+
+    @Test(description = "test case for matching constructor parameters of distinct types by type")
+    public void typedParametersTestCase() throws ConfigurationException {
+        Map<String, Object> tree = new HashMap<>();
+        tree.put("name", "primary");
+        tree.put("port", 9443);
+        Assert.assertTrue(ImmutableConfigBinder.isImmutable(TypedServer.class));
+        TypedServer server = ImmutableConfigBinder.bind(TypedServer.class, tree);
+        Assert.assertEquals(server.name, "primary");
+        Assert.assertEquals(server.port, 9443);
+        Assert.assertEquals(ImmutableConfigBinder.bind(TypedServer.class, null).port, 8080);
+    }
+
+    @Test(description = "test case for rejecting constructors which cannot be matched unambiguously")
+    public void ambiguousParametersTestCase() {
+        Map<String, Object> tree = new HashMap<>();
+        tree.put("name", "primary");
+        tree.put("host", "node1");
+        // parameters of the same type are matched only by the names compiled with the -parameters option
+        boolean namesCompiled = UnnamedServer.class.getDeclaredConstructors()[0].getParameters()[0].isNamePresent();
+        try {
+            Assert.assertEquals(ImmutableConfigBinder.bind(UnnamedServer.class, tree).host, "node1");
+            Assert.assertTrue(namesCompiled, "Bound parameters of the same type without names");
+        } catch (ConfigurationException e) {
+            Assert.assertFalse(namesCompiled, "Rejected parameters of the same type with names");
+            Assert.assertTrue(e.getMessage().contains("does not declare a canonical constructor"));
+        }
+        try {
+            ImmutableConfigBinder.bind(MismatchedServer.class, null);
+            Assert.fail("Bound a constructor whose parameter names do not match the field types");
+        } catch (ConfigurationException e) {
+            Assert.assertTrue(e.getMessage().contains("does not declare a canonical constructor"));
+        }
+    }
+
+    @Test(description = "test case for binding immutable types only if they opt in")
+    public void optInTestCase() {
+        Assert.assertTrue(ImmutableConfigBinder.isImmutable(NamedServer.class));
+        // a bean whose fields happen to be final is bound by SnakeYAML, along with its defaults
+        Assert.assertFalse(ImmutableConfigBinder.isImmutable(FinalServer.class));
+    }
+
+    @Test(description = "test case for rejecting keys which do not match a field",
+            expectedExceptions = ConfigurationException.class,
+            expectedExceptionsMessageRegExp = "Unable to find property 'hostname' of .*NamedServer on immutable .*")
+    public void unknownKeyTestCase() throws ConfigurationException {
+        Map<String, Object> tree = new HashMap<>();
+        tree.put("name", "primary");
+        tree.put("hostname", "node1");
+        ImmutableConfigBinder.bind(NamedServer.class, tree);
+    }
+
+    @Test(description = "test case for rejecting array fields",
+            expectedExceptions = ConfigurationException.class,
+            expectedExceptionsMessageRegExp = "Field hosts of .*ArrayServer is an array, .* use a List instead")
+    public void arrayFieldTestCase() throws ConfigurationException {
+        ImmutableConfigBinder.bind(ArrayServer.class, Collections.singletonMap("hosts", Arrays.asList("a", "b")));
+    }
+
+    @Test(description = "test case for rejecting fields of configuration types which are not immutable",
+            expectedExceptions = ConfigurationException.class,
+            expectedExceptionsMessageRegExp = "Field server of .*NestedServer is of type .*FinalServer, which is " +
+                    "not supported by immutable configurations.*")
+    public void mutableNestedTypeTestCase() throws ConfigurationException {
+        ImmutableConfigBinder.bind(NestedServer.class, null);
+    }
+
+    /**
+     * Sample immutable configuration class whose parameters are declared in another order than the fields.
+     */
+    @Configuration(description = "Named server configuration", immutable = true)
+    static final class NamedServer {
+
+        private final String name;
+        private final String host;
+
+        @ConstructorProperties({"host", "name"})
+        NamedServer(String host, String name) {
+            this.host = host;
+            this.name = name;
+        }
+    }
+
+    /**
+     * Sample immutable configuration class whose parameters have distinct types.
+     */
+    @Configuration(description = "Typed server configuration", immutable = true)
+    static final class TypedServer {
+
+        private final String name;
+        private final int port;
+
+        TypedServer(int port, String name) {
+            this.port = port;
+            this.name = name;
+        }
+
+        TypedServer() {
+            this(8080, "default");
+        }
+    }
+
+    /**
+     * Sample configuration class whose parameters of the same type cannot be matched without names.
+     */
+    @Configuration(description = "Unnamed server configuration", immutable = true)
+    static final class UnnamedServer {
+
+        private final String name;
+        private final String host;
+
+        UnnamedServer(String host, String name) {
+            this.host = host;
+            this.name = name;
+        }
+    }
+
+    /**
+     * Sample configuration class whose parameter names do not match the field types.
+     */
+    @Configuration(description = "Mismatched server configuration", immutable = true)
+    static final class MismatchedServer {
+
+        private final String name;
+        private final int port;
+
+        @ConstructorProperties({"port", "name"})
+        MismatchedServer(String name, int port) {
+            this.name = name;
+            this.port = port;
+        }
+    }
+
+    /**
+     * Sample configuration class whose fields are final, which does not opt in to be bound as an immutable type.
+     */
+    @Configuration(description = "Final server configuration")
+    static final class FinalServer {
+
+        private final String name;
+        private final int port;
+
+        FinalServer(String name, int port) {
+            this.name = name;
+            this.port = port;
+        }
+
+        FinalServer() {
+            this("default", 8080);
+        }
+    }
+
+    /**
+     * Sample immutable configuration class with an array field.
+     */
+    @Configuration(description = "Array server configuration", immutable = true)
+    static final class ArrayServer {
+
+        private final String[] hosts;
+
+        ArrayServer(String[] hosts) {
+            this.hosts = hosts;
+        }
+    }
+
+    /**
+     * Sample immutable configuration class with a field of a configuration type which is not immutable.
+     */
+    @Configuration(description = "Nested server configuration", immutable = true)
+    static final class NestedServer {
+
+        private final FinalServer server;
+
+        NestedServer(FinalServer server) {
+            this.server = server;
+        }
+    }
+}
@@ -0,0 +1,256 @@
+/*
+ *  Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.config.reader;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import org.wso2.carbon.config.ConfigurationException;
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.Yaml;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class tests the configuration file readers of the supported file formats.
+ *
+ * @since 2.1.18
+ */
+public class ConfigFileReadersTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConfigFileReadersTest.class);
+    private static final int ROUTE_NAMESPACES = 4;
+    private static final int ROUTES_PER_NAMESPACE = 5000;
+    private static final int BENCHMARK_ITERATIONS = 3;
+    private static final int LARGE_CODE_POINT_LIMIT = 64 * 1024 * 1024;
+    private Path configDirectory;
+
+    @BeforeClass
+    public void setup() throws IOException {
+        configDirectory = Files.createTempDirectory("config-formats");
+    }
+
+    @AfterClass
+    public void clean() throws IOException {
+        for (Path file : Files.newDirectoryStream(configDirectory)) {
+            Files.delete(file);
+        }
+        Files.delete(configDirectory);
+    }
+
+    @Test(description = "test case for the same configuration in YAML, JSON and properties formats")
+    public void equivalentFormatsTestCase() throws ConfigurationException, IOException {
+        Path yamlFile = write("deployment.yaml", "wso2.carbon:\n  id: carbon\n  enabled: true\n" +
+                "  ratio: 0.75\n  name: \"quoted \\\"name\\\"\"\n" +
+                "transports:\n  listeners:\n    - port: 9090\n      hosts: [localhost, 127.0.0.1]\n" +
+                "    - port: 9443\n      secure: true\n" +
+                "log.level: DEBUG\n");
+        Path jsonFile = write("deployment.json", "{\n  \"wso2.carbon\": {\"id\": \"carbon\", \"enabled\": true, " +
+                "\"ratio\": 0.75, \"name\": \"quoted \\\"name\\\"\"},\n" +
+                "  \"transports\": {\"listeners\": [{\"port\": 9090, \"hosts\": [\"localhost\", \"127.0.0.1\"]}, " +
+                "{\"port\": 9443, \"secure\": true}]},\n" +
+                "  \"log.level\": \"DEBUG\"\n}\n");
+        Path propertiesFile = write("deployment.properties", "wso2.carbon/id=carbon\nwso2.carbon/enabled=true\n" +
+                "wso2.carbon/ratio=0.75\nwso2.carbon/name=quoted \"name\"\n" +
+                "transports/listeners[0].port=9090\ntransports/listeners[0].hosts[0]=localhost\n" +
+                "transports/listeners[0].hosts[1]=127.0.0.1\n" +
+                "transports/listeners[1].port=9443\ntransports/listeners[1].secure=true\n" +
+                "log.level=DEBUG\n");
+
+        Map<String, Object> yamlTree = readTree(yamlFile, new LoaderOptions());
+        Assert.assertEquals(yamlTree.size(), 3);
+        Assert.assertEquals(((Map) yamlTree.get("wso2.carbon")).get("name"), "quoted \"name\"");
+        Assert.assertEquals(readTree(jsonFile, new LoaderOptions()), yamlTree);
+        Assert.assertEquals(readTree(propertiesFile, new LoaderOptions()), yamlTree);
+    }
+
+    @Test(description = "test case for comparing the load time of the supported file formats")
+    public void loadTimeBenchmarkTestCase() throws ConfigurationException, IOException {
+        Path yamlFile = configDirectory.resolve("routing.yaml");
+        Path jsonFile = configDirectory.resolve("routing.json");
+        Path propertiesFile = configDirectory.resolve("routing.properties");
+        try (BufferedWriter yamlWriter = Files.newBufferedWriter(yamlFile, StandardCharsets.UTF_8);
+             BufferedWriter jsonWriter = Files.newBufferedWriter(jsonFile, StandardCharsets.UTF_8);
+             BufferedWriter propertiesWriter = Files.newBufferedWriter(propertiesFile, StandardCharsets.UTF_8)) {
+            jsonWriter.write("{\n");
+            for (int i = 0; i < ROUTE_NAMESPACES; i++) {
+                yamlWriter.write("routing.table" + i + ":\n  routes:\n");
+                jsonWriter.write((i > 0 ? ",\n" : "") + "  \"routing.table" + i + "\": {\"routes\": [\n");
+                for (int j = 0; j < ROUTES_PER_NAMESPACE; j++) {
+                    String id = "route-" + i + "-" + j;
+                    String host = "backend-" + (j % 16) + ".internal.example.com";
+                    int port = 8000 + (j % 100);
+                    yamlWriter.write("    - id: " + id + "\n      host: " + host + "\n      port: " + port + "\n");
+                    jsonWriter.write((j > 0 ? ",\n" : "") + "    {\"id\": \"" + id + "\", \"host\": \"" + host +
+                            "\", \"port\": " + port + "}");
+                    String key = "routing.table" + i + "/routes[" + j + "].";
+                    propertiesWriter.write(key + "id=" + id + "\n" + key + "host=" + host + "\n" + key + "port=" +
+                            port + "\n");
+                }
+                jsonWriter.write("\n  ]}");
+            }
+            jsonWriter.write("\n}\n");
+        }
+        LoaderOptions loaderOptions = new LoaderOptions();
+        loaderOptions.setCodePointLimit(LARGE_CODE_POINT_LIMIT);
+
+        Map<String, Object> yamlTree = readTree(yamlFile, loaderOptions);
+        Assert.assertEquals(readTree(jsonFile, loaderOptions), yamlTree);
+        Assert.assertEquals(readTree(propertiesFile, loaderOptions), yamlTree);
+        Assert.assertEquals(((List) ((Map) yamlTree.get("routing.table1")).get("routes")).size(),
+                ROUTES_PER_NAMESPACE);
+        Map<Path, Long> loadTimes = new HashMap<>();
+        for (Path file : new Path[]{yamlFile, jsonFile, propertiesFile}) {
+            long bestTime = Long.MAX_VALUE;
+            for (int i = 0; i < BENCHMARK_ITERATIONS; i++) {
+                long start = System.nanoTime();
+                loadTrees(file, loaderOptions);
+                bestTime = Math.min(bestTime, System.nanoTime() - start);
+            }
+            loadTimes.put(file, bestTime);
+            logger.info("Configuration file {} of {} bytes loaded in {} ms", file.getFileName(),
+                    file.toFile().length(), bestTime / 1000000);
+        }
+        // the trees of a JSON file are parsed once by the JSON parser, while YAML namespaces are parsed again
+        Assert.assertTrue(loadTimes.get(jsonFile) < loadTimes.get(yamlFile), "JSON configuration trees should " +
+                "load faster than YAML configuration trees");
+    }
+
+    @Test(description = "test case for a JSON configuration file nested deeper than the nesting depth limit",
+            expectedExceptions = ConfigurationException.class,
+            expectedExceptionsMessageRegExp = "Error while parsing JSON configuration at position 25, nesting " +
+                    "depth exceeds the limit of 10")
+    public void nestingDepthLimitTestCase() throws ConfigurationException, IOException {
+        LoaderOptions loaderOptions = new LoaderOptions();
+        loaderOptions.setNestingDepthLimit(10);
+        // the root object is the first level, as the root mapping of a YAML document is
+        StringBuilder json = new StringBuilder("{\"wso2.carbon\": ");
+        for (int i = 0; i < 9; i++) {
+            json.append('[');
+        }
+        Assert.assertNotNull(new JSONBasedConfigFileReader(write("nested.json", json + "1]]]]]]]]]}"),
+                loaderOptions).getDeploymentConfigurationTrees());
+        // the depth is checked before recursing, hence a document nested too deep for the stack is rejected
+        for (int i = 0; i < 100000; i++) {
+            json.append('[');
+        }
+        new JSONBasedConfigFileReader(write("deep.json", json.toString()), loaderOptions)
+                .getDeploymentConfigurationTrees();
+    }
+
+    @Test(description = "test case for looking up the configuration file reader by file extension")
+    public void fileExtensionTestCase() {
+        LoaderOptions loaderOptions = new LoaderOptions();
+        Assert.assertTrue(ConfigFileReaders.getConfigFileReader(Paths.get("deployment.yaml"), loaderOptions).get()
+                instanceof YAMLBasedConfigFileReader);
+        Assert.assertTrue(ConfigFileReaders.getConfigFileReader(Paths.get("deployment.yml"), loaderOptions).get()
+                instanceof YAMLBasedConfigFileReader);
+        Assert.assertTrue(ConfigFileReaders.getConfigFileReader(Paths.get("deployment.JSON"), loaderOptions).get()
+                instanceof JSONBasedConfigFileReader);
+        Assert.assertTrue(ConfigFileReaders.getConfigFileReader(Paths.get("deployment.properties"), loaderOptions)
+                .get() instanceof PropertiesBasedConfigFileReader);
+        Assert.assertFalse(ConfigFileReaders.getConfigFileReader(Paths.get("deployment.txt"), loaderOptions)
+                .isPresent());
+        Assert.assertFalse(ConfigFileReaders.getConfigFileReader(Paths.get("deployment"), loaderOptions)
+                .isPresent());
+    }
+
+    @Test(description = "test case for registering a configuration file reader provider")
+    public void registerProviderTestCase() throws ConfigurationException {
+        Map<String, String> deploymentConfigs = new HashMap<>();
+        deploymentConfigs.put("wso2.carbon", "id: custom\n");
+        ConfigFileReaderProvider provider = new ConfigFileReaderProvider() {
+            @Override
+            public List<String> getFileExtensions() {
+                return Collections.singletonList(".yml");
+            }
+
+            @Override
+            public ConfigFileReader getConfigFileReader(Path configurationFilePath, LoaderOptions loaderOptions) {
+                return new ConfigFileReader(configurationFilePath, loaderOptions) {
+                    @Override
+                    public Map<String, String> getDeploymentConfiguration() {
+                        return deploymentConfigs;
+                    }
+                };
+            }
+        };
+        Path configFile = Paths.get("deployment.yml");
+        ConfigFileReaders.register(provider);
+        try {
+            Assert.assertEquals(ConfigFileReaders.getConfigFileReader(configFile, new LoaderOptions()).get()
+                    .getDeploymentConfiguration(), deploymentConfigs);
+        } finally {
+            ConfigFileReaders.unregister(provider);
+        }
+        Assert.assertTrue(ConfigFileReaders.getConfigFileReader(configFile, new LoaderOptions()).get()
+                instanceof YAMLBasedConfigFileReader);
+    }
+
+    @Test(description = "test case for an invalid JSON configuration file",
+            expectedExceptions = ConfigurationException.class,
+            expectedExceptionsMessageRegExp = "Error while parsing JSON configuration at position 26, expected ',' " +
+                    "or '}'")
+    public void invalidJSONTestCase() throws ConfigurationException, IOException {
+        new JSONBasedConfigFileReader(write("invalid.json", "{\"wso2.carbon\": {\"id\": 1 \"name\": \"carbon\"}}"))
+                .getDeploymentConfiguration();
+    }
+
+    @Test(description = "test case for conflicting keys of a properties configuration file",
+            expectedExceptions = ConfigurationException.class,
+            expectedExceptionsMessageRegExp = "Error while parsing configuration file, conflicting key: " +
+                    "wso2.carbon/id.name")
+    public void conflictingPropertiesTestCase() throws ConfigurationException, IOException {
+        new PropertiesBasedConfigFileReader(write("conflicting.properties", "wso2.carbon/id=carbon\n" +
+                "wso2.carbon/id.name=carbon\n")).getDeploymentConfiguration();
+    }
+
+    private Path write(String fileName, String content) throws IOException {
+        return Files.write(configDirectory.resolve(fileName), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Loads the configuration trees of the namespaces, as a config provider does: from the trees parsed by the reader
+     * if it parses them itself, or else by loading the YAML strings of the namespaces.
+     */
+    private static Map<String, Object> loadTrees(Path file, LoaderOptions loaderOptions)
+            throws ConfigurationException {
+        ConfigFileReader reader = ConfigFileReaders.getConfigFileReader(file, loaderOptions).get();
+        Map<String, Object> trees = reader.getDeploymentConfigurationTrees();
+        return trees != null ? trees : readTree(file, loaderOptions);
+    }
+
+    private static Map<String, Object> readTree(Path file, LoaderOptions loaderOptions)
+            throws ConfigurationException {
+        Map<String, Object> tree = new HashMap<>();
+        Yaml yaml = new Yaml(loaderOptions);
+        ConfigFileReaders.getConfigFileReader(file, loaderOptions).get().getDeploymentConfiguration()
+                .forEach((namespace, config) -> tree.put(namespace, yaml.load(config)));
+        return tree;
+    }
+}
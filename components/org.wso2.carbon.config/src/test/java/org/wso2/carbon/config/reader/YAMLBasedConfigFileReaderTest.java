@@ -0,0 +1,184 @@
+/*
+ *  Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.config.reader;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import org.wso2.carbon.config.ConfigurationException;
+import org.wso2.carbon.config.ConfigurationUtils;
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.Yaml;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class tests the streaming behaviour of the YAMLBasedConfigFileReader.
+ *
+ * @since 2.1.18
+ */
+public class YAMLBasedConfigFileReaderTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(YAMLBasedConfigFileReaderTest.class);
+    private static final int ROUTE_NAMESPACES = 8;
+    private static final int ROUTES_PER_NAMESPACE = 5000;
+    private static final int LARGE_CODE_POINT_LIMIT = 64 * 1024 * 1024;
+    private Path largeConfigFile;
+
+    @BeforeClass
+    public void setup() throws IOException {
+        largeConfigFile = Files.createTempFile("routing-deployment", ".yaml");
+        try (BufferedWriter writer = Files.newBufferedWriter(largeConfigFile, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < ROUTE_NAMESPACES; i++) {
+                writer.write("routing.table" + i + ":\n");
+                writer.write("  routes:\n");
+                for (int j = 0; j < ROUTES_PER_NAMESPACE; j++) {
+                    writer.write("    - id: route-" + i + "-" + j + "\n");
+                    writer.write("      host: backend-" + (j % 16) + ".internal.example.com\n");
+                    writer.write("      port: " + (8000 + (j % 100)) + "\n");
+                    writer.write("      path: /services/tenant-" + j + "/api/v1/resource\n");
+                }
+            }
+        }
+    }
+
+    @AfterClass
+    public void clean() throws IOException {
+        Files.deleteIfExists(largeConfigFile);
+    }
+
+    @Test(description = "test case for a configuration file larger than the default SnakeYAML code point limit",
+            expectedExceptions = ConfigurationException.class,
+            expectedExceptionsMessageRegExp = "Error while parsing configuration file")
+    public void defaultCodePointLimitTestCase() throws ConfigurationException {
+        Assert.assertTrue(largeConfigFile.toFile().length() > new LoaderOptions().getCodePointLimit(),
+                "Generated configuration file should exceed the default code point limit");
+        new YAMLBasedConfigFileReader(largeConfigFile).getDeploymentConfiguration();
+    }
+
+    @Test(description = "test case for streaming a configuration file with a custom code point limit")
+    public void customCodePointLimitTestCase() throws ConfigurationException {
+        LoaderOptions loaderOptions = new LoaderOptions();
+        loaderOptions.setCodePointLimit(LARGE_CODE_POINT_LIMIT);
+        Map<String, String> deploymentConfigs = new YAMLBasedConfigFileReader(largeConfigFile, loaderOptions)
+                .getDeploymentConfiguration();
+
+        Assert.assertEquals(deploymentConfigs.size(), ROUTE_NAMESPACES);
+        Map routingTable = new Yaml(loaderOptions).load(deploymentConfigs.get("routing.table3"));
+        List routes = (List) routingTable.get("routes");
+        Assert.assertEquals(routes.size(), ROUTES_PER_NAMESPACE);
+        Map route = (Map) routes.get(42);
+        Assert.assertEquals(route.get("id"), "route-3-42");
+        Assert.assertEquals(route.get("port"), 8042);
+    }
+
+    @Test(description = "test case for the memory allocated while streaming the namespaces compared to loading " +
+            "the configuration tree")
+    public void streamingMemoryTestCase() throws ConfigurationException, IOException {
+        LoaderOptions loaderOptions = new LoaderOptions();
+        loaderOptions.setCodePointLimit(LARGE_CODE_POINT_LIMIT);
+        long fileSize = largeConfigFile.toFile().length();
+        com.sun.management.ThreadMXBean threadMXBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        long start = threadMXBean.getThreadAllocatedBytes(threadId);
+        Map<String, String> streamedConfigs = new YAMLBasedConfigFileReader(largeConfigFile, loaderOptions)
+                .getDeploymentConfiguration();
+        long streamedBytes = threadMXBean.getThreadAllocatedBytes(threadId) - start;
+
+        // the tree based loader reads the file content and the object tree of the whole file before dumping it
+        start = threadMXBean.getThreadAllocatedBytes(threadId);
+        String fileContent = new String(Files.readAllBytes(largeConfigFile), StandardCharsets.UTF_8);
+        Map<String, String> treeConfigs = ConfigurationUtils.getDeploymentConfigMap(fileContent, loaderOptions);
+        long treeBytes = threadMXBean.getThreadAllocatedBytes(threadId) - start;
+
+        logger.info("Configuration file of {} bytes: streaming allocated {} bytes, the tree based loader allocated " +
+                "{} bytes", fileSize, streamedBytes, treeBytes);
+        Assert.assertEquals(streamedConfigs, treeConfigs);
+        Assert.assertTrue(streamedBytes < treeBytes, "Streaming should allocate less memory than loading the " +
+                "configuration tree");
+    }
+
+    @Test(description = "test case for a namespace which refers to an anchor declared in another namespace")
+    public void crossNamespaceAliasTestCase() throws ConfigurationException, IOException {
+        Path configFile = Files.createTempFile("alias-deployment", ".yaml");
+        try {
+            Files.write(configFile, ("defaults: &defaults\n  port: 9443\n  secure: true\n" +
+                    "transport:\n  listener: *defaults\n" +
+                    "local:\n  base: &base\n    host: localhost\n  copy: *base\n").getBytes(StandardCharsets.UTF_8));
+            Map<String, String> deploymentConfigs = new YAMLBasedConfigFileReader(configFile)
+                    .getDeploymentConfiguration();
+
+            Map transport = new Yaml().load(deploymentConfigs.get("transport"));
+            Assert.assertEquals(((Map) transport.get("listener")).get("port"), 9443);
+            Map local = new Yaml().load(deploymentConfigs.get("local"));
+            Assert.assertEquals(((Map) local.get("copy")).get("host"), "localhost");
+        } finally {
+            Files.deleteIfExists(configFile);
+        }
+    }
+
+    @Test(description = "test case for merging the active configuration profile on top of the configuration file")
+    public void configProfileTestCase() throws ConfigurationException, IOException {
+        Path configDirectory = Files.createTempDirectory("profiles");
+        Path configFile = configDirectory.resolve("deployment.yaml");
+        Path profileFile = configDirectory.resolve("deployment-dev.yaml");
+        try {
+            // the inactive profile refers to an undefined anchor, which fails if the profile is composed
+            Files.write(configFile, ("transports:\n  http:\n    port: 8080\n    host: 0.0.0.0\n" +
+                    "wso2.carbon:\n  id: carbon\n" +
+                    "server.name: carbon\n" +
+                    "config.profiles:\n" +
+                    "  dev:\n    transports:\n      http:\n        port: 9090\n    dev.tools:\n      enabled: true\n" +
+                    "    server.name: carbon-dev\n    dev.mode: debug\n" +
+                    "  prod:\n    transports: *undefined\n").getBytes(StandardCharsets.UTF_8));
+            Files.write(profileFile, "transports:\n  http:\n    host: localhost\n".getBytes(StandardCharsets.UTF_8));
+
+            Map<String, String> deploymentConfigs = new YAMLBasedConfigFileReader(configFile, new LoaderOptions(),
+                    "dev").getDeploymentConfiguration();
+            Assert.assertFalse(deploymentConfigs.containsKey("config.profiles"));
+            Map http = (Map) ((Map) new Yaml().load(deploymentConfigs.get("transports"))).get("http");
+            Assert.assertEquals(http.get("port"), 9090);
+            Assert.assertEquals(http.get("host"), "localhost");
+            Assert.assertEquals(((Map) new Yaml().load(deploymentConfigs.get("dev.tools"))).get("enabled"), true);
+            Assert.assertEquals(((Map) new Yaml().load(deploymentConfigs.get("wso2.carbon"))).get("id"), "carbon");
+            // scalar namespaces of the profile are loaded back as scalars
+            Assert.assertEquals(new Yaml().load(deploymentConfigs.get("server.name")), "carbon-dev");
+            Assert.assertEquals(new Yaml().load(deploymentConfigs.get("dev.mode")), "debug");
+
+            deploymentConfigs = new YAMLBasedConfigFileReader(configFile).getDeploymentConfiguration();
+            Assert.assertEquals(deploymentConfigs.keySet().size(), 3);
+            http = (Map) ((Map) new Yaml().load(deploymentConfigs.get("transports"))).get("http");
+            Assert.assertEquals(http.get("port"), 8080);
+            Assert.assertEquals(http.get("host"), "0.0.0.0");
+        } finally {
+            Files.deleteIfExists(profileFile);
+            Files.deleteIfExists(configFile);
+            Files.deleteIfExists(configDirectory);
+        }
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ *  Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.config.maven.plugin;
+
+import org.yaml.snakeyaml.DumperOptions;
+import org.yaml.snakeyaml.comments.CommentType;
+import org.yaml.snakeyaml.emitter.Emitter;
+import org.yaml.snakeyaml.events.CommentEvent;
+import org.yaml.snakeyaml.events.DocumentEndEvent;
+import org.yaml.snakeyaml.events.DocumentStartEvent;
+import org.yaml.snakeyaml.events.ImplicitTuple;
+import org.yaml.snakeyaml.events.MappingEndEvent;
+import org.yaml.snakeyaml.events.MappingStartEvent;
+import org.yaml.snakeyaml.events.ScalarEvent;
+import org.yaml.snakeyaml.events.SequenceEndEvent;
+import org.yaml.snakeyaml.events.SequenceStartEvent;
+import org.yaml.snakeyaml.events.StreamEndEvent;
+import org.yaml.snakeyaml.events.StreamStartEvent;
+import org.yaml.snakeyaml.nodes.MappingNode;
+import org.yaml.snakeyaml.nodes.Node;
+import org.yaml.snakeyaml.nodes.NodeId;
+import org.yaml.snakeyaml.nodes.NodeTuple;
+import org.yaml.snakeyaml.nodes.ScalarNode;
+import org.yaml.snakeyaml.nodes.SequenceNode;
+import org.yaml.snakeyaml.representer.Representer;
+import org.yaml.snakeyaml.resolver.Resolver;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Emits configuration documents as YAML with the descriptions of the configuration elements as comments.
+ * <p>
+ * A configuration document is a map of configuration elements, where the description of an element is held as a
+ * {@link Comment} value preceding the element. The document is written in a single pass as a stream of SnakeYAML
+ * events, where descriptions are comment events at the indentation of the element, hence neither a node graph of
+ * the document nor the emitted YAML is held in memory. Only scalars and values of other types are represented as
+ * nodes, one at a time. Instances are not thread safe.
+ *
+ * @since 2.1.18
+ */
+final class ConfigDocumentEmitter {
+
+    private final DumperOptions dumperOptions;
+    private final Representer representer;
+    private final Resolver resolver = new Resolver();
+
+    ConfigDocumentEmitter() {
+        dumperOptions = new DumperOptions();
+        dumperOptions.setDefaultFlowStyle(DumperOptions.FlowStyle.BLOCK);
+        dumperOptions.setProcessComments(true);
+        representer = new Representer(dumperOptions);
+        representer.setDefaultFlowStyle(dumperOptions.getDefaultFlowStyle());
+        representer.setDefaultScalarStyle(dumperOptions.getDefaultScalarStyle());
+    }
+
+    /**
+     * Writes the given configuration document to the writer.
+     *
+     * @param document     configuration document
+     * @param withComments whether to write the descriptions as comments or to omit them
+     * @param writer       writer to write the YAML to, which is neither flushed nor closed
+     * @throws IOException if an error occurred while writing the YAML
+     */
+    void emit(Map<String, Object> document, boolean withComments, Writer writer) throws IOException {
+        Emitter emitter = new Emitter(writer, dumperOptions);
+        emitter.emit(new StreamStartEvent(null, null));
+        emitter.emit(new DocumentStartEvent(null, null, dumperOptions.isExplicitStart(), dumperOptions.getVersion(),
+                dumperOptions.getTags()));
+        emitValue(emitter, document, withComments);
+        emitter.emit(new DocumentEndEvent(null, null, dumperOptions.isExplicitEnd()));
+        emitter.emit(new StreamEndEvent(null, null));
+    }
+
+    private void emitValue(Emitter emitter, Object value, boolean withComments) throws IOException {
+        if (value instanceof Map) {
+            emitter.emit(new MappingStartEvent(null, null, true, null, null, DumperOptions.FlowStyle.BLOCK));
+            Comment comment = null;
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                if (entry.getValue() instanceof Comment) {
+                    comment = withComments ? (Comment) entry.getValue() : null;
+                    continue;
+                }
+                if (comment != null) {
+                    comment.emit(emitter);
+                    comment = null;
+                }
+                emitNode(emitter, representer.represent(entry.getKey()));
+                emitValue(emitter, entry.getValue(), withComments);
+            }
+            emitter.emit(new MappingEndEvent(null, null));
+        } else if (value instanceof Object[] || value instanceof Collection) {
+            Collection<?> elements = value instanceof Object[] ? Arrays.asList((Object[]) value) :
+                    (Collection<?>) value;
+            emitter.emit(new SequenceStartEvent(null, null, true, null, null, DumperOptions.FlowStyle.BLOCK));
+            for (Object element : elements) {
+                emitValue(emitter, element, withComments);
+            }
+            emitter.emit(new SequenceEndEvent(null, null));
+        } else {
+            emitNode(emitter, representer.represent(value));
+        }
+    }
+
+    /**
+     * Emits the events of a node represented from a value of the document, the same way the SnakeYAML serializer
+     * does.
+     *
+     * @param emitter YAML emitter
+     * @param node    represented node
+     * @throws IOException if an error occurred while writing the YAML
+     */
+    private void emitNode(Emitter emitter, Node node) throws IOException {
+        String tag = node.getTag().getValue();
+        if (node.getNodeId() == NodeId.scalar) {
+            ScalarNode scalarNode = (ScalarNode) node;
+            ImplicitTuple implicit = new ImplicitTuple(
+                    node.getTag().equals(resolver.resolve(NodeId.scalar, scalarNode.getValue(), true)),
+                    node.getTag().equals(resolver.resolve(NodeId.scalar, scalarNode.getValue(), false)));
+            emitter.emit(new ScalarEvent(null, tag, implicit, scalarNode.getValue(), null, null,
+                    scalarNode.getScalarStyle()));
+        } else if (node.getNodeId() == NodeId.sequence) {
+            SequenceNode sequenceNode = (SequenceNode) node;
+            emitter.emit(new SequenceStartEvent(null, tag,
+                    node.getTag().equals(resolver.resolve(NodeId.sequence, null, true)), null, null,
+                    sequenceNode.getFlowStyle()));
+            for (Node item : sequenceNode.getValue()) {
+                emitNode(emitter, item);
+            }
+            emitter.emit(new SequenceEndEvent(null, null));
+        } else {
+            MappingNode mappingNode = (MappingNode) node;
+            emitter.emit(new MappingStartEvent(null, tag,
+                    node.getTag().equals(resolver.resolve(NodeId.mapping, null, true)), null, null,
+                    mappingNode.getFlowStyle()));
+            for (NodeTuple tuple : mappingNode.getValue()) {
+                emitNode(emitter, tuple.getKeyNode());
+                emitNode(emitter, tuple.getValueNode());
+            }
+            emitter.emit(new MappingEndEvent(null, null));
+        }
+    }
+
+    /**
+     * Description of a configuration element, written as a comment before the element.
+     */
+    static final class Comment {
+
+        private final List<String> lines;
+
+        Comment(List<String> lines) {
+            this.lines = Collections.unmodifiableList(new ArrayList<>(lines));
+        }
+
+        /**
+         * Returns a comment with the given line appended to the lines of this comment.
+         *
+         * @param line comment line
+         * @return comment
+         */
+        Comment append(String line) {
+            List<String> appendedLines = new ArrayList<>(lines);
+            appendedLines.add(line);
+            return new Comment(appendedLines);
+        }
+
+        private void emit(Emitter emitter) throws IOException {
+            for (String line : lines) {
+                emitter.emit(new CommentEvent(CommentType.BLOCK, " " + line, null, null));
+            }
+        }
+    }
+}
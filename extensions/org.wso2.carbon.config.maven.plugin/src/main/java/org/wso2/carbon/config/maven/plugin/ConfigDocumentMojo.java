@@ -31,8 +31,9 @@ import org.wso2.carbon.config.ConfigConstants;
 import org.wso2.carbon.config.annotation.Configuration;
 import org.wso2.carbon.config.annotation.Element;
 import org.wso2.carbon.config.annotation.Ignore;
+import org.wso2.carbon.config.converter.ValueConverter;
+import org.wso2.carbon.config.converter.ValueConverters;
 import org.wso2.carbon.config.maven.plugin.exceptions.ConfigurationMavenRuntimeException;
-import org.yaml.snakeyaml.Yaml;
 
 import java.io.BufferedReader;
 import java.io.File;
@@ -40,20 +41,34 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.io.PrintWriter;
-import java.io.UnsupportedEncodingException;
+import java.io.Reader;
+import java.io.Writer;
 import java.lang.reflect.Array;
 import java.lang.reflect.Field;
 import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Collection;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Properties;
 import java.util.Scanner;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * This class will create configuration document from bean class annotated in the project.
@@ -68,12 +83,15 @@ public class ConfigDocumentMojo extends AbstractMojo {
     private static final String YAML_FILE_EXTENTION = ".yaml";
     private static final String NEW_LINE_REGEX_PATTERN = "\\r?\\n";
     private static final String COMMENT_KEY_PREFIX = "comment-";
-    private static final String COMMENT_KEY_REGEX_PATTERN = COMMENT_KEY_PREFIX + ".*";
-    private static final String EMPTY_LINE_REGEX_PATTERN = "(?m)^[ \t]*\r?\n";
-    private static final String MANDATORY_FIELD_COMMENT = "# THIS IS A MANDATORY FIELD";
+    private static final String MANDATORY_FIELD_COMMENT = "THIS IS A MANDATORY FIELD";
     private static final String UTF_8_CHARSET = "UTF-8";
     private static final String PLUGIN_DESCRIPTOR_KEY = "pluginDescriptor";
     private static final String LICENSE_FILE = "LICENSE.txt";
+    private static final String FINGERPRINT_FILE = "config-doc-fingerprints.properties";
+    private static final String FINGERPRINT_ALGORITHM = "SHA-256";
+
+    private final ThreadLocal<ConfigDocumentEmitter> documentEmitter =
+            ThreadLocal.withInitial(ConfigDocumentEmitter::new);
 
     @Parameter(defaultValue = "${project}", required = true)
     private MavenProject project;
@@ -81,6 +99,18 @@ public class ConfigDocumentMojo extends AbstractMojo {
     @Parameter(property = "configclasses")
     protected String[] configclasses;
 
+    /**
+     * Number of threads to create the configuration documents with, the number of available processors by default.
+     */
+    @Parameter(property = "configdoc.threads", defaultValue = "0")
+    protected int threads;
+
+    /**
+     * Creates all configuration documents, even if the configuration beans are not changed since the previous build.
+     */
+    @Parameter(property = "configdoc.force", defaultValue = "false")
+    protected boolean force;
+
     /**
      * Enum containing project artifact types.
      * This enum is used when adding project to the class path during plugin execution.
@@ -106,34 +136,125 @@ public class ConfigDocumentMojo extends AbstractMojo {
         addProjectToClasspath(realm);
         addDependenciesToClasspath(realm);
 
-        // process configuration bean to create configuration document
-        for (String configClassName : configurationClasses) {
-            Map<String, Object> finalMap = new LinkedHashMap<>();
-            try {
-                Class configClass = realm.loadClass(configClassName);
-                if (configClass != null && configClass.isAnnotationPresent(Configuration.class)) {
-                    // read configuration annotation
-                    // Fix the issue #3, set the system.property before creating the object, to notify it is called
-                    // by maven plugin.
-                    System.setProperty(ConfigConstants.SYSTEM_PROPERTY_DOC_GENERATION, Boolean.toString(true));
-                    Configuration configuration = (Configuration) configClass.getAnnotation(Configuration.class);
-                    Object configObject = configClass.newInstance();
-                    System.clearProperty(ConfigConstants.SYSTEM_PROPERTY_DOC_GENERATION);
-                    // add description comment to the root node.
-                    finalMap.put(COMMENT_KEY_PREFIX + configuration.namespace(), createDescriptionComment(configuration
-                            .description()));
-                    // add root node to the config Map
-                    finalMap.put(configuration.namespace(), readConfigurationElements(configObject, Boolean.TRUE));
-                    // write configuration map as a yaml file
-                    writeConfigurationFile(finalMap, configuration.namespace());
-                } else {
-                    logger.error("Error while loading the configuration class : " + configClassName);
+        File configDir = new File(project.getBuild().getOutputDirectory(), ConfigConstants.CONFIG_DIR);
+        // create config directory inside project output directory to save config files
+        if (!configDir.exists() && !configDir.mkdirs()) {
+            throw new MojoExecutionException("Error while creating config directory in classpath");
+        }
+        File defaultsDir = new File(project.getBuild().getOutputDirectory(), ConfigConstants.CONFIG_DEFAULTS_DIR);
+        if (!defaultsDir.exists() && !defaultsDir.mkdirs()) {
+            throw new MojoExecutionException("Error while creating config defaults directory in classpath");
+        }
+        String licenseHeader = getLicenseHeader();
+        Properties previousFingerprints = force ? new Properties() : readFingerprints();
+        Map<String, String> fingerprints = new ConcurrentHashMap<>();
+        // configuration documents also depend on the plugin and the license header
+        String fingerprintSeed = descriptor.getVersion() + licenseHeader;
+
+        // process configuration beans in parallel to create configuration documents
+        // Fix the issue #3, set the system.property before creating the objects, to notify it is called by maven
+        // plugin.
+        System.setProperty(ConfigConstants.SYSTEM_PROPERTY_DOC_GENERATION, Boolean.toString(true));
+        ExecutorService executorService = Executors.newFixedThreadPool(Math.min(configurationClasses.length,
+                threads > 0 ? threads : Runtime.getRuntime().availableProcessors()));
+        try {
+            List<Future<Void>> futures = new ArrayList<>(configurationClasses.length);
+            for (String configClassName : configurationClasses) {
+                futures.add(executorService.submit(() -> {
+                    createConfigurationDocument(realm, configClassName, configDir, defaultsDir, licenseHeader,
+                            fingerprintSeed, previousFingerprints, fingerprints);
+                    return null;
+                }));
+            }
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof MojoExecutionException) {
+                throw (MojoExecutionException) e.getCause();
+            }
+            throw new MojoExecutionException("Error while creating configuration documents", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MojoExecutionException("Interrupted while creating configuration documents", e);
+        } finally {
+            executorService.shutdownNow();
+            System.clearProperty(ConfigConstants.SYSTEM_PROPERTY_DOC_GENERATION);
+        }
+        writeFingerprints(fingerprints);
+
+        // add configuration documents to the project resources under config-docs/ directory.
+        Resource resource = new Resource();
+        resource.setDirectory(configDir.getAbsolutePath());
+        resource.setTargetPath(ConfigConstants.CONFIG_DIR);
+        project.addResource(resource);
+        // add configuration defaults to the project resources under config-defaults/ directory.
+        Resource defaultsResource = new Resource();
+        defaultsResource.setDirectory(defaultsDir.getAbsolutePath());
+        defaultsResource.setTargetPath(ConfigConstants.CONFIG_DEFAULTS_DIR);
+        project.addResource(defaultsResource);
+    }
+
+    /**
+     * Creates the configuration document and the configuration defaults of the given configuration bean class, unless
+     * the class files of the bean are not changed since they were created by the previous build.
+     * <p>
+     * The configuration defaults file holds the default values of the namespace without comments. It is read by the
+     * configuration provider at runtime as the base layer of the namespace configuration.
+     *
+     * @param realm                class realm of the project
+     * @param configClassName      qualified name of the configuration bean class
+     * @param configDir            directory of the configuration documents
+     * @param defaultsDir          directory of the configuration defaults
+     * @param licenseHeader        license header of the configuration documents
+     * @param fingerprintSeed      seed of the fingerprints
+     * @param previousFingerprints fingerprints of the configuration beans of the previous build
+     * @param fingerprints         fingerprints of the configuration beans of this build
+     * @throws MojoExecutionException if an error occurred while writing the configuration document
+     */
+    private void createConfigurationDocument(ClassRealm realm, String configClassName, File configDir,
+                                             File defaultsDir, String licenseHeader, String fingerprintSeed,
+                                             Properties previousFingerprints,
+                                             Map<String, String> fingerprints) throws MojoExecutionException {
+        Map<String, Object> finalMap = new LinkedHashMap<>();
+        try {
+            Class configClass = realm.loadClass(configClassName);
+            if (configClass != null && configClass.isAnnotationPresent(Configuration.class)) {
+                // read configuration annotation
+                Configuration configuration = (Configuration) configClass.getAnnotation(Configuration.class);
+                File configFile = new File(configDir, configuration.namespace() + YAML_FILE_EXTENTION);
+                File defaultsFile = new File(defaultsDir, configuration.namespace() + YAML_FILE_EXTENTION);
+                String fingerprint = getFingerprint(configClass, fingerprintSeed);
+                if (fingerprint != null && configFile.exists() && defaultsFile.exists()
+                        && fingerprint.equals(previousFingerprints.getProperty(configClassName))) {
+                    if (logger.isDebugEnabled()) {
+                        logger.debug("Configuration class {} is not changed, hence skipping the configuration " +
+                                "document", configClassName);
+                    }
+                    fingerprints.put(configClassName, fingerprint);
+                    return;
                 }
-            } catch (ClassNotFoundException e) {
-                logger.error("Error while creating new instance of the class : " + configClassName, e);
-            } catch (InstantiationException | IllegalAccessException e) {
-                logger.error("Error while initializing the configuration class : " + configClassName, e);
+                Object configObject = configClass.newInstance();
+                // add description comment to the root node.
+                finalMap.put(COMMENT_KEY_PREFIX + configuration.namespace(), createDescriptionComment(configuration
+                        .description()));
+                // add root node to the config Map
+                Map<String, Object> configElements = readConfigurationElements(configObject, Boolean.TRUE);
+                finalMap.put(configuration.namespace(), configElements);
+                // write configuration map as a yaml file
+                writeConfigurationFile(finalMap, true, configFile, licenseHeader);
+                // write the default values of the namespace as a yaml file without comments
+                writeConfigurationFile(configElements, false, defaultsFile, licenseHeader);
+                if (fingerprint != null) {
+                    fingerprints.put(configClassName, fingerprint);
+                }
+            } else {
+                logger.error("Error while loading the configuration class : " + configClassName);
             }
+        } catch (ClassNotFoundException e) {
+            logger.error("Error while creating new instance of the class : " + configClassName, e);
+        } catch (InstantiationException | IllegalAccessException e) {
+            logger.error("Error while initializing the configuration class : " + configClassName, e);
         }
     }
 
@@ -160,40 +281,136 @@ public class ConfigDocumentMojo extends AbstractMojo {
     }
 
     /**
-     * write configuration map to configuration file.
+     * write configuration map to configuration file. The YAML is emitted straight to the file in a single pass.
      *
-     * @param finalMap configuration map
-     * @param filename filename with out extension.
+     * @param finalMap      configuration map
+     * @param withComments  whether to write the field descriptions as comments
+     * @param configFile    configuration file
+     * @param licenseHeader license header of the configuration file
      * @throws MojoExecutionException
      */
-    private void writeConfigurationFile(Map<String, Object> finalMap, String filename) throws MojoExecutionException {
-        // create the yaml string from the map
-        Yaml yaml = new Yaml();
-        String content = yaml.dumpAsMap(finalMap);
-        // remove all comments key lines from the content. this was added as key of each field description in the map.
-        content = content.replaceAll(COMMENT_KEY_REGEX_PATTERN, "");
-        content = content.replaceAll(EMPTY_LINE_REGEX_PATTERN, "");
-        File configDir = new File(project.getBuild().getOutputDirectory(), ConfigConstants.CONFIG_DIR);
+    private void writeConfigurationFile(Map<String, Object> finalMap, boolean withComments, File configFile,
+                                        String licenseHeader) throws MojoExecutionException {
+        try (Writer writer = Files.newBufferedWriter(configFile.toPath(), StandardCharsets.UTF_8)) {
+            writer.append(licenseHeader).append(System.lineSeparator());
+            // emit the yaml with the field descriptions as comments
+            documentEmitter.get().emit(finalMap, withComments, writer);
+            writer.append(System.lineSeparator());
+        } catch (IOException e) {
+            throw new MojoExecutionException("Error while creating new resource file from the classpath", e);
+        }
+    }
 
-        // create config directory inside project output directory to save config files
-        if (!configDir.exists() && !configDir.mkdirs()) {
-            throw new MojoExecutionException("Error while creating config directory in classpath");
+    /**
+     * Returns the fingerprint of the configuration bean class, which is the SHA-256 digest of the seed and the class
+     * files of the bean class and the classes of its fields, recursively. Classes of the Java platform are not
+     * included.
+     *
+     * @param configClass configuration bean class
+     * @param seed        seed of the fingerprint
+     * @return fingerprint or null if a class file cannot be read
+     */
+    private String getFingerprint(Class<?> configClass, String seed) {
+        Map<String, Class<?>> classes = new TreeMap<>();
+        collectBeanClasses(configClass, classes);
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance(FINGERPRINT_ALGORITHM);
+            messageDigest.update(seed.getBytes(StandardCharsets.UTF_8));
+            byte[] buffer = new byte[8192];
+            for (Map.Entry<String, Class<?>> entry : classes.entrySet()) {
+                ClassLoader classLoader = entry.getValue().getClassLoader();
+                String classFile = entry.getKey().replace('.', '/') + ".class";
+                try (InputStream inputStream = classLoader != null ? classLoader.getResourceAsStream(classFile) :
+                        null) {
+                    if (inputStream == null) {
+                        return null;
+                    }
+                    messageDigest.update(entry.getKey().getBytes(StandardCharsets.UTF_8));
+                    int read;
+                    while ((read = inputStream.read(buffer)) != -1) {
+                        messageDigest.update(buffer, 0, read);
+                    }
+                }
+            }
+            StringBuilder fingerprint = new StringBuilder();
+            for (byte digestByte : messageDigest.digest()) {
+                fingerprint.append(Character.forDigit((digestByte >> 4) & 0xF, 16))
+                        .append(Character.forDigit(digestByte & 0xF, 16));
+            }
+            return fingerprint.toString();
+        } catch (NoSuchAlgorithmException | IOException e) {
+            logger.warn("Error while creating the fingerprint of the configuration class : " + configClass.getName(),
+                    e);
+            return null;
         }
+    }
 
-        // write the yaml string to the configuration file in config directory
-        try (PrintWriter out = new PrintWriter(new File(configDir.getPath(), filename
-                + YAML_FILE_EXTENTION), UTF_8_CHARSET)) {
-            out.println(getLicenseHeader());
-            out.println(content);
-        } catch (FileNotFoundException | UnsupportedEncodingException e) {
-            throw new MojoExecutionException("Error while creating new resource file from the classpath", e);
+    /**
+     * Collects the given class, its super classes and the classes of its fields, recursively.
+     *
+     * @param type    class to collect
+     * @param classes collected classes by name
+     */
+    private void collectBeanClasses(Type type, Map<String, Class<?>> classes) {
+        if (type instanceof ParameterizedType) {
+            collectBeanClasses(((ParameterizedType) type).getRawType(), classes);
+            for (Type argument : ((ParameterizedType) type).getActualTypeArguments()) {
+                collectBeanClasses(argument, classes);
+            }
+            return;
+        }
+        if (!(type instanceof Class)) {
+            return;
+        }
+        Class<?> typeClass = (Class<?>) type;
+        while (typeClass.isArray()) {
+            typeClass = typeClass.getComponentType();
+        }
+        if (typeClass.isPrimitive() || typeClass.getName().startsWith("java.")
+                || typeClass.getName().startsWith("javax.") || classes.containsKey(typeClass.getName())) {
+            return;
+        }
+        classes.put(typeClass.getName(), typeClass);
+        collectBeanClasses(typeClass.getGenericSuperclass(), classes);
+        for (Field field : typeClass.getDeclaredFields()) {
+            collectBeanClasses(field.getGenericType(), classes);
         }
+    }
 
-        // add configguration document to the project resources under config-docs/ directory.
-        Resource resource = new Resource();
-        resource.setDirectory(configDir.getAbsolutePath());
-        resource.setTargetPath(ConfigConstants.CONFIG_DIR);
-        project.addResource(resource);
+    /**
+     * Reads the fingerprints of the configuration beans written by the previous build.
+     *
+     * @return fingerprints by configuration bean class name
+     */
+    private Properties readFingerprints() {
+        Properties fingerprints = new Properties();
+        File fingerprintFile = new File(project.getBuild().getDirectory(), FINGERPRINT_FILE);
+        if (fingerprintFile.exists()) {
+            try (Reader reader = Files.newBufferedReader(fingerprintFile.toPath(), StandardCharsets.UTF_8)) {
+                fingerprints.load(reader);
+            } catch (IOException e) {
+                logger.warn("Error while reading the configuration document fingerprints, hence creating all " +
+                        "configuration documents", e);
+                return new Properties();
+            }
+        }
+        return fingerprints;
+    }
+
+    /**
+     * Writes the fingerprints of the configuration beans for the up-to-date check of the next build.
+     *
+     * @param fingerprints fingerprints by configuration bean class name
+     */
+    private void writeFingerprints(Map<String, String> fingerprints) {
+        Properties properties = new Properties();
+        properties.putAll(fingerprints);
+        File fingerprintFile = new File(project.getBuild().getDirectory(), FINGERPRINT_FILE);
+        try (Writer writer = Files.newBufferedWriter(fingerprintFile.toPath(), StandardCharsets.UTF_8)) {
+            properties.store(writer, null);
+        } catch (IOException e) {
+            logger.warn("Error while writing the configuration document fingerprints", e);
+        }
     }
 
     /**
@@ -267,12 +484,12 @@ public class ConfigDocumentMojo extends AbstractMojo {
 
             // read the description of the field. if the required flag is set, it appends additional mandatory field
             // comment to the description.
-            String fieldDescription = null;
+            ConfigDocumentEmitter.Comment fieldDescription = null;
             if (enableDescription && field.isAnnotationPresent(Element.class)) {
                 Element element = field.getAnnotation(Element.class);
                 fieldDescription = createDescriptionComment(element.description());
                 if (element.required()) {
-                    fieldDescription = fieldDescription + MANDATORY_FIELD_COMMENT;
+                    fieldDescription = fieldDescription.append(MANDATORY_FIELD_COMMENT);
                 }
             }
 
@@ -290,6 +507,9 @@ public class ConfigDocumentMojo extends AbstractMojo {
                 // check whether the field type is an enum
             } else if (fieldTypeClass != null && fieldTypeClass.isEnum()) {
                 fieldValue = fieldValue.toString();
+                // check whether the field type is converted from text, e.g. a duration
+            } else if (fieldTypeClass != null && ValueConverters.getConverter(fieldTypeClass).isPresent()) {
+                fieldValue = toText(fieldTypeClass, fieldValue);
                 // check whether the field type is an array
             } else if (fieldTypeClass != null && fieldTypeClass.isArray()) {
                 Class compositeType = fieldTypeClass.getComponentType();
@@ -317,6 +537,12 @@ public class ConfigDocumentMojo extends AbstractMojo {
                         i++;
                     }
                     fieldValue = elementArray;
+                } else if (argumentType != null && ValueConverters.getConverter(argumentType).isPresent()) {
+                    List<String> elements = new ArrayList<>();
+                    for (Object element : (Collection<?>) fieldValue) {
+                        elements.add(element != null ? toText(argumentType, element) : null);
+                    }
+                    fieldValue = elements;
                 }
             } else if (fieldValue instanceof Optional) {
                 if (((Optional) fieldValue).isPresent()) {
@@ -340,19 +566,27 @@ public class ConfigDocumentMojo extends AbstractMojo {
         return elementMap;
     }
 
+    /**
+     * Returns the configuration text of the given value of a type which is converted from text.
+     *
+     * @param type  value type
+     * @param value value
+     * @return text of the value
+     */
+    @SuppressWarnings("unchecked")
+    private static String toText(Class<?> type, Object value) {
+        ValueConverter<Object> converter = (ValueConverter<Object>) ValueConverters.getConverter(type).get();
+        return converter.toText(value);
+    }
+
     /**
      * convert the annotated field description to comment.
      *
      * @param description field description
-     * @return comment string
+     * @return comment
      */
-    private String createDescriptionComment(String description) {
-        StringBuilder builder = new StringBuilder();
-        String lines[] = description.split(NEW_LINE_REGEX_PATTERN);
-        for (String line : lines) {
-            builder.append("# ").append(line).append("\n");
-        }
-        return builder.toString();
+    private ConfigDocumentEmitter.Comment createDescriptionComment(String description) {
+        return new ConfigDocumentEmitter.Comment(Arrays.asList(description.split(NEW_LINE_REGEX_PATTERN)));
     }
 
     /**
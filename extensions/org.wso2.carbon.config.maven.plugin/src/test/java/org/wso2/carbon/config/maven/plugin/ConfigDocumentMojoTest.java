@@ -0,0 +1,282 @@
+/*
+ *  Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.config.maven.plugin;
+
+import org.apache.maven.artifact.DefaultArtifact;
+import org.apache.maven.artifact.handler.DefaultArtifactHandler;
+import org.apache.maven.plugin.descriptor.PluginDescriptor;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.classworlds.ClassWorld;
+import org.codehaus.plexus.classworlds.realm.ClassRealm;
+import org.codehaus.plexus.classworlds.realm.DuplicateRealmException;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.config.ConfigConstants;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Tests the parallel creation of the configuration documents and the up-to-date check of the configuration beans.
+ *
+ * @since 2.1.18
+ */
+public class ConfigDocumentMojoTest {
+
+    private static final String[] CONFIG_CLASSES = {DocServerConfiguration.class.getName(),
+            DocCacheConfiguration.class.getName(), DocDatabaseConfiguration.class.getName()};
+    private static final Class<?>[] BEAN_CLASSES = {DocServerConfiguration.class, DocListenerConfiguration.class,
+            DocCacheConfiguration.class, DocDatabaseConfiguration.class};
+    private static final String STALE_CONTENT = "# stale configuration document\n";
+
+    private Path workDirectory;
+
+    @BeforeMethod
+    public void setup() throws IOException {
+        workDirectory = Files.createTempDirectory("config-doc");
+    }
+
+    @AfterMethod
+    public void clean() throws IOException {
+        try (Stream<Path> paths = Files.walk(workDirectory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Test(description = "Tests that the documents created in parallel are identical to the documents created serially")
+    public void parallelOutputTestCase() throws Exception {
+        Path parallelTarget = workDirectory.resolve("parallel");
+        Path serialTarget = workDirectory.resolve("serial");
+        newMojo(parallelTarget, newRealm(), CONFIG_CLASSES.length, false).execute();
+        newMojo(serialTarget, newRealm(), 1, false).execute();
+
+        for (String directory : new String[]{ConfigConstants.CONFIG_DIR, ConfigConstants.CONFIG_DEFAULTS_DIR}) {
+            List<Path> parallelFiles = listFiles(parallelTarget.resolve("classes").resolve(directory));
+            List<Path> serialFiles = listFiles(serialTarget.resolve("classes").resolve(directory));
+            Assert.assertEquals(parallelFiles.size(), CONFIG_CLASSES.length);
+            Assert.assertEquals(getFileNames(parallelFiles), getFileNames(serialFiles));
+            for (int i = 0; i < parallelFiles.size(); i++) {
+                Assert.assertEquals(Files.readAllBytes(parallelFiles.get(i)), Files.readAllBytes(serialFiles.get(i)),
+                        "Document differs between the parallel and the serial run: " + parallelFiles.get(i));
+            }
+        }
+        String serverDocument = readDocument(parallelTarget, ConfigConstants.CONFIG_DIR, "doc.server");
+        Assert.assertTrue(serverDocument.contains("# Server configuration\n# of the documentation tests\n" +
+                "doc.server:\n  # Host name of the server\n  # THIS IS A MANDATORY FIELD\n  host: localhost\n"),
+                serverDocument);
+        Assert.assertTrue(serverDocument.contains("  readTimeout: PT30S\n"), serverDocument);
+        Assert.assertTrue(serverDocument.contains("  listeners:\n  - name: default\n    port: 8080\n" +
+                "  - name: admin\n    port: 8081\n"), serverDocument);
+        String serverDefaults = readDocument(parallelTarget, ConfigConstants.CONFIG_DEFAULTS_DIR, "doc.server");
+        Assert.assertFalse(serverDefaults.contains("# Host name of the server"), serverDefaults);
+        Assert.assertTrue(serverDefaults.contains("\nhost: localhost\n"), serverDefaults);
+    }
+
+    @Test(description = "Tests skipping the documents of configuration beans which are not changed")
+    public void upToDateTestCase() throws Exception {
+        Path target = workDirectory.resolve("target");
+        newMojo(target, newRealm(), 2, false).execute();
+        Assert.assertTrue(Files.exists(target.resolve("config-doc-fingerprints.properties")));
+        Path serverDocument = getDocumentPath(target, ConfigConstants.CONFIG_DIR, "doc.server");
+        Files.write(serverDocument, STALE_CONTENT.getBytes(StandardCharsets.UTF_8));
+
+        newMojo(target, newRealm(), 2, false).execute();
+        Assert.assertEquals(readDocument(target, ConfigConstants.CONFIG_DIR, "doc.server"), STALE_CONTENT,
+                "Document of an unchanged configuration bean should not be created again");
+
+        newMojo(target, newRealm(), 2, true).execute();
+        Assert.assertTrue(readDocument(target, ConfigConstants.CONFIG_DIR, "doc.server").contains("doc.server:"),
+                "Forced run should create all documents");
+
+        Files.delete(getDocumentPath(target, ConfigConstants.CONFIG_DEFAULTS_DIR, "doc.server"));
+        Files.write(serverDocument, STALE_CONTENT.getBytes(StandardCharsets.UTF_8));
+        newMojo(target, newRealm(), 2, false).execute();
+        Assert.assertTrue(readDocument(target, ConfigConstants.CONFIG_DIR, "doc.server").contains("doc.server:"),
+                "Documents should be created again if an output file is missing");
+    }
+
+    @Test(description = "Tests creating the document of a configuration bean again after its class is changed")
+    public void classChangeTestCase() throws Exception {
+        Path target = workDirectory.resolve("target");
+        Path classesDirectory = workDirectory.resolve("bean-classes");
+        for (Class<?> type : BEAN_CLASSES) {
+            copyClassFile(type, classesDirectory);
+        }
+        Path cacheClassFile = classesDirectory.resolve(getClassFile(DocCacheConfiguration.class));
+        newMojo(target, newRealm(classesDirectory), 2, false).execute();
+        Assert.assertTrue(readDocument(target, ConfigConstants.CONFIG_DIR, "doc.cache").contains("policy: lru-v1"));
+        Files.write(getDocumentPath(target, ConfigConstants.CONFIG_DIR, "doc.server"),
+                STALE_CONTENT.getBytes(StandardCharsets.UTF_8));
+
+        // change the default value of the class, which keeps the class file valid as the length is not changed
+        byte[] classBytes = Files.readAllBytes(cacheClassFile);
+        Files.write(cacheClassFile, replace(classBytes, "lru-v1", "lru-v2"));
+        newMojo(target, newRealm(classesDirectory), 2, false).execute();
+
+        String cacheDocument = readDocument(target, ConfigConstants.CONFIG_DIR, "doc.cache");
+        Assert.assertTrue(cacheDocument.contains("policy: lru-v2"), cacheDocument);
+        Assert.assertTrue(readDocument(target, ConfigConstants.CONFIG_DEFAULTS_DIR, "doc.cache")
+                .contains("policy: lru-v2"));
+        Assert.assertEquals(readDocument(target, ConfigConstants.CONFIG_DIR, "doc.server"), STALE_CONTENT,
+                "Document of an unchanged configuration bean should not be created again");
+    }
+
+    /**
+     * Creates a mojo which writes the documents of the test configuration beans under the given target directory.
+     */
+    private static ConfigDocumentMojo newMojo(Path target, ClassRealm realm, int threads, boolean force)
+            throws ReflectiveOperationException {
+        MavenProject project = new MavenProject();
+        project.getBuild().setDirectory(target.toString());
+        project.getBuild().setOutputDirectory(target.resolve("classes").toString());
+        project.setArtifact(new DefaultArtifact("org.wso2.carbon.config", "config-doc-test", "1.0.0", null, "pom",
+                null, new DefaultArtifactHandler("pom")));
+        project.setDependencyArtifacts(Collections.emptySet());
+
+        PluginDescriptor descriptor = new PluginDescriptor();
+        descriptor.setVersion("test");
+        descriptor.setClassRealm(realm);
+        Map<String, Object> pluginContext = new HashMap<>();
+        pluginContext.put("pluginDescriptor", descriptor);
+
+        ConfigDocumentMojo mojo = new ConfigDocumentMojo();
+        Field projectField = ConfigDocumentMojo.class.getDeclaredField("project");
+        projectField.setAccessible(true);
+        projectField.set(mojo, project);
+        mojo.setPluginContext(pluginContext);
+        mojo.configclasses = CONFIG_CLASSES.clone();
+        mojo.threads = threads;
+        mojo.force = force;
+        return mojo;
+    }
+
+    /**
+     * Creates a class realm which loads the test configuration beans from the test classes.
+     */
+    private static ClassRealm newRealm() throws DuplicateRealmException {
+        return new ClassWorld().newRealm("config-doc-test", ConfigDocumentMojoTest.class.getClassLoader());
+    }
+
+    /**
+     * Creates a class realm which loads the test configuration beans from the given directory instead of the test
+     * classes.
+     */
+    private static ClassRealm newRealm(Path classesDirectory) throws DuplicateRealmException, IOException {
+        ClassRealm realm = new ClassWorld().newRealm("config-doc-test", new BeanHidingClassLoader());
+        realm.addURL(classesDirectory.toUri().toURL());
+        return realm;
+    }
+
+    private static String getClassFile(Class<?> type) {
+        return type.getName().replace('.', '/') + ".class";
+    }
+
+    private static void copyClassFile(Class<?> type, Path classesDirectory) throws IOException {
+        String classFile = getClassFile(type);
+        Path copy = classesDirectory.resolve(classFile);
+        Files.createDirectories(copy.getParent());
+        URL resource = type.getClassLoader().getResource(classFile);
+        Assert.assertNotNull(resource);
+        try (InputStream inputStream = resource.openStream()) {
+            Files.copy(inputStream, copy);
+        }
+    }
+
+    private static byte[] replace(byte[] bytes, String target, String replacement) {
+        byte[] targetBytes = target.getBytes(StandardCharsets.UTF_8);
+        byte[] replacementBytes = replacement.getBytes(StandardCharsets.UTF_8);
+        byte[] replaced = bytes.clone();
+        int count = 0;
+        for (int i = 0; i + targetBytes.length <= replaced.length; i++) {
+            int j = 0;
+            while (j < targetBytes.length && replaced[i + j] == targetBytes[j]) {
+                j++;
+            }
+            if (j == targetBytes.length) {
+                System.arraycopy(replacementBytes, 0, replaced, i, replacementBytes.length);
+                count++;
+            }
+        }
+        Assert.assertEquals(count, 1, "Class file should hold the value once");
+        return replaced;
+    }
+
+    private static Path getDocumentPath(Path target, String directory, String namespace) {
+        return target.resolve("classes").resolve(directory).resolve(namespace + ".yaml");
+    }
+
+    private static String readDocument(Path target, String directory, String namespace) throws IOException {
+        return new String(Files.readAllBytes(getDocumentPath(target, directory, namespace)), StandardCharsets.UTF_8)
+                .replace(System.lineSeparator(), "\n");
+    }
+
+    private static List<Path> listFiles(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().collect(Collectors.toList());
+        }
+    }
+
+    private static List<String> getFileNames(List<Path> files) {
+        return files.stream().map(file -> file.getFileName().toString()).collect(Collectors.toList());
+    }
+
+    /**
+     * Class loader of the test classes which does not expose the test configuration beans, so that a class realm
+     * loads them from its own directories.
+     */
+    private static class BeanHidingClassLoader extends ClassLoader {
+
+        BeanHidingClassLoader() {
+            super(ConfigDocumentMojoTest.class.getClassLoader());
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            for (Class<?> type : BEAN_CLASSES) {
+                if (type.getName().equals(name)) {
+                    throw new ClassNotFoundException(name);
+                }
+            }
+            return super.loadClass(name, resolve);
+        }
+
+        @Override
+        public URL getResource(String name) {
+            for (Class<?> type : BEAN_CLASSES) {
+                if (getClassFile(type).equals(name)) {
+                    return null;
+                }
+            }
+            return super.getResource(name);
+        }
+    }
+}
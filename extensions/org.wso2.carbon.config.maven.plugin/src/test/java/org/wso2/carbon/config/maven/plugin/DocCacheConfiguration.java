@@ -0,0 +1,34 @@
+/*
+ *  Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.config.maven.plugin;
+
+import org.wso2.carbon.config.annotation.Configuration;
+import org.wso2.carbon.config.annotation.Element;
+
+/**
+ * Sample configuration bean for testing purposes, whose class file is changed by the tests.
+ *
+ * @since 2.1.18
+ */
+@Configuration(namespace = "doc.cache", description = "Cache configuration")
+public class DocCacheConfiguration {
+
+    @Element(description = "Eviction policy of the cache")
+    private String policy = "lru-v1";
+
+    @Element(description = "Maximum number of entries")
+    private long maxEntries = 10000L;
+}
@@ -0,0 +1,40 @@
+/*
+ *  Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.config.maven.plugin;
+
+import org.wso2.carbon.config.annotation.Configuration;
+import org.wso2.carbon.config.annotation.Element;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Sample configuration bean for testing purposes.
+ *
+ * @since 2.1.18
+ */
+@Configuration(namespace = "doc.database", description = "Database configuration")
+public class DocDatabaseConfiguration {
+
+    @Element(description = "JDBC URL of the database", required = true)
+    private String url = "jdbc:h2:./database/CARBON_DB";
+
+    @Element(description = "Size of the connection pool")
+    private int poolSize = 50;
+
+    @Element(description = "Properties of the connections")
+    private List<String> properties = Arrays.asList("autoCommit=true", "readOnly=false");
+}
@@ -0,0 +1,42 @@
+/*
+ *  Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.config.maven.plugin;
+
+import org.wso2.carbon.config.annotation.Configuration;
+import org.wso2.carbon.config.annotation.Element;
+
+/**
+ * Sample nested configuration bean for testing purposes.
+ *
+ * @since 2.1.18
+ */
+@Configuration(description = "Listener configuration")
+public class DocListenerConfiguration {
+
+    @Element(description = "Name of the listener")
+    private String name = "default";
+
+    @Element(description = "Port of the listener")
+    private int port = 8080;
+
+    public DocListenerConfiguration() {
+    }
+
+    DocListenerConfiguration(String name, int port) {
+        this.name = name;
+        this.port = port;
+    }
+}
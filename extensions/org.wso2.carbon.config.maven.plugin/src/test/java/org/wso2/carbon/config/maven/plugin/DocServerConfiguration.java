@@ -0,0 +1,45 @@
+/*
+ *  Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.config.maven.plugin;
+
+import org.wso2.carbon.config.annotation.Configuration;
+import org.wso2.carbon.config.annotation.Element;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Sample configuration bean with nested beans for testing purposes.
+ *
+ * @since 2.1.18
+ */
+@Configuration(namespace = "doc.server", description = "Server configuration\nof the documentation tests")
+public class DocServerConfiguration {
+
+    @Element(description = "Host name of the server", required = true)
+    private String host = "localhost";
+
+    @Element(description = "Port of the server")
+    private int port = 9443;
+
+    @Element(description = "Read timeout of the connections")
+    private Duration readTimeout = Duration.ofSeconds(30);
+
+    @Element(description = "Listeners of the server")
+    private List<DocListenerConfiguration> listeners = Arrays.asList(new DocListenerConfiguration("default", 8080),
+            new DocListenerConfiguration("admin", 8081));
+}